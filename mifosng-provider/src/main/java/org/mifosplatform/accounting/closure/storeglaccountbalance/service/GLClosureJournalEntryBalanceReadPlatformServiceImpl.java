@@ -25,7 +25,6 @@ import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
-import org.joda.time.LocalDateTime;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 import org.mifosplatform.accounting.closure.data.GLClosureData;
@@ -86,45 +85,28 @@ public class GLClosureJournalEntryBalanceReadPlatformServiceImpl implements GLCl
     public static final class GLClosureJournalEntryDataMapper implements RowMapper<GLClosureJournalEntryData> {
         
         /**
-         * SQL statement for retrieving the journal entries
+         * SQL statement for retrieving the balance (debits minus credits) of
+         * every GL account of an office up to a date, from the daily GL balances
          * @return SQL statement string
          */
         public String sql() {
-            return "je.id, je.account_id, je.office_id, je.entry_date, je.created_date, je.amount, je.description, "
-                    + "IF(ac.classification_enum IN (1,5), je.organization_running_balance, -1 * je.organization_running_balance) as organization_running_balance, "
-                    + "IF(ac.classification_enum IN (1,5), je.office_running_balance, -1 * je.office_running_balance) as office_running_balance "
-                    + "from acc_gl_account as ac "
-                    + "inner join ( select * from (select * from acc_gl_journal_entry "
-                    + "where office_id = ? and entry_date <= ? "
-                    + "and is_running_balance_calculated = 1 "
-                    + "order by entry_date desc, created_date desc, id desc ) t group by t.account_id ) "
-                    + "as je on je.account_id = ac.id "
-                    + "group by je.account_id, je.office_id "
-                    + "order by entry_date, created_date ";
+            return "db.account_id, db.office_id, "
+                    + "sum(db.debit_amount) - sum(db.credit_amount) as office_running_balance "
+                    + "from acc_gl_daily_balance db "
+                    + "where db.office_id = ? and db.entry_date <= ? "
+                    + "group by db.account_id, db.office_id "
+                    + "order by db.account_id ";
         }
 
         @Override
         public GLClosureJournalEntryData mapRow(ResultSet rs, int rowNum) throws SQLException {
-            final Long id = rs.getLong("id");
             final Long accountId = rs.getLong("account_id");
             final Long officeId = rs.getLong("office_id");
-            final LocalDate entryDate = JdbcSupport.getLocalDate(rs, "entry_date");
-            final DateTime createdDateTime = JdbcSupport.getDateTime(rs, "created_date");
-            final BigDecimal amount = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "amount");
-            final BigDecimal organisationRunningBalance = 
-                    JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "organization_running_balance");
             final BigDecimal officeRunningBalance = 
                     JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "office_running_balance");
-            final String description = rs.getString("description");
-            
-            LocalDateTime createdDate = null;
-            
-            if (createdDateTime != null) {
-                createdDate = new LocalDateTime(createdDateTime);
-            }
             
-            return GLClosureJournalEntryData.instance(id, accountId, officeId, entryDate, 
-                    createdDate, amount, organisationRunningBalance, officeRunningBalance, description);
+            return GLClosureJournalEntryData.instance(null, accountId, officeId, null, 
+                    null, BigDecimal.ZERO, null, officeRunningBalance, null);
         }
     }
 
@@ -21,6 +21,8 @@ import javax.persistence.UniqueConstraint;
 
 import org.apache.commons.lang.BooleanUtils;
 import org.apache.commons.lang.StringUtils;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.mifosplatform.accounting.glaccount.api.GLAccountJsonInputParams;
 import org.mifosplatform.infrastructure.codes.domain.CodeValue;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
@@ -28,6 +30,7 @@ import org.springframework.data.jpa.domain.AbstractPersistable;
 
 @Entity
 @Table(name = "acc_gl_account", uniqueConstraints = { @UniqueConstraint(columnNames = { "gl_code" }, name = "acc_gl_code") })
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class GLAccount extends AbstractPersistable<Long> {
 
     @ManyToOne(fetch = FetchType.LAZY)
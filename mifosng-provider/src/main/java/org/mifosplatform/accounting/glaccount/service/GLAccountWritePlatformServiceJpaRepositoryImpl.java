@@ -27,6 +27,7 @@ import org.mifosplatform.accounting.journalentry.domain.JournalEntry;
 import org.mifosplatform.accounting.journalentry.domain.JournalEntryRepository;
 import org.mifosplatform.accounting.producttoaccountmapping.domain.ProductToGLAccountMapping;
 import org.mifosplatform.accounting.producttoaccountmapping.domain.ProductToGLAccountMappingRepository;
+import org.mifosplatform.infrastructure.cache.service.SecondLevelCacheService;
 import org.mifosplatform.infrastructure.codes.domain.CodeValue;
 import org.mifosplatform.infrastructure.codes.domain.CodeValueRepositoryWrapper;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
@@ -50,16 +51,19 @@ public class GLAccountWritePlatformServiceJpaRepositoryImpl implements GLAccount
     private final GLAccountCommandFromApiJsonDeserializer fromApiJsonDeserializer;
     private final CodeValueRepositoryWrapper codeValueRepositoryWrapper;
     private final ProductToGLAccountMappingRepository productToGLAccountMappingRepository;
+    private final SecondLevelCacheService secondLevelCacheService;
 
     @Autowired
     public GLAccountWritePlatformServiceJpaRepositoryImpl(final GLAccountRepository glAccountRepository,
             final JournalEntryRepository glJournalEntryRepository, final GLAccountCommandFromApiJsonDeserializer fromApiJsonDeserializer,
-            final CodeValueRepositoryWrapper codeValueRepositoryWrapper, final ProductToGLAccountMappingRepository productToGLAccountMappingRepository) {
+            final CodeValueRepositoryWrapper codeValueRepositoryWrapper, final ProductToGLAccountMappingRepository productToGLAccountMappingRepository,
+            final SecondLevelCacheService secondLevelCacheService) {
         this.glAccountRepository = glAccountRepository;
         this.glJournalEntryRepository = glJournalEntryRepository;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.codeValueRepositoryWrapper = codeValueRepositoryWrapper;
         this.productToGLAccountMappingRepository = productToGLAccountMappingRepository;
+        this.secondLevelCacheService = secondLevelCacheService;
     }
 
     @Transactional
@@ -103,6 +107,8 @@ public class GLAccountWritePlatformServiceJpaRepositoryImpl implements GLAccount
     @Transactional
     @Override
     public CommandProcessingResult updateGLAccount(final Long glAccountId, final JsonCommand command) {
+        this.secondLevelCacheService.evictAfterCommit(GLAccount.class);
+
         try {
             final GLAccountCommand accountCommand = this.fromApiJsonDeserializer.commandFromApiJson(command.json());
             accountCommand.validateForUpdate();
@@ -159,6 +165,8 @@ public class GLAccountWritePlatformServiceJpaRepositoryImpl implements GLAccount
     @Transactional
     @Override
     public CommandProcessingResult deleteGLAccount(final Long glAccountId) {
+        this.secondLevelCacheService.evictAfterCommit(GLAccount.class);
+
         final GLAccount glAccount = this.glAccountRepository.findOne(glAccountId);
 
         if (glAccount == null) { throw new GLAccountNotFoundException(glAccountId); }
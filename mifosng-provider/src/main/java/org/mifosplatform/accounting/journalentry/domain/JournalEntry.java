@@ -19,7 +19,7 @@ import javax.persistence.TemporalType;
 
 import org.apache.commons.lang.StringUtils;
 import org.mifosplatform.accounting.glaccount.domain.GLAccount;
-import org.mifosplatform.infrastructure.core.domain.AbstractAuditableCustom;
+import org.mifosplatform.infrastructure.core.domain.AbstractPooledIdAuditableCustom;
 import org.mifosplatform.organisation.office.domain.Office;
 import org.mifosplatform.portfolio.client.domain.ClientTransaction;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanTransaction;
@@ -29,7 +29,7 @@ import org.mifosplatform.useradministration.domain.AppUser;
 
 @Entity
 @Table(name = "acc_gl_journal_entry")
-public class JournalEntry extends AbstractAuditableCustom<AppUser, Long> {
+public class JournalEntry extends AbstractPooledIdAuditableCustom<AppUser> {
 
     @ManyToOne
     @JoinColumn(name = "office_id", nullable = false)
@@ -173,6 +173,14 @@ public class JournalEntry extends AbstractAuditableCustom<AppUser, Long> {
         return this.referenceNumber;
     }
 
+    public String getDescription() {
+        return this.description;
+    }
+
+    public boolean isManualEntry() {
+        return this.manualEntry;
+    }
+
     public String getCurrencyCode() {
         return this.currencyCode;
     }
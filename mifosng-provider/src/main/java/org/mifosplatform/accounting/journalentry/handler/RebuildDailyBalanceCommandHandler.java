@@ -0,0 +1,32 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.journalentry.handler;
+
+import org.mifosplatform.accounting.journalentry.service.JournalEntryDailyBalanceService;
+import org.mifosplatform.commands.annotation.CommandType;
+import org.mifosplatform.commands.handler.NewCommandSourceHandler;
+import org.mifosplatform.infrastructure.core.api.JsonCommand;
+import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+@CommandType(entity = "JOURNALENTRY", action = "REBUILDDAILYBALANCE")
+public class RebuildDailyBalanceCommandHandler implements NewCommandSourceHandler {
+
+    private final JournalEntryDailyBalanceService journalEntryDailyBalanceService;
+
+    @Autowired
+    public RebuildDailyBalanceCommandHandler(final JournalEntryDailyBalanceService journalEntryDailyBalanceService) {
+        this.journalEntryDailyBalanceService = journalEntryDailyBalanceService;
+    }
+
+    @Override
+    public CommandProcessingResult processCommand(final JsonCommand command) {
+        return this.journalEntryDailyBalanceService.rebuildDailyBalances(command);
+    }
+
+}
@@ -0,0 +1,30 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.journalentry.service;
+
+import java.util.Collection;
+
+import org.mifosplatform.accounting.journalentry.domain.JournalEntry;
+import org.mifosplatform.infrastructure.core.api.JsonCommand;
+import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
+
+/**
+ * Maintains <code>acc_gl_daily_balance</code>, the debit and credit totals of
+ * the journal entries per office, GL account, currency and day.
+ */
+public interface JournalEntryDailyBalanceService {
+
+    /**
+     * Adds newly posted journal entries to the daily totals, in the
+     * transaction that posts them.
+     */
+    void addJournalEntries(Collection<JournalEntry> journalEntries);
+
+    /**
+     * Recalculates all daily totals from <code>acc_gl_journal_entry</code>.
+     */
+    CommandProcessingResult rebuildDailyBalances(JsonCommand command);
+}
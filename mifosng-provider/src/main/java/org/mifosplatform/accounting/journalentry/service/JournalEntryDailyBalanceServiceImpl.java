@@ -0,0 +1,111 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.journalentry.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.joda.time.LocalDate;
+import org.mifosplatform.accounting.journalentry.domain.JournalEntry;
+import org.mifosplatform.infrastructure.core.api.JsonCommand;
+import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
+import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class JournalEntryDailyBalanceServiceImpl implements JournalEntryDailyBalanceService {
+
+    private final static Logger logger = LoggerFactory.getLogger(JournalEntryDailyBalanceServiceImpl.class);
+
+    private static final String UPSERT_SQL = "insert into acc_gl_daily_balance (office_id, account_id, currency_code, entry_date, "
+            + "debit_amount, credit_amount) values (?, ?, ?, ?, ?, ?) on duplicate key update "
+            + "debit_amount = debit_amount + values(debit_amount), credit_amount = credit_amount + values(credit_amount)";
+
+    private static final String REBUILD_SQL = "insert into acc_gl_daily_balance (office_id, account_id, currency_code, entry_date, "
+            + "debit_amount, credit_amount) select je.office_id, je.account_id, je.currency_code, je.entry_date, "
+            + "sum(if(je.type_enum = 2, je.amount, 0)), sum(if(je.type_enum = 1, je.amount, 0)) from acc_gl_journal_entry je "
+            + "group by je.office_id, je.account_id, je.currency_code, je.entry_date";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public JournalEntryDailyBalanceServiceImpl(final RoutingDataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void addJournalEntries(final Collection<JournalEntry> journalEntries) {
+        if (journalEntries.isEmpty()) { return; }
+
+        // sorted so that concurrent postings lock the rows in the same order
+        final Map<String, DailyTotal> totals = new TreeMap<>();
+        for (final JournalEntry journalEntry : journalEntries) {
+            final Long officeId = journalEntry.getOffice().getId();
+            final Long accountId = journalEntry.getGlAccount().getId();
+            final LocalDate entryDate = LocalDate.fromDateFields(journalEntry.getTransactionDate());
+            final String key = officeId + ":" + accountId + ":" + journalEntry.getCurrencyCode() + ":" + entryDate;
+            DailyTotal total = totals.get(key);
+            if (total == null) {
+                total = new DailyTotal(officeId, accountId, journalEntry.getCurrencyCode(), entryDate);
+                totals.put(key, total);
+            }
+            total.add(journalEntry);
+        }
+
+        final List<Object[]> batchArgs = new ArrayList<>(totals.size());
+        for (final DailyTotal total : totals.values()) {
+            batchArgs.add(new Object[] { total.officeId, total.accountId, total.currencyCode, total.entryDate.toDate(), total.debitAmount,
+                    total.creditAmount });
+        }
+        this.jdbcTemplate.batchUpdate(UPSERT_SQL, batchArgs);
+    }
+
+    @Transactional
+    @Override
+    public CommandProcessingResult rebuildDailyBalances(final JsonCommand command) {
+        final long start = System.currentTimeMillis();
+        this.jdbcTemplate.update("delete from acc_gl_daily_balance");
+        final int rows = this.jdbcTemplate.update(REBUILD_SQL);
+        logger.info("Rebuilt " + rows + " GL daily balances in " + (System.currentTimeMillis() - start) + " ms");
+
+        return new CommandProcessingResultBuilder().withCommandId(command.commandId()).build();
+    }
+
+    private static final class DailyTotal {
+
+        private final Long officeId;
+        private final Long accountId;
+        private final String currencyCode;
+        private final LocalDate entryDate;
+        private BigDecimal debitAmount = BigDecimal.ZERO;
+        private BigDecimal creditAmount = BigDecimal.ZERO;
+
+        DailyTotal(final Long officeId, final Long accountId, final String currencyCode, final LocalDate entryDate) {
+            this.officeId = officeId;
+            this.accountId = accountId;
+            this.currencyCode = currencyCode;
+            this.entryDate = entryDate;
+        }
+
+        void add(final JournalEntry journalEntry) {
+            if (journalEntry.isDebitEntry()) {
+                this.debitAmount = this.debitAmount.add(journalEntry.getAmount());
+            } else {
+                this.creditAmount = this.creditAmount.add(journalEntry.getAmount());
+            }
+        }
+    }
+}
@@ -6,22 +6,19 @@
 package org.mifosplatform.accounting.journalentry.service;
 
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
 
-import org.joda.time.LocalDate;
-import org.mifosplatform.accounting.common.AccountingEnumerations;
 import org.mifosplatform.accounting.glaccount.domain.GLAccountType;
 import org.mifosplatform.accounting.journalentry.api.JournalEntryJsonInputParams;
-import org.mifosplatform.accounting.journalentry.data.JournalEntryData;
 import org.mifosplatform.accounting.journalentry.data.JournalEntryDataValidator;
 import org.mifosplatform.accounting.journalentry.domain.JournalEntryType;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
-import org.mifosplatform.infrastructure.core.data.EnumOptionData;
-import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
 import org.mifosplatform.infrastructure.core.serialization.FromJsonHelper;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
@@ -33,8 +30,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -43,6 +40,8 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
 
     private final static Logger logger = LoggerFactory.getLogger(JournalEntryRunningBalanceUpdateServiceImpl.class);
 
+    private final RoutingDataSource dataSource;
+
     private final JdbcTemplate jdbcTemplate;
 
     private final OfficeRepository officeRepository;
@@ -51,7 +50,7 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
 
     private final FromJsonHelper fromApiJsonHelper;
 
-    private final GLJournalEntryMapper entryMapper = new GLJournalEntryMapper();
+    private final GLJournalEntryStreamer entryStreamer = new GLJournalEntryStreamer();
 
     private final String officeRunningBalanceSql = "select je.office_running_balance as runningBalance,je.account_id as accountId from acc_gl_journal_entry je "
             + "inner join (select max(id) as id from acc_gl_journal_entry where office_id=?  and entry_date < ? group by account_id,entry_date) je2 "
@@ -71,11 +70,12 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
             + "inner join (select max(entry_date) as date from acc_gl_journal_entry where entry_date < ? group by office_id,account_id) je3 "
             + "where je2.id = je.id and je.entry_date = je3.date group by je.id order by je.entry_date DESC, je.id DESC " ;
 
-    private final int limit = 500000;
+    private static final int UPDATE_BATCH_SIZE = 1000;
 
     @Autowired
     public JournalEntryRunningBalanceUpdateServiceImpl(final RoutingDataSource dataSource, final OfficeRepository officeRepository,
             final JournalEntryDataValidator dataValidator, final FromJsonHelper fromApiJsonHelper) {
+        this.dataSource = dataSource;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
         this.officeRepository = officeRepository;
         this.dataValidator = dataValidator;
@@ -151,9 +151,9 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
     }
 
     private void updateOrganizationRunningBalance(Date entityDate) {
-        Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
+        final Map<Long, BigDecimal> runningBalanceMap = new HashMap<>();
         Map<Long, Object> runningBalanceObject = new HashMap<>(5);
-        Map<Long, Map<Long, BigDecimal>> officesRunningBalance = new HashMap<>();
+        final Map<Long, Map<Long, BigDecimal>> officesRunningBalance = new HashMap<>();
 
         List<Map<String, Object>> officesRunningBalanceList = jdbcTemplate.queryForList(officesRunningBalanceSql, entityDate, entityDate);
         for (Map<String, Object> entries : officesRunningBalanceList) {
@@ -196,69 +196,28 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
             }
         }
 
-        int startFrom = 0;
-        int maxIterations = 10;
-
-        // Get the first set of data:
-        List<JournalEntryData> entryDatas = jdbcTemplate.query( entryMapper.organizationRunningBalanceSchema(), entryMapper,
-                new Object[] { entityDate, limit, startFrom });
-
-        while (startFrom < (maxIterations * limit)) {
-
-            if (entryDatas.size() > 0) {
-                // run a batch update of many SQL statements at a time
-                final Integer batchUpdateSize = 1000;
-                final Integer batchUpdateSizeMinusOne = batchUpdateSize - 1;
-                String[] updateSql = new String[batchUpdateSize];
-                int i = 0;
-                for (JournalEntryData entryData : entryDatas) {
-                    Map<Long, BigDecimal> officeRunningBalanceMap = null;
-                    if (officesRunningBalance.containsKey(entryData.getOfficeId())) {
-                        officeRunningBalanceMap = officesRunningBalance.get(entryData.getOfficeId());
-                    } else {
-                        officeRunningBalanceMap = new HashMap<>();
-                        officesRunningBalance.put(entryData.getOfficeId(), officeRunningBalanceMap);
-                    }
-                    BigDecimal officeRunningBalance = calculateRunningBalance(entryData, officeRunningBalanceMap);
-                    BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-                    String sql = "UPDATE acc_gl_journal_entry je SET je.is_running_balance_calculated=1, je.organization_running_balance="
-                            + runningBalance + ",je.office_running_balance=" + officeRunningBalance + " WHERE  je.id=" + entryData.getId();
-                    updateSql[i++] = sql;
-
-                    if (i == batchUpdateSizeMinusOne) {
-                        // run a batch update of the update SQL statements
-                        this.jdbcTemplate.batchUpdate(updateSql);
-
-                        // reset counter and string array
-                        i = 0;
-                        updateSql = new String[batchUpdateSize];
+        final String updateSql = "UPDATE acc_gl_journal_entry SET is_running_balance_calculated=1, organization_running_balance=?, "
+                + "office_running_balance=? WHERE id=?";
+        streamRunningBalanceUpdates("organization", this.entryStreamer.organizationRunningBalanceSchema(), new Object[] { entityDate },
+                updateSql, new RunningBalanceCalculator() {
+
+                    @Override
+                    public Object[] updateParameters(final long entryId, final Long officeId, final Long accountId,
+                            final BigDecimal movement) {
+                        Map<Long, BigDecimal> officeRunningBalanceMap = officesRunningBalance.get(officeId);
+                        if (officeRunningBalanceMap == null) {
+                            officeRunningBalanceMap = new HashMap<>();
+                            officesRunningBalance.put(officeId, officeRunningBalanceMap);
+                        }
+                        final BigDecimal officeRunningBalance = calculateRunningBalance(accountId, movement, officeRunningBalanceMap);
+                        final BigDecimal runningBalance = calculateRunningBalance(accountId, movement, runningBalanceMap);
+                        return new Object[] { runningBalance, officeRunningBalance, entryId };
                     }
-                }
-
-                this.jdbcTemplate.batchUpdate(updateSql);
-
-            }
-
-            // Update startFrom & Fetch next set of data::
-            startFrom = startFrom + limit;
-            entryDatas = jdbcTemplate.query(entryMapper.organizationRunningBalanceSchema(), entryMapper,
-                    new Object[]{entityDate, limit, startFrom});
-
-            if(entryDatas.size() == 0 )
-            {
-                logger.debug("Got an empty set of results, moving on.");
-
-                break;
-            }
-        }
-
-
-
+                });
     }
 
-
     private void updateRunningBalance(Long officeId, Date entityDate) {
-        Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
+        final Map<Long, BigDecimal> runningBalanceMap = new HashMap<>();
 
         List<Map<String, Object>> list = jdbcTemplate.queryForList(officeRunningBalanceSql, officeId, entityDate, officeId, entityDate);
         for (Map<String, Object> entries : list) {
@@ -268,91 +227,87 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
             }
         }
 
-        int startFrom = 0;
-        int maxIterations = 500 * limit;
-
-        // Get the first set of data:
-        List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.officeRunningBalanceSchema(), entryMapper, new Object[] {
-                officeId, entityDate, limit, startFrom });
-
-        while (startFrom <= (maxIterations * limit))
-        {
-            if (entryDatas.size() > 0) {
-                String[] updateSql = new String[entryDatas.size()];
-                int i = 0;
-                for (JournalEntryData entryData : entryDatas) {
-                    BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-                    String sql = "UPDATE acc_gl_journal_entry je SET je.office_running_balance=" + runningBalance + " WHERE  je.id="
-                            + entryData.getId();
-                    updateSql[i++] = sql;
-                }
-
-                this.jdbcTemplate.batchUpdate(updateSql);
+        final String updateSql = "UPDATE acc_gl_journal_entry SET office_running_balance=? WHERE id=?";
+        streamRunningBalanceUpdates("office " + officeId, this.entryStreamer.officeRunningBalanceSchema(), new Object[] { officeId,
+                entityDate }, updateSql, new RunningBalanceCalculator() {
 
+            @Override
+            public Object[] updateParameters(final long entryId, @SuppressWarnings("unused") final Long entryOfficeId,
+                    final Long accountId, final BigDecimal movement) {
+                return new Object[] { calculateRunningBalance(accountId, movement, runningBalanceMap), entryId };
             }
-            else
-            {
-                break;
+        });
+    }
+
+    /**
+     * Streams the journal entries selected by <code>sql</code> in (entry_date,
+     * id) order through a forward-only cursor and writes the running balances
+     * back with parameterised batch updates, so the whole backlog is processed
+     * in one pass without holding it in memory.
+     * 
+     * The entries are read on a connection of their own, as the MySQL driver
+     * allows no other statement on a connection while it streams a result
+     * set.
+     */
+    private void streamRunningBalanceUpdates(final String scope, final String sql, final Object[] params, final String updateSql,
+            final RunningBalanceCalculator calculator) {
+        final long startTime = System.currentTimeMillis();
+        int updatedCount = 0;
+
+        try (final Connection connection = this.dataSource.getConnection();
+                final PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY)) {
+            // makes the MySQL driver stream rows instead of reading the whole
+            // result set into memory
+            statement.setFetchSize(Integer.MIN_VALUE);
+            new ArgumentPreparedStatementSetter(params).setValues(statement);
+
+            final List<Object[]> batchArgs = new ArrayList<>(UPDATE_BATCH_SIZE);
+            try (final ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    final BigDecimal movement = calculateMovement(rs.getInt("classification"), rs.getInt("entryType"),
+                            rs.getBigDecimal("amount"));
+                    batchArgs.add(calculator.updateParameters(rs.getLong("id"), rs.getLong("officeId"), rs.getLong("glAccountId"),
+                            movement));
+
+                    if (batchArgs.size() == UPDATE_BATCH_SIZE) {
+                        this.jdbcTemplate.batchUpdate(updateSql, batchArgs);
+                        updatedCount += batchArgs.size();
+                        batchArgs.clear();
+                    }
+                }
             }
 
-            // Update startFrom & Fetch next set of data::
-            startFrom = startFrom + limit;
-            entryDatas = jdbcTemplate.query(entryMapper.officeRunningBalanceSchema(), entryMapper, new Object[] {
-                    officeId, entityDate, limit, startFrom });
+            if (!batchArgs.isEmpty()) {
+                this.jdbcTemplate.batchUpdate(updateSql, batchArgs);
+                updatedCount += batchArgs.size();
+            }
+        } catch (final SQLException e) {
+            throw this.jdbcTemplate.getExceptionTranslator().translate("Updating " + scope + " running balances", sql, e);
         }
 
-
+        final long elapsedMillis = Math.max(System.currentTimeMillis() - startTime, 1L);
+        logger.info("Updated " + scope + " running balances of " + updatedCount + " journal entries in " + elapsedMillis + " ms ("
+                + (updatedCount * 1000L / elapsedMillis) + " rows/second)");
     }
 
-    private BigDecimal calculateRunningBalance(JournalEntryData entry, Map<Long, BigDecimal> runningBalanceMap) {
-        BigDecimal runningBalance = BigDecimal.ZERO;
-        if (runningBalanceMap.containsKey(entry.getGlAccountId())) {
-            runningBalance = runningBalanceMap.get(entry.getGlAccountId());
-        }
-        GLAccountType accounttype = GLAccountType.fromInt(entry.getGlAccountType().getId().intValue());
-        JournalEntryType entryType = JournalEntryType.fromInt(entry.getEntryType().getId().intValue());
-        boolean isIncrease = false;
-        switch (accounttype) {
-            case ASSET:
-                if (entryType.isDebitType()) {
-                    isIncrease = true;
-                }
-            break;
-            case EQUITY:
-                if (entryType.isCreditType()) {
-                    isIncrease = true;
-                }
-            break;
-            case EXPENSE:
-                if (entryType.isDebitType()) {
-                    isIncrease = true;
-                }
-            break;
-            case INCOME:
-                if (entryType.isCreditType()) {
-                    isIncrease = true;
-                }
-            break;
-            case LIABILITY:
-                if (entryType.isCreditType()) {
-                    isIncrease = true;
-                }
-            break;
-        }
-        if (isIncrease) {
-            runningBalance = runningBalance.add(entry.getAmount());
+    private BigDecimal calculateRunningBalance(final Long accountId, final BigDecimal movement,
+            final Map<Long, BigDecimal> runningBalanceMap) {
+        BigDecimal runningBalance = runningBalanceMap.get(accountId);
+        if (runningBalance == null) {
+            runningBalance = movement;
         } else {
-            runningBalance = runningBalance.subtract(entry.getAmount());
+            runningBalance = runningBalance.add(movement);
         }
-        runningBalanceMap.put(entry.getGlAccountId(), runningBalance);
+        runningBalanceMap.put(accountId, runningBalance);
         return runningBalance;
     }
 
-    private BigDecimal calculateMovement(JournalEntryData entry) {
+    private static BigDecimal calculateMovement(final int classification, final int entryTypeId, final BigDecimal entryAmount) {
         BigDecimal amount = BigDecimal.ZERO;
 
-        GLAccountType accounttype = GLAccountType.fromInt(entry.getGlAccountType().getId().intValue());
-        JournalEntryType entryType = JournalEntryType.fromInt(entry.getEntryType().getId().intValue());
+        GLAccountType accounttype = GLAccountType.fromInt(classification);
+        JournalEntryType entryType = JournalEntryType.fromInt(entryTypeId);
         boolean isIncrease = false;
         switch (accounttype) {
             case ASSET:
@@ -382,45 +337,36 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
                 break;
         }
         if (isIncrease) {
-            amount = amount.add(entry.getAmount());
+            amount = amount.add(entryAmount);
         } else {
-            amount = amount.subtract(entry.getAmount());
+            amount = amount.subtract(entryAmount);
         }
         return amount;
     }
 
-    private static final class GLJournalEntryMapper implements RowMapper<JournalEntryData> {
+    /**
+     * Calculates the running balances of a streamed journal entry and returns
+     * the parameters of its update statement.
+     */
+    private static interface RunningBalanceCalculator {
+
+        Object[] updateParameters(long entryId, Long officeId, Long accountId, BigDecimal movement);
+    }
+
+    private static final class GLJournalEntryStreamer {
 
         public String officeRunningBalanceSchema() {
             return "select je.id as id,je.account_id as glAccountId,je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId, je.entry_date as entryDate, je.is_running_balance_calculated as isCalculated  "
+                    + "glAccount.classification_enum as classification,je.office_id as officeId "
                     + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
-                    + "and je.office_id=? and je.entry_date >= ?  order by je.entry_date,je.id LIMIT ? OFFSET ?";
+                    + "and je.office_id=? and je.entry_date >= ?  order by je.entry_date,je.id";
         }
 
         public String organizationRunningBalanceSchema() {
             return "select je.id as id,je.account_id as glAccountId," + "je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId, je.entry_date as entryDate, je.is_running_balance_calculated as isCalculated   "
+                    + "glAccount.classification_enum as classification,je.office_id as officeId "
                     + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
-                    + "and je.entry_date >= ? order by je.entry_date,je.id LIMIT ? OFFSET ?";
-        }
-
-        @Override
-        public JournalEntryData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
-
-            final Long id = rs.getLong("id");
-            final Long glAccountId = rs.getLong("glAccountId");
-            final Long officeId = rs.getLong("officeId");
-            final int accountTypeId = JdbcSupport.getInteger(rs, "classification");
-            final EnumOptionData accountType = AccountingEnumerations.gLAccountType(accountTypeId);
-            final BigDecimal amount = rs.getBigDecimal("amount");
-            final int entryTypeId = JdbcSupport.getInteger(rs, "entryType");
-            final EnumOptionData entryType = AccountingEnumerations.journalEntryType(entryTypeId);
-            final LocalDate entryDate = JdbcSupport.getLocalDate(rs, "entryDate");
-            final Boolean isCalculated = rs.getBoolean("isCalculated");
-
-            return new JournalEntryData(id, officeId, null, null, glAccountId, null, accountType, entryDate, entryType, amount, null, null,
-                    null, null, null, null, null, null, null, null, null, null, isCalculated, null, null,null);
+                    + "and je.entry_date >= ? order by je.entry_date,je.id";
         }
     }
 
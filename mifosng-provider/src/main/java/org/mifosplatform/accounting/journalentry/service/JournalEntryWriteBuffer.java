@@ -0,0 +1,191 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.journalentry.service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.mifosplatform.accounting.journalentry.domain.JournalEntry;
+import org.mifosplatform.accounting.journalentry.domain.JournalEntryRepository;
+import org.mifosplatform.accounting.journalentry.exception.JournalEntryInvalidException;
+import org.mifosplatform.accounting.journalentry.exception.JournalEntryInvalidException.GL_JOURNAL_ENTRY_INVALID_REASON;
+import org.mifosplatform.infrastructure.core.service.PooledIdAllocator;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanTransaction;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanTransactionRepository;
+import org.mifosplatform.portfolio.savings.domain.SavingsAccountTransaction;
+import org.mifosplatform.portfolio.savings.domain.SavingsAccountTransactionRepository;
+import org.mifosplatform.useradministration.domain.AppUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.Persistable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Collects the journal entries posted through {@link AccountingProcessorHelper}
+ * during a transaction and inserts them in one JDBC batch just before the
+ * transaction commits, once the debits and credits of every transaction they
+ * belong to are found to balance. The daily GL balances of the entries are
+ * updated in the same step.
+ *
+ * The loan and savings transactions the entries refer to are resolved once
+ * per transaction, and flushed before the entries referring to them are
+ * inserted. Outside a transaction entries are saved immediately.
+ */
+@Component
+public class JournalEntryWriteBuffer {
+
+    private static final String INSERT_SQL = "insert into acc_gl_journal_entry (id, account_id, office_id, currency_code, transaction_id, "
+            + "loan_transaction_id, savings_transaction_id, client_transaction_id, payment_details_id, ref_num, manual_entry, "
+            + "entry_date, type_enum, amount, description, entity_type_enum, entity_id, is_reconciled, createdby_id, created_date, "
+            + "lastmodifiedby_id, lastmodified_date) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JournalEntryRepository glJournalEntryRepository;
+    private final LoanTransactionRepository loanTransactionRepository;
+    private final SavingsAccountTransactionRepository savingsAccountTransactionRepository;
+    private final AuditorAware<AppUser> auditorAware;
+    private final JournalEntryDailyBalanceService journalEntryDailyBalanceService;
+    private final PooledIdAllocator pooledIdAllocator;
+
+    @Autowired
+    public JournalEntryWriteBuffer(final RoutingDataSource dataSource, final JournalEntryRepository glJournalEntryRepository,
+            final LoanTransactionRepository loanTransactionRepository,
+            final SavingsAccountTransactionRepository savingsAccountTransactionRepository, final AuditorAware<AppUser> auditorAware,
+            final JournalEntryDailyBalanceService journalEntryDailyBalanceService, final PooledIdAllocator pooledIdAllocator) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.glJournalEntryRepository = glJournalEntryRepository;
+        this.loanTransactionRepository = loanTransactionRepository;
+        this.savingsAccountTransactionRepository = savingsAccountTransactionRepository;
+        this.auditorAware = auditorAware;
+        this.journalEntryDailyBalanceService = journalEntryDailyBalanceService;
+        this.pooledIdAllocator = pooledIdAllocator;
+    }
+
+    public void add(final JournalEntry journalEntry) {
+        final PendingJournalEntries pendingJournalEntries = pendingJournalEntries();
+        if (pendingJournalEntries == null) {
+            this.glJournalEntryRepository.saveAndFlush(journalEntry);
+            this.journalEntryDailyBalanceService.addJournalEntries(Collections.singletonList(journalEntry));
+        } else {
+            pendingJournalEntries.journalEntries.add(journalEntry);
+        }
+    }
+
+    public LoanTransaction findLoanTransaction(final Long loanTransactionId) {
+        final PendingJournalEntries pendingJournalEntries = pendingJournalEntries();
+        if (pendingJournalEntries == null) { return this.loanTransactionRepository.findOne(loanTransactionId); }
+
+        LoanTransaction loanTransaction = pendingJournalEntries.loanTransactions.get(loanTransactionId);
+        if (loanTransaction == null) {
+            loanTransaction = this.loanTransactionRepository.findOne(loanTransactionId);
+            pendingJournalEntries.loanTransactions.put(loanTransactionId, loanTransaction);
+        }
+        return loanTransaction;
+    }
+
+    public SavingsAccountTransaction findSavingsTransaction(final Long savingsTransactionId) {
+        final PendingJournalEntries pendingJournalEntries = pendingJournalEntries();
+        if (pendingJournalEntries == null) { return this.savingsAccountTransactionRepository.findOne(savingsTransactionId); }
+
+        SavingsAccountTransaction savingsTransaction = pendingJournalEntries.savingsTransactions.get(savingsTransactionId);
+        if (savingsTransaction == null) {
+            savingsTransaction = this.savingsAccountTransactionRepository.findOne(savingsTransactionId);
+            pendingJournalEntries.savingsTransactions.put(savingsTransactionId, savingsTransaction);
+        }
+        return savingsTransaction;
+    }
+
+    /**
+     * @return the journal entries pending for the current transaction, or
+     *         <code>null</code> when there is no transaction to attach them to
+     */
+    private PendingJournalEntries pendingJournalEntries() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || !TransactionSynchronizationManager.isActualTransactionActive()) { return null; }
+
+        for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingJournalEntries) { return (PendingJournalEntries) synchronization; }
+        }
+
+        final PendingJournalEntries pendingJournalEntries = new PendingJournalEntries();
+        TransactionSynchronizationManager.registerSynchronization(pendingJournalEntries);
+        return pendingJournalEntries;
+    }
+
+    private void validateDebitsEqualCredits(final List<JournalEntry> journalEntries) {
+        final Map<String, BigDecimal> balanceByTransaction = new HashMap<>();
+        for (final JournalEntry journalEntry : journalEntries) {
+            BigDecimal balance = balanceByTransaction.get(journalEntry.getTransactionId());
+            if (balance == null) {
+                balance = BigDecimal.ZERO;
+            }
+            if (journalEntry.isDebitEntry()) {
+                balance = balance.add(journalEntry.getAmount());
+            } else {
+                balance = balance.subtract(journalEntry.getAmount());
+            }
+            balanceByTransaction.put(journalEntry.getTransactionId(), balance);
+        }
+
+        for (final BigDecimal balance : balanceByTransaction.values()) {
+            if (balance.compareTo(BigDecimal.ZERO) != 0) { throw new JournalEntryInvalidException(
+                    GL_JOURNAL_ENTRY_INVALID_REASON.DEBIT_CREDIT_SUM_MISMATCH); }
+        }
+    }
+
+    private void insert(final List<JournalEntry> journalEntries) {
+        final AppUser currentUser = this.auditorAware.getCurrentAuditor();
+        final Long currentUserId = currentUser == null ? null : currentUser.getId();
+        final Timestamp now = new Timestamp(System.currentTimeMillis());
+        long id = this.pooledIdAllocator.nextIds("acc_gl_journal_entry", journalEntries.size());
+
+        final List<Object[]> batchArgs = new ArrayList<>(journalEntries.size());
+        for (final JournalEntry journalEntry : journalEntries) {
+            batchArgs.add(new Object[] { id++, journalEntry.getGlAccount().getId(), journalEntry.getOffice().getId(),
+                    journalEntry.getCurrencyCode(), journalEntry.getTransactionId(), idOf(journalEntry.getLoanTransaction()),
+                    idOf(journalEntry.getSavingsTransaction()), idOf(journalEntry.getClientTransaction()),
+                    idOf(journalEntry.getPaymentDetails()), journalEntry.getReferenceNumber(), journalEntry.isManualEntry(),
+                    new java.sql.Date(journalEntry.getTransactionDate().getTime()), journalEntry.getType(), journalEntry.getAmount(),
+                    journalEntry.getDescription(), journalEntry.getEntityType(), journalEntry.getEntityId(), journalEntry.isReconciled(),
+                    currentUserId, now, currentUserId, now });
+        }
+        this.jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs);
+        this.journalEntryDailyBalanceService.addJournalEntries(journalEntries);
+    }
+
+    private static Long idOf(final Persistable<Long> entity) {
+        return entity == null ? null : entity.getId();
+    }
+
+    private final class PendingJournalEntries extends TransactionSynchronizationAdapter {
+
+        private final List<JournalEntry> journalEntries = new ArrayList<>();
+        private final Map<Long, LoanTransaction> loanTransactions = new LinkedHashMap<>();
+        private final Map<Long, SavingsAccountTransaction> savingsTransactions = new LinkedHashMap<>();
+
+        @Override
+        public void beforeCommit(@SuppressWarnings("unused") final boolean readOnly) {
+            if (this.journalEntries.isEmpty()) { return; }
+            validateDebitsEqualCredits(this.journalEntries);
+            // loan and savings transactions take pooled ids and are only
+            // inserted when the persistence context is flushed, which the
+            // commit does after this callback
+            JournalEntryWriteBuffer.this.glJournalEntryRepository.flush();
+            insert(this.journalEntries);
+            this.journalEntries.clear();
+        }
+    }
+}
@@ -8,6 +8,7 @@ package org.mifosplatform.accounting.journalentry.service;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -93,6 +94,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
     private final PaymentDetailWritePlatformService paymentDetailWritePlatformService;
     private final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepositoryWrapper;
     private final CashBasedAccountingProcessorForClientTransactions accountingProcessorForClientTransactions;
+    private final JournalEntryDailyBalanceService journalEntryDailyBalanceService;
 
     @Autowired
     public JournalEntryWritePlatformServiceJpaRepositoryImpl(final GLClosureRepository glClosureRepository,
@@ -105,7 +107,8 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
             final OrganisationCurrencyRepositoryWrapper organisationCurrencyRepository, final PlatformSecurityContext context,
             final PaymentDetailWritePlatformService paymentDetailWritePlatformService,
             final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepositoryWrapper,
-            final CashBasedAccountingProcessorForClientTransactions accountingProcessorForClientTransactions) {
+            final CashBasedAccountingProcessorForClientTransactions accountingProcessorForClientTransactions,
+            final JournalEntryDailyBalanceService journalEntryDailyBalanceService) {
         this.glClosureRepository = glClosureRepository;
         this.officeRepository = officeRepository;
         this.glJournalEntryRepository = glJournalEntryRepository;
@@ -121,6 +124,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
         this.paymentDetailWritePlatformService = paymentDetailWritePlatformService;
         this.financialActivityAccountRepositoryWrapper = financialActivityAccountRepositoryWrapper;
         this.accountingProcessorForClientTransactions = accountingProcessorForClientTransactions;
+        this.journalEntryDailyBalanceService = journalEntryDailyBalanceService;
     }
 
     @Transactional
@@ -479,6 +483,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
             }
             // save the reversal entry
             this.glJournalEntryRepository.saveAndFlush(reversalJournalEntry);
+            this.journalEntryDailyBalanceService.addJournalEntries(Collections.singletonList(reversalJournalEntry));
             journalEntry.setReversed(true);
             journalEntry.setReversalJournalEntry(reversalJournalEntry);
             // save the updated journal entry
@@ -510,6 +515,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
             }
             // save the reversal entry
             this.glJournalEntryRepository.save(reversalJournalEntry);
+            this.journalEntryDailyBalanceService.addJournalEntries(Collections.singletonList(reversalJournalEntry));
             journalEntry.setReversalJournalEntry(reversalJournalEntry);
             // save the updated journal entry
             this.glJournalEntryRepository.save(journalEntry);
@@ -722,6 +728,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
                     manualEntry, transactionDate, type, singleDebitOrCreditEntryCommand.getAmount(), comments, null, null, referenceNumber,
                     null, null, clientTransaction);
             this.glJournalEntryRepository.saveAndFlush(glJournalEntry);
+            this.journalEntryDailyBalanceService.addJournalEntries(Collections.singletonList(glJournalEntry));
         }
     }
 
@@ -821,6 +828,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
                     manualEntry, transactionDate, type, singleDebitOrCreditEntryCommand.getAmount(), comments, null, null, referenceNumber,
                     null, null, null);
             this.glJournalEntryRepository.saveAndFlush(glJournalEntry);
+            this.journalEntryDailyBalanceService.addJournalEntries(Collections.singletonList(glJournalEntry));
         }
 
     }
@@ -893,11 +901,13 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
                     transactionDate, type, singleDebitOrCreditEntryCommand.getAmount(), comments, null, null, null, null, null,
                     clientTransaction);
             this.glJournalEntryRepository.saveAndFlush(glJournalEntry);
+            this.journalEntryDailyBalanceService.addJournalEntries(Collections.singletonList(glJournalEntry));
 
             final JournalEntry contraEntry = JournalEntry.createNew(office, null, contraAccount, currencyCode, transactionId, manualEntry,
                     transactionDate, contraType, singleDebitOrCreditEntryCommand.getAmount(), comments, null, null, null, null, null,
                     clientTransaction);
             this.glJournalEntryRepository.saveAndFlush(contraEntry);
+            this.journalEntryDailyBalanceService.addJournalEntries(Collections.singletonList(contraEntry));
         }
     }
 
@@ -984,6 +994,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
             }
             // save the reversal entry
             this.glJournalEntryRepository.saveAndFlush(reversalJournalEntry);
+            this.journalEntryDailyBalanceService.addJournalEntries(Collections.singletonList(reversalJournalEntry));
             journalEntry.setReversed(true);
             journalEntry.setReversalJournalEntry(reversalJournalEntry);
             // save the updated journal entry
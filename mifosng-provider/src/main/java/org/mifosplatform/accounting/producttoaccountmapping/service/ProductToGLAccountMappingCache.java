@@ -0,0 +1,217 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.producttoaccountmapping.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.mifosplatform.accounting.glaccount.domain.GLAccount;
+import org.mifosplatform.accounting.glaccount.domain.GLAccountRepository;
+import org.mifosplatform.infrastructure.cache.data.CacheRegionData;
+import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Tenant scoped, read only copy of <code>acc_product_mapping</code> used to
+ * resolve the GL accounts of journal entries without a query per posting.
+ *
+ * The table of a tenant is loaded on first use and dropped by
+ * {@link #invalidate()} whenever its mappings change, to be reloaded by the
+ * next lookup. Lookups are counted per tenant as hits and misses of its
+ * table, so the effectiveness of the cache shows next to the regions of the
+ * second-level cache.
+ */
+@Component
+public class ProductToGLAccountMappingCache {
+
+    private final static Logger logger = LoggerFactory.getLogger(ProductToGLAccountMappingCache.class);
+
+    public static final String REGION_NAME = "acc_product_mapping";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GLAccountRepository glAccountRepository;
+    private final ConcurrentMap<String, MappingTable> mappingTablesByTenant = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final ConcurrentMap<String, LookupCounters> countersByTenant = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ProductToGLAccountMappingCache(final RoutingDataSource dataSource, final GLAccountRepository glAccountRepository) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.glAccountRepository = glAccountRepository;
+    }
+
+    /**
+     * @return the account mapped to the product for the financial account
+     *         type regardless of payment type and charge, or <code>null</code>
+     */
+    public GLAccount findCoreProductToFinAccountMapping(final Long productId, final int productType, final int financialAccountType) {
+        return find(productId, productType, financialAccountType, null, null);
+    }
+
+    public GLAccount findPaymentTypeToFinAccountMapping(final Long productId, final int productType, final int financialAccountType,
+            final Long paymentTypeId) {
+        return find(productId, productType, financialAccountType, paymentTypeId, null);
+    }
+
+    public GLAccount findChargeToFinAccountMapping(final Long productId, final int productType, final int financialAccountType,
+            final Long chargeId) {
+        return find(productId, productType, financialAccountType, null, chargeId);
+    }
+
+    /**
+     * Drops the mappings of the current tenant now and again once the current
+     * transaction completes, so that a table loaded from uncommitted or rolled
+     * back changes is not kept.
+     */
+    public void invalidate() {
+        final String tenantIdentifier = currentTenantIdentifier();
+        evict(tenantIdentifier);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(@SuppressWarnings("unused") final int status) {
+                    evict(tenantIdentifier);
+                }
+            });
+        }
+    }
+
+    /**
+     * @return the number of lookups of the current tenant answered by its
+     *         loaded table
+     */
+    public long getHitCount() {
+        return countersOf(currentTenantIdentifier()).hits.get();
+    }
+
+    /**
+     * @return the number of lookups of the current tenant that had to load its
+     *         table first
+     */
+    public long getMissCount() {
+        return countersOf(currentTenantIdentifier()).misses.get();
+    }
+
+    /**
+     * @return the mapping table of the current tenant as a cache region
+     */
+    public CacheRegionData retrieveRegion() {
+        final String tenantIdentifier = currentTenantIdentifier();
+        final MappingTable mappingTable = this.mappingTablesByTenant.get(tenantIdentifier);
+        final LookupCounters counters = countersOf(tenantIdentifier);
+        return CacheRegionData.instance(REGION_NAME, mappingTable == null ? 0 : mappingTable.size(), counters.hits.get(),
+                counters.misses.get(), counters.loads.get());
+    }
+
+    private GLAccount find(final Long productId, final int productType, final int financialAccountType, final Long paymentTypeId,
+            final Long chargeId) {
+        final Long glAccountId = mappingTable().glAccountIdFor(productId, productType, financialAccountType, paymentTypeId, chargeId);
+        return glAccountId == null ? null : this.glAccountRepository.getOne(glAccountId);
+    }
+
+    private MappingTable mappingTable() {
+        final String tenantIdentifier = currentTenantIdentifier();
+        final LookupCounters counters = countersOf(tenantIdentifier);
+        final MappingTable mappingTable = this.mappingTablesByTenant.get(tenantIdentifier);
+        if (mappingTable != null) {
+            counters.hits.incrementAndGet();
+            return mappingTable;
+        }
+
+        counters.misses.incrementAndGet();
+        final long generationAtLoad = this.generation.get();
+        final MappingTable loadedMappingTable = load();
+        // a table loaded while mappings were being changed is used once but
+        // not kept
+        if (generationAtLoad == this.generation.get()
+                && this.mappingTablesByTenant.putIfAbsent(tenantIdentifier, loadedMappingTable) == null) {
+            counters.loads.incrementAndGet();
+        }
+        return loadedMappingTable;
+    }
+
+    private MappingTable load() {
+        final Map<String, Long> glAccountIds = new HashMap<>();
+        this.jdbcTemplate.query("select product_id, product_type, financial_account_type, payment_type, charge_id, gl_account_id "
+                + "from acc_product_mapping where gl_account_id is not null", new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                glAccountIds.put(
+                        MappingTable.keyOf(JdbcSupport.getLong(rs, "product_id"), JdbcSupport.getInteger(rs, "product_type"),
+                                JdbcSupport.getInteger(rs, "financial_account_type"), JdbcSupport.getLong(rs, "payment_type"),
+                                JdbcSupport.getLong(rs, "charge_id")), rs.getLong("gl_account_id"));
+            }
+        });
+        final MappingTable mappingTable = new MappingTable(ImmutableMap.copyOf(glAccountIds));
+        logger.debug("Loaded " + mappingTable.size() + " product to GL account mappings");
+        return mappingTable;
+    }
+
+    private LookupCounters countersOf(final String tenantIdentifier) {
+        final LookupCounters counters = this.countersByTenant.get(tenantIdentifier);
+        if (counters != null) { return counters; }
+        final LookupCounters newCounters = new LookupCounters();
+        final LookupCounters existing = this.countersByTenant.putIfAbsent(tenantIdentifier, newCounters);
+        return existing == null ? newCounters : existing;
+    }
+
+    private static String currentTenantIdentifier() {
+        return ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+    }
+
+    private void evict(final String tenantIdentifier) {
+        this.generation.incrementAndGet();
+        this.mappingTablesByTenant.remove(tenantIdentifier);
+    }
+
+    private static final class LookupCounters {
+
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong loads = new AtomicLong();
+    }
+
+    private static final class MappingTable {
+
+        private final ImmutableMap<String, Long> glAccountIds;
+
+        MappingTable(final ImmutableMap<String, Long> glAccountIds) {
+            this.glAccountIds = glAccountIds;
+        }
+
+        static String keyOf(final Long productId, final Integer productType, final Integer financialAccountType, final Long paymentTypeId,
+                final Long chargeId) {
+            return productType + ":" + productId + ":" + financialAccountType + ":" + paymentTypeId + ":" + chargeId;
+        }
+
+        Long glAccountIdFor(final Long productId, final int productType, final int financialAccountType, final Long paymentTypeId,
+                final Long chargeId) {
+            return this.glAccountIds.get(keyOf(productId, productType, financialAccountType, paymentTypeId, chargeId));
+        }
+
+        int size() {
+            return this.glAccountIds.size();
+        }
+    }
+}
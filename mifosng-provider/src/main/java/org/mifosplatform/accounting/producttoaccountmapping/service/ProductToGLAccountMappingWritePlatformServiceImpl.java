@@ -33,21 +33,25 @@ public class ProductToGLAccountMappingWritePlatformServiceImpl implements Produc
     private final ProductToGLAccountMappingFromApiJsonDeserializer deserializer;
     private final LoanProductToGLAccountMappingHelper loanProductToGLAccountMappingHelper;
     private final SavingsProductToGLAccountMappingHelper savingsProductToGLAccountMappingHelper;
+    private final ProductToGLAccountMappingCache productToGLAccountMappingCache;
 
     @Autowired
     public ProductToGLAccountMappingWritePlatformServiceImpl(final FromJsonHelper fromApiJsonHelper,
             final ProductToGLAccountMappingFromApiJsonDeserializer deserializer,
             final LoanProductToGLAccountMappingHelper loanProductToGLAccountMappingHelper,
-            final SavingsProductToGLAccountMappingHelper savingsProductToGLAccountMappingHelper) {
+            final SavingsProductToGLAccountMappingHelper savingsProductToGLAccountMappingHelper,
+            final ProductToGLAccountMappingCache productToGLAccountMappingCache) {
         this.fromApiJsonHelper = fromApiJsonHelper;
         this.deserializer = deserializer;
         this.loanProductToGLAccountMappingHelper = loanProductToGLAccountMappingHelper;
         this.savingsProductToGLAccountMappingHelper = savingsProductToGLAccountMappingHelper;
+        this.productToGLAccountMappingCache = productToGLAccountMappingCache;
     }
 
     @Override
     @Transactional
     public void createLoanProductToGLAccountMapping(final Long loanProductId, final JsonCommand command) {
+        this.productToGLAccountMappingCache.invalidate();
         final JsonElement element = this.fromApiJsonHelper.parse(command.json());
         final Integer accountingRuleTypeId = this.fromApiJsonHelper.extractIntegerNamed("accountingRule", element, Locale.getDefault());
         final AccountingRuleType accountingRuleType = AccountingRuleType.fromInt(accountingRuleTypeId);
@@ -159,6 +163,7 @@ public class ProductToGLAccountMappingWritePlatformServiceImpl implements Produc
     @Override
     @Transactional
     public void createSavingProductToGLAccountMapping(final Long savingProductId, final JsonCommand command, DepositAccountType accountType) {
+        this.productToGLAccountMappingCache.invalidate();
         final JsonElement element = this.fromApiJsonHelper.parse(command.json());
         final Integer accountingRuleTypeId = this.fromApiJsonHelper.extractIntegerNamed(accountingRuleParamName, element,
                 Locale.getDefault());
@@ -227,6 +232,7 @@ public class ProductToGLAccountMappingWritePlatformServiceImpl implements Produc
     @Transactional
     public Map<String, Object> updateLoanProductToGLAccountMapping(final Long loanProductId, final JsonCommand command,
             final boolean accountingRuleChanged, final int accountingRuleTypeId) {
+        this.productToGLAccountMappingCache.invalidate();
         /***
          * Variable tracks all accounting mapping properties that have been
          * updated
@@ -258,6 +264,7 @@ public class ProductToGLAccountMappingWritePlatformServiceImpl implements Produc
     @Override
     public Map<String, Object> updateSavingsProductToGLAccountMapping(final Long savingsProductId, final JsonCommand command,
             final boolean accountingRuleChanged, final int accountingRuleTypeId, final DepositAccountType accountType) {
+        this.productToGLAccountMappingCache.invalidate();
         /***
          * Variable tracks all accounting mapping properties that have been
          * updated
@@ -0,0 +1,62 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.commands.api;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.UriInfo;
+
+import org.mifosplatform.commands.data.AccountCommandQueueMetricsData;
+import org.mifosplatform.commands.service.AccountCommandSerializer;
+import org.mifosplatform.infrastructure.core.api.ApiRequestParameterHelper;
+import org.mifosplatform.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
+import org.mifosplatform.infrastructure.core.serialization.DefaultToApiJsonSerializer;
+import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+@Path("/commandqueues")
+@Consumes({ MediaType.APPLICATION_JSON })
+@Produces({ MediaType.APPLICATION_JSON })
+@Component
+@Scope("singleton")
+public class AccountCommandQueueMetricsApiResource {
+
+    private final String resourceNameForPermissions = "COMMANDQUEUE";
+
+    private final PlatformSecurityContext context;
+    private final AccountCommandSerializer accountCommandSerializer;
+    private final DefaultToApiJsonSerializer<AccountCommandQueueMetricsData> toApiJsonSerializer;
+    private final ApiRequestParameterHelper apiRequestParameterHelper;
+
+    @Autowired
+    public AccountCommandQueueMetricsApiResource(final PlatformSecurityContext context,
+            final AccountCommandSerializer accountCommandSerializer,
+            final DefaultToApiJsonSerializer<AccountCommandQueueMetricsData> toApiJsonSerializer,
+            final ApiRequestParameterHelper apiRequestParameterHelper) {
+        this.context = context;
+        this.accountCommandSerializer = accountCommandSerializer;
+        this.toApiJsonSerializer = toApiJsonSerializer;
+        this.apiRequestParameterHelper = apiRequestParameterHelper;
+    }
+
+    @GET
+    @Path("metrics")
+    public String retrieveMetrics(@Context final UriInfo uriInfo) {
+
+        this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
+
+        final AccountCommandQueueMetricsData metrics = this.accountCommandSerializer.retrieveMetricsOfCurrentTenant();
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.toApiJsonSerializer.serialize(settings, metrics);
+    }
+}
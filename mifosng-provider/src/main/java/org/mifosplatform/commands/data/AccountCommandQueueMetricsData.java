@@ -0,0 +1,39 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.commands.data;
+
+/**
+ * Immutable data object representing the commands of a tenant running or
+ * waiting for another command on the same account, since startup.
+ */
+public class AccountCommandQueueMetricsData {
+
+    @SuppressWarnings("unused")
+    private final int stripes;
+    @SuppressWarnings("unused")
+    private final int running;
+    @SuppressWarnings("unused")
+    private final int queued;
+    @SuppressWarnings("unused")
+    private final long acquiredCount;
+    @SuppressWarnings("unused")
+    private final long waitedCount;
+    @SuppressWarnings("unused")
+    private final long averageWaitMillis;
+    @SuppressWarnings("unused")
+    private final long maxWaitMillis;
+
+    public AccountCommandQueueMetricsData(final int stripes, final int running, final int queued, final long acquiredCount,
+            final long waitedCount, final long averageWaitMillis, final long maxWaitMillis) {
+        this.stripes = stripes;
+        this.running = running;
+        this.queued = queued;
+        this.acquiredCount = acquiredCount;
+        this.waitedCount = waitedCount;
+        this.averageWaitMillis = averageWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+}
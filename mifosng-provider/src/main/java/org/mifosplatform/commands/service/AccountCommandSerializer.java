@@ -0,0 +1,203 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.commands.service;
+
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.mifosplatform.commands.data.AccountCommandQueueMetricsData;
+import org.mifosplatform.commands.domain.CommandWrapper;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the commands on the same loan, savings account or client of a tenant
+ * one after the other, in arrival order, instead of letting their
+ * transactions deadlock or fail on the optimistic lock of the account.
+ * Commands on other accounts keep running in parallel.
+ *
+ * Accounts are mapped onto a fixed number of fair locks (stripes); a command
+ * holds the stripes of all accounts it touches, taken in stripe order, until
+ * its transaction completed. Two accounts sharing a stripe are serialized
+ * with each other, which costs some parallelism but never correctness.
+ *
+ * A thread that already holds stripes joins them for nested commands rather
+ * than taking more, so that stripes are never taken out of order.
+ */
+@Component
+public class AccountCommandSerializer {
+
+    private static final int STRIPE_COUNT = 1024;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPE_COUNT];
+    private final ThreadLocal<Permit> heldPermit = new ThreadLocal<>();
+    private final ConcurrentMap<String, QueueCounters> countersByTenant = new ConcurrentHashMap<>();
+
+    public AccountCommandSerializer() {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            this.stripes[i] = new ReentrantLock(true);
+        }
+    }
+
+    /**
+     * Waits until no other command touches the accounts of the command.
+     */
+    public Permit acquire(final CommandWrapper wrapper) {
+        return acquire(wrapper.getLoanId(), wrapper.getSavingsId(), wrapper.getClientId());
+    }
+
+    /**
+     * Waits until no other command touches the given accounts, any of which
+     * may be <code>null</code>.
+     *
+     * @return the permit to release once the transaction of the command
+     *         completed
+     */
+    public Permit acquire(final Long loanId, final Long savingsId, final Long clientId) {
+        final Permit outerPermit = this.heldPermit.get();
+        if (outerPermit != null) {
+            outerPermit.depth++;
+            return outerPermit;
+        }
+
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final String tenantIdentifier = tenant == null ? "" : tenant.getTenantIdentifier();
+        final SortedSet<Integer> stripeIndexes = new TreeSet<>();
+        addStripe(stripeIndexes, tenantIdentifier, "loan", loanId);
+        addStripe(stripeIndexes, tenantIdentifier, "savings", savingsId);
+        addStripe(stripeIndexes, tenantIdentifier, "client", clientId);
+
+        final QueueCounters counters = countersOf(tenantIdentifier);
+        final ReentrantLock[] locks = new ReentrantLock[stripeIndexes.size()];
+        int lockCount = 0;
+        boolean waited = false;
+        long waitMillis = 0;
+        try {
+            for (final Integer stripeIndex : stripeIndexes) {
+                final ReentrantLock lock = this.stripes[stripeIndex];
+                // tryLock() would barge ahead of the commands already queued
+                if (lock.isLocked() || lock.hasQueuedThreads()) {
+                    waited = true;
+                    counters.queued.incrementAndGet();
+                    final long waitStart = System.currentTimeMillis();
+                    try {
+                        lock.lock();
+                    } finally {
+                        counters.queued.decrementAndGet();
+                        waitMillis += System.currentTimeMillis() - waitStart;
+                    }
+                } else {
+                    lock.lock();
+                }
+                locks[lockCount++] = lock;
+            }
+        } catch (final RuntimeException | Error e) {
+            unlock(locks, lockCount);
+            throw e;
+        }
+        counters.recordAcquired(waited, waitMillis);
+        counters.running.incrementAndGet();
+
+        final Permit permit = new Permit(locks, counters);
+        this.heldPermit.set(permit);
+        return permit;
+    }
+
+    /**
+     * @return the queue metrics of the current tenant
+     */
+    public AccountCommandQueueMetricsData retrieveMetricsOfCurrentTenant() {
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final QueueCounters counters = countersOf(tenant == null ? "" : tenant.getTenantIdentifier());
+        final long acquiredCount = counters.acquired.get();
+        final long waitedCount = counters.waited.get();
+        final long totalWaitMillis = counters.totalWaitMillis.get();
+        return new AccountCommandQueueMetricsData(STRIPE_COUNT, counters.running.get(), counters.queued.get(), acquiredCount,
+                waitedCount, waitedCount == 0 ? 0 : totalWaitMillis / waitedCount, counters.maxWaitMillis.get());
+    }
+
+    private void release(final Permit permit) {
+        if (permit.depth > 0) {
+            permit.depth--;
+            return;
+        }
+        this.heldPermit.remove();
+        permit.counters.running.decrementAndGet();
+        unlock(permit.locks, permit.locks.length);
+    }
+
+    private static void addStripe(final SortedSet<Integer> stripeIndexes, final String tenantIdentifier, final String accountType,
+            final Long accountId) {
+        if (accountId == null) { return; }
+        final int hash = (tenantIdentifier + '/' + accountType + '/' + accountId).hashCode();
+        stripeIndexes.add((hash ^ (hash >>> 16)) & (STRIPE_COUNT - 1));
+    }
+
+    private static void unlock(final ReentrantLock[] locks, final int lockCount) {
+        for (int i = lockCount - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+
+    private QueueCounters countersOf(final String tenantIdentifier) {
+        QueueCounters counters = this.countersByTenant.get(tenantIdentifier);
+        if (counters == null) {
+            final QueueCounters newCounters = new QueueCounters();
+            counters = this.countersByTenant.putIfAbsent(tenantIdentifier, newCounters);
+            if (counters == null) {
+                counters = newCounters;
+            }
+        }
+        return counters;
+    }
+
+    /**
+     * The stripes held by a command. Must be released by the thread that
+     * acquired it, in a <code>finally</code> block.
+     */
+    public final class Permit {
+
+        private final ReentrantLock[] locks;
+        private final QueueCounters counters;
+        private int depth;
+
+        Permit(final ReentrantLock[] locks, final QueueCounters counters) {
+            this.locks = locks;
+            this.counters = counters;
+        }
+
+        public void release() {
+            AccountCommandSerializer.this.release(this);
+        }
+    }
+
+    private static final class QueueCounters {
+
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicLong acquired = new AtomicLong();
+        private final AtomicLong waited = new AtomicLong();
+        private final AtomicLong totalWaitMillis = new AtomicLong();
+        private final AtomicLong maxWaitMillis = new AtomicLong();
+
+        void recordAcquired(final boolean waited, final long waitMillis) {
+            this.acquired.incrementAndGet();
+            if (!waited) { return; }
+            this.waited.incrementAndGet();
+            this.totalWaitMillis.addAndGet(waitMillis);
+            long max = this.maxWaitMillis.get();
+            while (waitMillis > max && !this.maxWaitMillis.compareAndSet(max, waitMillis)) {
+                max = this.maxWaitMillis.get();
+            }
+        }
+    }
+}
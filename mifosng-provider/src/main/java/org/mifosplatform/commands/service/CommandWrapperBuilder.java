@@ -1129,6 +1129,14 @@ public class CommandWrapperBuilder {
         return this;
     }
 
+    public CommandWrapperBuilder rebuildDailyBalancesForJournalEntry() {
+        this.actionName = "REBUILDDAILYBALANCE";
+        this.entityName = "JOURNALENTRY";
+        this.entityId = null;
+        this.href = "/journalentries/dailybalances";
+        return this;
+    }
+
     public CommandWrapperBuilder defineOpeningBalanceForJournalEntry() {
         this.actionName = "DEFINEOPENINGBALANCE";
         this.entityName = "JOURNALENTRY";
@@ -2943,4 +2951,11 @@ public class CommandWrapperBuilder {
         this.href = "/dataexport/" + entityId;
         return this;
     }
+
+    public CommandWrapperBuilder rebuildSearchIndex() {
+        this.actionName = "REBUILD";
+        this.entityName = "SEARCHINDEX";
+        this.href = "/search/index";
+        return this;
+    }
 }
@@ -5,8 +5,6 @@
  */
 package org.mifosplatform.commands.service;
 
-import java.util.Random;
-
 import org.joda.time.DateTime;
 import org.mifosplatform.commands.domain.CommandSource;
 import org.mifosplatform.commands.domain.CommandSourceRepository;
@@ -39,17 +37,20 @@ public class PortfolioCommandSourceWritePlatformServiceImpl implements Portfolio
     private final FromJsonHelper fromApiJsonHelper;
     private final CommandProcessingService processAndLogCommandService;
     private final SchedulerJobRunnerReadService schedulerJobRunnerReadService;
+    private final AccountCommandSerializer accountCommandSerializer;
     private final static Logger logger = LoggerFactory.getLogger(PortfolioCommandSourceWritePlatformServiceImpl.class);
 
     @Autowired
     public PortfolioCommandSourceWritePlatformServiceImpl(final PlatformSecurityContext context,
             final CommandSourceRepository commandSourceRepository, final FromJsonHelper fromApiJsonHelper,
-            final CommandProcessingService processAndLogCommandService, final SchedulerJobRunnerReadService schedulerJobRunnerReadService) {
+            final CommandProcessingService processAndLogCommandService, final SchedulerJobRunnerReadService schedulerJobRunnerReadService,
+            final AccountCommandSerializer accountCommandSerializer) {
         this.context = context;
         this.commandSourceRepository = commandSourceRepository;
         this.fromApiJsonHelper = fromApiJsonHelper;
         this.processAndLogCommandService = processAndLogCommandService;
         this.schedulerJobRunnerReadService = schedulerJobRunnerReadService;
+        this.accountCommandSerializer = accountCommandSerializer;
     }
 
     @Override
@@ -71,21 +72,33 @@ public class PortfolioCommandSourceWritePlatformServiceImpl implements Portfolio
         validateIsUpdateAllowed();
 
         final String json = wrapper.getJson();
-        CommandProcessingResult result = null;
-        JsonCommand command = null;
-        Integer numberOfRetries = 0;
-        Integer maxNumberOfRetries = ThreadLocalContextUtil.getTenant().getConnection().getMaxRetriesOnDeadlock();
-        Integer maxIntervalBetweenRetries = ThreadLocalContextUtil.getTenant().getConnection().getMaxIntervalBetweenRetries();
         final JsonElement parsedCommand = this.fromApiJsonHelper.parse(json);
-        command = JsonCommand.from(json, parsedCommand, this.fromApiJsonHelper, wrapper.getEntityName(), wrapper.getEntityId(),
-                wrapper.getSubentityId(), wrapper.getGroupId(), wrapper.getClientId(), wrapper.getLoanId(), wrapper.getSavingsId(),
-                wrapper.getTransactionId(), wrapper.getHref(), wrapper.getProductId());
-        while (numberOfRetries <= maxNumberOfRetries) {
+        final JsonCommand command = JsonCommand.from(json, parsedCommand, this.fromApiJsonHelper, wrapper.getEntityName(),
+                wrapper.getEntityId(), wrapper.getSubentityId(), wrapper.getGroupId(), wrapper.getClientId(), wrapper.getLoanId(),
+                wrapper.getSavingsId(), wrapper.getTransactionId(), wrapper.getHref(), wrapper.getProductId());
+
+        final AccountCommandSerializer.Permit permit = this.accountCommandSerializer.acquire(wrapper);
+        try {
+            return processAndLogCommand(wrapper, command, isApprovedByChecker);
+        } finally {
+            permit.release();
+        }
+    }
+
+    /**
+     * Commands on the same account no longer conflict on this node, so a
+     * deadlock or optimistic locking failure comes from another node or from a
+     * command touching the account without naming it. The losing transaction
+     * has been rolled back by then, so the command is retried straight away.
+     */
+    private CommandProcessingResult processAndLogCommand(final CommandWrapper wrapper, final JsonCommand command,
+            final boolean isApprovedByChecker) {
+        final Integer maxNumberOfRetries = ThreadLocalContextUtil.getTenant().getConnection().getMaxRetriesOnDeadlock();
+        int numberOfRetries = 0;
+        while (true) {
             try {
-                result = this.processAndLogCommandService.processAndLogCommand(wrapper, command, isApprovedByChecker);
-                numberOfRetries = maxNumberOfRetries + 1;
+                return this.processAndLogCommandService.processAndLogCommand(wrapper, command, isApprovedByChecker);
             } catch (CannotAcquireLockException | ObjectOptimisticLockingFailureException exception) {
-                logger.info("The following command " + command.json() + " has been retried  " + numberOfRetries + " time(s)");
                 /***
                  * Fail if the transaction has been retired for
                  * maxNumberOfRetries
@@ -95,25 +108,12 @@ public class PortfolioCommandSourceWritePlatformServiceImpl implements Portfolio
                             + numberOfRetries + " and will be rolled back");
                     throw (exception);
                 }
-                /***
-                 * Else sleep for a random time (between 1 to 10 seconds) and
-                 * continue
-                 **/
-                try {
-                    Random random = new Random();
-                    int randomNum = random.nextInt(maxIntervalBetweenRetries + 1);
-                    Thread.sleep(1000 + (randomNum * 1000));
-                    numberOfRetries = numberOfRetries + 1;
-                } catch (InterruptedException e) {
-                    throw (exception);
-                }
+                numberOfRetries++;
+                logger.info("The following command " + command.json() + " has been retried  " + numberOfRetries + " time(s)");
             } catch (final RollbackTransactionAsCommandIsNotApprovedByCheckerException e) {
-                numberOfRetries = maxNumberOfRetries + 1;
-                result = this.processAndLogCommandService.logCommand(e.getCommandSourceResult());
+                return this.processAndLogCommandService.logCommand(e.getCommandSourceResult());
             }
         }
-
-        return result;
     }
 
     @Override
@@ -135,7 +135,12 @@ public class PortfolioCommandSourceWritePlatformServiceImpl implements Portfolio
                 commandSourceInput.getResourceGetUrl(), commandSourceInput.getProductId());
 
         final boolean makerCheckerApproval = true;
-        return this.processAndLogCommandService.processAndLogCommand(wrapper, command, makerCheckerApproval);
+        final AccountCommandSerializer.Permit permit = this.accountCommandSerializer.acquire(wrapper);
+        try {
+            return this.processAndLogCommandService.processAndLogCommand(wrapper, command, makerCheckerApproval);
+        } finally {
+            permit.release();
+        }
     }
 
     @Transactional
@@ -0,0 +1,136 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.asyncjobs.api;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.UriInfo;
+
+import org.mifosplatform.infrastructure.asyncjobs.data.AsyncJobData;
+import org.mifosplatform.infrastructure.asyncjobs.service.AsyncJobService;
+import org.mifosplatform.infrastructure.core.api.ApiParameterHelper;
+import org.mifosplatform.infrastructure.core.api.ApiRequestParameterHelper;
+import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
+import org.mifosplatform.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
+import org.mifosplatform.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.mifosplatform.infrastructure.documentmanagement.api.FileDataStreamingOutput;
+import org.mifosplatform.infrastructure.documentmanagement.data.FileData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+/**
+ * Submits data exports and reports to run in the background, and returns
+ * their status and generated file once done.
+ */
+@Path("/asyncjobs")
+@Component
+@Scope("singleton")
+public class AsyncJobsApiResource {
+
+    private final AsyncJobService asyncJobService;
+    private final ToApiJsonSerializer<Object> toApiJsonSerializer;
+    private final ApiRequestParameterHelper apiRequestParameterHelper;
+
+    @Autowired
+    public AsyncJobsApiResource(final AsyncJobService asyncJobService, final ToApiJsonSerializer<Object> toApiJsonSerializer,
+            final ApiRequestParameterHelper apiRequestParameterHelper) {
+        this.asyncJobService = asyncJobService;
+        this.toApiJsonSerializer = toApiJsonSerializer;
+        this.apiRequestParameterHelper = apiRequestParameterHelper;
+    }
+
+    @POST
+    @Path("dataexports/{dataExportId}")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public String submitDataExport(@PathParam("dataExportId") final Long dataExportId,
+            @QueryParam("fileFormat") final String fileFormat) {
+
+        final Long jobId = this.asyncJobService.submitDataExport(dataExportId, fileFormat);
+
+        return this.toApiJsonSerializer.serialize(CommandProcessingResult.resourceResult(jobId, null));
+    }
+
+    @POST
+    @Path("runreports/{reportName}")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public String submitReport(@PathParam("reportName") final String reportName, @Context final UriInfo uriInfo) {
+
+        final MultivaluedMap<String, String> queryParams = uriInfo.getQueryParameters();
+        final Map<String, String> reportParams = new HashMap<>();
+        for (final String key : queryParams.keySet()) {
+            if (key.startsWith("R_")) {
+                reportParams.put(key.substring(2), queryParams.getFirst(key));
+            }
+        }
+
+        String outputType = queryParams.getFirst("output-type");
+        if (outputType == null) {
+            outputType = ApiParameterHelper.exportCsv(queryParams) ? "CSV" : "JSON";
+        }
+
+        final Long jobId = this.asyncJobService.submitReport(reportName, outputType, queryParams.getFirst("locale"), reportParams);
+
+        return this.toApiJsonSerializer.serialize(CommandProcessingResult.resourceResult(jobId, null));
+    }
+
+    @GET
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public String retrieveSubmittedJobs(@Context final UriInfo uriInfo) {
+
+        final Collection<AsyncJobData> jobs = this.asyncJobService.retrieveSubmittedByCurrentUser();
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+
+        return this.toApiJsonSerializer.serialize(settings, jobs);
+    }
+
+    @GET
+    @Path("{jobId}")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public String retrieveJob(@PathParam("jobId") final Long jobId, @Context final UriInfo uriInfo) {
+
+        final AsyncJobData job = this.asyncJobService.retrieveOne(jobId);
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+
+        return this.toApiJsonSerializer.serialize(settings, job);
+    }
+
+    @GET
+    @Path("{jobId}/attachment")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_OCTET_STREAM })
+    public Response downloadJobResult(@PathParam("jobId") final Long jobId) {
+
+        final FileData fileData = this.asyncJobService.retrieveResult(jobId);
+
+        final ResponseBuilder response = Response.ok(new FileDataStreamingOutput(fileData));
+        if (fileData.length() != null) {
+            response.header("Content-Length", fileData.length());
+        }
+        response.header("Content-Disposition", "attachment; filename=\"" + fileData.name() + "\"");
+        response.header("Content-Type", fileData.contentType());
+
+        return response.build();
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.asyncjobs.data;
+
+import org.joda.time.DateTime;
+import org.mifosplatform.infrastructure.asyncjobs.domain.AsyncJobStatus;
+import org.mifosplatform.infrastructure.asyncjobs.domain.AsyncJobType;
+import org.mifosplatform.infrastructure.core.data.EnumOptionData;
+
+/**
+ * A data export or report generated in the background, and where its result
+ * is stored once it is completed.
+ */
+public class AsyncJobData {
+
+    private final Long id;
+    private final String jobType;
+    private final String resourceName;
+    private final EnumOptionData status;
+    private final String fileName;
+    private final String contentType;
+    private final Long fileSize;
+    private final String error;
+    private final Long submittedById;
+    private final DateTime submittedOnDate;
+    private final DateTime startedOnDate;
+    private final DateTime completedOnDate;
+
+    // not part of the api representation
+    private final transient String requestParams;
+    private final transient String location;
+    private final transient Integer storageType;
+
+    public static AsyncJobData instance(final Long id, final String jobType, final String resourceName, final Integer status,
+            final String requestParams, final String fileName, final String contentType, final Long fileSize, final String location,
+            final Integer storageType, final String error, final Long submittedById, final DateTime submittedOnDate,
+            final DateTime startedOnDate, final DateTime completedOnDate) {
+        return new AsyncJobData(id, jobType, resourceName, AsyncJobStatus.fromInt(status).toEnumOptionData(), requestParams, fileName,
+                contentType, fileSize, location, storageType, error, submittedById, submittedOnDate, startedOnDate, completedOnDate);
+    }
+
+    private AsyncJobData(final Long id, final String jobType, final String resourceName, final EnumOptionData status,
+            final String requestParams, final String fileName, final String contentType, final Long fileSize, final String location,
+            final Integer storageType, final String error, final Long submittedById, final DateTime submittedOnDate,
+            final DateTime startedOnDate, final DateTime completedOnDate) {
+        this.id = id;
+        this.jobType = jobType;
+        this.resourceName = resourceName;
+        this.status = status;
+        this.requestParams = requestParams;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.fileSize = fileSize;
+        this.location = location;
+        this.storageType = storageType;
+        this.error = error;
+        this.submittedById = submittedById;
+        this.submittedOnDate = submittedOnDate;
+        this.startedOnDate = startedOnDate;
+        this.completedOnDate = completedOnDate;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public AsyncJobType getJobType() {
+        return AsyncJobType.fromName(this.jobType);
+    }
+
+    public String getResourceName() {
+        return this.resourceName;
+    }
+
+    public AsyncJobStatus getStatus() {
+        return AsyncJobStatus.fromInt(this.status.getId().intValue());
+    }
+
+    public String getRequestParams() {
+        return this.requestParams;
+    }
+
+    public String getFileName() {
+        return this.fileName;
+    }
+
+    public String getContentType() {
+        return this.contentType;
+    }
+
+    public Long getFileSize() {
+        return this.fileSize;
+    }
+
+    public String getLocation() {
+        return this.location;
+    }
+
+    public Integer getStorageType() {
+        return this.storageType;
+    }
+
+    public Long getSubmittedById() {
+        return this.submittedById;
+    }
+}
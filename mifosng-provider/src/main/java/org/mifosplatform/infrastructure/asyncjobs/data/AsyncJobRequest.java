@@ -0,0 +1,57 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.asyncjobs.data;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.gson.Gson;
+
+/**
+ * What a job generates besides its resource: the output type (file format of
+ * a data export, or output type of a report), the locale and the report
+ * parameters, without their <code>R_</code> prefix.
+ *
+ * Parameters are kept sorted so identical requests serialize identically.
+ */
+public class AsyncJobRequest {
+
+    private static final Gson gson = new Gson();
+
+    private final String outputType;
+    private final String locale;
+    private final TreeMap<String, String> parameters;
+
+    public static AsyncJobRequest instance(final String outputType, final String locale, final Map<String, String> parameters) {
+        return new AsyncJobRequest(outputType, locale, new TreeMap<>(parameters));
+    }
+
+    public static AsyncJobRequest fromJson(final String json) {
+        return gson.fromJson(json, AsyncJobRequest.class);
+    }
+
+    private AsyncJobRequest(final String outputType, final String locale, final TreeMap<String, String> parameters) {
+        this.outputType = outputType;
+        this.locale = locale;
+        this.parameters = parameters;
+    }
+
+    public String toJson() {
+        return gson.toJson(this);
+    }
+
+    public String getOutputType() {
+        return this.outputType;
+    }
+
+    public String getLocale() {
+        return this.locale;
+    }
+
+    public Map<String, String> getParameters() {
+        return this.parameters == null ? new TreeMap<String, String>() : this.parameters;
+    }
+}
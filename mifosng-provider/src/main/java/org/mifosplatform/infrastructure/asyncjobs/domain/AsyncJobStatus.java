@@ -0,0 +1,65 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.asyncjobs.domain;
+
+import org.mifosplatform.infrastructure.core.data.EnumOptionData;
+
+public enum AsyncJobStatus {
+
+    QUEUED(0, "asyncJobStatus.queued", "Queued"), //
+    RUNNING(1, "asyncJobStatus.running", "Running"), //
+    COMPLETED(2, "asyncJobStatus.completed", "Completed"), //
+    FAILED(3, "asyncJobStatus.failed", "Failed");
+
+    private final Integer value;
+    private final String code;
+    private final String description;
+
+    private AsyncJobStatus(final Integer value, final String code, final String description) {
+        this.value = value;
+        this.code = code;
+        this.description = description;
+    }
+
+    public static AsyncJobStatus fromInt(final Integer statusValue) {
+        AsyncJobStatus enumeration = AsyncJobStatus.FAILED;
+        switch (statusValue) {
+            case 0:
+                enumeration = AsyncJobStatus.QUEUED;
+                break;
+            case 1:
+                enumeration = AsyncJobStatus.RUNNING;
+                break;
+            case 2:
+                enumeration = AsyncJobStatus.COMPLETED;
+                break;
+        }
+        return enumeration;
+    }
+
+    public Integer getValue() {
+        return this.value;
+    }
+
+    public String getCode() {
+        return this.code;
+    }
+
+    public EnumOptionData toEnumOptionData() {
+        return new EnumOptionData(this.value.longValue(), this.code, this.description);
+    }
+
+    public boolean isCompleted() {
+        return this.equals(COMPLETED);
+    }
+
+    /**
+     * @return true while the job is waiting for or being run by a worker
+     */
+    public boolean isInFlight() {
+        return this.equals(QUEUED) || this.equals(RUNNING);
+    }
+}
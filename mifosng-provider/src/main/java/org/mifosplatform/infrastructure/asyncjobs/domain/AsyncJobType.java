@@ -0,0 +1,28 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.asyncjobs.domain;
+
+/**
+ * What a background job generates. The resource name of a job is the
+ * identifier of the data export or the name of the report.
+ */
+public enum AsyncJobType {
+
+    DATA_EXPORT, //
+    REPORT;
+
+    public static AsyncJobType fromName(final String name) {
+        return AsyncJobType.valueOf(name);
+    }
+
+    public boolean isDataExport() {
+        return this.equals(DATA_EXPORT);
+    }
+
+    public boolean isReport() {
+        return this.equals(REPORT);
+    }
+}
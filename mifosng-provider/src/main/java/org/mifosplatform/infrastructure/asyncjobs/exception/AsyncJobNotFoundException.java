@@ -0,0 +1,17 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.asyncjobs.exception;
+
+import org.mifosplatform.infrastructure.core.exception.AbstractPlatformResourceNotFoundException;
+
+public class AsyncJobNotFoundException extends AbstractPlatformResourceNotFoundException {
+
+    private static final long serialVersionUID = -3271935460384728261L;
+
+    public AsyncJobNotFoundException(final Long id) {
+        super("error.msg.async.job.not.found", "Background job with identifier " + id + " does not exist", id);
+    }
+}
@@ -0,0 +1,223 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.asyncjobs.service;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.mifosplatform.infrastructure.asyncjobs.data.AsyncJobData;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.documentmanagement.contentrepository.ContentRepositoryFactory;
+import org.mifosplatform.infrastructure.documentmanagement.domain.StorageType;
+import org.mifosplatform.infrastructure.security.service.TenantDetailsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs queued background jobs on a fixed number of worker threads, shared
+ * fairly between tenants.
+ *
+ * Tenants with queued jobs wait in a round-robin queue. A worker takes the
+ * tenant at its head, claims one job of that tenant and puts the tenant back
+ * at the tail before running the job, so a tenant that queued many jobs only
+ * gets one more worker once every other waiting tenant got one. A tenant never
+ * has more than {@link #MAX_RUNNING_JOBS_PER_TENANT} jobs running on a node.
+ *
+ * Every {@link #SWEEP_INTERVAL_SECONDS} seconds the queues of all tenants are
+ * checked for jobs left behind by a restart or queued on another node,
+ * abandoned jobs are failed and expired results are deleted.
+ */
+@Service
+public class AsyncJobDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncJobDispatcher.class);
+
+    private static final int WORKER_THREADS = 4;
+    private static final int MAX_RUNNING_JOBS_PER_TENANT = 2;
+    private static final int SWEEP_INTERVAL_SECONDS = 60;
+    private static final int MAX_RUNNING_HOURS = 6;
+    private static final int RESULT_RETENTION_HOURS = 24;
+
+    private final AsyncJobStore asyncJobStore;
+    private final AsyncJobProcessor asyncJobProcessor;
+    private final ContentRepositoryFactory contentRepositoryFactory;
+    private final TenantDetailsService tenantDetailsService;
+
+    private final LinkedBlockingQueue<MifosPlatformTenant> waitingTenants = new LinkedBlockingQueue<>();
+    private final Set<String> waitingTenantIdentifiers = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final ConcurrentMap<String, AtomicInteger> runningJobsByTenant = new ConcurrentHashMap<>();
+
+    private ExecutorService workerExecutor;
+    private ScheduledExecutorService sweepExecutor;
+
+    @Autowired
+    public AsyncJobDispatcher(final AsyncJobStore asyncJobStore, final AsyncJobProcessor asyncJobProcessor,
+            final ContentRepositoryFactory contentRepositoryFactory, final TenantDetailsService tenantDetailsService) {
+        this.asyncJobStore = asyncJobStore;
+        this.asyncJobProcessor = asyncJobProcessor;
+        this.contentRepositoryFactory = contentRepositoryFactory;
+        this.tenantDetailsService = tenantDetailsService;
+    }
+
+    @PostConstruct
+    public void start() {
+        this.workerExecutor = Executors.newFixedThreadPool(WORKER_THREADS, new NamedThreadFactory("async-job-worker-"));
+        for (int i = 0; i < WORKER_THREADS; i++) {
+            this.workerExecutor.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    work();
+                }
+            });
+        }
+        this.sweepExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("async-job-sweep-"));
+        this.sweepExecutor.scheduleWithFixedDelay(new Runnable() {
+
+            @Override
+            public void run() {
+                sweep();
+            }
+        }, SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.sweepExecutor.shutdownNow();
+        this.workerExecutor.shutdownNow();
+    }
+
+    /**
+     * Puts the tenant in the queue of tenants with jobs to run, unless it is
+     * already waiting there.
+     */
+    public void signal(final MifosPlatformTenant tenant) {
+        if (this.waitingTenantIdentifiers.add(tenant.getTenantIdentifier())) {
+            this.waitingTenants.offer(tenant);
+        }
+    }
+
+    private void work() {
+        while (!Thread.currentThread().isInterrupted()) {
+            final MifosPlatformTenant tenant;
+            try {
+                tenant = this.waitingTenants.take();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            this.waitingTenantIdentifiers.remove(tenant.getTenantIdentifier());
+            runNextJob(tenant);
+        }
+    }
+
+    private void runNextJob(final MifosPlatformTenant tenant) {
+        final AtomicInteger runningJobs = runningJobs(tenant.getTenantIdentifier());
+        // the tenant is signalled again when one of its running jobs is done
+        if (runningJobs.incrementAndGet() > MAX_RUNNING_JOBS_PER_TENANT) {
+            runningJobs.decrementAndGet();
+            return;
+        }
+
+        boolean ranJob = false;
+        ThreadLocalContextUtil.setTenant(tenant);
+        try {
+            final AsyncJobData job = this.asyncJobStore.claimNext();
+            if (job != null) {
+                ranJob = true;
+                signal(tenant);
+                this.asyncJobProcessor.process(job);
+            }
+        } catch (final RuntimeException e) {
+            logger.warn("Could not run the next background job of tenant " + tenant.getTenantIdentifier(), e);
+        } finally {
+            runningJobs.decrementAndGet();
+            ThreadLocalContextUtil.clearTenant();
+        }
+
+        if (ranJob) {
+            signal(tenant);
+        }
+    }
+
+    private void sweep() {
+        try {
+            for (final MifosPlatformTenant tenant : this.tenantDetailsService.findAllTenants()) {
+                ThreadLocalContextUtil.setTenant(tenant);
+                try {
+                    final int abandoned = this.asyncJobStore.failAbandoned(MAX_RUNNING_HOURS);
+                    if (abandoned > 0) {
+                        logger.warn("Failed " + abandoned + " abandoned background jobs of tenant " + tenant.getTenantIdentifier());
+                    }
+                    deleteExpiredResults();
+                    if (this.asyncJobStore.hasQueued()) {
+                        signal(tenant);
+                    }
+                } catch (final RuntimeException e) {
+                    logger.warn("Could not check the background jobs of tenant " + tenant.getTenantIdentifier(), e);
+                }
+            }
+        } catch (final RuntimeException e) {
+            logger.warn("Could not sweep the background jobs", e);
+        } finally {
+            ThreadLocalContextUtil.clearTenant();
+        }
+    }
+
+    private void deleteExpiredResults() {
+        for (final AsyncJobData job : this.asyncJobStore.findExpired(RESULT_RETENTION_HOURS)) {
+            if (job.getLocation() != null) {
+                this.contentRepositoryFactory.getRepository(StorageType.fromInt(job.getStorageType())).deleteFile(job.getFileName(),
+                        job.getLocation());
+            }
+            this.asyncJobStore.delete(job.getId());
+        }
+    }
+
+    private AtomicInteger runningJobs(final String tenantIdentifier) {
+        AtomicInteger runningJobs = this.runningJobsByTenant.get(tenantIdentifier);
+        if (runningJobs == null) {
+            final AtomicInteger newRunningJobs = new AtomicInteger();
+            runningJobs = this.runningJobsByTenant.putIfAbsent(tenantIdentifier, newRunningJobs);
+            if (runningJobs == null) {
+                runningJobs = newRunningJobs;
+            }
+        }
+        return runningJobs;
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        NamedThreadFactory(final String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, this.prefix + this.count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.asyncjobs.service;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.mifosplatform.infrastructure.asyncjobs.data.AsyncJobData;
+import org.mifosplatform.infrastructure.asyncjobs.data.AsyncJobRequest;
+import org.mifosplatform.infrastructure.core.serialization.JsonParserHelper;
+import org.mifosplatform.infrastructure.dataexport.data.DataExportFileData;
+import org.mifosplatform.infrastructure.dataexport.service.DataExportReadPlatformService;
+import org.mifosplatform.infrastructure.dataqueries.service.ReadReportingService;
+import org.mifosplatform.infrastructure.documentmanagement.command.DocumentCommand;
+import org.mifosplatform.infrastructure.documentmanagement.contentrepository.ContentRepository;
+import org.mifosplatform.infrastructure.documentmanagement.contentrepository.ContentRepositoryFactory;
+import org.mifosplatform.useradministration.domain.AppUser;
+import org.mifosplatform.useradministration.domain.AppUserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs a claimed job as the user who submitted it: the data export or report
+ * is written to a temporary file, which is then stored through the content
+ * repository under the <code>asyncjobs</code> entity type.
+ */
+@Component
+public class AsyncJobProcessor {
+
+    private final static Logger logger = LoggerFactory.getLogger(AsyncJobProcessor.class);
+
+    public static final String ENTITY_TYPE = "asyncjobs";
+
+    private final AsyncJobStore asyncJobStore;
+    private final DataExportReadPlatformService dataExportReadPlatformService;
+    private final ReadReportingService readReportingService;
+    private final ContentRepositoryFactory contentRepositoryFactory;
+    private final AppUserRepository appUserRepository;
+
+    @Autowired
+    public AsyncJobProcessor(final AsyncJobStore asyncJobStore, final DataExportReadPlatformService dataExportReadPlatformService,
+            final ReadReportingService readReportingService, final ContentRepositoryFactory contentRepositoryFactory,
+            final AppUserRepository appUserRepository) {
+        this.asyncJobStore = asyncJobStore;
+        this.dataExportReadPlatformService = dataExportReadPlatformService;
+        this.readReportingService = readReportingService;
+        this.contentRepositoryFactory = contentRepositoryFactory;
+        this.appUserRepository = appUserRepository;
+    }
+
+    public void process(final AsyncJobData job) {
+        final long startTime = System.currentTimeMillis();
+        File file = null;
+        try {
+            final AppUser submittedBy = this.appUserRepository.findOne(job.getSubmittedById());
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(submittedBy, submittedBy.getPassword(), submittedBy.getAuthorities()));
+
+            file = File.createTempFile("asyncjob", null);
+            final GeneratedFile generatedFile = job.getJobType().isDataExport() ? writeDataExport(job, file) : writeReport(job,
+                    submittedBy, file);
+
+            final ContentRepository contentRepository = this.contentRepositoryFactory.getRepositoryForGeneratedFiles();
+            final DocumentCommand documentCommand = new DocumentCommand(null, null, ENTITY_TYPE, job.getId(), generatedFile.fileName,
+                    generatedFile.fileName, file.length(), generatedFile.contentType, null, null, null, null);
+            final InputStream inputStream = new FileInputStream(file);
+            final String location;
+            try {
+                location = contentRepository.saveFile(inputStream, documentCommand);
+            } finally {
+                inputStream.close();
+            }
+
+            this.asyncJobStore.completed(job.getId(), generatedFile.fileName, generatedFile.contentType, file.length(), location,
+                    contentRepository.getStorageType().getValue());
+            logger.info("Background job " + job.getId() + " (" + job.getJobType() + " " + job.getResourceName() + ") completed in "
+                    + (System.currentTimeMillis() - startTime) + " ms");
+        } catch (final Exception e) {
+            logger.error("Background job " + job.getId() + " (" + job.getJobType() + " " + job.getResourceName() + ") failed", e);
+            this.asyncJobStore.failed(job.getId(), e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+        } finally {
+            SecurityContextHolder.clearContext();
+            if (file != null && !file.delete()) {
+                logger.warn("Unable to delete temporary file " + file);
+            }
+        }
+    }
+
+    private GeneratedFile writeDataExport(final AsyncJobData job, final File file) {
+        final AsyncJobRequest request = AsyncJobRequest.fromJson(job.getRequestParams());
+        final DataExportFileData dataExportFileData = this.dataExportReadPlatformService.createDataExportFile(
+                Long.valueOf(job.getResourceName()), request.getOutputType(), file);
+        return new GeneratedFile(dataExportFileData.getFileName(), dataExportFileData.getContentType());
+    }
+
+    private GeneratedFile writeReport(final AsyncJobData job, final AppUser submittedBy, final File file) throws IOException {
+        final String reportName = job.getResourceName();
+        final AsyncJobRequest request = AsyncJobRequest.fromJson(job.getRequestParams());
+        final String baseFileName = reportName.replaceAll(" ", "");
+
+        final OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file));
+        try {
+            if ("Pentaho".equalsIgnoreCase(this.readReportingService.getReportType(reportName))) {
+                final Locale locale = request.getLocale() == null ? null : JsonParserHelper.localeFromString(request.getLocale());
+                this.readReportingService.generatePentahoReport(reportName, request.getOutputType(), request.getParameters(), locale,
+                        submittedBy, new StringBuilder(), outputStream);
+                return pentahoFile(baseFileName, request.getOutputType());
+            }
+
+            final Map<String, String> reportParams = new HashMap<>();
+            for (final Map.Entry<String, String> parameter : request.getParameters().entrySet()) {
+                reportParams.put("${" + parameter.getKey() + "}", parameter.getValue());
+            }
+            if ("CSV".equalsIgnoreCase(request.getOutputType())) {
+                this.readReportingService.retrieveReportCSV(reportName, "report", reportParams).write(outputStream);
+                return new GeneratedFile(baseFileName + ".csv", "text/csv");
+            }
+            this.readReportingService.retrieveReportJSON(reportName, "report", reportParams, true, false).write(outputStream);
+            return new GeneratedFile(baseFileName + ".json", "application/json");
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    private static GeneratedFile pentahoFile(final String baseFileName, final String outputType) {
+        if ("PDF".equalsIgnoreCase(outputType)) { return new GeneratedFile(baseFileName + ".pdf", "application/pdf"); }
+        if ("XLS".equalsIgnoreCase(outputType)) { return new GeneratedFile(baseFileName + ".xls", "application/vnd.ms-excel"); }
+        if ("CSV".equalsIgnoreCase(outputType)) { return new GeneratedFile(baseFileName + ".csv", "text/csv"); }
+        return new GeneratedFile(baseFileName + ".html", "text/html");
+    }
+
+    private static final class GeneratedFile {
+
+        private final String fileName;
+        private final String contentType;
+
+        GeneratedFile(final String fileName, final String contentType) {
+            this.fileName = fileName;
+            this.contentType = contentType;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.asyncjobs.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.mifosplatform.infrastructure.asyncjobs.data.AsyncJobData;
+import org.mifosplatform.infrastructure.documentmanagement.data.FileData;
+
+/**
+ * Data exports and reports generated in the background instead of on the
+ * request thread. Identical requests of a user submitted while a job is in
+ * flight are answered with that job. Users only see the jobs they submitted.
+ */
+public interface AsyncJobService {
+
+    /**
+     * @return the identifier of the job generating the file of the data export
+     */
+    Long submitDataExport(Long dataExportId, String fileFormat);
+
+    /**
+     * @param parameters
+     *            report parameters, without their <code>R_</code> prefix
+     * @return the identifier of the job running the report
+     */
+    Long submitReport(String reportName, String outputType, String locale, Map<String, String> parameters);
+
+    AsyncJobData retrieveOne(Long jobId);
+
+    Collection<AsyncJobData> retrieveSubmittedByCurrentUser();
+
+    /**
+     * @return the file generated by the completed job
+     */
+    FileData retrieveResult(Long jobId);
+}
@@ -0,0 +1,136 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.asyncjobs.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.mifosplatform.infrastructure.asyncjobs.data.AsyncJobData;
+import org.mifosplatform.infrastructure.asyncjobs.data.AsyncJobRequest;
+import org.mifosplatform.infrastructure.asyncjobs.domain.AsyncJobType;
+import org.mifosplatform.infrastructure.asyncjobs.exception.AsyncJobNotFoundException;
+import org.mifosplatform.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.dataexport.domain.DataExport;
+import org.mifosplatform.infrastructure.dataexport.domain.DataExportRepository;
+import org.mifosplatform.infrastructure.dataexport.exception.DataExportNotFoundException;
+import org.mifosplatform.infrastructure.documentmanagement.contentrepository.ContentRepositoryFactory;
+import org.mifosplatform.infrastructure.documentmanagement.data.DocumentData;
+import org.mifosplatform.infrastructure.documentmanagement.data.FileData;
+import org.mifosplatform.infrastructure.documentmanagement.domain.StorageType;
+import org.mifosplatform.infrastructure.security.exception.NoAuthorizationException;
+import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.mifosplatform.useradministration.domain.AppUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+
+@Service
+public class AsyncJobServiceImpl implements AsyncJobService {
+
+    /**
+     * Submissions are refused once this many jobs of the tenant are waiting
+     * to run.
+     */
+    private static final int MAX_QUEUED_JOBS_PER_TENANT = 50;
+
+    private final PlatformSecurityContext context;
+    private final AsyncJobStore asyncJobStore;
+    private final AsyncJobDispatcher asyncJobDispatcher;
+    private final DataExportRepository dataExportRepository;
+    private final ContentRepositoryFactory contentRepositoryFactory;
+
+    @Autowired
+    public AsyncJobServiceImpl(final PlatformSecurityContext context, final AsyncJobStore asyncJobStore,
+            final AsyncJobDispatcher asyncJobDispatcher, final DataExportRepository dataExportRepository,
+            final ContentRepositoryFactory contentRepositoryFactory) {
+        this.context = context;
+        this.asyncJobStore = asyncJobStore;
+        this.asyncJobDispatcher = asyncJobDispatcher;
+        this.dataExportRepository = dataExportRepository;
+        this.contentRepositoryFactory = contentRepositoryFactory;
+    }
+
+    @Override
+    public Long submitDataExport(final Long dataExportId, final String fileFormat) {
+        final AppUser currentUser = this.context.authenticatedUser();
+        validateHasPermission(currentUser, AsyncJobType.DATA_EXPORT, dataExportId.toString());
+
+        final AsyncJobRequest request = AsyncJobRequest.instance(fileFormat, null, new HashMap<String, String>());
+        return submit(currentUser, AsyncJobType.DATA_EXPORT, dataExportId.toString(), request);
+    }
+
+    @Override
+    public Long submitReport(final String reportName, final String outputType, final String locale, final Map<String, String> parameters) {
+        final AppUser currentUser = this.context.authenticatedUser();
+        validateHasPermission(currentUser, AsyncJobType.REPORT, reportName);
+
+        final AsyncJobRequest request = AsyncJobRequest.instance(outputType, locale, parameters);
+        return submit(currentUser, AsyncJobType.REPORT, reportName, request);
+    }
+
+    @Override
+    public AsyncJobData retrieveOne(final Long jobId) {
+        final AppUser currentUser = this.context.authenticatedUser();
+        final AsyncJobData job = this.asyncJobStore.findOne(jobId);
+        // the jobs of other users are not revealed to exist
+        if (job == null || !currentUser.getId().equals(job.getSubmittedById())) { throw new AsyncJobNotFoundException(jobId); }
+        validateHasPermission(currentUser, job.getJobType(), job.getResourceName());
+        return job;
+    }
+
+    @Override
+    public Collection<AsyncJobData> retrieveSubmittedByCurrentUser() {
+        return this.asyncJobStore.findSubmittedBy(this.context.authenticatedUser().getId());
+    }
+
+    @Override
+    public FileData retrieveResult(final Long jobId) {
+        final AsyncJobData job = retrieveOne(jobId);
+        if (!job.getStatus().isCompleted()) { throw new GeneralPlatformDomainRuleException("error.msg.async.job.result.not.available",
+                "Background job with identifier " + jobId + " has not completed", jobId); }
+
+        final DocumentData documentData = new DocumentData(job.getId(), AsyncJobProcessor.ENTITY_TYPE, job.getId(), job.getFileName(),
+                job.getFileName(), job.getFileSize(), job.getContentType(), null, job.getLocation(), job.getStorageType());
+        return this.contentRepositoryFactory.getRepository(StorageType.fromInt(job.getStorageType())).fetchFile(documentData);
+    }
+
+    /**
+     * Requests are only shared with the jobs of the same user, who alone can
+     * read them back; reports are also restricted to the office hierarchy of
+     * the user running them.
+     */
+    private Long submit(final AppUser currentUser, final AsyncJobType jobType, final String resourceName, final AsyncJobRequest request) {
+        final String requestParams = request.toJson();
+        final StringBuilder requestKey = new StringBuilder(jobType.name()).append('/').append(resourceName).append('/')
+                .append(requestParams).append('/').append(currentUser.getId());
+
+        if (this.asyncJobStore.countQueued() >= MAX_QUEUED_JOBS_PER_TENANT) { throw new GeneralPlatformDomainRuleException(
+                "error.msg.async.job.queue.full", "Too many background jobs are waiting to run, try again later"); }
+
+        final Long jobId = this.asyncJobStore.enqueue(jobType, resourceName, requestParams,
+                Hashing.sha1().hashString(requestKey, Charsets.UTF_8).toString(), currentUser.getId());
+        this.asyncJobDispatcher.signal(ThreadLocalContextUtil.getTenant());
+        return jobId;
+    }
+
+    /**
+     * Checks the permission needed to run the export or report synchronously,
+     * which still applies to the status and result of a job once submitted.
+     */
+    private void validateHasPermission(final AppUser currentUser, final AsyncJobType jobType, final String resourceName) {
+        if (jobType.isDataExport()) {
+            final Long dataExportId = Long.valueOf(resourceName);
+            final DataExport dataExport = this.dataExportRepository.findByIdAndDeletedFalse(dataExportId);
+            if (dataExport == null) { throw new DataExportNotFoundException(dataExportId); }
+            currentUser.validateHasReadPermission(dataExport.getBaseEntityName());
+        } else if (currentUser.hasNotPermissionForReport(resourceName)) { throw new NoAuthorizationException(
+                "Not authorised to run report: " + resourceName); }
+    }
+}
@@ -0,0 +1,186 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.asyncjobs.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.commons.lang.StringUtils;
+import org.mifosplatform.infrastructure.asyncjobs.data.AsyncJobData;
+import org.mifosplatform.infrastructure.asyncjobs.domain.AsyncJobStatus;
+import org.mifosplatform.infrastructure.asyncjobs.domain.AsyncJobType;
+import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Access to <code>m_async_job</code> of the current tenant.
+ *
+ * While a job is queued or running its request key is also kept in the
+ * unique <code>inflight_request_key</code> column, so an identical request
+ * submitted in the meantime, on any node, is answered with the job already in
+ * flight. Workers claim queued jobs with a claim token before running them.
+ */
+@Component
+public class AsyncJobStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public AsyncJobStore(final RoutingDataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Queues a new job unless an identical request is already in flight.
+     *
+     * @return the identifier of the new job, or of the job in flight for the
+     *         same request
+     */
+    public Long enqueue(final AsyncJobType jobType, final String resourceName, final String requestParams, final String requestKey,
+            final Long submittedById) {
+        final Long inFlightJobId = findInFlight(requestKey);
+        if (inFlightJobId != null) { return inFlightJobId; }
+
+        final KeyHolder keyHolder = new GeneratedKeyHolder();
+        try {
+            this.jdbcTemplate.update(new PreparedStatementCreator() {
+
+                @Override
+                public PreparedStatement createPreparedStatement(final Connection connection) throws SQLException {
+                    final PreparedStatement ps = connection.prepareStatement("insert into m_async_job (job_type, resource_name, "
+                            + "request_params, request_key, inflight_request_key, status_enum, submittedby_id, submitted_date) "
+                            + "values (?, ?, ?, ?, ?, ?, ?, now())", Statement.RETURN_GENERATED_KEYS);
+                    ps.setString(1, jobType.name());
+                    ps.setString(2, resourceName);
+                    ps.setString(3, requestParams);
+                    ps.setString(4, requestKey);
+                    ps.setString(5, requestKey);
+                    ps.setInt(6, AsyncJobStatus.QUEUED.getValue());
+                    ps.setLong(7, submittedById);
+                    return ps;
+                }
+            }, keyHolder);
+        } catch (final DuplicateKeyException e) {
+            // submitted concurrently by another request
+            final Long concurrentJobId = findInFlight(requestKey);
+            if (concurrentJobId != null) { return concurrentJobId; }
+            throw e;
+        }
+        return keyHolder.getKey().longValue();
+    }
+
+    public long countQueued() {
+        return this.jdbcTemplate.queryForObject("select count(*) from m_async_job where status_enum = ?", Long.class,
+                AsyncJobStatus.QUEUED.getValue());
+    }
+
+    public AsyncJobData findOne(final Long jobId) {
+        final AsyncJobMapper rm = new AsyncJobMapper();
+        final List<AsyncJobData> jobs = this.jdbcTemplate.query("select " + rm.schema() + " where j.id = ?", rm, jobId);
+        return jobs.isEmpty() ? null : jobs.get(0);
+    }
+
+    public Collection<AsyncJobData> findSubmittedBy(final Long submittedById) {
+        final AsyncJobMapper rm = new AsyncJobMapper();
+        return this.jdbcTemplate.query("select " + rm.schema() + " where j.submittedby_id = ? order by j.id desc", rm, submittedById);
+    }
+
+    /**
+     * Claims the oldest queued job.
+     *
+     * @return the claimed job or <code>null</code> when none is queued
+     */
+    public AsyncJobData claimNext() {
+        final String claimToken = UUID.randomUUID().toString();
+        final int claimed = this.jdbcTemplate.update("update m_async_job set status_enum = ?, claim_token = ?, started_date = now() "
+                + "where status_enum = ? order by id limit 1", AsyncJobStatus.RUNNING.getValue(), claimToken,
+                AsyncJobStatus.QUEUED.getValue());
+        if (claimed == 0) { return null; }
+
+        final AsyncJobMapper rm = new AsyncJobMapper();
+        return this.jdbcTemplate.queryForObject("select " + rm.schema() + " where j.claim_token = ?", rm, claimToken);
+    }
+
+    public void completed(final Long jobId, final String fileName, final String contentType, final long fileSize, final String location,
+            final Integer storageType) {
+        this.jdbcTemplate.update("update m_async_job set status_enum = ?, inflight_request_key = null, claim_token = null, "
+                + "file_name = ?, content_type = ?, file_size = ?, location = ?, storage_type_enum = ?, completed_date = now() "
+                + "where id = ?", AsyncJobStatus.COMPLETED.getValue(), fileName, contentType, fileSize, location, storageType, jobId);
+    }
+
+    public void failed(final Long jobId, final String error) {
+        this.jdbcTemplate.update("update m_async_job set status_enum = ?, inflight_request_key = null, claim_token = null, error = ?, "
+                + "completed_date = now() where id = ?", AsyncJobStatus.FAILED.getValue(), StringUtils.abbreviate(error, 500), jobId);
+    }
+
+    /**
+     * Fails jobs that have been running for longer than any job should, as
+     * the worker running them is assumed to have died with its node.
+     */
+    public int failAbandoned(final int maxRunningHours) {
+        return this.jdbcTemplate.update("update m_async_job set status_enum = ?, inflight_request_key = null, claim_token = null, "
+                + "error = ?, completed_date = now() where status_enum = ? and started_date < date_sub(now(), interval ? hour)",
+                AsyncJobStatus.FAILED.getValue(), "Abandoned after running for more than " + maxRunningHours + " hours",
+                AsyncJobStatus.RUNNING.getValue(), maxRunningHours);
+    }
+
+    /**
+     * @return the finished jobs whose results have been kept long enough
+     */
+    public Collection<AsyncJobData> findExpired(final int retentionHours) {
+        final AsyncJobMapper rm = new AsyncJobMapper();
+        return this.jdbcTemplate.query("select " + rm.schema() + " where j.status_enum in (?, ?) "
+                + "and j.completed_date < date_sub(now(), interval ? hour)", rm, AsyncJobStatus.COMPLETED.getValue(),
+                AsyncJobStatus.FAILED.getValue(), retentionHours);
+    }
+
+    public void delete(final Long jobId) {
+        this.jdbcTemplate.update("delete from m_async_job where id = ?", jobId);
+    }
+
+    public boolean hasQueued() {
+        return !this.jdbcTemplate.queryForList("select id from m_async_job where status_enum = ? limit 1", Long.class,
+                AsyncJobStatus.QUEUED.getValue()).isEmpty();
+    }
+
+    private Long findInFlight(final String requestKey) {
+        final List<Long> jobIds = this.jdbcTemplate.queryForList("select id from m_async_job where inflight_request_key = ?", Long.class,
+                requestKey);
+        return jobIds.isEmpty() ? null : jobIds.get(0);
+    }
+
+    private static final class AsyncJobMapper implements RowMapper<AsyncJobData> {
+
+        public String schema() {
+            return " j.id, j.job_type, j.resource_name, j.status_enum, j.request_params, j.file_name, j.content_type, j.file_size, "
+                    + "j.location, j.storage_type_enum, j.error, j.submittedby_id, j.submitted_date, j.started_date, j.completed_date "
+                    + "from m_async_job j ";
+        }
+
+        @Override
+        public AsyncJobData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return AsyncJobData.instance(rs.getLong("id"), rs.getString("job_type"), rs.getString("resource_name"),
+                    rs.getInt("status_enum"), rs.getString("request_params"), rs.getString("file_name"), rs.getString("content_type"),
+                    JdbcSupport.getLong(rs, "file_size"), rs.getString("location"), JdbcSupport.getInteger(rs, "storage_type_enum"),
+                    rs.getString("error"), rs.getLong("submittedby_id"), JdbcSupport.getDateTime(rs, "submitted_date"),
+                    JdbcSupport.getDateTime(rs, "started_date"), JdbcSupport.getDateTime(rs, "completed_date"));
+        }
+    }
+}
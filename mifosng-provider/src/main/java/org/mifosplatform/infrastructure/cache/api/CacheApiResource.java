@@ -23,7 +23,9 @@ import org.mifosplatform.commands.domain.CommandWrapper;
 import org.mifosplatform.commands.service.CommandWrapperBuilder;
 import org.mifosplatform.commands.service.PortfolioCommandSourceWritePlatformService;
 import org.mifosplatform.infrastructure.cache.data.CacheData;
+import org.mifosplatform.infrastructure.cache.data.CacheRegionData;
 import org.mifosplatform.infrastructure.cache.service.RuntimeDelegatingCacheManager;
+import org.mifosplatform.infrastructure.cache.service.SecondLevelCacheService;
 import org.mifosplatform.infrastructure.core.api.ApiRequestParameterHelper;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
@@ -49,17 +51,22 @@ public class CacheApiResource {
     private final ApiRequestParameterHelper apiRequestParameterHelper;
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
     private final RuntimeDelegatingCacheManager cacheService;
+    private final SecondLevelCacheService secondLevelCacheService;
+    private final DefaultToApiJsonSerializer<CacheRegionData> toApiJsonRegionSerializer;
 
     @Autowired
     public CacheApiResource(final PlatformSecurityContext context,
             @Qualifier("runtimeDelegatingCacheManager") final RuntimeDelegatingCacheManager cacheService,
             final DefaultToApiJsonSerializer<CacheData> toApiJsonSerializer, final ApiRequestParameterHelper apiRequestParameterHelper,
-            final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService) {
+            final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
+            final SecondLevelCacheService secondLevelCacheService, final DefaultToApiJsonSerializer<CacheRegionData> toApiJsonRegionSerializer) {
         this.context = context;
         this.cacheService = cacheService;
         this.toApiJsonSerializer = toApiJsonSerializer;
         this.apiRequestParameterHelper = apiRequestParameterHelper;
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
+        this.secondLevelCacheService = secondLevelCacheService;
+        this.toApiJsonRegionSerializer = toApiJsonRegionSerializer;
     }
 
     @GET
@@ -73,6 +80,18 @@ public class CacheApiResource {
         return this.toApiJsonSerializer.serialize(settings, codes, this.RESPONSE_DATA_PARAMETERS);
     }
 
+    @GET
+    @Path("regions")
+    public String retrieveRegions(@Context final UriInfo uriInfo) {
+
+        this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
+
+        final Collection<CacheRegionData> regions = this.secondLevelCacheService.retrieveRegions();
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.toApiJsonRegionSerializer.serialize(settings, regions, this.RESPONSE_DATA_PARAMETERS);
+    }
+
     @PUT
     public String switchCache(final String apiRequestBodyAsJson) {
 
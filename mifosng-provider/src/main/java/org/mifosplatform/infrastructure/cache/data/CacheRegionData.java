@@ -0,0 +1,43 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.data;
+
+/**
+ * Immutable data object for a region of the second-level cache. All counts
+ * are for the tenant of the request, since its cache of the region was created.
+ */
+public class CacheRegionData {
+
+    @SuppressWarnings("unused")
+    private final String name;
+    @SuppressWarnings("unused")
+    private final long elementCountInMemory;
+    @SuppressWarnings("unused")
+    private final long hitCount;
+    @SuppressWarnings("unused")
+    private final long missCount;
+    @SuppressWarnings("unused")
+    private final long putCount;
+    @SuppressWarnings("unused")
+    private final Double hitRatio;
+
+    public static CacheRegionData instance(final String name, final long elementCountInMemory, final long hitCount, final long missCount,
+            final long putCount) {
+        final long lookups = hitCount + missCount;
+        final Double hitRatio = lookups == 0 ? null : Double.valueOf((double) hitCount / lookups);
+        return new CacheRegionData(name, elementCountInMemory, hitCount, missCount, putCount, hitRatio);
+    }
+
+    private CacheRegionData(final String name, final long elementCountInMemory, final long hitCount, final long missCount,
+            final long putCount, final Double hitRatio) {
+        this.name = name;
+        this.elementCountInMemory = elementCountInMemory;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.putCount = putCount;
+        this.hitRatio = hitRatio;
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.domain;
+
+import java.util.Properties;
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.config.CacheConfiguration;
+
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.ehcache.SingletonEhCacheRegionFactory;
+import org.hibernate.cache.spi.CacheDataDescription;
+import org.hibernate.cache.spi.CollectionRegion;
+import org.hibernate.cache.spi.EntityRegion;
+import org.hibernate.cache.spi.NaturalIdRegion;
+import org.hibernate.cache.spi.QueryResultsRegion;
+import org.hibernate.cache.spi.TimestampsRegion;
+
+/**
+ * Hibernate second-level cache on the ehcache {@link net.sf.ehcache.CacheManager}
+ * shared with the platform caches (<code>META-INF/spring/ehcache.xml</code>),
+ * keeping the entries of every region apart per tenant through
+ * {@link TenantRoutingEhcache}.
+ */
+public class TenantAwareEhCacheRegionFactory extends SingletonEhCacheRegionFactory {
+
+    /**
+     * The size of the cache of a region per tenant, as for the platform caches.
+     */
+    private static final int MAX_ENTRIES_LOCAL_HEAP = 10000;
+
+    public TenantAwareEhCacheRegionFactory() {
+        super();
+    }
+
+    public TenantAwareEhCacheRegionFactory(final Properties properties) {
+        super(properties);
+    }
+
+    @Override
+    public EntityRegion buildEntityRegion(final String regionName, final Properties properties, final CacheDataDescription metadata)
+            throws CacheException {
+        routeToTenantCaches(regionName);
+        return super.buildEntityRegion(regionName, properties, metadata);
+    }
+
+    @Override
+    public NaturalIdRegion buildNaturalIdRegion(final String regionName, final Properties properties, final CacheDataDescription metadata)
+            throws CacheException {
+        routeToTenantCaches(regionName);
+        return super.buildNaturalIdRegion(regionName, properties, metadata);
+    }
+
+    @Override
+    public CollectionRegion buildCollectionRegion(final String regionName, final Properties properties,
+            final CacheDataDescription metadata) throws CacheException {
+        routeToTenantCaches(regionName);
+        return super.buildCollectionRegion(regionName, properties, metadata);
+    }
+
+    @Override
+    public QueryResultsRegion buildQueryResultsRegion(final String regionName, final Properties properties) throws CacheException {
+        routeToTenantCaches(regionName);
+        return super.buildQueryResultsRegion(regionName, properties);
+    }
+
+    @Override
+    public TimestampsRegion buildTimestampsRegion(final String regionName, final Properties properties) throws CacheException {
+        routeToTenantCaches(regionName);
+        return super.buildTimestampsRegion(regionName, properties);
+    }
+
+    /**
+     * Registers the region under its own name as a {@link TenantRoutingEhcache},
+     * which Hibernate then picks up instead of creating a plain cache.
+     */
+    private synchronized void routeToTenantCaches(final String regionName) {
+        if (this.manager.getEhcache(regionName) instanceof TenantRoutingEhcache) { return; }
+
+        final CacheConfiguration configuration = new CacheConfiguration(regionName, MAX_ENTRIES_LOCAL_HEAP).eternal(true);
+        final Ehcache regionTemplate = new Cache(configuration);
+        this.manager.addDecoratedCache(new TenantRoutingEhcache(this.manager, regionTemplate));
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.domain;
+
+import java.io.Serializable;
+import java.util.List;
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.Element;
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.constructs.EhcacheDecoratorAdapter;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+
+/**
+ * Stands in for a Hibernate cache region in the {@link CacheManager} and sends
+ * every read and write of the region to a cache of the current tenant, named
+ * by {@link #tenantRegionName(String, String)}.
+ *
+ * The Hibernate region is shared by all tenants while their databases reuse
+ * the same identifiers, so entries cannot be kept in one cache. The decorated
+ * cache is never started: it only carries the name and configuration of the
+ * region, and any operation not routed here fails instead of mixing tenants.
+ */
+public class TenantRoutingEhcache extends EhcacheDecoratorAdapter {
+
+    private final CacheManager cacheManager;
+
+    public TenantRoutingEhcache(final CacheManager cacheManager, final Ehcache regionTemplate) {
+        super(regionTemplate);
+        this.cacheManager = cacheManager;
+    }
+
+    public static String tenantRegionName(final String tenantIdentifier, final String regionName) {
+        return tenantIdentifier + "/" + regionName;
+    }
+
+    /**
+     * @return the cache holding the entries of the region for the current
+     *         tenant, created on first use with the configuration of the region
+     */
+    public Ehcache tenantCache() {
+        // without a tenant the platform runs against the tenants database
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final String name = tenantRegionName(tenant == null ? "" : tenant.getTenantIdentifier(), getName());
+        final Ehcache cache = this.cacheManager.getEhcache(name);
+        if (cache != null) { return cache; }
+
+        final CacheConfiguration region = this.underlyingCache.getCacheConfiguration();
+        final CacheConfiguration configuration = new CacheConfiguration(name, (int) region.getMaxEntriesLocalHeap()) //
+                .eternal(region.isEternal()) //
+                .timeToLiveSeconds(region.getTimeToLiveSeconds()) //
+                .timeToIdleSeconds(region.getTimeToIdleSeconds()) //
+                .statistics(true);
+        return this.cacheManager.addCacheIfAbsent(new Cache(configuration));
+    }
+
+    /**
+     * Hibernate falls back to its own striped locks when the cache offers none,
+     * the decorated cache not being started.
+     */
+    @Override
+    public Object getInternalContext() {
+        return null;
+    }
+
+    @Override
+    public Element get(final Object key) {
+        return tenantCache().get(key);
+    }
+
+    @Override
+    public Element get(final Serializable key) {
+        return tenantCache().get(key);
+    }
+
+    @Override
+    public Element getQuiet(final Object key) {
+        return tenantCache().getQuiet(key);
+    }
+
+    @Override
+    public Element getQuiet(final Serializable key) {
+        return tenantCache().getQuiet(key);
+    }
+
+    @Override
+    public void put(final Element element) {
+        tenantCache().put(element);
+    }
+
+    @Override
+    public void put(final Element element, final boolean doNotNotifyCacheReplicators) {
+        tenantCache().put(element, doNotNotifyCacheReplicators);
+    }
+
+    @Override
+    public void putQuiet(final Element element) {
+        tenantCache().putQuiet(element);
+    }
+
+    @Override
+    public boolean remove(final Object key) {
+        return tenantCache().remove(key);
+    }
+
+    @Override
+    public boolean remove(final Serializable key) {
+        return tenantCache().remove(key);
+    }
+
+    @Override
+    public boolean remove(final Object key, final boolean doNotNotifyCacheReplicators) {
+        return tenantCache().remove(key, doNotNotifyCacheReplicators);
+    }
+
+    @Override
+    public boolean remove(final Serializable key, final boolean doNotNotifyCacheReplicators) {
+        return tenantCache().remove(key, doNotNotifyCacheReplicators);
+    }
+
+    @Override
+    public void removeAll() {
+        tenantCache().removeAll();
+    }
+
+    @Override
+    public void removeAll(final boolean doNotNotifyCacheReplicators) {
+        tenantCache().removeAll(doNotNotifyCacheReplicators);
+    }
+
+    @Override
+    public boolean isKeyInCache(final Object key) {
+        return tenantCache().isKeyInCache(key);
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public List getKeys() {
+        return tenantCache().getKeys();
+    }
+
+    @Override
+    public int getSize() {
+        return tenantCache().getSize();
+    }
+
+    @Override
+    public long getMemoryStoreSize() {
+        return tenantCache().getMemoryStoreSize();
+    }
+
+    @Override
+    public int getDiskStoreSize() {
+        return tenantCache().getDiskStoreSize();
+    }
+
+    @Override
+    public long calculateInMemorySize() {
+        return tenantCache().calculateInMemorySize();
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.service;
+
+import java.util.Collection;
+
+import org.mifosplatform.infrastructure.cache.data.CacheRegionData;
+
+/**
+ * Access to the Hibernate second-level cache holding the reference data
+ * (products, charges, offices, staff, code values and the like) of each tenant.
+ */
+public interface SecondLevelCacheService {
+
+    /**
+     * Evicts the cached entities of the given types, their cached collections
+     * and the cached query results of the current tenant once the running
+     * transaction commits, or straight away outside of a transaction.
+     */
+    void evictAfterCommit(Class<?>... entityTypes);
+
+    Collection<CacheRegionData> retrieveRegions();
+}
@@ -0,0 +1,114 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.persistence.EntityManagerFactory;
+
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.statistics.StatisticsGateway;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.ehcache.internal.regions.EhcacheDataRegion;
+import org.hibernate.cache.spi.Region;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.mifosplatform.accounting.producttoaccountmapping.service.ProductToGLAccountMappingCache;
+import org.mifosplatform.infrastructure.cache.data.CacheRegionData;
+import org.mifosplatform.infrastructure.cache.domain.TenantRoutingEhcache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Entity writes through JPA keep the second-level cache up to date by
+ * themselves; the write services still evict after commit so that rows changed
+ * with plain SQL are not served stale.
+ */
+@Service
+public class SecondLevelCacheServiceImpl implements SecondLevelCacheService {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ProductToGLAccountMappingCache productToGLAccountMappingCache;
+
+    @Autowired
+    public SecondLevelCacheServiceImpl(final EntityManagerFactory entityManagerFactory,
+            final ProductToGLAccountMappingCache productToGLAccountMappingCache) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.productToGLAccountMappingCache = productToGLAccountMappingCache;
+    }
+
+    @Override
+    public void evictAfterCommit(final Class<?>... entityTypes) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCommit() {
+                    evict(entityTypes);
+                }
+            });
+        } else {
+            evict(entityTypes);
+        }
+    }
+
+    /**
+     * The counts come from the ehcache statistics of the current tenant's cache
+     * of each region, not from Hibernate statistics, which are kept for the
+     * shared {@link SessionFactory} and so for all tenants together. The
+     * product to GL account mapping table of the tenant is listed with them.
+     */
+    @Override
+    public Collection<CacheRegionData> retrieveRegions() {
+        final Map<String, Region> regionsByName = new TreeMap<>(sessionFactory().getAllSecondLevelCacheRegions());
+
+        final List<CacheRegionData> regions = new ArrayList<>(regionsByName.size());
+        for (final Map.Entry<String, Region> region : regionsByName.entrySet()) {
+            if (!(region.getValue() instanceof EhcacheDataRegion)) {
+                continue;
+            }
+            final Ehcache regionCache = ((EhcacheDataRegion) region.getValue()).getEhcache();
+            if (regionCache instanceof TenantRoutingEhcache) {
+                final Ehcache tenantCache = ((TenantRoutingEhcache) regionCache).tenantCache();
+                final StatisticsGateway statistics = tenantCache.getStatistics();
+                regions.add(CacheRegionData.instance(region.getKey(), tenantCache.getMemoryStoreSize(), statistics.cacheHitCount(),
+                        statistics.cacheMissCount(), statistics.cachePutCount()));
+            }
+        }
+        regions.add(this.productToGLAccountMappingCache.retrieveRegion());
+        return regions;
+    }
+
+    /**
+     * Each region only clears the entries of the current tenant, see
+     * {@link org.mifosplatform.infrastructure.cache.domain.TenantRoutingEhcache}
+     */
+    private void evict(final Class<?>... entityTypes) {
+        final SessionFactoryImplementor sessionFactory = sessionFactory();
+        final Cache cache = sessionFactory.getCache();
+        for (final Class<?> entityType : entityTypes) {
+            cache.evictEntityRegion(entityType);
+            final String rolePrefix = entityType.getName() + ".";
+            for (final String role : sessionFactory.getAllCollectionMetadata().keySet()) {
+                if (role.startsWith(rolePrefix)) {
+                    cache.evictCollectionRegion(role);
+                }
+            }
+        }
+        cache.evictQueryRegions();
+    }
+
+    private SessionFactoryImplementor sessionFactory() {
+        return this.entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+}
@@ -5,12 +5,17 @@
  */
 package org.mifosplatform.infrastructure.codes.domain;
 
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface CodeValueRepository extends JpaRepository<CodeValue, Long>, JpaSpecificationExecutor<CodeValue> {
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     CodeValue findByCodeNameAndId(String codeName, Long id);
     
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     CodeValue findByCodeNameAndLabel (String codeName, String label);
 }
@@ -7,6 +7,7 @@ package org.mifosplatform.infrastructure.codes.service;
 
 import java.util.Map;
 
+import org.mifosplatform.infrastructure.cache.service.SecondLevelCacheService;
 import org.mifosplatform.infrastructure.codes.domain.Code;
 import org.mifosplatform.infrastructure.codes.domain.CodeRepository;
 import org.mifosplatform.infrastructure.codes.domain.CodeValue;
@@ -37,21 +38,23 @@ public class CodeValueWritePlatformServiceJpaRepositoryImpl implements CodeValue
     private final CodeValueRepository codeValueRepository;
     private final CodeRepository codeRepository;
     private final CodeValueCommandFromApiJsonDeserializer fromApiJsonDeserializer;
+    private final SecondLevelCacheService secondLevelCacheService;
 
     @Autowired
     public CodeValueWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context, final CodeRepository codeRepository,
             final CodeValueRepositoryWrapper codeValueRepositoryWrapper, final CodeValueRepository codeValueRepository,
-            final CodeValueCommandFromApiJsonDeserializer fromApiJsonDeserializer) {
+            final CodeValueCommandFromApiJsonDeserializer fromApiJsonDeserializer, final SecondLevelCacheService secondLevelCacheService) {
         this.context = context;
         this.codeRepository = codeRepository;
         this.codeValueRepositoryWrapper = codeValueRepositoryWrapper;
         this.codeValueRepository = codeValueRepository;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
+        this.secondLevelCacheService = secondLevelCacheService;
     }
 
     @Transactional
     @Override
-    @CacheEvict(value = "code_values", allEntries = true)
+    @CacheEvict(value = { "code_values", "datatables" }, allEntries = true)
     public CommandProcessingResult createCodeValue(final JsonCommand command) {
 
         try {
@@ -99,8 +102,9 @@ public class CodeValueWritePlatformServiceJpaRepositoryImpl implements CodeValue
 
     @Transactional
     @Override
-    @CacheEvict(value = "code_values", allEntries = true)
+    @CacheEvict(value = { "code_values", "datatables" }, allEntries = true)
     public CommandProcessingResult updateCodeValue(final Long codeValueId, final JsonCommand command) {
+        this.secondLevelCacheService.evictAfterCommit(CodeValue.class);
 
         try {
             this.context.authenticatedUser();
@@ -130,8 +134,9 @@ public class CodeValueWritePlatformServiceJpaRepositoryImpl implements CodeValue
 
     @Transactional
     @Override
-    @CacheEvict(value = "code_values", allEntries = true)
+    @CacheEvict(value = { "code_values", "datatables" }, allEntries = true)
     public CommandProcessingResult deleteCodeValue(final Long codeId, final Long codeValueId) {
+        this.secondLevelCacheService.evictAfterCommit(CodeValue.class);
 
         this.context.authenticatedUser();
 
@@ -27,6 +27,13 @@ public interface ConfigurationDomainService {
 
     void updateCache(CacheType cacheType);
 
+    /**
+     * Drops the configuration snapshot of the current tenant now and once the
+     * current transaction completes, so that configuration changes made by the
+     * transaction are picked up by the next read.
+     */
+    void refreshConfigurationSnapshot();
+
     Long retrievePenaltyWaitPeriod();
 
     Long retrievePenaltyOnMaturityWaitPeriod();
@@ -60,4 +67,15 @@ public interface ConfigurationDomainService {
     boolean isBackdatePenaltiesEnabled();
     
     boolean storeJournalEntryBalanceAtPeriodClosure();
-}
\ No newline at end of file
+
+    /**
+     * @return the largest file in MB that can be uploaded to the content
+     *         repository
+     */
+    int retrieveMaxFileUploadSizeInMB();
+
+    /**
+     * @return whether the global search is answered from the search index
+     */
+    boolean isSearchIndexEnabled();
+}
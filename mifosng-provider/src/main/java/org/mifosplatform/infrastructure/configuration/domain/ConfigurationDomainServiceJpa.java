@@ -5,56 +5,82 @@
  */
 package org.mifosplatform.infrastructure.configuration.domain;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.apache.commons.lang.StringUtils;
 import org.mifosplatform.infrastructure.cache.domain.CacheType;
 import org.mifosplatform.infrastructure.cache.domain.PlatformCache;
 import org.mifosplatform.infrastructure.cache.domain.PlatformCacheRepository;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.documentmanagement.contentrepository.ContentRepository;
 import org.mifosplatform.useradministration.domain.Permission;
 import org.mifosplatform.useradministration.domain.PermissionRepository;
 import org.mifosplatform.useradministration.exception.PermissionNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+/**
+ * Answers configuration questions from an immutable per-tenant
+ * {@link ConfigurationSnapshot} so that they need no database access once the
+ * snapshot is taken. Services changing the configuration call
+ * {@link #refreshConfigurationSnapshot()} so that a new snapshot is taken after
+ * their transaction completes.
+ */
 @Service
 public class ConfigurationDomainServiceJpa implements ConfigurationDomainService {
 
     private final PermissionRepository permissionRepository;
     private final GlobalConfigurationRepositoryWrapper globalConfigurationRepository;
     private final PlatformCacheRepository cacheTypeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentMap<String, ConfigurationSnapshot> snapshotsByTenant = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
 
     @Autowired
     public ConfigurationDomainServiceJpa(final PermissionRepository permissionRepository,
-            final GlobalConfigurationRepositoryWrapper globalConfigurationRepository, final PlatformCacheRepository cacheTypeRepository) {
+            final GlobalConfigurationRepositoryWrapper globalConfigurationRepository, final PlatformCacheRepository cacheTypeRepository,
+            final RoutingDataSource dataSource) {
         this.permissionRepository = permissionRepository;
         this.globalConfigurationRepository = globalConfigurationRepository;
         this.cacheTypeRepository = cacheTypeRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
     }
 
     @Override
     public boolean isMakerCheckerEnabledForTask(final String taskPermissionCode) {
         if (StringUtils.isBlank(taskPermissionCode)) { throw new PermissionNotFoundException(taskPermissionCode); }
 
-        final Permission thisTask = this.permissionRepository.findOneByCode(taskPermissionCode);
-        if (thisTask == null) { throw new PermissionNotFoundException(taskPermissionCode); }
+        Boolean makerCheckerEnabled = snapshot().isMakerCheckerEnabled(taskPermissionCode);
+        if (makerCheckerEnabled == null) {
+            // permission registered after the snapshot was taken
+            final Permission thisTask = this.permissionRepository.findOneByCode(taskPermissionCode);
+            if (thisTask == null) { throw new PermissionNotFoundException(taskPermissionCode); }
+            makerCheckerEnabled = thisTask.hasMakerCheckerEnabled();
+            evictSnapshot(currentTenantIdentifier());
+        }
 
         final String makerCheckerConfigurationProperty = "maker-checker";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository
-                .findOneByNameWithNotFoundDetection(makerCheckerConfigurationProperty);
+        final ConfigurationSnapshot.Property property = property(makerCheckerConfigurationProperty);
 
-        return thisTask.hasMakerCheckerEnabled() && property.isEnabled();
+        return makerCheckerEnabled && property.isEnabled();
     }
 
     @Override
     public boolean isAmazonS3Enabled() {
-        return this.globalConfigurationRepository.findOneByNameWithNotFoundDetection("amazon-S3").isEnabled();
+        return property("amazon-S3").isEnabled();
     }
 
     @Override
     public boolean isRescheduleFutureRepaymentsEnabled() {
         final String rescheduleRepaymentsConfigurationProperty = "reschedule-future-repayments";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository
-                .findOneByNameWithNotFoundDetection(rescheduleRepaymentsConfigurationProperty);
+        final ConfigurationSnapshot.Property property = property(rescheduleRepaymentsConfigurationProperty);
         return property.isEnabled();
     }
 
@@ -67,36 +93,36 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     @Override
     public boolean isRescheduleRepaymentsOnHolidaysEnabled() {
         final String holidaysConfigurationProperty = "reschedule-repayments-on-holidays";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository
-                .findOneByNameWithNotFoundDetection(holidaysConfigurationProperty);
+        final ConfigurationSnapshot.Property property = property(holidaysConfigurationProperty);
         return property.isEnabled();
     }
 
     @Override
     public boolean allowTransactionsOnHolidayEnabled() {
         final String allowTransactionsOnHolidayProperty = "allow-transactions-on-holiday";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository
-                .findOneByNameWithNotFoundDetection(allowTransactionsOnHolidayProperty);
+        final ConfigurationSnapshot.Property property = property(allowTransactionsOnHolidayProperty);
         return property.isEnabled();
     }
 
     @Override
     public boolean allowTransactionsOnNonWorkingDayEnabled() {
         final String propertyName = "allow-transactions-on-non_workingday";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final ConfigurationSnapshot.Property property = property(propertyName);
         return property.isEnabled();
     }
 
     @Override
     public boolean isConstraintApproachEnabledForDatatables() {
         final String propertyName = "constraint_approach_for_datatables";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final ConfigurationSnapshot.Property property = property(propertyName);
         return property.isEnabled();
     }
 
     @Override
     public boolean isEhcacheEnabled() {
-        return this.cacheTypeRepository.findOne(Long.valueOf(1)).isEhcacheEnabled();
+        final CacheType cacheType = snapshot().cacheType();
+        if (cacheType == null) { return this.cacheTypeRepository.findOne(Long.valueOf(1)).isEhcacheEnabled(); }
+        return cacheType.isEhcache();
     }
 
     @Transactional
@@ -105,19 +131,35 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
         final PlatformCache cache = this.cacheTypeRepository.findOne(Long.valueOf(1));
         cache.update(cacheType);
         this.cacheTypeRepository.save(cache);
+        refreshConfigurationSnapshot();
+    }
+
+    @Override
+    public void refreshConfigurationSnapshot() {
+        final String tenantIdentifier = currentTenantIdentifier();
+        evictSnapshot(tenantIdentifier);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(@SuppressWarnings("unused") final int status) {
+                    evictSnapshot(tenantIdentifier);
+                }
+            });
+        }
     }
 
     @Override
     public Long retrievePenaltyWaitPeriod() {
         final String propertyName = "penalty-wait-period";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final ConfigurationSnapshot.Property property = property(propertyName);
         return property.getValue();
     }
 
     @Override
     public Long  retrievePenaltyOnMaturityWaitPeriod() {
         final String propertyName = "penalty_on_maturity_wait_period";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final ConfigurationSnapshot.Property property = property(propertyName);
         return property.getValue();
     }
 
@@ -125,42 +167,42 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     @Override
     public Long retrieveGraceOnPenaltyPostingPeriod() {
         final String propertyName = "grace-on-penalty-posting";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final ConfigurationSnapshot.Property property = property(propertyName);
         return property.getValue();
     }
 
     @Override
     public boolean isPasswordForcedResetEnable() {
         final String propertyName = "force-password-reset-days";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final ConfigurationSnapshot.Property property = property(propertyName);
         return property.isEnabled();
     }
 
     @Override
     public Long retrievePasswordLiveTime() {
         final String propertyName = "force-password-reset-days";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final ConfigurationSnapshot.Property property = property(propertyName);
         return property.getValue();
     }
 
     @Override
     public Long retrieveOpeningBalancesContraAccount() {
         final String propertyName = "office-opening-balances-contra-account";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final ConfigurationSnapshot.Property property = property(propertyName);
         return property.getValue();
     }
 
     @Override
     public boolean isSavingsInterestPostingAtCurrentPeriodEnd() {
         final String propertyName = "savings-interest-posting-current-period-end";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final ConfigurationSnapshot.Property property = property(propertyName);
         return property.isEnabled();
     }
 
     @Override
     public Integer retrieveFinancialYearBeginningMonth() {
         final String propertyName = "financial-year-beginning-month";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final ConfigurationSnapshot.Property property = property(propertyName);
         if (property.isEnabled()) return property.getValue().intValue();
         return 1;
     }
@@ -168,7 +210,7 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     @Override
     public Integer retrieveMinAllowedClientsInGroup() {
         final String propertyName = "min-clients-in-group";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final ConfigurationSnapshot.Property property = property(propertyName);
         if (property.isEnabled()) { return property.getValue().intValue(); }
         return null;
     }
@@ -176,7 +218,7 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     @Override
     public Integer retrieveMaxAllowedClientsInGroup() {
         final String propertyName = "max-clients-in-group";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final ConfigurationSnapshot.Property property = property(propertyName);
         if (property.isEnabled()) { return property.getValue().intValue(); }
         return null;
     }
@@ -184,7 +226,7 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     @Override
     public boolean isMeetingMandatoryForJLGLoans() {
         final String propertyName = "meetings-mandatory-for-jlg-loans";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final ConfigurationSnapshot.Property property = property(propertyName);
         return property.isEnabled();
     }
 
@@ -192,7 +234,7 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     public int getRoundingMode() {
         final String propertyName = "rounding-mode";
         int defaultValue = 6; // 6 Stands for HALF-EVEN
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final ConfigurationSnapshot.Property property = property(propertyName);
         if (property.isEnabled()) {
             int value = property.getValue().intValue();
             if (value < 0 || value > 6) {
@@ -207,7 +249,7 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     public Integer getCurrencyDigits() {
         final String propertyName = "currency_digit";
         Integer defaultValue = 2;
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final ConfigurationSnapshot.Property property = property(propertyName);
         if (property.isEnabled()) {
             int value = property.getValue().intValue();
             if (value < 0 || value > 2) {
@@ -222,7 +264,7 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     public Integer getShowCompanyDetails() {
         final String propertyName = "show_company_details";
         Integer defaultValue = 1;
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final ConfigurationSnapshot.Property property = property(propertyName);
         if (property.isEnabled()) {
             int value = property.getValue().intValue();
             if (value < 0 || value > 1) {
@@ -235,20 +277,73 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
 
     public boolean isBackdatePenaltiesEnabled() {
         final String propertyName = "backdate-penalties-enabled";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final ConfigurationSnapshot.Property property = property(propertyName);
         return property.isEnabled();
     }
 
     @Override
     public boolean storeJournalEntryBalanceAtPeriodClosure() {
         final String propertyName = "store-journal-entry-balance-at-period-closure";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final ConfigurationSnapshot.Property property = property(propertyName);
+        return property.isEnabled();
+    }
+
+    @Override
+    public int retrieveMaxFileUploadSizeInMB() {
+        final String propertyName = "max-file-upload-size-mb";
+        final ConfigurationSnapshot.Property property = property(propertyName);
+        if (property.isEnabled() && property.getValue() != null) { return property.getValue().intValue(); }
+        return ContentRepository.MAX_FILE_UPLOAD_SIZE_IN_MB;
+    }
+
+    @Override
+    public boolean isSearchIndexEnabled() {
+        final String propertyName = "search-index-enabled";
+        final ConfigurationSnapshot.Property property = property(propertyName);
         return property.isEnabled();
     }
 
     public String getCompanyId() {
         final String propertyName = "company_id";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final ConfigurationSnapshot.Property property = property(propertyName);
         return property.getTextValue();
     }
+
+    private ConfigurationSnapshot.Property property(final String propertyName) {
+        final ConfigurationSnapshot.Property property = snapshot().property(propertyName);
+        if (property != null) { return property; }
+
+        // property added after the snapshot was taken
+        final GlobalConfigurationProperty addedProperty = this.globalConfigurationRepository
+                .findOneByNameWithNotFoundDetection(propertyName);
+        evictSnapshot(currentTenantIdentifier());
+        return ConfigurationSnapshot.Property.from(addedProperty);
+    }
+
+    /**
+     * Returns the configuration snapshot of the current tenant, taking it on
+     * first use. A snapshot taken while the configuration was being changed is
+     * used once but not kept.
+     */
+    private ConfigurationSnapshot snapshot() {
+        final String tenantIdentifier = currentTenantIdentifier();
+        final ConfigurationSnapshot snapshot = this.snapshotsByTenant.get(tenantIdentifier);
+        if (snapshot != null) { return snapshot; }
+
+        final long generationAtLoad = this.generation.get();
+        final ConfigurationSnapshot loadedSnapshot = ConfigurationSnapshot.load(this.jdbcTemplate);
+        if (generationAtLoad == this.generation.get()) {
+            this.snapshotsByTenant.putIfAbsent(tenantIdentifier, loadedSnapshot);
+        }
+        return loadedSnapshot;
+    }
+
+    private void evictSnapshot(final String tenantIdentifier) {
+        this.generation.incrementAndGet();
+        this.snapshotsByTenant.remove(tenantIdentifier);
+    }
+
+    private static String currentTenantIdentifier() {
+        return ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+    }
 }
\ No newline at end of file
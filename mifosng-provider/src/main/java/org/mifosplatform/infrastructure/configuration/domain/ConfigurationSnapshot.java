@@ -0,0 +1,114 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.configuration.domain;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.mifosplatform.infrastructure.cache.domain.CacheType;
+import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Immutable copy of the global configuration of a tenant:
+ * <code>c_configuration</code>, the maker-checker flags of
+ * <code>m_permission</code> and the cache type of <code>c_cache</code>.
+ */
+final class ConfigurationSnapshot {
+
+    private final ImmutableMap<String, Property> propertiesByName;
+    private final ImmutableMap<String, Boolean> makerCheckerEnabledByPermissionCode;
+    private final CacheType cacheType;
+
+    static ConfigurationSnapshot load(final JdbcTemplate jdbcTemplate) {
+        final Map<String, Property> propertiesByName = new HashMap<>();
+        jdbcTemplate.query("select name, enabled, value, text_value from c_configuration", new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                propertiesByName.put(rs.getString("name"),
+                        new Property(rs.getBoolean("enabled"), JdbcSupport.getLong(rs, "value"), rs.getString("text_value")));
+            }
+        });
+
+        final Map<String, Boolean> makerCheckerEnabledByPermissionCode = new HashMap<>();
+        jdbcTemplate.query("select code, can_maker_checker from m_permission", new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                makerCheckerEnabledByPermissionCode.put(rs.getString("code"), rs.getBoolean("can_maker_checker"));
+            }
+        });
+
+        final List<Integer> cacheTypes = jdbcTemplate.queryForList("select cache_type_enum from c_cache where id = 1", Integer.class);
+        final CacheType cacheType = cacheTypes.isEmpty() ? null : CacheType.fromInt(cacheTypes.get(0));
+
+        return new ConfigurationSnapshot(ImmutableMap.copyOf(propertiesByName), ImmutableMap.copyOf(makerCheckerEnabledByPermissionCode),
+                cacheType);
+    }
+
+    private ConfigurationSnapshot(final ImmutableMap<String, Property> propertiesByName,
+            final ImmutableMap<String, Boolean> makerCheckerEnabledByPermissionCode, final CacheType cacheType) {
+        this.propertiesByName = propertiesByName;
+        this.makerCheckerEnabledByPermissionCode = makerCheckerEnabledByPermissionCode;
+        this.cacheType = cacheType;
+    }
+
+    /**
+     * @return the property or <code>null</code> if it is not part of the
+     *         snapshot
+     */
+    Property property(final String name) {
+        return this.propertiesByName.get(name);
+    }
+
+    /**
+     * @return the maker-checker flag of the permission or <code>null</code> if
+     *         it is not part of the snapshot
+     */
+    Boolean isMakerCheckerEnabled(final String permissionCode) {
+        return this.makerCheckerEnabledByPermissionCode.get(permissionCode);
+    }
+
+    CacheType cacheType() {
+        return this.cacheType;
+    }
+
+    static final class Property {
+
+        private final boolean enabled;
+        private final Long value;
+        private final String textValue;
+
+        Property(final boolean enabled, final Long value, final String textValue) {
+            this.enabled = enabled;
+            this.value = value;
+            this.textValue = textValue;
+        }
+
+        static Property from(final GlobalConfigurationProperty property) {
+            return new Property(property.isEnabled(), property.getValue(), property.getTextValue());
+        }
+
+        boolean isEnabled() {
+            return this.enabled;
+        }
+
+        Long getValue() {
+            return this.value;
+        }
+
+        String getTextValue() {
+            return this.textValue;
+        }
+    }
+}
@@ -8,6 +8,7 @@ package org.mifosplatform.infrastructure.configuration.service;
 import java.util.Map;
 
 import org.mifosplatform.infrastructure.configuration.data.GlobalConfigurationDataValidator;
+import org.mifosplatform.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.mifosplatform.infrastructure.configuration.domain.GlobalConfigurationProperty;
 import org.mifosplatform.infrastructure.configuration.domain.GlobalConfigurationRepositoryWrapper;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
@@ -30,13 +31,16 @@ public class GlobalConfigurationWritePlatformServiceJpaRepositoryImpl implements
     private final PlatformSecurityContext context;
     private final GlobalConfigurationRepositoryWrapper repository;
     private final GlobalConfigurationDataValidator globalConfigurationDataValidator;
+    private final ConfigurationDomainService configurationDomainService;
 
     @Autowired
     public GlobalConfigurationWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
-            final GlobalConfigurationRepositoryWrapper codeRepository, final GlobalConfigurationDataValidator dataValidator) {
+            final GlobalConfigurationRepositoryWrapper codeRepository, final GlobalConfigurationDataValidator dataValidator,
+            final ConfigurationDomainService configurationDomainService) {
         this.context = context;
         this.repository = codeRepository;
         this.globalConfigurationDataValidator = dataValidator;
+        this.configurationDomainService = configurationDomainService;
 
     }
 
@@ -55,6 +59,7 @@ public class GlobalConfigurationWritePlatformServiceJpaRepositoryImpl implements
 
             if (!changes.isEmpty()) {
                 this.repository.save(configItemForUpdate);
+                this.configurationDomainService.refreshConfigurationSnapshot();
             }
 
             return new CommandProcessingResultBuilder().withCommandId(command.commandId()).withEntityId(configId).with(changes).build();
@@ -73,6 +78,7 @@ public class GlobalConfigurationWritePlatformServiceJpaRepositoryImpl implements
         try{
             final GlobalConfigurationProperty ppi = GlobalConfigurationProperty.newSurveyConfiguration(name);
             this.repository.save(ppi);
+            this.configurationDomainService.refreshConfigurationSnapshot();
         }
         catch (final DataIntegrityViolationException dve)
         {
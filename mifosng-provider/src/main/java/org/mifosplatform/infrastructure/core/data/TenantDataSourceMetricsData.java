@@ -0,0 +1,55 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.data;
+
+/**
+ * Immutable data object representing the state of the connection pool of a
+ * tenant.
+ */
+public class TenantDataSourceMetricsData {
+
+    @SuppressWarnings("unused")
+    private final String poolName;
+    @SuppressWarnings("unused")
+    private final int maxActive;
+    @SuppressWarnings("unused")
+    private final int minIdle;
+    @SuppressWarnings("unused")
+    private final int maxIdle;
+    @SuppressWarnings("unused")
+    private final int size;
+    @SuppressWarnings("unused")
+    private final int active;
+    @SuppressWarnings("unused")
+    private final int idle;
+    @SuppressWarnings("unused")
+    private final int waiting;
+    @SuppressWarnings("unused")
+    private final long borrowCount;
+    @SuppressWarnings("unused")
+    private final long borrowTimeoutCount;
+    @SuppressWarnings("unused")
+    private final long averageWaitMillis;
+    @SuppressWarnings("unused")
+    private final long maxWaitMillis;
+
+    public TenantDataSourceMetricsData(final String poolName, final int maxActive, final int minIdle, final int maxIdle, final int size,
+            final int active, final int idle, final int waiting, final long borrowCount, final long borrowTimeoutCount,
+            final long averageWaitMillis, final long maxWaitMillis) {
+        this.poolName = poolName;
+        this.maxActive = maxActive;
+        this.minIdle = minIdle;
+        this.maxIdle = maxIdle;
+        this.size = size;
+        this.active = active;
+        this.idle = idle;
+        this.waiting = waiting;
+        this.borrowCount = borrowCount;
+        this.borrowTimeoutCount = borrowTimeoutCount;
+        this.averageWaitMillis = averageWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.domain;
+
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.MappedSuperclass;
+import javax.persistence.Transient;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.jpa.domain.AbstractPersistable;
+
+/**
+ * A copy of {@link AbstractPersistable} for the entities inserted in bulk,
+ * whose identifiers come from {@link PooledIdGenerator} instead of the auto
+ * increment column, which keeps Hibernate from batching their inserts.
+ */
+@MappedSuperclass
+public abstract class AbstractPooledIdPersistable implements Persistable<Long> {
+
+    private static final long serialVersionUID = -4125818462470419379L;
+
+    @Id
+    @GeneratedValue(generator = "pooledId")
+    @GenericGenerator(name = "pooledId", strategy = "org.mifosplatform.infrastructure.core.domain.PooledIdGenerator")
+    private Long id;
+
+    @Override
+    public Long getId() {
+        return this.id;
+    }
+
+    protected void setId(final Long id) {
+        this.id = id;
+    }
+
+    @Override
+    @Transient
+    public boolean isNew() {
+        return null == getId();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Entity of type %s with id: %s", this.getClass().getName(), getId());
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (null == obj) { return false; }
+        if (this == obj) { return true; }
+        if (!getClass().equals(obj.getClass())) { return false; }
+
+        final AbstractPooledIdPersistable that = (AbstractPooledIdPersistable) obj;
+        return null == this.getId() ? false : this.getId().equals(that.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 17;
+        hashCode += null == getId() ? 0 : getId().hashCode() * 31;
+        return hashCode;
+    }
+}
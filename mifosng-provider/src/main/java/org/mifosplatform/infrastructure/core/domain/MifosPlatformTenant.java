@@ -12,14 +12,24 @@ public class MifosPlatformTenant {
     private final String name;
     private final String timezoneId;
     private final MifosPlatformTenantConnection connection;
+    private final MifosPlatformTenantConnection readReplicaConnection;
+    private final int readReplicaMaxLagSeconds;
 
     public MifosPlatformTenant(final Long id, final String tenantIdentifier, final String name,
             final String timezoneId, final MifosPlatformTenantConnection connection) {
+        this(id, tenantIdentifier, name, timezoneId, connection, null, 0);
+    }
+
+    public MifosPlatformTenant(final Long id, final String tenantIdentifier, final String name, final String timezoneId,
+            final MifosPlatformTenantConnection connection, final MifosPlatformTenantConnection readReplicaConnection,
+            final int readReplicaMaxLagSeconds) {
         this.id = id;
         this.tenantIdentifier = tenantIdentifier;
         this.name = name;
         this.timezoneId = timezoneId;
         this.connection = connection;
+        this.readReplicaConnection = readReplicaConnection;
+        this.readReplicaMaxLagSeconds = readReplicaMaxLagSeconds;
     }
 
     public Long getId() {
@@ -42,4 +52,20 @@ public class MifosPlatformTenant {
         return connection;
     }
 
+    /**
+     * @return the connection to the read replica of the tenant database, or
+     *         <code>null</code> when the tenant has none
+     */
+    public MifosPlatformTenantConnection getReadReplicaConnection() {
+        return this.readReplicaConnection;
+    }
+
+    /**
+     * @return how many seconds the read replica may lag behind the tenant
+     *         database and still be used
+     */
+    public int getReadReplicaMaxLagSeconds() {
+        return this.readReplicaMaxLagSeconds;
+    }
+
 }
\ No newline at end of file
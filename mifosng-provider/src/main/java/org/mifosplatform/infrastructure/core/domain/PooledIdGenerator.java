@@ -0,0 +1,59 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.domain;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.Configurable;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.jdbc.AbstractReturningWork;
+import org.hibernate.type.Type;
+
+/**
+ * Hibernate identifier generator taking the identifiers of an entity from
+ * {@link PooledIdSequence}, so that Hibernate can batch its inserts.
+ *
+ * Hibernate's own table generators keep one block of identifiers per entity
+ * for all tenants, which would hand identifiers reserved in one tenant
+ * database out to the others; blocks are kept per tenant here.
+ */
+public class PooledIdGenerator implements IdentifierGenerator, Configurable {
+
+    private String sequenceName;
+
+    @Override
+    public void configure(@SuppressWarnings("unused") final Type type, final Properties params,
+            @SuppressWarnings("unused") final Dialect dialect) throws MappingException {
+        this.sequenceName = params.getProperty(PersistentIdentifierGenerator.TABLE);
+        if (this.sequenceName == null) { throw new MappingException("No table to generate identifiers for"); }
+    }
+
+    @Override
+    public Serializable generate(final SessionImplementor session, @SuppressWarnings("unused") final Object object) {
+        final long id = PooledIdSequence.nextIds(this.sequenceName, 1, new PooledIdSequence.BlockReservation() {
+
+            @Override
+            public long reserve(final int size) {
+                return session.getTransactionCoordinator().getTransaction().createIsolationDelegate()
+                        .delegateWork(new AbstractReturningWork<Long>() {
+
+                            @Override
+                            public Long execute(final Connection connection) throws SQLException {
+                                return PooledIdSequence.reserveBlock(connection, PooledIdGenerator.this.sequenceName, size);
+                            }
+                        }, true);
+            }
+        });
+        return Long.valueOf(id);
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.domain;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+
+/**
+ * Hands out the identifiers of the tables keyed from the <code>m_sequence</code>
+ * table instead of their auto increment column.
+ *
+ * Each row of <code>m_sequence</code> holds the lowest identifier not yet
+ * reserved for a table. Identifiers are reserved in blocks of
+ * {@link #INCREMENT_SIZE} and kept in memory per tenant and table, so that
+ * only one in every {@link #INCREMENT_SIZE} inserts costs a round-trip and the
+ * inserts themselves can be sent in JDBC batches. Identifiers of a block that
+ * is not used up before a restart are skipped, never reused.
+ */
+public final class PooledIdSequence {
+
+    /**
+     * The number of identifiers reserved per round-trip, matching
+     * <code>hibernate.jdbc.batch_size</code>.
+     */
+    public static final int INCREMENT_SIZE = 100;
+
+    private static final String RESERVE_SQL = "update m_sequence set next_val = last_insert_id(next_val + ?) where sequence_name = ?";
+
+    private static final ConcurrentMap<String, Block> blocksByTenantAndSequence = new ConcurrentHashMap<>();
+
+    private PooledIdSequence() {
+        //
+    }
+
+    /**
+     * Reserves a block of identifiers in <code>m_sequence</code>.
+     */
+    public interface BlockReservation {
+
+        /**
+         * @return the first identifier of the block of <code>size</code>
+         *         consecutive identifiers reserved
+         */
+        long reserve(int size);
+    }
+
+    /**
+     * @return the first of <code>count</code> consecutive identifiers of the
+     *         given table of the current tenant
+     */
+    public static long nextIds(final String sequenceName, final int count, final BlockReservation reservation) {
+        final Block block = blockOf(sequenceName);
+        synchronized (block) {
+            if (block.end - block.next < count) {
+                final int size = Math.max(count, INCREMENT_SIZE);
+                block.next = reservation.reserve(size);
+                block.end = block.next + size;
+            }
+            final long firstId = block.next;
+            block.next += count;
+            return firstId;
+        }
+    }
+
+    /**
+     * Reserves <code>size</code> identifiers of the given table, seeding its
+     * row from the highest identifier in use when there is none yet. Must run
+     * on a connection of its own that commits straight away, so that the row of
+     * <code>m_sequence</code> is not kept locked by the business transaction.
+     *
+     * @return the first identifier reserved
+     */
+    public static long reserveBlock(final Connection connection, final String sequenceName, final int size) throws SQLException {
+        if (reserve(connection, sequenceName, size) == 0) {
+            final Statement statement = connection.createStatement();
+            try {
+                statement.executeUpdate("insert ignore into m_sequence (sequence_name, next_val) select '" + sequenceName
+                        + "', ifnull(max(id), 0) + 1 from `" + sequenceName + "`");
+            } finally {
+                statement.close();
+            }
+            if (reserve(connection, sequenceName, size) == 0) { throw new SQLException("No row for " + sequenceName + " in m_sequence"); }
+        }
+
+        final Statement statement = connection.createStatement();
+        try {
+            final ResultSet resultSet = statement.executeQuery("select last_insert_id()");
+            try {
+                resultSet.next();
+                return resultSet.getLong(1) - size;
+            } finally {
+                resultSet.close();
+            }
+        } finally {
+            statement.close();
+        }
+    }
+
+    private static int reserve(final Connection connection, final String sequenceName, final int size) throws SQLException {
+        final PreparedStatement statement = connection.prepareStatement(RESERVE_SQL);
+        try {
+            statement.setInt(1, size);
+            statement.setString(2, sequenceName);
+            return statement.executeUpdate();
+        } finally {
+            statement.close();
+        }
+    }
+
+    private static Block blockOf(final String sequenceName) {
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final String key = (tenant == null ? "" : tenant.getTenantIdentifier()) + '/' + sequenceName;
+        Block block = blocksByTenantAndSequence.get(key);
+        if (block == null) {
+            final Block newBlock = new Block();
+            block = blocksByTenantAndSequence.putIfAbsent(key, newBlock);
+            if (block == null) {
+                block = newBlock;
+            }
+        }
+        return block;
+    }
+
+    private static final class Block {
+
+        private long next;
+        private long end;
+    }
+}
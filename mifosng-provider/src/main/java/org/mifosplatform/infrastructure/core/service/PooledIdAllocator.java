@@ -0,0 +1,72 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.mifosplatform.infrastructure.core.domain.PooledIdSequence;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out identifiers from {@link PooledIdSequence} to the code inserting
+ * into the tables of pooled identifier entities with plain JDBC. Those tables
+ * have no auto increment column, so every insert must bring its identifier.
+ */
+@Component
+public class PooledIdAllocator {
+
+    private final RoutingDataSource dataSource;
+    private final SQLExceptionTranslator exceptionTranslator;
+
+    @Autowired
+    public PooledIdAllocator(final RoutingDataSource dataSource) {
+        this.dataSource = dataSource;
+        this.exceptionTranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+    }
+
+    /**
+     * @return the next identifier of the given table
+     */
+    public Long nextId(final String tableName) {
+        return nextIds(tableName, 1);
+    }
+
+    /**
+     * @return the first of <code>count</code> consecutive identifiers of the
+     *         given table
+     */
+    public Long nextIds(final String tableName, final int count) {
+        return PooledIdSequence.nextIds(tableName, count, new PooledIdSequence.BlockReservation() {
+
+            @Override
+            public long reserve(final int size) {
+                return reserveBlock(tableName, size);
+            }
+        });
+    }
+
+    /**
+     * Reserves the block on a connection of its own, outside the transaction
+     * of the caller.
+     */
+    private long reserveBlock(final String tableName, final int size) {
+        try {
+            final Connection connection = this.dataSource.getConnection();
+            try {
+                connection.setAutoCommit(true);
+                return PooledIdSequence.reserveBlock(connection, tableName, size);
+            } finally {
+                connection.close();
+            }
+        } catch (final SQLException e) {
+            throw this.exceptionTranslator.translate("Reserving identifiers of " + tableName, null, e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.service;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@link JpaTransactionManager} that exposes whether the transaction it is
+ * beginning is read only.
+ *
+ * The connection of a JPA transaction is taken while the transaction begins,
+ * before {@link org.springframework.transaction.support.TransactionSynchronizationManager}
+ * knows about the transaction, so this is the only way for
+ * {@link TomcatJdbcDataSourcePerTenantService} to tell a connection for a
+ * read only transaction from one for a read-write transaction.
+ *
+ * Transactions that may be served by a read replica only read from the
+ * second-level cache: a lagging replica would otherwise put rows back that a
+ * commit on the tenant database just evicted, and read-write transactions
+ * would go on reading them from the cache.
+ */
+public class ReadReplicaAwareJpaTransactionManager extends JpaTransactionManager {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<Boolean> readOnlyOfBeginningTransaction = new ThreadLocal<>();
+
+    /**
+     * @return whether the transaction being begun by the current thread is
+     *         read only, or <code>null</code> if no transaction is being begun
+     */
+    public static Boolean isBeginningReadOnlyTransaction() {
+        return readOnlyOfBeginningTransaction.get();
+    }
+
+    @Override
+    protected void doBegin(final Object transaction, final TransactionDefinition definition) {
+        final Boolean outer = readOnlyOfBeginningTransaction.get();
+        readOnlyOfBeginningTransaction.set(definition.isReadOnly());
+        try {
+            super.doBegin(transaction, definition);
+            if (definition.isReadOnly() && mayUseReadReplica()) {
+                currentSession().setCacheMode(CacheMode.GET);
+            }
+        } finally {
+            if (outer == null) {
+                readOnlyOfBeginningTransaction.remove();
+            } else {
+                readOnlyOfBeginningTransaction.set(outer);
+            }
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(final Object transaction) {
+        // the entity manager may outlive the transaction
+        final Session session = currentSession();
+        if (session != null && session.isOpen() && session.getCacheMode() == CacheMode.GET) {
+            session.setCacheMode(CacheMode.NORMAL);
+        }
+        super.doCleanupAfterCompletion(transaction);
+    }
+
+    private static boolean mayUseReadReplica() {
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        return tenant != null && tenant.getReadReplicaConnection() != null && ThreadLocalContextUtil.isReadReplicaAllowed();
+    }
+
+    private Session currentSession() {
+        final EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(getEntityManagerFactory());
+        return holder == null ? null : holder.getEntityManager().unwrap(Session.class);
+    }
+}
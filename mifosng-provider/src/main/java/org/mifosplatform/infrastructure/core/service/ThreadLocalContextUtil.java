@@ -24,6 +24,8 @@ public class ThreadLocalContextUtil {
     
     private static final ThreadLocal<Boolean> skipPasswordExpirationCheck = newBooleanThreadLocal(false);
     
+    private static final ThreadLocal<Boolean> readReplicaAllowed = newBooleanThreadLocal(false);
+    
     public static void setTenant(final MifosPlatformTenant tenant) {
         Assert.notNull(tenant, "tenant cannot be null");
         tenantcontext.set(tenant);
@@ -118,4 +120,21 @@ public class ThreadLocalContextUtil {
     public static Boolean doPasswordExpirationCheck() {
     	return BooleanUtils.isFalse(skipPasswordExpirationCheck.get());
     }
-}
\ No newline at end of file
+
+    /**
+     * Allows the read only work of this thread (queries outside of a
+     * transaction and read only transactions) to be served by the read replica
+     * of the tenant, until {@link #clearReadReplicaAllowed()} is called
+     */
+    public static void setReadReplicaAllowed() {
+        readReplicaAllowed.set(Boolean.TRUE);
+    }
+
+    public static boolean isReadReplicaAllowed() {
+        return BooleanUtils.isTrue(readReplicaAllowed.get());
+    }
+
+    public static void clearReadReplicaAllowed() {
+        readReplicaAllowed.remove();
+    }
+}
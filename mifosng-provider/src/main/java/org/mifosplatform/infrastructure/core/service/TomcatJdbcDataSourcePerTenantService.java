@@ -5,18 +5,33 @@
  */
 package org.mifosplatform.infrastructure.core.service;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+import javax.annotation.PreDestroy;
 import javax.sql.DataSource;
 
+import org.apache.commons.lang.ObjectUtils;
 import org.apache.tomcat.jdbc.pool.PoolConfiguration;
+import org.apache.tomcat.jdbc.pool.PoolExhaustedException;
 import org.apache.tomcat.jdbc.pool.PoolProperties;
+import org.mifosplatform.infrastructure.core.data.TenantDataSourceMetricsData;
 import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
 import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenantConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Implementation that returns a new or existing tomcat 7 jdbc connection pool
@@ -25,11 +40,30 @@ import org.springframework.stereotype.Service;
  * 
  * {@link ThreadLocalContextUtil} is used to retrieve the
  * {@link MifosPlatformTenant} for the request.
+ * 
+ * Pools are kept in a concurrent map so that resolving the pool of a tenant
+ * takes no lock; only creating a pool does. A pool is closed and rebuilt when
+ * the connection details of its tenant change.
+ * 
+ * Read only work of threads allowed to use the read replica of their tenant
+ * (see {@link ThreadLocalContextUtil#setReadReplicaAllowed()}) is served by
+ * the replica while it is reachable and its replication lag is within the
+ * limit of the tenant; otherwise it falls back to the tenant database.
  */
 @Service
 public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceService {
 
-    private final Map<Long, DataSource> tenantToDataSourceMap = new HashMap<>(1);
+    private final static Logger logger = LoggerFactory.getLogger(TomcatJdbcDataSourcePerTenantService.class);
+
+    /**
+     * How long the replication lag measured on a read replica is trusted
+     * before it is measured again.
+     */
+    private static final long READ_REPLICA_LAG_CHECK_INTERVAL_MILLIS = 5000;
+
+    private final ConcurrentMap<Long, TenantDataSource> tenantToDataSourceMap = new ConcurrentHashMap<>(4);
+    private final ConcurrentMap<Long, ReadReplicaStatus> readReplicaStatusMap = new ConcurrentHashMap<>(4);
+    private final Object poolCreationLock = new Object();
     private final DataSource tenantDataSource;
 
     @Autowired
@@ -41,31 +75,96 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
     public DataSource retrieveDataSource() {
 
         // default to tenant database datasource
-        DataSource tenantDataSource = this.tenantDataSource;
-
-        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant(); 
-        if (tenant != null) {
-            final MifosPlatformTenantConnection tenantConnection = tenant.getConnection();
-
-            synchronized (this.tenantToDataSourceMap) {
-                // if tenantConnection information available switch to
-                // appropriate
-                // datasource
-                // for that tenant.
-                if (this.tenantToDataSourceMap.containsKey(tenantConnection.getConnectionId())) {
-                    tenantDataSource = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
-                } else {
-                    tenantDataSource = createNewDataSourceFor(tenantConnection);
-                    this.tenantToDataSourceMap.put(tenantConnection.getConnectionId(), tenantDataSource);
-                }
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        if (tenant == null) { return this.tenantDataSource; }
+
+        final TenantDataSource dataSource = dataSourceFor(tenant.getConnection());
+        if (tenant.getReadReplicaConnection() != null && isReadReplicaEligible()) { return readReplicaOrFallback(tenant, dataSource); }
+        return dataSource;
+    }
+
+    private TenantDataSource dataSourceFor(final MifosPlatformTenantConnection tenantConnection) {
+        final TenantDataSource dataSource = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
+        if (dataSource != null && dataSource.isFor(tenantConnection)) { return dataSource; }
+
+        return createOrReplaceDataSourceFor(tenantConnection);
+    }
+
+    /**
+     * Connections are taken from the replica only for threads allowed to use
+     * it and only when they are not part of a read-write transaction: either
+     * no transaction at all or a read only transaction being begun.
+     */
+    private static boolean isReadReplicaEligible() {
+        if (!ThreadLocalContextUtil.isReadReplicaAllowed()) { return false; }
+        final Boolean beginningReadOnlyTransaction = ReadReplicaAwareJpaTransactionManager.isBeginningReadOnlyTransaction();
+        if (beginningReadOnlyTransaction != null) { return beginningReadOnlyTransaction; }
+        return !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    private DataSource readReplicaOrFallback(final MifosPlatformTenant tenant, final TenantDataSource primary) {
+        final MifosPlatformTenantConnection replicaConnection = tenant.getReadReplicaConnection();
+        ReadReplicaStatus status = this.readReplicaStatusMap.get(replicaConnection.getConnectionId());
+        if (status == null) {
+            final ReadReplicaStatus newStatus = new ReadReplicaStatus();
+            status = this.readReplicaStatusMap.putIfAbsent(replicaConnection.getConnectionId(), newStatus);
+            if (status == null) {
+                status = newStatus;
             }
         }
 
-        return tenantDataSource;
+        final TenantDataSource replica = dataSourceFor(replicaConnection);
+        if (!status.isUsable(replica, tenant.getReadReplicaMaxLagSeconds())) { return primary; }
+        return new ReadReplicaDataSource(replica, primary, status);
+    }
+
+    /**
+     * Closes the pool of the tenant connection, if any; it is rebuilt on the
+     * next request of one of its tenants.
+     */
+    public void evictDataSource(final Long connectionId) {
+        this.readReplicaStatusMap.remove(connectionId);
+        final TenantDataSource dataSource = this.tenantToDataSourceMap.remove(connectionId);
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    /**
+     * @return the metrics of the pool serving the current tenant, or
+     *         <code>null</code> when the tenant has no pool yet
+     */
+    public TenantDataSourceMetricsData retrieveMetricsOfCurrentTenant() {
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        if (tenant == null) { return null; }
+        final TenantDataSource dataSource = this.tenantToDataSourceMap.get(tenant.getConnection().getConnectionId());
+        return dataSource == null ? null : dataSource.metrics();
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        for (final Long connectionId : this.tenantToDataSourceMap.keySet()) {
+            evictDataSource(connectionId);
+        }
+    }
+
+    private TenantDataSource createOrReplaceDataSourceFor(final MifosPlatformTenantConnection tenantConnection) {
+        synchronized (this.poolCreationLock) {
+            final TenantDataSource existing = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
+            if (existing != null && existing.isFor(tenantConnection)) { return existing; }
+
+            final TenantDataSource dataSource = new TenantDataSource(tenantConnection, createNewDataSourceFor(tenantConnection));
+            this.tenantToDataSourceMap.put(tenantConnection.getConnectionId(), dataSource);
+            if (existing != null) {
+                logger.info("Connection details of " + tenantConnection.getSchemaName() + " changed, replacing its connection pool");
+                existing.close();
+            }
+            return dataSource;
+        }
     }
 
     // creates the data source oltp and report databases
-    private DataSource createNewDataSourceFor(final MifosPlatformTenantConnection tenantConnectionObj) {
+    private org.apache.tomcat.jdbc.pool.DataSource createNewDataSourceFor(final MifosPlatformTenantConnection tenantConnectionObj) {
         // see
         // http://www.tomcatexpert.com/blog/2010/04/01/configuring-jdbc-pool-high-concurrency
 
@@ -78,6 +177,9 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
         poolConfiguration.setUrl(jdbcUrl);
         poolConfiguration.setUsername(tenantConnectionObj.getSchemaUsername());
         poolConfiguration.setPassword(tenantConnectionObj.getSchemaPassword());
+        // sends JDBC batches as multi-row inserts rather than one statement
+        // per row
+        poolConfiguration.setConnectionProperties("rewriteBatchedStatements=true");
 
         poolConfiguration.setInitialSize(tenantConnectionObj.getInitialSize());
 
@@ -90,21 +192,213 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
         poolConfiguration.setLogAbandoned(tenantConnectionObj.isLogAbandoned());
         poolConfiguration.setAbandonWhenPercentageFull(tenantConnectionObj.getAbandonWhenPercentageFull());
 
-        /**
-         * Vishwas- Do we need to enable the below properties and add
-         * ResetAbandonedTimer for long running batch Jobs?
-         **/
-        // poolConfiguration.setMaxActive(tenant.getMaxActive());
-        // poolConfiguration.setMinIdle(tenant.getMinIdle());
-        // poolConfiguration.setMaxIdle(tenant.getMaxIdle());
-
-        // poolConfiguration.setSuspectTimeout(tenant.getSuspectTimeout());
-        // poolConfiguration.setTimeBetweenEvictionRunsMillis(tenant.getTimeBetweenEvictionRunsMillis());
-        // poolConfiguration.setMinEvictableIdleTimeMillis(tenant.getMinEvictableIdleTimeMillis());
+        // pool limits of the tenant; unset (zero) values keep the tomcat
+        // defaults
+        if (tenantConnectionObj.getMaxActive() > 0) {
+            poolConfiguration.setMaxActive(tenantConnectionObj.getMaxActive());
+        }
+        if (tenantConnectionObj.getMinIdle() > 0) {
+            poolConfiguration.setMinIdle(Math.min(tenantConnectionObj.getMinIdle(), poolConfiguration.getMaxActive()));
+        }
+        if (tenantConnectionObj.getMaxIdle() > 0) {
+            poolConfiguration.setMaxIdle(Math.min(tenantConnectionObj.getMaxIdle(), poolConfiguration.getMaxActive()));
+        }
+        if (tenantConnectionObj.getSuspectTimeout() > 0) {
+            poolConfiguration.setSuspectTimeout(tenantConnectionObj.getSuspectTimeout());
+        }
+        if (tenantConnectionObj.getTimeBetweenEvictionRunsMillis() > 0) {
+            poolConfiguration.setTimeBetweenEvictionRunsMillis(tenantConnectionObj.getTimeBetweenEvictionRunsMillis());
+        }
+        if (tenantConnectionObj.getMinEvictableIdleTimeMillis() > 0) {
+            poolConfiguration.setMinEvictableIdleTimeMillis(tenantConnectionObj.getMinEvictableIdleTimeMillis());
+        }
 
         poolConfiguration.setJdbcInterceptors("org.apache.tomcat.jdbc.pool.interceptor.ConnectionState;"
                 + "org.apache.tomcat.jdbc.pool.interceptor.StatementFinalizer;org.apache.tomcat.jdbc.pool.interceptor.SlowQueryReport");
 
         return new org.apache.tomcat.jdbc.pool.DataSource(poolConfiguration);
     }
-}
\ No newline at end of file
+
+    /**
+     * Pool of one tenant connection, remembering the connection details it
+     * was built from and timing every connection borrowed from it.
+     */
+    private static final class TenantDataSource extends DelegatingDataSource {
+
+        private final MifosPlatformTenantConnection connection;
+        private final org.apache.tomcat.jdbc.pool.DataSource pool;
+        private final AtomicLong borrowCount = new AtomicLong();
+        private final AtomicLong borrowTimeoutCount = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        TenantDataSource(final MifosPlatformTenantConnection connection, final org.apache.tomcat.jdbc.pool.DataSource pool) {
+            super(pool);
+            this.connection = connection;
+            this.pool = pool;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            final long start = System.nanoTime();
+            try {
+                return super.getConnection();
+            } catch (final PoolExhaustedException e) {
+                this.borrowTimeoutCount.incrementAndGet();
+                throw e;
+            } finally {
+                recordWait(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public Connection getConnection(final String username, final String password) throws SQLException {
+            final long start = System.nanoTime();
+            try {
+                return super.getConnection(username, password);
+            } catch (final PoolExhaustedException e) {
+                this.borrowTimeoutCount.incrementAndGet();
+                throw e;
+            } finally {
+                recordWait(System.nanoTime() - start);
+            }
+        }
+
+        private void recordWait(final long waitNanos) {
+            this.borrowCount.incrementAndGet();
+            this.totalWaitNanos.addAndGet(waitNanos);
+            long max = this.maxWaitNanos.get();
+            while (waitNanos > max && !this.maxWaitNanos.compareAndSet(max, waitNanos)) {
+                max = this.maxWaitNanos.get();
+            }
+        }
+
+        boolean isFor(final MifosPlatformTenantConnection other) {
+            if (this.connection == other) { return true; }
+            return ObjectUtils.equals(this.connection.databaseURL(), other.databaseURL())
+                    && ObjectUtils.equals(this.connection.getSchemaUsername(), other.getSchemaUsername())
+                    && ObjectUtils.equals(this.connection.getSchemaPassword(), other.getSchemaPassword())
+                    && this.connection.getInitialSize() == other.getInitialSize()
+                    && this.connection.getMaxActive() == other.getMaxActive() && this.connection.getMinIdle() == other.getMinIdle()
+                    && this.connection.getMaxIdle() == other.getMaxIdle()
+                    && this.connection.isTestOnBorrow() == other.isTestOnBorrow()
+                    && this.connection.getValidationInterval() == other.getValidationInterval()
+                    && this.connection.isRemoveAbandoned() == other.isRemoveAbandoned()
+                    && this.connection.getRemoveAbandonedTimeout() == other.getRemoveAbandonedTimeout()
+                    && this.connection.isLogAbandoned() == other.isLogAbandoned()
+                    && this.connection.getAbandonWhenPercentageFull() == other.getAbandonWhenPercentageFull()
+                    && this.connection.getSuspectTimeout() == other.getSuspectTimeout()
+                    && this.connection.getTimeBetweenEvictionRunsMillis() == other.getTimeBetweenEvictionRunsMillis()
+                    && this.connection.getMinEvictableIdleTimeMillis() == other.getMinEvictableIdleTimeMillis();
+        }
+
+        TenantDataSourceMetricsData metrics() {
+            final long borrowed = this.borrowCount.get();
+            final long averageWaitMillis = borrowed == 0 ? 0 : this.totalWaitNanos.get() / borrowed / 1000000L;
+            return new TenantDataSourceMetricsData(this.pool.getName(), this.pool.getMaxActive(), this.pool.getMinIdle(),
+                    this.pool.getMaxIdle(), this.pool.getSize(), this.pool.getActive(), this.pool.getIdle(), this.pool.getWaitCount(),
+                    borrowed, this.borrowTimeoutCount.get(), averageWaitMillis, this.maxWaitNanos.get() / 1000000L);
+        }
+
+        void close() {
+            // connections still in use are closed as they are returned
+            this.pool.close();
+        }
+    }
+
+    /**
+     * Whether a read replica may be used, based on its replication lag as last
+     * measured. The lag is measured by at most one thread at a time and at
+     * most every {@link #READ_REPLICA_LAG_CHECK_INTERVAL_MILLIS}; other threads
+     * use the last known state meanwhile.
+     */
+    private static final class ReadReplicaStatus {
+
+        private final AtomicBoolean checking = new AtomicBoolean();
+        private volatile long checkedAtMillis;
+        private volatile Long lagSeconds;
+
+        boolean isUsable(final DataSource replica, final int maxLagSeconds) {
+            final long now = System.currentTimeMillis();
+            if (now - this.checkedAtMillis > READ_REPLICA_LAG_CHECK_INTERVAL_MILLIS && this.checking.compareAndSet(false, true)) {
+                try {
+                    this.lagSeconds = measureLagSeconds(replica);
+                } finally {
+                    this.checkedAtMillis = now;
+                    this.checking.set(false);
+                }
+            }
+            final Long lag = this.lagSeconds;
+            return lag != null && lag <= maxLagSeconds;
+        }
+
+        void markUnavailable() {
+            this.lagSeconds = null;
+            this.checkedAtMillis = System.currentTimeMillis();
+        }
+
+        /**
+         * @return the replication lag in seconds, zero for a server that is
+         *         not a replica, or <code>null</code> when the replica cannot
+         *         be reached or is not replicating
+         */
+        private static Long measureLagSeconds(final DataSource replica) {
+            Connection connection = null;
+            Statement statement = null;
+            ResultSet rs = null;
+            try {
+                connection = replica.getConnection();
+                statement = connection.createStatement();
+                rs = statement.executeQuery("SHOW SLAVE STATUS");
+                if (!rs.next()) { return Long.valueOf(0); }
+                final long lag = rs.getLong("Seconds_Behind_Master");
+                return rs.wasNull() ? null : Long.valueOf(lag);
+            } catch (final SQLException e) {
+                logger.warn("Could not measure the replication lag of a read replica, using the tenant database instead: " + e.getMessage());
+                return null;
+            } finally {
+                JdbcUtils.closeResultSet(rs);
+                JdbcUtils.closeStatement(statement);
+                JdbcUtils.closeConnection(connection);
+            }
+        }
+    }
+
+    /**
+     * Read replica that falls back to the tenant database when a connection to
+     * it cannot be obtained.
+     */
+    private static final class ReadReplicaDataSource extends DelegatingDataSource {
+
+        private final DataSource primary;
+        private final ReadReplicaStatus status;
+
+        ReadReplicaDataSource(final DataSource replica, final DataSource primary, final ReadReplicaStatus status) {
+            super(replica);
+            this.primary = primary;
+            this.status = status;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            try {
+                return super.getConnection();
+            } catch (final SQLException e) {
+                logger.warn("Read replica unavailable, using the tenant database instead: " + e.getMessage());
+                this.status.markUnavailable();
+                return this.primary.getConnection();
+            }
+        }
+
+        @Override
+        public Connection getConnection(final String username, final String password) throws SQLException {
+            try {
+                return super.getConnection(username, password);
+            } catch (final SQLException e) {
+                logger.warn("Read replica unavailable, using the tenant database instead: " + e.getMessage());
+                this.status.markUnavailable();
+                return this.primary.getConnection(username, password);
+            }
+        }
+    }
+}
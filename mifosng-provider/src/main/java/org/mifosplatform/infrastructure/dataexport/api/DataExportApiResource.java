@@ -14,6 +14,7 @@ import org.mifosplatform.infrastructure.core.serialization.ApiRequestJsonSeriali
 import org.mifosplatform.infrastructure.core.serialization.ToApiJsonSerializer;
 import org.mifosplatform.infrastructure.dataexport.data.DataExportData;
 import org.mifosplatform.infrastructure.dataexport.data.DataExportEntityData;
+import org.mifosplatform.infrastructure.dataexport.data.DataExportProgressData;
 import org.mifosplatform.infrastructure.dataexport.service.DataExportReadPlatformService;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -129,6 +130,19 @@ public class DataExportApiResource {
         return this.dataExportReadPlatformService.downloadDataExportFile(resourceId, fileFormat);
     }
     
+    @GET
+    @Path("{resourceId}/progress")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public String retrieveDataExportProgress(@PathParam("resourceId") final Long resourceId, @Context final UriInfo uriInfo) {
+        this.platformSecurityContext.authenticatedUser().validateHasReadPermission(DataExportApiConstants.DATA_EXPORT_ENTITY_NAME);
+        
+        final Collection<DataExportProgressData> progress = this.dataExportReadPlatformService.retrieveProgress(resourceId);
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        
+        return this.toApiJsonSerializer.serialize(settings, progress);
+    }
+    
     @PUT
     @Path("{entityId}")
     @Consumes({ MediaType.APPLICATION_JSON })
@@ -0,0 +1,50 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataexport.data;
+
+import org.joda.time.DateTime;
+
+/**
+ * Progress of a data export file that is being written
+ */
+public class DataExportProgressData {
+    @SuppressWarnings("unused")
+    private final Long dataExportId;
+    @SuppressWarnings("unused")
+    private final String fileFormat;
+    @SuppressWarnings("unused")
+    private final DateTime startedOnDate;
+    @SuppressWarnings("unused")
+    private final Long rowsWritten;
+
+    /**
+     * @param dataExportId
+     * @param fileFormat
+     * @param startedOnDate
+     * @param rowsWritten
+     */
+    private DataExportProgressData(final Long dataExportId, final String fileFormat, final DateTime startedOnDate,
+            final Long rowsWritten) {
+        this.dataExportId = dataExportId;
+        this.fileFormat = fileFormat;
+        this.startedOnDate = startedOnDate;
+        this.rowsWritten = rowsWritten;
+    }
+
+    /**
+     * Creates a new instance of the {@link DataExportProgressData} object
+     *
+     * @param dataExportId
+     * @param fileFormat
+     * @param startedOnDate
+     * @param rowsWritten
+     * @return {@link DataExportProgressData} object
+     */
+    public static DataExportProgressData newInstance(final Long dataExportId, final String fileFormat,
+            final DateTime startedOnDate, final Long rowsWritten) {
+        return new DataExportProgressData(dataExportId, fileFormat, startedOnDate, rowsWritten);
+    }
+}
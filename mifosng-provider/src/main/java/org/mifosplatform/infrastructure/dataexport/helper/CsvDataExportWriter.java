@@ -0,0 +1,84 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataexport.helper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang.StringEscapeUtils;
+import org.apache.commons.lang.WordUtils;
+import org.mifosplatform.infrastructure.codes.data.CodeValueData;
+import org.mifosplatform.infrastructure.dataexport.api.DataExportApiConstants;
+import org.mifosplatform.infrastructure.dataexport.data.DataExportCoreTable;
+import org.mifosplatform.useradministration.data.AppUserData;
+
+import au.com.bytecode.opencsv.CSVWriter;
+
+/**
+ * Writes a data export as CSV, one line per row
+ **/
+public class CsvDataExportWriter extends DataExportResultSetWriter {
+    public static final char SEPARATOR = ';';
+    public static final char QUOTE_CHARACTER = CSVWriter.NO_QUOTE_CHARACTER;
+    public static final char ESCAPE_CHARACTER = CSVWriter.NO_ESCAPE_CHARACTER;
+    public static final String ENCODING = "UTF-8";
+
+    private final CSVWriter csvWriter;
+    private String[] rowData;
+
+    public CsvDataExportWriter(final OutputStream outputStream, final HashMap<Long, CodeValueData> codeValueMap,
+            final HashMap<Long, AppUserData> appUserMap, final DataExportCoreTable coreTable, final AtomicLong rowsWritten)
+            throws IOException {
+        super(outputStream, codeValueMap, appUserMap, coreTable, rowsWritten);
+
+        this.csvWriter = new CSVWriter(new BufferedWriter(new OutputStreamWriter(outputStream, ENCODING)), SEPARATOR,
+                QUOTE_CHARACTER, ESCAPE_CHARACTER, DataExportApiConstants.WINDOWS_END_OF_LINE_CHARACTER);
+    }
+
+    @Override
+    protected void writeHeader(final ResultSetMetaData metaData) throws SQLException {
+        final int columnCount = metaData.getColumnCount();
+        final String[] headers = new String[columnCount];
+
+        for (int i = 1; i <= columnCount; i++) {
+            headers[i - 1] = WordUtils.capitalize(metaData.getColumnLabel(i));
+        }
+
+        this.csvWriter.writeNext(headers);
+        this.rowData = new String[columnCount];
+    }
+
+    @Override
+    protected void writeRow(final ResultSet resultSet, final ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= this.rowData.length; i++) {
+            this.rowData[i - 1] = escape(columnValue(resultSet, i).getKey());
+        }
+
+        // the row is formatted straight away, so the array can be reused
+        this.csvWriter.writeNext(this.rowData);
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        this.csvWriter.flush();
+    }
+
+    /**
+     * Escapes the value like {@link StringEscapeUtils#escapeCsv(String)}, also
+     * quoting values that hold the separator, which is not a comma here
+     */
+    private static String escape(final String value) {
+        if (value == null || value.indexOf(SEPARATOR) < 0) { return StringEscapeUtils.escapeCsv(value); }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
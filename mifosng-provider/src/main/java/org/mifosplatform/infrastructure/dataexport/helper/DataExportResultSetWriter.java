@@ -0,0 +1,130 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataexport.helper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.mifosplatform.infrastructure.codes.data.CodeValueData;
+import org.mifosplatform.infrastructure.dataexport.data.DataExportCoreTable;
+import org.mifosplatform.infrastructure.dataexport.data.MysqlDataType;
+import org.mifosplatform.useradministration.data.AppUserData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+/**
+ * Writes the rows of a data export to an output stream while they are read
+ * from the result set, so neither the result set nor the file is ever held
+ * in memory as a whole. Returns the number of rows written.
+ *
+ * An {@link IOException} raised while writing is rethrown as a
+ * {@link DataAccessResourceFailureException} with the {@link IOException} as
+ * its cause.
+ */
+public abstract class DataExportResultSetWriter implements ResultSetExtractor<Long> {
+    private final static Logger logger = LoggerFactory.getLogger(DataExportResultSetWriter.class);
+    private static final long PROGRESS_LOG_INTERVAL = 50000;
+
+    protected final OutputStream outputStream;
+    protected final DataExportCoreTable coreTable;
+    private final HashMap<Long, CodeValueData> codeValueMap;
+    private final HashMap<Long, AppUserData> appUserMap;
+    private final AtomicLong rowsWritten;
+
+    private String[] columnNames;
+    private MysqlDataType[] columnDataTypes;
+
+    protected DataExportResultSetWriter(final OutputStream outputStream, final HashMap<Long, CodeValueData> codeValueMap,
+            final HashMap<Long, AppUserData> appUserMap, final DataExportCoreTable coreTable, final AtomicLong rowsWritten) {
+        this.outputStream = outputStream;
+        this.codeValueMap = codeValueMap;
+        this.appUserMap = appUserMap;
+        this.coreTable = coreTable;
+        this.rowsWritten = rowsWritten;
+    }
+
+    @Override
+    public Long extractData(final ResultSet resultSet) throws SQLException, DataAccessException {
+        final ResultSetMetaData metaData = resultSet.getMetaData();
+        final int columnCount = metaData.getColumnCount();
+
+        this.columnNames = new String[columnCount + 1];
+        this.columnDataTypes = new MysqlDataType[columnCount + 1];
+
+        for (int i = 1; i <= columnCount; i++) {
+            this.columnNames[i] = metaData.getColumnName(i);
+            this.columnDataTypes[i] = MysqlDataType.newInstance(metaData.getColumnTypeName(i));
+        }
+
+        try {
+            writeHeader(metaData);
+
+            while (resultSet.next()) {
+                writeRow(resultSet, metaData);
+
+                final long rowCount = this.rowsWritten.incrementAndGet();
+
+                if (rowCount % PROGRESS_LOG_INTERVAL == 0) {
+                    logger.info(rowCount + " rows of data export written");
+                }
+            }
+
+            finish();
+        } catch (final IOException exception) {
+            throw new DataAccessResourceFailureException("Writing data export failed: " + exception.getMessage(), exception);
+        } finally {
+            release();
+        }
+
+        return this.rowsWritten.get();
+    }
+
+    /**
+     * Gets the value of the column in the current row, with code value and app
+     * user identifiers replaced by their names
+     *
+     * @return the column value and its (possibly changed) data type
+     */
+    protected AbstractMap.SimpleEntry<String, MysqlDataType> columnValue(final ResultSet resultSet, final int columnIndex)
+            throws SQLException {
+        final String columnName = this.columnNames[columnIndex];
+
+        AbstractMap.SimpleEntry<String, MysqlDataType> columnValueDataType = DataExportUtils.replaceCodeValueIdWithValue(
+                this.codeValueMap, columnName, resultSet.getString(columnIndex), this.columnDataTypes[columnIndex]);
+
+        columnValueDataType = DataExportUtils.replaceAppUserIdWithUserName(this.appUserMap, columnName,
+                columnValueDataType.getKey(), columnValueDataType.getValue());
+
+        return columnValueDataType;
+    }
+
+    protected abstract void writeHeader(ResultSetMetaData metaData) throws SQLException, IOException;
+
+    protected abstract void writeRow(ResultSet resultSet, ResultSetMetaData metaData) throws SQLException, IOException;
+
+    /**
+     * Writes whatever is still buffered to the output stream, without closing
+     * it
+     */
+    protected abstract void finish() throws IOException;
+
+    /**
+     * Frees the resources held by the writer, whether all rows were written or
+     * not
+     */
+    protected void release() {
+        // nothing to free by default
+    }
+}
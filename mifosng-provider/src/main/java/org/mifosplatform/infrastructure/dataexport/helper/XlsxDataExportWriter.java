@@ -0,0 +1,151 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataexport.helper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.AbstractMap;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang.WordUtils;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.mifosplatform.infrastructure.codes.data.CodeValueData;
+import org.mifosplatform.infrastructure.dataexport.api.DataExportApiConstants;
+import org.mifosplatform.infrastructure.dataexport.data.DataExportCoreTable;
+import org.mifosplatform.infrastructure.dataexport.data.MysqlDataType;
+import org.mifosplatform.useradministration.data.AppUserData;
+
+/**
+ * Writes a data export as an XLSX workbook. The workbook is a
+ * {@link SXSSFWorkbook}, which only keeps a window of rows in memory and
+ * flushes older rows to a temporary file that is copied to the output stream
+ * once all rows are written.
+ **/
+public class XlsxDataExportWriter extends DataExportResultSetWriter {
+    private static final int ROW_ACCESS_WINDOW_SIZE = 100;
+    private static final String EXCEL_DATE_FORMAT = "MM/DD/YYYY";
+    private static final String EXCEL_DATETIME_FORMAT = "MM/DD/YYYY HH:MM:SS";
+
+    private final SXSSFWorkbook workbook;
+    private final Sheet sheet;
+    private final CellStyle dateCellStyle;
+    private final CellStyle dateTimeCellStyle;
+    private final DateFormat dateFormat = new SimpleDateFormat(DataExportApiConstants.MYSQL_DATE_FORMAT);
+    private final DateFormat dateTimeFormat = new SimpleDateFormat(DataExportApiConstants.MYSQL_DATETIME_FORMAT);
+
+    private int rowIndex = 0;
+
+    public XlsxDataExportWriter(final OutputStream outputStream, final HashMap<Long, CodeValueData> codeValueMap,
+            final HashMap<Long, AppUserData> appUserMap, final DataExportCoreTable coreTable, final AtomicLong rowsWritten) {
+        super(outputStream, codeValueMap, appUserMap, coreTable, rowsWritten);
+
+        this.workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW_SIZE);
+        this.sheet = this.workbook.createSheet();
+
+        // cell styles are shared by all cells of the workbook, so they are only created once
+        final DataFormat dataFormat = this.workbook.createDataFormat();
+
+        this.dateCellStyle = this.workbook.createCellStyle();
+        this.dateCellStyle.setDataFormat(dataFormat.getFormat(EXCEL_DATE_FORMAT));
+        this.dateTimeCellStyle = this.workbook.createCellStyle();
+        this.dateTimeCellStyle.setDataFormat(dataFormat.getFormat(EXCEL_DATETIME_FORMAT));
+    }
+
+    @Override
+    protected void writeHeader(final ResultSetMetaData metaData) throws SQLException {
+        final Row row = this.sheet.createRow(this.rowIndex++);
+
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            final Cell cell = row.createCell(i - 1);
+            final String columnLabel = DataExportUtils.createHumanReadableTableColumnLabel(metaData.getColumnLabel(i), this.coreTable);
+
+            cell.setCellValue(WordUtils.capitalize(columnLabel));
+        }
+    }
+
+    @Override
+    protected void writeRow(final ResultSet resultSet, final ResultSetMetaData metaData) throws SQLException, IOException {
+        final Row row = this.sheet.createRow(this.rowIndex++);
+
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            final Cell cell = row.createCell(i - 1);
+            final AbstractMap.SimpleEntry<String, MysqlDataType> columnValueDataType = columnValue(resultSet, i);
+            final String columnValue = columnValueDataType.getKey();
+            final MysqlDataType mysqlDataType = columnValueDataType.getValue();
+
+            if (columnValue == null) {
+                continue;
+            }
+
+            switch (mysqlDataType.getCategory()) {
+                case NUMERIC:
+                    // TINYINT(1), BIT(1), etc are also treated as an alias for a BOOL in MySQL in certain versions of the JDBC connector, option tinyInt1isBit
+                    // See: http://stackoverflow.com/questions/16798744/why-does-tinyint1-function-as-a-boolean-but-int1-does-not/35488212#35488212
+                    if (metaData.getPrecision(i) == 1 && (columnValue.equals("true") || columnValue.equals("false"))) {
+                        cell.setCellValue(columnValue);
+                    } else {
+                        cell.setCellValue(Double.parseDouble(columnValue));
+                    }
+                    break;
+
+                case DATE_TIME:
+                    switch (mysqlDataType) {
+                        case DATE:
+                            cell.setCellValue(parseDate(this.dateFormat, columnValue));
+                            cell.setCellStyle(this.dateCellStyle);
+                            break;
+
+                        case DATETIME:
+                            cell.setCellValue(parseDate(this.dateTimeFormat, columnValue));
+                            cell.setCellStyle(this.dateTimeCellStyle);
+                            break;
+
+                        default:
+                            cell.setCellValue(columnValue);
+                            break;
+                    }
+                    break;
+
+                default:
+                    cell.setCellValue(columnValue);
+                    break;
+            }
+        }
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        this.workbook.write(this.outputStream);
+        this.outputStream.flush();
+    }
+
+    @Override
+    protected void release() {
+        // delete the temporary file holding the flushed rows
+        this.workbook.dispose();
+    }
+
+    private static Date parseDate(final DateFormat format, final String value) throws IOException {
+        try {
+            return format.parse(value);
+        } catch (final ParseException exception) {
+            throw new IOException("Invalid date value '" + value + "'", exception);
+        }
+    }
+}
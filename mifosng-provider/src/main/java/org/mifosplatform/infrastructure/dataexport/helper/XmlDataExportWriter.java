@@ -0,0 +1,110 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataexport.helper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.commons.lang.WordUtils;
+import org.mifosplatform.infrastructure.codes.data.CodeValueData;
+import org.mifosplatform.infrastructure.dataexport.api.DataExportApiConstants;
+import org.mifosplatform.infrastructure.dataexport.data.DataExportCoreTable;
+import org.mifosplatform.useradministration.data.AppUserData;
+
+/**
+ * Writes a data export as XML, with a "row" element per row holding a "column"
+ * element per column. Column labels are written as attributes since they are
+ * not necessarily valid element names.
+ **/
+public class XmlDataExportWriter extends DataExportResultSetWriter {
+    public static final String ENCODING = "UTF-8";
+    private static final String ROOT_ELEMENT_NAME = "dataExport";
+    private static final String ROW_ELEMENT_NAME = "row";
+    private static final String COLUMN_ELEMENT_NAME = "column";
+    private static final String NAME_ATTRIBUTE_NAME = "name";
+
+    private final XMLStreamWriter xmlWriter;
+    private String[] columnLabels;
+
+    public XmlDataExportWriter(final OutputStream outputStream, final HashMap<Long, CodeValueData> codeValueMap,
+            final HashMap<Long, AppUserData> appUserMap, final DataExportCoreTable coreTable, final AtomicLong rowsWritten)
+            throws IOException {
+        super(outputStream, codeValueMap, appUserMap, coreTable, rowsWritten);
+
+        try {
+            this.xmlWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, ENCODING);
+        } catch (final XMLStreamException exception) {
+            throw new IOException(exception.getMessage(), exception);
+        }
+    }
+
+    @Override
+    protected void writeHeader(final ResultSetMetaData metaData) throws SQLException, IOException {
+        final int columnCount = metaData.getColumnCount();
+
+        this.columnLabels = new String[columnCount + 1];
+
+        for (int i = 1; i <= columnCount; i++) {
+            this.columnLabels[i] = WordUtils.capitalize(DataExportUtils.createHumanReadableTableColumnLabel(
+                    metaData.getColumnLabel(i), this.coreTable));
+        }
+
+        try {
+            this.xmlWriter.writeStartDocument(ENCODING, "1.0");
+            this.xmlWriter.writeCharacters(DataExportApiConstants.WINDOWS_END_OF_LINE_CHARACTER);
+            this.xmlWriter.writeStartElement(ROOT_ELEMENT_NAME);
+        } catch (final XMLStreamException exception) {
+            throw new IOException(exception.getMessage(), exception);
+        }
+    }
+
+    @Override
+    protected void writeRow(final ResultSet resultSet, final ResultSetMetaData metaData) throws SQLException, IOException {
+        try {
+            this.xmlWriter.writeCharacters(DataExportApiConstants.WINDOWS_END_OF_LINE_CHARACTER);
+            this.xmlWriter.writeStartElement(ROW_ELEMENT_NAME);
+
+            for (int i = 1; i < this.columnLabels.length; i++) {
+                final String columnValue = columnValue(resultSet, i).getKey();
+
+                if (columnValue == null) {
+                    this.xmlWriter.writeEmptyElement(COLUMN_ELEMENT_NAME);
+                    this.xmlWriter.writeAttribute(NAME_ATTRIBUTE_NAME, this.columnLabels[i]);
+                } else {
+                    this.xmlWriter.writeStartElement(COLUMN_ELEMENT_NAME);
+                    this.xmlWriter.writeAttribute(NAME_ATTRIBUTE_NAME, this.columnLabels[i]);
+                    this.xmlWriter.writeCharacters(columnValue);
+                    this.xmlWriter.writeEndElement();
+                }
+            }
+
+            this.xmlWriter.writeEndElement();
+        } catch (final XMLStreamException exception) {
+            throw new IOException(exception.getMessage(), exception);
+        }
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        try {
+            this.xmlWriter.writeCharacters(DataExportApiConstants.WINDOWS_END_OF_LINE_CHARACTER);
+            this.xmlWriter.writeEndElement();
+            this.xmlWriter.writeEndDocument();
+            this.xmlWriter.flush();
+        } catch (final XMLStreamException exception) {
+            throw new IOException(exception.getMessage(), exception);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataexport.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.joda.time.DateTime;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.dataexport.data.DataExportProgressData;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps track of the data export files that are being written, per tenant, so
+ * the progress of long exports can be followed while they run
+ */
+@Component
+public class DataExportProgressTracker {
+    private final ConcurrentMap<String, Set<RunningDataExport>> runningDataExportsByTenant = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a data export file that is about to be written for the current
+     * tenant
+     *
+     * @param dataExportId
+     * @param fileFormat
+     * @return {@link RunningDataExport} object, to be passed to
+     *         {@link #finish(RunningDataExport)} once the file is written
+     */
+    public RunningDataExport start(final Long dataExportId, final String fileFormat) {
+        final RunningDataExport runningDataExport = new RunningDataExport(dataExportId, fileFormat);
+
+        runningDataExports().add(runningDataExport);
+
+        return runningDataExport;
+    }
+
+    public void finish(final RunningDataExport runningDataExport) {
+        runningDataExports().remove(runningDataExport);
+    }
+
+    /**
+     * @param dataExportId
+     * @return the progress of the files of the data export that are being
+     *         written for the current tenant
+     */
+    public Collection<DataExportProgressData> retrieveProgress(final Long dataExportId) {
+        final Collection<DataExportProgressData> progress = new ArrayList<>();
+
+        for (RunningDataExport runningDataExport : runningDataExports()) {
+            if (runningDataExport.dataExportId.equals(dataExportId)) {
+                progress.add(DataExportProgressData.newInstance(runningDataExport.dataExportId, runningDataExport.fileFormat,
+                        runningDataExport.startedOnDate, runningDataExport.rowsWritten.get()));
+            }
+        }
+
+        return progress;
+    }
+
+    private Set<RunningDataExport> runningDataExports() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        Set<RunningDataExport> runningDataExports = this.runningDataExportsByTenant.get(tenantIdentifier);
+
+        if (runningDataExports == null) {
+            this.runningDataExportsByTenant.putIfAbsent(tenantIdentifier,
+                    Collections.newSetFromMap(new ConcurrentHashMap<RunningDataExport, Boolean>()));
+            runningDataExports = this.runningDataExportsByTenant.get(tenantIdentifier);
+        }
+
+        return runningDataExports;
+    }
+
+    /**
+     * A data export file that is being written
+     **/
+    public static final class RunningDataExport {
+        private final Long dataExportId;
+        private final String fileFormat;
+        private final DateTime startedOnDate = DateTime.now();
+        private final AtomicLong rowsWritten = new AtomicLong();
+
+        private RunningDataExport(final Long dataExportId, final String fileFormat) {
+            this.dataExportId = dataExportId;
+            this.fileFormat = fileFormat;
+        }
+
+        /**
+         * @return the counter of rows written so far, incremented by the writer
+         */
+        public AtomicLong rowsWritten() {
+            return this.rowsWritten;
+        }
+
+        public DateTime startedOnDate() {
+            return this.startedOnDate;
+        }
+    }
+}
@@ -7,9 +7,12 @@ package org.mifosplatform.infrastructure.dataexport.service;
 
 import org.mifosplatform.infrastructure.dataexport.data.DataExportData;
 import org.mifosplatform.infrastructure.dataexport.data.DataExportEntityData;
+import org.mifosplatform.infrastructure.dataexport.data.DataExportFileData;
+import org.mifosplatform.infrastructure.dataexport.data.DataExportProgressData;
 
 import javax.ws.rs.core.Response;
 
+import java.io.File;
 import java.util.Collection;
 
 public interface DataExportReadPlatformService {
@@ -38,7 +41,8 @@ public interface DataExportReadPlatformService {
     DataExportEntityData retrieveTemplate(final String baseEntityName);
 
     /**
-     * Creates a file with the data export entity data
+     * Creates a file with the data export entity data, which is written to the response while the rows are 
+     * read from the database
      * 
      * @param id data export entity identifier
      * @param fileFormat file format (xml, xls, csv)
@@ -46,6 +50,24 @@ public interface DataExportReadPlatformService {
      */
     Response downloadDataExportFile(final Long id, final String fileFormat);
     
+    /**
+     * Writes the data export file to the specified file
+     * 
+     * @param id data export entity identifier
+     * @param fileFormat file format (xml, xls, csv)
+     * @param file the file to write to
+     * @return {@link DataExportFileData} object with the name and content type of the file
+     */
+    DataExportFileData createDataExportFile(final Long id, final String fileFormat, final File file);
+    
+    /**
+     * Retrieves the progress of the files of the data export that are currently being written
+     * 
+     * @param id data export entity identifier
+     * @return {@link DataExportProgressData} objects
+     */
+    Collection<DataExportProgressData> retrieveProgress(final Long id);
+    
     /**
      * Retrieves all base entities
      * 
@@ -5,6 +5,13 @@
  */
 package org.mifosplatform.infrastructure.dataexport.service;
 
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -13,12 +20,14 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.commons.lang3.StringUtils;
 import org.joda.time.DateTime;
 import org.mifosplatform.infrastructure.codes.data.CodeValueData;
 import org.mifosplatform.infrastructure.codes.service.CodeValueReadPlatformService;
 import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.infrastructure.dataexport.api.DataExportApiConstants;
 import org.mifosplatform.infrastructure.dataexport.data.DataExportBaseEntity;
@@ -29,44 +38,57 @@ import org.mifosplatform.infrastructure.dataexport.data.DataExportData;
 import org.mifosplatform.infrastructure.dataexport.data.DataExportEntityData;
 import org.mifosplatform.infrastructure.dataexport.data.DataExportFileData;
 import org.mifosplatform.infrastructure.dataexport.data.DataExportFileFormat;
+import org.mifosplatform.infrastructure.dataexport.data.DataExportProgressData;
 import org.mifosplatform.infrastructure.dataexport.data.DataExportTimelineData;
 import org.mifosplatform.infrastructure.dataexport.data.EntityColumnMetaData;
 import org.mifosplatform.infrastructure.dataexport.domain.DataExport;
 import org.mifosplatform.infrastructure.dataexport.domain.DataExportRepository;
 import org.mifosplatform.infrastructure.dataexport.exception.DataExportNotFoundException;
+import org.mifosplatform.infrastructure.dataexport.helper.CsvDataExportWriter;
+import org.mifosplatform.infrastructure.dataexport.helper.DataExportResultSetWriter;
 import org.mifosplatform.infrastructure.dataexport.helper.DataExportUtils;
-import org.mifosplatform.infrastructure.dataexport.helper.FileHelper;
+import org.mifosplatform.infrastructure.dataexport.helper.XlsxDataExportWriter;
+import org.mifosplatform.infrastructure.dataexport.helper.XmlDataExportWriter;
+import org.mifosplatform.infrastructure.dataexport.service.DataExportProgressTracker.RunningDataExport;
 import org.mifosplatform.infrastructure.dataqueries.data.DatatableData;
 import org.mifosplatform.infrastructure.dataqueries.domain.RegisteredTable;
 import org.mifosplatform.infrastructure.dataqueries.domain.RegisteredTableRepository;
 import org.mifosplatform.useradministration.data.AppUserData;
 import org.mifosplatform.useradministration.service.AppUserReadPlatformService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
 import org.springframework.jdbc.core.RowMapper;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.jdbc.core.SqlProvider;
 import org.springframework.stereotype.Service;
 
 @Service
 public class DataExportReadPlatformServiceImpl implements DataExportReadPlatformService {
+   private final static Logger logger = LoggerFactory.getLogger(DataExportReadPlatformServiceImpl.class);
    private final JdbcTemplate jdbcTemplate;
    private final RegisteredTableRepository registeredTableRepository;
    private final DataExportRepository dataExportRepository;
    private final CodeValueReadPlatformService codeValueReadPlatformService;
    private final AppUserReadPlatformService appUserReadPlatformService;
+   private final DataExportProgressTracker dataExportProgressTracker;
 
     @Autowired
     public DataExportReadPlatformServiceImpl(final RoutingDataSource dataSource, 
             final RegisteredTableRepository registeredTableRepository, 
             final DataExportRepository dataExportRepository, 
             final CodeValueReadPlatformService codeValueReadPlatformService, 
-            final AppUserReadPlatformService appUserReadPlatformService) {
+            final AppUserReadPlatformService appUserReadPlatformService, 
+            final DataExportProgressTracker dataExportProgressTracker) {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
         this.registeredTableRepository = registeredTableRepository;
         this.dataExportRepository = dataExportRepository;
         this.codeValueReadPlatformService = codeValueReadPlatformService;
         this.appUserReadPlatformService = appUserReadPlatformService;
+        this.dataExportProgressTracker = dataExportProgressTracker;
     }
 
     @Override
@@ -94,61 +116,195 @@ public class DataExportReadPlatformServiceImpl implements DataExportReadPlatform
     @Override
     public Response downloadDataExportFile(final Long id, final String fileFormat) {
         try {
-            final DataExport dataExport = this.dataExportRepository.findByIdAndDeletedFalse(id);
+            final DataExport dataExport = retrieveDataExportForDownload(id);
+            final DataExportFileFormat dataExportFileFormat = DataExportFileFormat.fromString(fileFormat);
+            final String fileName = dataExport.getFilename() + "." + fileExtension(dataExportFileFormat);
             
-            if (dataExport == null) {
-                throw new DataExportNotFoundException(id);
-            }
+            // the rows are written to the response while they are read from the database
+            final StreamingOutput streamingOutput = new StreamingOutput() {
+                
+                @Override
+                public void write(final OutputStream outputStream) throws IOException {
+                    writeDataExportFile(dataExport, dataExportFileFormat, outputStream);
+                }
+            };
             
-            final String sql = dataExport.getDataSql();
-            final SqlRowSet sqlRowSet = this.jdbcTemplate.queryForRowSet(sql);
-            final DataExportBaseEntity baseEntity = DataExportBaseEntity.fromEntityName(dataExport.getBaseEntityName());
-            final DataExportCoreTable coreTable = DataExportCoreTable.newInstance(baseEntity.getTableName());
+            return Response.ok(streamingOutput).
+                    header("Content-Disposition", "attachment; filename=\"" + fileName + "\"").
+                    header("Content-Type", contentType(dataExportFileFormat)).
+                    build();
             
-            DataExportFileData dataExportFileData = null;
+        } catch (Exception exception) {
+            logger.error(exception.getMessage(), exception);
             
-            final DataExportFileFormat dataExportFileFormat = DataExportFileFormat.fromString(fileFormat);
-            final String filename = dataExport.getFilename();
-            final Collection<CodeValueData> codeValues = this.codeValueReadPlatformService.retrieveAllCodeValues();
-            final Collection<AppUserData> appUsers = this.appUserReadPlatformService.retrieveAllUsers();
-            final HashMap<Long, CodeValueData> codeValueMap = new HashMap<>();
-            final HashMap<Long, AppUserData> appUserMap = new HashMap<>();
+            return Response.serverError().tag(exception.getMessage()).build();
+        }
+    }
+    
+    @Override
+    public DataExportFileData createDataExportFile(final Long id, final String fileFormat, final File file) {
+        final DataExport dataExport = retrieveDataExportForDownload(id);
+        final DataExportFileFormat dataExportFileFormat = DataExportFileFormat.fromString(fileFormat);
+        final String fileName = dataExport.getFilename() + "." + fileExtension(dataExportFileFormat);
+        
+        try {
+            final OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file));
             
-            for (CodeValueData codeValueData : codeValues) {
-            	codeValueMap.put(codeValueData.getId(), codeValueData);
+            try {
+                writeDataExportFile(dataExport, dataExportFileFormat, outputStream);
             }
             
-            for (AppUserData appUserData : appUsers) {
-            	appUserMap.put(appUserData.getId(), appUserData);
+            finally {
+                outputStream.close();
             }
+        }
+        
+        catch (final IOException exception) {
+            throw new PlatformDataIntegrityException("error.msg.data.export.file.not.written", 
+                    "Data export file could not be written: " + exception.getMessage(), exception);
+        }
+        
+        return new DataExportFileData(file, fileName, contentType(dataExportFileFormat));
+    }
+    
+    /**
+     * Retrieves the data export and counts the download of its file
+     */
+    private DataExport retrieveDataExportForDownload(final Long id) {
+        final DataExport dataExport = this.dataExportRepository.findByIdAndDeletedFalse(id);
+        
+        if (dataExport == null) {
+            throw new DataExportNotFoundException(id);
+        }
+        
+        int fileDownloadCount = dataExport.getFileDownloadCount();
+        
+        dataExport.updateFileDownloadCount(++fileDownloadCount);
+        
+        return this.dataExportRepository.save(dataExport);
+    }
+    
+    @Override
+    public Collection<DataExportProgressData> retrieveProgress(final Long id) {
+        return this.dataExportProgressTracker.retrieveProgress(id);
+    }
+    
+    /**
+     * Writes the data export file to the output stream, reading the rows through a forward-only cursor so only 
+     * the row being written is held in memory
+     * 
+     * @param dataExport
+     * @param fileFormat
+     * @param outputStream
+     * @throws IOException
+     */
+    private void writeDataExportFile(final DataExport dataExport, final DataExportFileFormat fileFormat, 
+            final OutputStream outputStream) throws IOException {
+        final DataExportBaseEntity baseEntity = DataExportBaseEntity.fromEntityName(dataExport.getBaseEntityName());
+        final DataExportCoreTable coreTable = DataExportCoreTable.newInstance(baseEntity.getTableName());
+        final Collection<CodeValueData> codeValues = this.codeValueReadPlatformService.retrieveAllCodeValues();
+        final Collection<AppUserData> appUsers = this.appUserReadPlatformService.retrieveAllUsers();
+        final HashMap<Long, CodeValueData> codeValueMap = new HashMap<>();
+        final HashMap<Long, AppUserData> appUserMap = new HashMap<>();
+        
+        for (CodeValueData codeValueData : codeValues) {
+        	codeValueMap.put(codeValueData.getId(), codeValueData);
+        }
+        
+        for (AppUserData appUserData : appUsers) {
+        	appUserMap.put(appUserData.getId(), appUserData);
+        }
+        
+        final RunningDataExport runningDataExport = this.dataExportProgressTracker.start(dataExport.getId(), 
+                fileFormat.getValue());
+        
+        try {
+            final DataExportResultSetWriter writer;
             
-            switch (dataExportFileFormat) {
-            	case XLS:
-            		dataExportFileData = FileHelper.createDataExportXlsFile(sqlRowSet, filename, 
-            				codeValueMap, appUserMap, coreTable);
-            		break;
-            
-            	default:
-            		dataExportFileData = FileHelper.createDataExportCsvFile(sqlRowSet, filename, 
-            				codeValueMap, appUserMap, coreTable);
-            		break;
+            switch (fileFormat) {
+                case XLS:
+                    writer = new XlsxDataExportWriter(outputStream, codeValueMap, appUserMap, coreTable, 
+                            runningDataExport.rowsWritten());
+                    break;
+                    
+                case XML:
+                    writer = new XmlDataExportWriter(outputStream, codeValueMap, appUserMap, coreTable, 
+                            runningDataExport.rowsWritten());
+                    break;
+                    
+                default:
+                    writer = new CsvDataExportWriter(outputStream, codeValueMap, appUserMap, coreTable, 
+                            runningDataExport.rowsWritten());
+                    break;
             }
             
-            int fileDownloadCount = dataExport.getFileDownloadCount();
-            
-            dataExport.updateFileDownloadCount(++fileDownloadCount);
+            final Long rowCount = this.jdbcTemplate.query(new ForwardOnlyStatementCreator(dataExport.getDataSql()), writer);
             
-            this.dataExportRepository.save(dataExport);
+            logger.info("Data export " + dataExport.getId() + " written as " + fileFormat.getValue() + ": " + rowCount + 
+                    " rows in " + (DateTime.now().getMillis() - runningDataExport.startedOnDate().getMillis()) + "ms");
+        }
+        
+        catch (final DataAccessResourceFailureException exception) {
+            // writing to the output stream failed, e.g. because the client went away
+            if (exception.getCause() instanceof IOException) {
+                throw (IOException) exception.getCause();
+            }
             
-            return Response.ok(dataExportFileData.getInputStream()).
-                    header("Content-Disposition", "attachment; filename=\"" + dataExportFileData.getFileName() + "\"").
-                    header("Content-Type", dataExportFileData.getContentType()).
-                    build();
+            throw exception;
+        }
+        
+        finally {
+            this.dataExportProgressTracker.finish(runningDataExport);
+        }
+    }
+    
+    private static String fileExtension(final DataExportFileFormat fileFormat) {
+        switch (fileFormat) {
+            case XLS:
+                return DataExportApiConstants.XLS_FILE_FORMAT;
+            case XML:
+                return DataExportApiConstants.XML_FILE_FORMAT;
+            default:
+                return DataExportApiConstants.CSV_FILE_FORMAT;
+        }
+    }
+    
+    private static String contentType(final DataExportFileFormat fileFormat) {
+        switch (fileFormat) {
+            case XLS:
+                return DataExportApiConstants.XLS_FILE_CONTENT_TYPE;
+            case XML:
+                return DataExportApiConstants.XML_FILE_CONTENT_TYPE;
+            default:
+                return DataExportApiConstants.CSV_FILE_CONTENT_TYPE;
+        }
+    }
+    
+    /**
+     * Creates a read-only, forward-only statement with a fetch size of {@link Integer#MIN_VALUE}, which makes the 
+     * MySQL driver stream the rows one by one instead of reading the whole result into memory. No other statement 
+     * can be executed on the connection until all rows are read.
+     */
+    private static final class ForwardOnlyStatementCreator implements PreparedStatementCreator, SqlProvider {
+        private final String sql;
+        
+        ForwardOnlyStatementCreator(final String sql) {
+            this.sql = sql;
+        }
+        
+        @Override
+        public PreparedStatement createPreparedStatement(final Connection connection) throws SQLException {
+            final PreparedStatement preparedStatement = connection.prepareStatement(this.sql, ResultSet.TYPE_FORWARD_ONLY, 
+                    ResultSet.CONCUR_READ_ONLY);
             
-        } catch (Exception exception) {
-            exception.printStackTrace();
+            preparedStatement.setFetchSize(Integer.MIN_VALUE);
             
-            return Response.serverError().tag(exception.getMessage()).build();
+            return preparedStatement;
+        }
+        
+        @Override
+        public String getSql() {
+            return this.sql;
         }
     }
     
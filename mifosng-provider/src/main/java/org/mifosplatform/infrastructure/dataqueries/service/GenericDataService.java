@@ -15,13 +15,34 @@ public interface GenericDataService {
 
     GenericResultsetData fillGenericResultSet(final String sql);
 
+    /**
+     * Runs the query on a forward only cursor that fetches its rows from the
+     * database as they are read, passing them to the handler one at a time so
+     * that memory use does not depend on the number of rows.
+     */
+    void streamGenericResultSet(String sql, GenericResultsetStreamHandler handler);
+
     String generateJsonFromGenericResultsetData(GenericResultsetData grs);
 
+    /**
+     * @return the JSON object for one row as written by
+     *         {@link #generateJsonFromGenericResultsetData(GenericResultsetData)}
+     */
+    String generateJsonFromGenericResultsetRow(List<ResultsetColumnHeaderData> columnHeaders, List<String> row);
+
     String replace(String str, String pattern, String replace);
 
     String wrapSQL(String sql);
 
+    /**
+     * Column definitions and allowed code values of the datatable, cached per
+     * tenant until a datatable, code or code value is changed.
+     */
     List<ResultsetColumnHeaderData> fillResultsetColumnHeaders(String datatable);
 
+    /**
+     * Registered column metadata of the datatable, cached per tenant like
+     * {@link #fillResultsetColumnHeaders(String)}.
+     */
     List<MetaDataResultSet> retrieveRegisteredTableMetaData(String xRegisteredTableName);
 }
\ No newline at end of file
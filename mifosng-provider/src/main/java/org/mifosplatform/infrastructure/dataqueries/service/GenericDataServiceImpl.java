@@ -6,9 +6,12 @@
 package org.mifosplatform.infrastructure.dataqueries.service;
 
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.sql.DataSource;
 
@@ -22,7 +25,9 @@ import org.pentaho.reporting.libraries.docbundle.ODFMetaAttributeNames;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.jdbc.support.rowset.SqlRowSetMetaData;
@@ -32,6 +37,7 @@ import org.springframework.stereotype.Service;
 public class GenericDataServiceImpl implements GenericDataService {
 
     private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
     private final DataSource dataSource;
     private final static Logger logger = LoggerFactory.getLogger(GenericDataServiceImpl.class);
 
@@ -42,6 +48,11 @@ public class GenericDataServiceImpl implements GenericDataService {
     public GenericDataServiceImpl(final RoutingDataSource dataSource) {
         this.dataSource = dataSource;
         this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+        // MySQL Connector/J only streams the rows of a forward only, read only
+        // result set instead of reading them all into memory when the fetch
+        // size is Integer.MIN_VALUE
+        this.streamingJdbcTemplate = new JdbcTemplate(this.dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
         this.metaDataResultSetMapper = new MetaDataResultSetMapper();
 
     }
@@ -80,6 +91,37 @@ public class GenericDataServiceImpl implements GenericDataService {
         return new GenericResultsetData(columnHeaders, resultsetDataRows);
     }
 
+    @Override
+    public void streamGenericResultSet(final String sql, final GenericResultsetStreamHandler handler) {
+
+        this.streamingJdbcTemplate.query(sql, new ResultSetExtractor<Void>() {
+
+            @Override
+            public Void extractData(final ResultSet rs) throws SQLException {
+                final ResultSetMetaData rsmd = rs.getMetaData();
+                final int columnCount = rsmd.getColumnCount();
+
+                final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<>(columnCount);
+                for (int i = 1; i <= columnCount; i++) {
+                    columnHeaders.add(ResultsetColumnHeaderData.basic(rsmd.getColumnLabel(i), rsmd.getColumnTypeName(i)));
+                }
+                handler.columnHeaders(columnHeaders);
+
+                // one row buffer is reused for all rows
+                final List<String> columnValues = new ArrayList<>(columnCount);
+                while (rs.next()) {
+                    columnValues.clear();
+                    for (int i = 1; i <= columnCount; i++) {
+                        columnValues.add(rs.getString(i));
+                    }
+                    handler.row(columnValues);
+                }
+                handler.end();
+                return null;
+            }
+        });
+    }
+
     @Override
     public String replace(final String str, final String pattern, final String replace) {
         // JPW - this replace may / may not be any better or quicker than the
@@ -119,79 +161,99 @@ public class GenericDataServiceImpl implements GenericDataService {
         final List<ResultsetColumnHeaderData> columnHeaders = grs.getColumnHeaders();
 
         final List<ResultsetRowData> data = grs.getData();
-        List<String> row;
-        Integer rSize;
+
+        for (int i = 0; i < data.size(); i++) {
+            writer.append("\n");
+            writer.append(generateJsonFromGenericResultsetRow(columnHeaders, data.get(i).getRow()));
+
+            if (i < (data.size() - 1)) {
+                writer.append(",");
+            }
+        }
+
+        writer.append("\n]");
+        return writer.toString();
+
+    }
+
+    @Override
+    public String generateJsonFromGenericResultsetRow(final List<ResultsetColumnHeaderData> columnHeaders, final List<String> row) {
+
+        final StringBuilder writer = new StringBuilder();
+        final Integer rSize = row.size();
         final String doubleQuote = "\"";
         final String slashDoubleQuote = "\\\"";
         String currColType;
         String currVal;
 
-        for (int i = 0; i < data.size(); i++) {
-            writer.append("\n{");
-
-            row = data.get(i).getRow();
-            rSize = row.size();
-            for (int j = 0; j < rSize; j++) {
+        writer.append("{");
+        for (int j = 0; j < rSize; j++) {
 
-                writer.append(doubleQuote + columnHeaders.get(j).getColumnName() + doubleQuote + ": ");
-                currColType = columnHeaders.get(j).getColumnDisplayType();
-                final String colType = columnHeaders.get(j).getColumnType();
-                if (currColType == null && (colType.equalsIgnoreCase("INT") || colType.equalsIgnoreCase("BIGINT"))) {
-                    currColType = "INTEGER";
-                }
-                if (currColType == null && colType.equalsIgnoreCase("VARCHAR")) {
-                    currColType = "VARCHAR";
-                }
-                if (currColType == null && colType.equalsIgnoreCase("DATE")) {
-                    currColType = "DATE";
-                }
-                currVal = row.get(j);
-                if (currVal != null && currColType != null) {
-                    if (currColType.equals("DECIMAL") || currColType.equals("INTEGER")) {
-                        // the line below will ensure that all trailing zeros after the decimal number (2000.67000) are removed (2000.67)
-                        currVal = currVal.indexOf(".") < 0 ? currVal : currVal.replaceAll("0*$", "").replaceAll("\\.$", "");
-                        
-                        writer.append(currVal);
+            writer.append(doubleQuote + columnHeaders.get(j).getColumnName() + doubleQuote + ": ");
+            currColType = columnHeaders.get(j).getColumnDisplayType();
+            final String colType = columnHeaders.get(j).getColumnType();
+            if (currColType == null && (colType.equalsIgnoreCase("INT") || colType.equalsIgnoreCase("BIGINT"))) {
+                currColType = "INTEGER";
+            }
+            if (currColType == null && colType.equalsIgnoreCase("VARCHAR")) {
+                currColType = "VARCHAR";
+            }
+            if (currColType == null && colType.equalsIgnoreCase("DATE")) {
+                currColType = "DATE";
+            }
+            currVal = row.get(j);
+            if (currVal != null && currColType != null) {
+                if (currColType.equals("DECIMAL") || currColType.equals("INTEGER")) {
+                    // the line below will ensure that all trailing zeros after the decimal number (2000.67000) are removed (2000.67)
+                    currVal = currVal.indexOf(".") < 0 ? currVal : currVal.replaceAll("0*$", "").replaceAll("\\.$", "");
+                    
+                    writer.append(currVal);
+                } else {
+                    if (currColType.equals("DATE")) {
+                        final LocalDate localDate = new LocalDate(currVal);
+                        writer.append("[" + localDate.getYear() + ", " + localDate.getMonthOfYear() + ", " + localDate.getDayOfMonth()
+                                + "]");
+                    } else if (currColType.equals("DATETIME")) {
+                        final LocalDateTime localDateTime = new LocalDateTime(currVal);
+                        writer.append("[" + localDateTime.getYear() + ", " + localDateTime.getMonthOfYear() + ", "
+                                + localDateTime.getDayOfMonth() + " " + localDateTime.getHourOfDay() + ", "
+                                + localDateTime.getMinuteOfHour() + ", " + localDateTime.getSecondOfMinute() + ", "
+                                + localDateTime.getMillisOfSecond() + "]");
                     } else {
-                        if (currColType.equals("DATE")) {
-                            final LocalDate localDate = new LocalDate(currVal);
-                            writer.append("[" + localDate.getYear() + ", " + localDate.getMonthOfYear() + ", " + localDate.getDayOfMonth()
-                                    + "]");
-                        } else if (currColType.equals("DATETIME")) {
-                            final LocalDateTime localDateTime = new LocalDateTime(currVal);
-                            writer.append("[" + localDateTime.getYear() + ", " + localDateTime.getMonthOfYear() + ", "
-                                    + localDateTime.getDayOfMonth() + " " + localDateTime.getHourOfDay() + ", "
-                                    + localDateTime.getMinuteOfHour() + ", " + localDateTime.getSecondOfMinute() + ", "
-                                    + localDateTime.getMillisOfSecond() + "]");
-                        } else {
-                            writer.append(doubleQuote + replace(currVal, doubleQuote, slashDoubleQuote) + doubleQuote);
-                        }
+                        writer.append(doubleQuote + replace(currVal, doubleQuote, slashDoubleQuote) + doubleQuote);
                     }
-                } else {
-                    writer.append("null");
-                }
-                if (j < (rSize - 1)) {
-                    writer.append(",\n");
                 }
-            }
-
-            if (i < (data.size() - 1)) {
-                writer.append("},");
             } else {
-                writer.append("}");
+                writer.append("null");
+            }
+            if (j < (rSize - 1)) {
+                writer.append(",\n");
             }
         }
+        writer.append("}");
 
-        writer.append("\n]");
         return writer.toString();
-
     }
 
     @Override
+    @Cacheable(value = "datatables", key = "T(org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#datatable + 'dtc')")
     public List<ResultsetColumnHeaderData> fillResultsetColumnHeaders(final String datatable) {
 
         final SqlRowSet columnDefinitions = getDatatableMetaData(datatable);
 
+        final List<String> columnNames = new ArrayList<>();
+        columnDefinitions.beforeFirst();
+        while (columnDefinitions.next()) {
+            columnNames.add(columnDefinitions.getString("COLUMN_NAME"));
+        }
+        final Map<String, CodeMapping> codeMappings = getDatatableCodeMappings(datatable, columnNames);
+        final Map<String, MetaDataResultSet> columnMetaData = new HashMap<>();
+        for (final MetaDataResultSet metaData : retrieveRegisteredTableMetaDataFromDatabase(datatable)) {
+            if (metaData.getColumnName() != null && !columnMetaData.containsKey(metaData.getColumnName().toLowerCase())) {
+                columnMetaData.put(metaData.getColumnName().toLowerCase(), metaData);
+            }
+        }
+
         final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<>();
 
         columnDefinitions.beforeFirst();
@@ -235,11 +297,11 @@ public class GenericDataServiceImpl implements GenericDataService {
 
             }
             if (codeName == null) {
-                final SqlRowSet rsValues = getDatatableCodeData(datatable, columnName);
+                final CodeMapping codeMapping = codeMappings.get(columnName);
                 Integer codeId = null;
-                while (rsValues.next()) {
-                    codeId = rsValues.getInt("id");
-                    codeName = rsValues.getString("code_name");
+                if (codeMapping != null) {
+                    codeId = codeMapping.codeId;
+                    codeName = codeMapping.codeName;
                 }
                 columnValues = retreiveColumnValues(codeId);
 
@@ -248,11 +310,10 @@ public class GenericDataServiceImpl implements GenericDataService {
             String displayExpression = null;
             String formulaExpression  = null;
 
-            final List<MetaDataResultSet> columnData = this.retrieveColumnMetaData(datatable, columnName);
-            if(columnData.size() > 0)
-            {
-                displayExpression = columnData.get(0).getDisplayCondition();
-                formulaExpression = columnData.get(0).getFormulaExpression();
+            final MetaDataResultSet metaData = columnMetaData.get(columnName.toLowerCase());
+            if (metaData != null) {
+                displayExpression = metaData.getDisplayCondition();
+                formulaExpression = metaData.getFormulaExpression();
             }
 
             final ResultsetColumnHeaderData rsch = ResultsetColumnHeaderData.detailed(columnName, columnType, columnLength, columnNullable,
@@ -263,10 +324,6 @@ public class GenericDataServiceImpl implements GenericDataService {
         return columnHeaders;
     }
 
-    /*
-     * Candidate for using caching there to get allowed 'column values' from
-     * code/codevalue tables
-     */
     private List<ResultsetColumnValueData> retreiveColumnValues(final String codeName) {
 
         final List<ResultsetColumnValueData> columnValues = new ArrayList<>();
@@ -318,27 +375,58 @@ public class GenericDataServiceImpl implements GenericDataService {
         throw new DatatableNotFoundException(datatable);
     }
 
-    private SqlRowSet getDatatableCodeData(final String datatable, final String columnName) {
+    /**
+     * @return the codes mapped to the columns of the datatable, by column name
+     */
+    private Map<String, CodeMapping> getDatatableCodeMappings(final String datatable, final List<String> columnNames) {
+
+        final Map<String, CodeMapping> codeMappings = new HashMap<>();
+        if (columnNames.isEmpty()) { return codeMappings; }
+
+        final String aliasPrefix = datatable.toLowerCase().replaceAll("\\s", "_") + "_";
+        final Map<String, String> columnNamesByAlias = new HashMap<>();
+        final StringBuilder placeholders = new StringBuilder();
+        for (final String columnName : columnNames) {
+            // names compare case insensitively in the database
+            columnNamesByAlias.put((aliasPrefix + columnName).toLowerCase(), columnName);
+            placeholders.append(placeholders.length() == 0 ? "?" : ", ?");
+        }
 
-        final String sql = "select mc.id,mc.code_name from m_code mc join x_table_column_code_mappings xcc on xcc.code_id = mc.id where xcc.column_alias_name='"
-                + datatable.toLowerCase().replaceAll("\\s", "_") + "_" + columnName + "'";
-        final SqlRowSet rsValues = this.jdbcTemplate.queryForRowSet(sql);
+        final String sql = "select xcc.column_alias_name, mc.id, mc.code_name from m_code mc join x_table_column_code_mappings xcc on xcc.code_id = mc.id where xcc.column_alias_name in ("
+                + placeholders + ")";
+        final SqlRowSet rsValues = this.jdbcTemplate.queryForRowSet(sql, columnNamesByAlias.keySet().toArray());
+        while (rsValues.next()) {
+            final String columnName = columnNamesByAlias.get(rsValues.getString("column_alias_name").toLowerCase());
+            if (columnName != null) {
+                codeMappings.put(columnName, new CodeMapping(rsValues.getInt("id"), rsValues.getString("code_name")));
+            }
+        }
 
-        return rsValues;
+        return codeMappings;
     }
 
     @Override
-    public List<MetaDataResultSet> retrieveRegisteredTableMetaData(String xRegisteredTableName) {
+    @Cacheable(value = "datatables", key = "T(org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#xRegisteredTableName + 'dtm')")
+    public List<MetaDataResultSet> retrieveRegisteredTableMetaData(final String xRegisteredTableName) {
+        return retrieveRegisteredTableMetaDataFromDatabase(xRegisteredTableName);
+    }
+
+    private List<MetaDataResultSet> retrieveRegisteredTableMetaDataFromDatabase(final String xRegisteredTableName) {
         final String tableToSearchFor = xRegisteredTableName;
         final String sql = "select " + this.metaDataResultSetMapper.schema() + "where xr.table_name = ? order by xr.ordering";
 
         return this.jdbcTemplate.query(sql, this.metaDataResultSetMapper, new Object[] {tableToSearchFor});
     }
 
-    public List<MetaDataResultSet> retrieveColumnMetaData(String xRegisteredTableName, String columnName) {
-        final String sql = "select " + this.metaDataResultSetMapper.schema() + "where xr.table_name = ? and xr.field_name = ? order by xr.ordering";
+    private static final class CodeMapping {
+
+        private final Integer codeId;
+        private final String codeName;
 
-        return this.jdbcTemplate.query(sql, this.metaDataResultSetMapper, new Object[] {xRegisteredTableName, columnName});
+        CodeMapping(final Integer codeId, final String codeName) {
+            this.codeId = codeId;
+            this.codeName = codeName;
+        }
     }
 
     private static final class MetaDataResultSetMapper implements RowMapper<MetaDataResultSet> {
@@ -0,0 +1,33 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.util.List;
+
+import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+
+/**
+ * Receives the result of a query run by
+ * {@link GenericDataService#streamGenericResultSet(String, GenericResultsetStreamHandler)}
+ * one row at a time, instead of as a whole {@link org.mifosplatform.infrastructure.dataqueries.data.GenericResultsetData}.
+ */
+public interface GenericResultsetStreamHandler {
+
+    /**
+     * Called once, before the first row.
+     */
+    void columnHeaders(List<ResultsetColumnHeaderData> columnHeaders);
+
+    /**
+     * Called for every row; the row must not be kept once the call returns.
+     */
+    void row(List<String> row);
+
+    /**
+     * Called once, after the last row.
+     */
+    void end();
+}
@@ -0,0 +1,77 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.mifosplatform.infrastructure.documentmanagement.contentrepository.FileSystemContentRepository;
+import org.pentaho.reporting.engine.classic.core.ClassicEngineBoot;
+import org.pentaho.reporting.engine.classic.core.DefaultReportEnvironment;
+import org.pentaho.reporting.engine.classic.core.MasterReport;
+import org.pentaho.reporting.libraries.resourceloader.ResourceException;
+import org.pentaho.reporting.libraries.resourceloader.ResourceManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Parsed Pentaho report definitions (.prpt files in the pentahoReports
+ * directory), so a definition is only parsed again once its file changed.
+ * Every run gets its own copy of the cached definition, as running a report
+ * modifies its parameters and environment.
+ */
+@Component
+public class PentahoReportTemplateCache {
+
+    private final static Logger logger = LoggerFactory.getLogger(PentahoReportTemplateCache.class);
+
+    public static final String REPORTS_DIR = FileSystemContentRepository.MIFOSX_BASE_DIR + File.separator + "pentahoReports";
+
+    private final ResourceManager resourceManager;
+    private final ConcurrentMap<String, CachedTemplate> templatesByReportName = new ConcurrentHashMap<>();
+
+    public PentahoReportTemplateCache() {
+        // kick off pentaho reports server
+        ClassicEngineBoot.getInstance().start();
+
+        this.resourceManager = new ResourceManager();
+        this.resourceManager.registerDefaults();
+    }
+
+    /**
+     * @return a copy of the definition of the report that can be filled in
+     *         and run
+     */
+    public MasterReport retrieveReport(final String reportName) throws ResourceException {
+        final File reportFile = new File(REPORTS_DIR + File.separator + reportName + ".prpt");
+        final long lastModified = reportFile.lastModified();
+
+        CachedTemplate cached = this.templatesByReportName.get(reportName);
+        if (cached == null || cached.lastModified != lastModified) {
+            logger.info("Report path: " + reportFile.getPath());
+            final MasterReport template = (MasterReport) this.resourceManager.createDirectly(reportFile, MasterReport.class).getResource();
+            cached = new CachedTemplate(template, lastModified);
+            this.templatesByReportName.put(reportName, cached);
+        }
+
+        final MasterReport report = (MasterReport) cached.template.clone();
+        report.setReportEnvironment(new DefaultReportEnvironment(report.getConfiguration()));
+        return report;
+    }
+
+    private static final class CachedTemplate {
+
+        private final MasterReport template;
+        private final long lastModified;
+
+        CachedTemplate(final MasterReport template, final long lastModified) {
+            this.template = template;
+            this.lastModified = lastModified;
+        }
+    }
+}
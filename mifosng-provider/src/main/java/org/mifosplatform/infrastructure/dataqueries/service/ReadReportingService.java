@@ -6,6 +6,7 @@
 package org.mifosplatform.infrastructure.dataqueries.service;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.util.Collection;
 import java.util.Locale;
 import java.util.Map;
@@ -22,6 +23,15 @@ public interface ReadReportingService {
 
     StreamingOutput retrieveReportCSV(String name, String type, Map<String, String> extractedQueryParams);
 
+    /**
+     * @param genericResultSet
+     *            <code>true</code> for the column headers and rows of
+     *            {@link GenericResultsetData}, <code>false</code> for an array
+     *            with an object per row
+     */
+    StreamingOutput retrieveReportJSON(String name, String type, Map<String, String> extractedQueryParams, boolean genericResultSet,
+            boolean prettyPrint);
+
     GenericResultsetData retrieveGenericResultset(String name, String type, Map<String, String> extractedQueryParams);
 
     //needed for smsCampaign jobs where securityContext is null
@@ -47,5 +57,11 @@ public interface ReadReportingService {
     ByteArrayOutputStream generatePentahoReportAsOutputStream(String reportName, String outputTypeParam,
             Map<String, String> queryParams, Locale locale, AppUser runReportAsUser, StringBuilder errorLog);
 
+    /**
+     * Writes the Pentaho report to the output stream as it is generated.
+     */
+    void generatePentahoReport(String reportName, String outputTypeParam, Map<String, String> queryParams, Locale locale,
+            AppUser runReportAsUser, StringBuilder errorLog, OutputStream outputStream);
+
     GenericResultsetData runReportByScheduler(String reportName,String endDate);
 }
\ No newline at end of file
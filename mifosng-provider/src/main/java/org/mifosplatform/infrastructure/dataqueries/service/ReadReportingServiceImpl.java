@@ -5,13 +5,14 @@
  */
 package org.mifosplatform.infrastructure.dataqueries.service;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.ResultSet;
@@ -30,6 +31,7 @@ import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
 import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
 import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenantConnection;
 import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.mifosplatform.infrastructure.core.serialization.GoogleGsonSerializerHelper;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.mifosplatform.infrastructure.dataqueries.data.GenericResultsetData;
@@ -42,7 +44,6 @@ import org.mifosplatform.infrastructure.dataqueries.exception.ReportNotFoundExce
 import org.mifosplatform.infrastructure.documentmanagement.contentrepository.FileSystemContentRepository;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.useradministration.domain.AppUser;
-import org.pentaho.reporting.engine.classic.core.ClassicEngineBoot;
 import org.pentaho.reporting.engine.classic.core.DefaultReportEnvironment;
 import org.pentaho.reporting.engine.classic.core.MasterReport;
 import org.pentaho.reporting.engine.classic.core.ReportProcessingException;
@@ -53,9 +54,7 @@ import org.pentaho.reporting.engine.classic.core.modules.output.table.xls.ExcelR
 import org.pentaho.reporting.engine.classic.core.parameters.ParameterDefinitionEntry;
 import org.pentaho.reporting.engine.classic.core.parameters.ReportParameterDefinition;
 import org.pentaho.reporting.engine.classic.core.util.ReportParameterValues;
-import org.pentaho.reporting.libraries.resourceloader.Resource;
 import org.pentaho.reporting.libraries.resourceloader.ResourceException;
-import org.pentaho.reporting.libraries.resourceloader.ResourceManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -64,6 +63,8 @@ import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Service;
 
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import com.lowagie.text.Document;
 import com.lowagie.text.PageSize;
 import com.lowagie.text.pdf.PdfPTable;
@@ -80,13 +81,15 @@ public class ReadReportingServiceImpl implements ReadReportingService {
     private final GenericDataService genericDataService;
     private boolean noPentaho = false;
     private final ConfigurationDomainService configurationDomainService;
+    private final GoogleGsonSerializerHelper gsonSerializerHelper;
+    private final PentahoReportTemplateCache pentahoReportTemplateCache;
 
 
     @Autowired
     public ReadReportingServiceImpl(final PlatformSecurityContext context, final RoutingDataSource dataSource,
-            final GenericDataService genericDataService, final ConfigurationDomainService configurationDomainService) {
-        // kick off pentaho reports server
-        ClassicEngineBoot.getInstance().start();
+            final GenericDataService genericDataService, final ConfigurationDomainService configurationDomainService,
+            final GoogleGsonSerializerHelper gsonSerializerHelper, final PentahoReportTemplateCache pentahoReportTemplateCache) {
+        this.pentahoReportTemplateCache = pentahoReportTemplateCache;
         this.noPentaho = false;
 
         this.context = context;
@@ -94,88 +97,254 @@ public class ReadReportingServiceImpl implements ReadReportingService {
         this.jdbcTemplate = new JdbcTemplate(this.dataSource);
         this.genericDataService = genericDataService;
         this.configurationDomainService = configurationDomainService;
+        this.gsonSerializerHelper = gsonSerializerHelper;
 
     }
 
     @Override
     public StreamingOutput retrieveReportCSV(final String name, final String type, final Map<String, String> queryParams) {
 
+        // resolved up front so that an unknown report fails the request
+        // before any output is written
+        final String sql = getSQLtoRun(name, type, queryParams);
+
         return new StreamingOutput() {
 
             @Override
             public void write(final OutputStream out) {
+                final long startTime = System.currentTimeMillis();
+                logger.info("STARTING REPORT: " + name + "   Type: " + type + "   Output: CSV");
                 try {
+                    final Writer writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"));
+                    final CsvResultsetWriter csvWriter = new CsvResultsetWriter(writer);
+                    ReadReportingServiceImpl.this.genericDataService.streamGenericResultSet(sql, csvWriter);
+                    writer.flush();
+                    logger.info("FINISHING Report/Request Name: " + name + " - " + type + "     Rows: " + csvWriter.rowCount
+                            + "     Elapsed Time: " + (System.currentTimeMillis() - startTime));
+                } catch (final Exception e) {
+                    throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage());
+                }
+            }
+        };
 
-                    final GenericResultsetData result = retrieveGenericResultset(name, type, queryParams);
-                    final StringBuffer sb = generateCsvFileBuffer(result);
+    }
 
-                    final InputStream in = new ByteArrayInputStream(sb.toString().getBytes("UTF-8"));
+    @Override
+    public StreamingOutput retrieveReportJSON(final String name, final String type, final Map<String, String> queryParams,
+            final boolean genericResultSet, final boolean prettyPrint) {
+
+        final String sql = getSQLtoRun(name, type, queryParams);
 
-                    final byte[] outputByte = new byte[4096];
-                    Integer readLen = in.read(outputByte, 0, 4096);
+        return new StreamingOutput() {
 
-                    while (readLen != -1) {
-                        out.write(outputByte, 0, readLen);
-                        readLen = in.read(outputByte, 0, 4096);
+            @Override
+            public void write(final OutputStream out) {
+                final long startTime = System.currentTimeMillis();
+                logger.info("STARTING REPORT: " + name + "   Type: " + type + "   Output: JSON");
+                try {
+                    final Writer writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"));
+                    final AbstractResultsetWriter jsonWriter;
+                    if (genericResultSet) {
+                        jsonWriter = new GenericResultsetJsonWriter(writer,
+                                ReadReportingServiceImpl.this.gsonSerializerHelper.createGsonBuilder(prettyPrint), prettyPrint);
+                    } else {
+                        jsonWriter = new JsonRowsWriter(writer);
                     }
-                    // in.close();
-                    // out.flush();
-                    // out.close();
+                    ReadReportingServiceImpl.this.genericDataService.streamGenericResultSet(sql, jsonWriter);
+                    writer.flush();
+                    logger.info("FINISHING Report/Request Name: " + name + " - " + type + "     Rows: " + jsonWriter.rowCount
+                            + "     Elapsed Time: " + (System.currentTimeMillis() - startTime));
                 } catch (final Exception e) {
                     throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage());
                 }
             }
         };
+    }
+
+    /**
+     * Writes the rows of a streamed result set to a {@link Writer} as they
+     * arrive.
+     */
+    private abstract static class AbstractResultsetWriter implements GenericResultsetStreamHandler {
+
+        protected final Writer writer;
+        protected List<ResultsetColumnHeaderData> columnHeaders;
+        protected long rowCount;
 
+        AbstractResultsetWriter(final Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public final void columnHeaders(final List<ResultsetColumnHeaderData> columnHeaders) {
+            this.columnHeaders = columnHeaders;
+            try {
+                writeStart();
+            } catch (final IOException e) {
+                throw new PlatformDataIntegrityException("error.msg.report.output.failed", e.getMessage());
+            }
+        }
+
+        @Override
+        public final void row(final List<String> row) {
+            try {
+                writeRow(row);
+            } catch (final IOException e) {
+                throw new PlatformDataIntegrityException("error.msg.report.output.failed", e.getMessage());
+            }
+            this.rowCount++;
+        }
+
+        @Override
+        public final void end() {
+            try {
+                writeEnd();
+            } catch (final IOException e) {
+                throw new PlatformDataIntegrityException("error.msg.report.output.failed", e.getMessage());
+            }
+        }
+
+        protected abstract void writeStart() throws IOException;
+
+        protected abstract void writeRow(List<String> row) throws IOException;
+
+        protected abstract void writeEnd() throws IOException;
     }
 
-    private StringBuffer generateCsvFileBuffer(final GenericResultsetData result) {
-        final StringBuffer writer = new StringBuffer();
+    private final class CsvResultsetWriter extends AbstractResultsetWriter {
 
-        final List<ResultsetColumnHeaderData> columnHeaders = result.getColumnHeaders();
-        logger.info("NO. of Columns: " + columnHeaders.size());
-        final Integer chSize = columnHeaders.size();
-        for (int i = 0; i < chSize; i++) {
-            writer.append('"' + columnHeaders.get(i).getColumnName() + '"');
-            if (i < (chSize - 1)) {
-                writer.append(",");
+        private final String doubleQuote = "\"";
+        private final String twoDoubleQuotes = this.doubleQuote + this.doubleQuote;
+
+        CsvResultsetWriter(final Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        protected void writeStart() throws IOException {
+            final Integer chSize = this.columnHeaders.size();
+            logger.info("NO. of Columns: " + chSize);
+            for (int i = 0; i < chSize; i++) {
+                this.writer.write('"' + this.columnHeaders.get(i).getColumnName() + '"');
+                if (i < (chSize - 1)) {
+                    this.writer.write(",");
+                }
             }
+            this.writer.write('\n');
         }
-        writer.append('\n');
-
-        final List<ResultsetRowData> data = result.getData();
-        List<String> row;
-        Integer rSize;
-        // String currCol;
-        String currColType;
-        String currVal;
-        final String doubleQuote = "\"";
-        final String twoDoubleQuotes = doubleQuote + doubleQuote;
-        logger.info("NO. of Rows: " + data.size());
-        for (int i = 0; i < data.size(); i++) {
-            row = data.get(i).getRow();
-            rSize = row.size();
+
+        @Override
+        protected void writeRow(final List<String> row) throws IOException {
+            final int rSize = row.size();
             for (int j = 0; j < rSize; j++) {
-                // currCol = columnHeaders.get(j).getColumnName();
-                currColType = columnHeaders.get(j).getColumnType();
-                currVal = row.get(j);
+                final String currColType = this.columnHeaders.get(j).getColumnType();
+                final String currVal = row.get(j);
                 if (currVal != null) {
                     if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
                             || currColType.equals("SMALLINT") || currColType.equals("INT")) {
-                        writer.append(currVal);
+                        this.writer.write(currVal);
                     } else {
-                        writer.append('"' + this.genericDataService.replace(currVal, doubleQuote, twoDoubleQuotes) + '"');
+                        this.writer.write('"' + ReadReportingServiceImpl.this.genericDataService.replace(currVal, this.doubleQuote,
+                                this.twoDoubleQuotes) + '"');
                     }
 
                 }
                 if (j < (rSize - 1)) {
-                    writer.append(",");
+                    this.writer.write(",");
+                }
+            }
+            this.writer.write('\n');
+        }
+
+        @Override
+        protected void writeEnd() {
+            logger.info("NO. of Rows: " + this.rowCount);
+        }
+    }
+
+    /**
+     * Writes rows as the JSON array of objects of
+     * {@link GenericDataService#generateJsonFromGenericResultsetData(GenericResultsetData)}
+     */
+    private final class JsonRowsWriter extends AbstractResultsetWriter {
+
+        JsonRowsWriter(final Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        protected void writeStart() throws IOException {
+            this.writer.write("[");
+        }
+
+        @Override
+        protected void writeRow(final List<String> row) throws IOException {
+            if (this.rowCount > 0) {
+                this.writer.write(",");
+            }
+            this.writer.write("\n");
+            this.writer.write(ReadReportingServiceImpl.this.genericDataService.generateJsonFromGenericResultsetRow(this.columnHeaders, row));
+        }
+
+        @Override
+        protected void writeEnd() throws IOException {
+            this.writer.write("\n]");
+        }
+    }
+
+    /**
+     * Writes rows as the serialized form of {@link GenericResultsetData}:
+     * <code>{"columnHeaders": [...], "data": [{"row": [...]}, ...]}</code>
+     */
+    private static final class GenericResultsetJsonWriter extends AbstractResultsetWriter {
+
+        private final Gson gson;
+        private final JsonWriter jsonWriter;
+
+        GenericResultsetJsonWriter(final Writer writer, final Gson gson, final boolean prettyPrint) {
+            super(writer);
+            this.gson = gson;
+            this.jsonWriter = new JsonWriter(writer);
+            if (prettyPrint) {
+                this.jsonWriter.setIndent("  ");
+            }
+        }
+
+        @Override
+        protected void writeStart() throws IOException {
+            this.jsonWriter.beginObject();
+            this.jsonWriter.name("columnHeaders");
+            this.jsonWriter.beginArray();
+            for (final ResultsetColumnHeaderData columnHeader : this.columnHeaders) {
+                this.gson.toJson(columnHeader, ResultsetColumnHeaderData.class, this.jsonWriter);
+            }
+            this.jsonWriter.endArray();
+            this.jsonWriter.name("data");
+            this.jsonWriter.beginArray();
+        }
+
+        @Override
+        protected void writeRow(final List<String> row) throws IOException {
+            this.jsonWriter.beginObject();
+            this.jsonWriter.name("row");
+            this.jsonWriter.beginArray();
+            for (final String value : row) {
+                if (value == null) {
+                    this.jsonWriter.nullValue();
+                } else {
+                    this.jsonWriter.value(value);
                 }
             }
-            writer.append('\n');
+            this.jsonWriter.endArray();
+            this.jsonWriter.endObject();
         }
 
-        return writer;
+        @Override
+        protected void writeEnd() throws IOException {
+            this.jsonWriter.endArray();
+            this.jsonWriter.endObject();
+            this.jsonWriter.flush();
+        }
     }
 
     @Override
@@ -311,35 +480,34 @@ public class ReadReportingServiceImpl implements ReadReportingService {
             final Locale locale) {
         final AppUser currentUser = this.context.authenticatedUser();
         final StringBuilder errorLog = new StringBuilder();
-        final ByteArrayOutputStream baos = this.generatePentahoReportAsOutputStream(reportName, outputTypeParam, queryParams, locale, 
-                currentUser, errorLog);
-        
-        String outputType = "HTML";
-        if (StringUtils.isNotBlank(outputTypeParam)) {
-            outputType = outputTypeParam;
-        }
-        
+        final String outputType = pentahoOutputType(outputTypeParam);
+        final MasterReport masterReport = preparePentahoReport(reportName, outputType, queryParams, locale, currentUser, errorLog);
+
+        // the report is generated straight into the response
+        final StreamingOutput report = new StreamingOutput() {
+
+            @Override
+            public void write(final OutputStream output) {
+                writePentahoReport(masterReport, outputType, output, errorLog);
+            }
+        };
+
         if ("PDF".equalsIgnoreCase(outputType)) {
-            return Response.ok().entity(baos.toByteArray()).type("application/pdf").build();
+            return Response.ok().entity(report).type("application/pdf").build();
         }
 
         if ("XLS".equalsIgnoreCase(outputType)) {
-            return Response.ok().entity(baos.toByteArray()).type("application/vnd.ms-excel")
+            return Response.ok().entity(report).type("application/vnd.ms-excel")
                     .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".xls").build();
         }
 
-        if ("XLSX".equalsIgnoreCase(outputType)) {
-            return Response.ok().entity(baos.toByteArray()).type("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-                    .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".xlsx").build();
-        }
-
         if ("CSV".equalsIgnoreCase(outputType)) {
-            return Response.ok().entity(baos.toByteArray()).type("application/x-msdownload")
+            return Response.ok().entity(report).type("application/x-msdownload")
                     .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".csv").build();
         }
 
         if ("HTML".equalsIgnoreCase(outputType)) {
-            return Response.ok().entity(baos.toByteArray()).type("text/html").build();
+            return Response.ok().entity(report).type("text/html").build();
         }
 
         throw new PlatformDataIntegrityException("error.msg.invalid.outputType", "No matching Output Type: " + outputType);
@@ -681,6 +849,20 @@ public class ReadReportingServiceImpl implements ReadReportingService {
     @Override
     public ByteArrayOutputStream generatePentahoReportAsOutputStream(final String reportName, final String outputTypeParam, final Map<String, String> queryParams,
             final Locale locale, final AppUser runReportAsUser, final StringBuilder errorLog) {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        generatePentahoReport(reportName, outputTypeParam, queryParams, locale, runReportAsUser, errorLog, baos);
+        return baos;
+    }
+
+    @Override
+    public void generatePentahoReport(final String reportName, final String outputTypeParam, final Map<String, String> queryParams,
+            final Locale locale, final AppUser runReportAsUser, final StringBuilder errorLog, final OutputStream outputStream) {
+        final String outputType = pentahoOutputType(outputTypeParam);
+        final MasterReport masterReport = preparePentahoReport(reportName, outputType, queryParams, locale, runReportAsUser, errorLog);
+        writePentahoReport(masterReport, outputType, outputStream, errorLog);
+    }
+
+    private String pentahoOutputType(final String outputTypeParam) {
         String outputType = "HTML";
         if (StringUtils.isNotBlank(outputTypeParam)) {
             outputType = outputTypeParam;
@@ -693,52 +875,59 @@ public class ReadReportingServiceImpl implements ReadReportingService {
         if (this.noPentaho) { throw new PlatformDataIntegrityException("error.msg.no.pentaho", "Pentaho is not enabled",
                 "Pentaho is not enabled"); }
 
-        final String reportPath = FileSystemContentRepository.MIFOSX_BASE_DIR + File.separator + "pentahoReports" + File.separator
-                + reportName + ".prpt";
-        logger.info("Report path: " + reportPath);
-
-        // load report definition
-        final ResourceManager manager = new ResourceManager();
-        manager.registerDefaults();
-        Resource res;
+        return outputType;
+    }
 
+    /**
+     * Fills a copy of the cached report definition in, so that missing
+     * parameters and unknown reports are reported before any output is
+     * written.
+     */
+    private MasterReport preparePentahoReport(final String reportName, final String outputType, final Map<String, String> queryParams,
+            final Locale locale, final AppUser runReportAsUser, final StringBuilder errorLog) {
         try {
-            res = manager.createDirectly(reportPath, MasterReport.class);
-            final MasterReport masterReport = (MasterReport) res.getResource();
+            final MasterReport masterReport = this.pentahoReportTemplateCache.retrieveReport(reportName);
             final DefaultReportEnvironment reportEnvironment = (DefaultReportEnvironment) masterReport.getReportEnvironment();
-            
+
             if (locale != null) {
                 reportEnvironment.setLocale(locale);
             }
             addParametersToReport(masterReport, queryParams, runReportAsUser, errorLog);
 
-            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            if ("CSV".equalsIgnoreCase(outputType)) {
+                masterReport.getReportConfiguration().setConfigProperty("org.pentaho.reporting.engine.classic.core.modules.output.table.csv.AssumeOverflowX", "true");
+            }
+            return masterReport;
+        } catch (final ResourceException e) {
+            errorLog.append("ReadReportingServiceImpl.generatePentahoReportAsOutputStream method threw a Pentaho ResourceException "
+                    + "exception: " + e.getMessage() + " ---------- ");
+            throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
+        }
+    }
 
+    private void writePentahoReport(final MasterReport masterReport, final String outputType, final OutputStream outputStream,
+            final StringBuilder errorLog) {
+        try {
             if ("PDF".equalsIgnoreCase(outputType)) {
-                PdfReportUtil.createPDF(masterReport, baos);
-                return baos;
+                PdfReportUtil.createPDF(masterReport, outputStream);
+                return;
             }
 
             if ("XLS".equalsIgnoreCase(outputType)) {
-                ExcelReportUtil.createXLS(masterReport, baos);
-                return baos;
+                ExcelReportUtil.createXLS(masterReport, outputStream);
+                return;
             }
 
             if ("CSV".equalsIgnoreCase(outputType)) {
-                masterReport.getReportConfiguration().setConfigProperty("org.pentaho.reporting.engine.classic.core.modules.output.table.csv.AssumeOverflowX", "true");
-                CSVReportUtil.createCSV(masterReport, baos, "UTF-8");
-                return baos;
+                CSVReportUtil.createCSV(masterReport, outputStream, "UTF-8");
+                return;
             }
 
             if ("HTML".equalsIgnoreCase(outputType)) {
-                HtmlReportUtil.createStreamHTML(masterReport, baos);
-                return baos;
+                HtmlReportUtil.createStreamHTML(masterReport, outputStream);
+                return;
             }
             
-        } catch (final ResourceException e) {
-            errorLog.append("ReadReportingServiceImpl.generatePentahoReportAsOutputStream method threw a Pentaho ResourceException "
-                    + "exception: " + e.getMessage() + " ---------- ");
-            throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
         } catch (final ReportProcessingException e) {
             errorLog.append("ReadReportingServiceImpl.generatePentahoReportAsOutputStream method threw a Pentaho ReportProcessingException "
                     + "exception: " + e.getMessage() + " ---------- ");
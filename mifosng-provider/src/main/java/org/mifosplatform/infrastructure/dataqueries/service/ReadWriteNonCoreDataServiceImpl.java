@@ -63,6 +63,7 @@ import org.mifosplatform.useradministration.domain.AppUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
@@ -318,6 +319,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
             if (this.isSurveyCategory(category)) {
                 this.jdbcTemplate.execute("insert into c_configuration (name, value, enabled ) values('" + dataTableName + "', '0','0')");
             }
+            this.configurationDomainService.refreshConfigurationSnapshot();
 
         }
         /***
@@ -392,6 +394,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
     @Transactional
     @Override
+    @CacheEvict(value = "datatables", allEntries = true)
     public void deregisterDatatable(final String datatable) {
         final String permissionList = "('CREATE_" + datatable + "', 'CREATE_" + datatable + "_CHECKER', 'READ_" + datatable + "', 'UPDATE_"
                 + datatable + "', 'UPDATE_" + datatable + "_CHECKER', 'DELETE_" + datatable + "', 'DELETE_" + datatable + "_CHECKER')";
@@ -414,6 +417,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         this.deleteRegisteredTableMetaData(datatable);
 
         this.jdbcTemplate.batchUpdate(sqlArray);
+        this.configurationDomainService.refreshConfigurationSnapshot();
     }
 
     @Transactional
@@ -667,6 +671,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
     @Transactional
     @Override
+    @CacheEvict(value = "datatables", allEntries = true)
     public CommandProcessingResult createDatatable(final JsonCommand command) {
 
         String datatableName = null;
@@ -1078,6 +1083,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
     @Transactional
     @Override
+    @CacheEvict(value = "datatables", allEntries = true)
     public void updateDatatable(final String datatableName, final JsonCommand command) {
 
         try {
@@ -1394,6 +1400,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
     @Transactional
     @Override
+    @CacheEvict(value = "datatables", allEntries = true)
     public void deleteDatatable(final String datatableName) {
 
         try {
@@ -11,6 +11,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
@@ -31,6 +32,7 @@ import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
 import org.mifosplatform.infrastructure.core.serialization.ToApiJsonSerializer;
 import org.mifosplatform.infrastructure.documentmanagement.command.DocumentCommand;
+import org.mifosplatform.infrastructure.documentmanagement.data.ByteRange;
 import org.mifosplatform.infrastructure.documentmanagement.data.DocumentData;
 import org.mifosplatform.infrastructure.documentmanagement.data.FileData;
 import org.mifosplatform.infrastructure.documentmanagement.service.DocumentReadPlatformService;
@@ -54,6 +56,16 @@ public class DocumentManagementApiResource {
 
     private final String SystemEntityType = "DOCUMENT";
 
+    private static final int HTTP_PARTIAL_CONTENT = 206;
+
+    /**
+     * Request attributes through which Tomcat sends files with sendfile
+     */
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final PlatformSecurityContext context;
     private final DocumentReadPlatformService documentReadPlatformService;
     private final DocumentWritePlatformService documentWritePlatformService;
@@ -93,11 +105,6 @@ public class DocumentManagementApiResource {
             @FormDataParam("file") final FormDataContentDisposition fileDetails, @FormDataParam("file") final FormDataBodyPart bodyPart,
             @FormDataParam("name") final String name, @FormDataParam("description") final String description,@FormDataParam("appTableId") final Long appTableId,@FormDataParam("locale") final String locale) {
 
-        /**
-         * TODO: also need to have a backup and stop reading from stream after
-         * max size is reached to protect against malicious clients
-         **/
-
         /**
          * TODO: need to extract the actual file type and determine if they are
          * permissable
@@ -169,16 +176,39 @@ public class DocumentManagementApiResource {
     @Consumes({ MediaType.APPLICATION_JSON })
     @Produces({ MediaType.APPLICATION_OCTET_STREAM })
     public Response downloadFile(@PathParam("entityType") final String entityType, @PathParam("entityId") final Long entityId,
-            @PathParam("documentId") final Long documentId) {
+            @PathParam("documentId") final Long documentId, @HeaderParam("Range") final String rangeHeader,
+            @Context final HttpServletRequest request) {
 
         this.context.authenticatedUser().validateHasReadPermission(this.SystemEntityType);
 
-        final FileData fileData = this.documentReadPlatformService.retrieveFileData(entityType, entityId, documentId);
-        final ResponseBuilder response = Response.ok(fileData.file());
+        final FileData fileData = this.documentReadPlatformService.retrieveFileData(entityType, entityId, documentId,
+                ByteRange.fromHeader(rangeHeader));
+
+        final ResponseBuilder response;
+        if (fileData.isPartial()) {
+            final long end = fileData.offset() + fileData.length() - 1;
+            response = Response.status(HTTP_PARTIAL_CONTENT);
+            response.header("Content-Range", "bytes " + fileData.offset() + "-" + end + "/" + fileData.totalLength());
+        } else {
+            response = Response.ok();
+        }
+        response.header("Accept-Ranges", "bytes");
+        if (fileData.length() != null) {
+            response.header("Content-Length", fileData.length());
+        }
         response.header("Content-Disposition", "attachment; filename=\"" + fileData.name() + "\"");
         response.header("Content-Type", fileData.contentType());
 
-        return response.build();
+        if (fileData.localFile() != null && fileData.length() != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // the container sends the file straight from the file system once
+            // the headers are written
+            request.setAttribute(SENDFILE_FILENAME, fileData.localFile().getAbsolutePath());
+            request.setAttribute(SENDFILE_START, Long.valueOf(fileData.offset()));
+            request.setAttribute(SENDFILE_END, Long.valueOf(fileData.offset() + fileData.length()));
+            return response.build();
+        }
+
+        return response.entity(new FileDataStreamingOutput(fileData)).build();
     }
 
     @DELETE
@@ -0,0 +1,77 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.documentmanagement.api;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import org.mifosplatform.infrastructure.documentmanagement.data.FileData;
+
+/**
+ * Writes the content of a {@link FileData} to the response. Local files are
+ * handed to {@link FileChannel#transferTo(long, long, WritableByteChannel)}
+ * so the JVM can use the most direct copy it supports; streamed content is
+ * copied through a small buffer. Neither is ever held in memory as a whole.
+ */
+public class FileDataStreamingOutput implements StreamingOutput {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final FileData fileData;
+
+    public FileDataStreamingOutput(final FileData fileData) {
+        this.fileData = fileData;
+    }
+
+    @Override
+    public void write(final OutputStream output) throws IOException {
+        if (this.fileData.localFile() != null) {
+            transferLocalFile(output);
+        } else {
+            copyStream(output);
+        }
+    }
+
+    private void transferLocalFile(final OutputStream output) throws IOException {
+        final FileInputStream in = new FileInputStream(this.fileData.localFile());
+        try {
+            final FileChannel channel = in.getChannel();
+            final WritableByteChannel target = Channels.newChannel(output);
+            long position = this.fileData.offset();
+            long remaining = this.fileData.length() == null ? channel.size() - position : this.fileData.length();
+            while (remaining > 0) {
+                final long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    private void copyStream(final OutputStream output) throws IOException {
+        final InputStream in = this.fileData.file();
+        try {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int read = 0;
+            while ((read = in.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+        } finally {
+            in.close();
+        }
+    }
+}
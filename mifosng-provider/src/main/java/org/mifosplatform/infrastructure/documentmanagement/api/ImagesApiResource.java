@@ -5,6 +5,7 @@
  */
 package org.mifosplatform.infrastructure.documentmanagement.api;
 
+import java.io.IOException;
 import java.io.InputStream;
 
 import javax.ws.rs.Consumes;
@@ -17,10 +18,13 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.domain.Base64EncodedImage;
@@ -28,8 +32,10 @@ import org.mifosplatform.infrastructure.core.serialization.DefaultToApiJsonSeria
 import org.mifosplatform.infrastructure.documentmanagement.contentrepository.ContentRepositoryUtils;
 import org.mifosplatform.infrastructure.documentmanagement.contentrepository.ContentRepositoryUtils.IMAGE_FILE_EXTENSION;
 import org.mifosplatform.infrastructure.documentmanagement.data.ImageData;
+import org.mifosplatform.infrastructure.documentmanagement.exception.ContentManagementException;
 import org.mifosplatform.infrastructure.documentmanagement.exception.InvalidEntityTypeForImageManagementException;
 import org.mifosplatform.infrastructure.documentmanagement.service.ImageReadPlatformService;
+import org.mifosplatform.infrastructure.documentmanagement.service.ImageRenditionCache;
 import org.mifosplatform.infrastructure.documentmanagement.service.ImageWritePlatformService;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.portfolio.client.data.ClientData;
@@ -51,14 +57,17 @@ public class ImagesApiResource {
     private final ImageReadPlatformService imageReadPlatformService;
     private final ImageWritePlatformService imageWritePlatformService;
     private final DefaultToApiJsonSerializer<ClientData> toApiJsonSerializer;
+    private final ImageRenditionCache imageRenditionCache;
 
     @Autowired
     public ImagesApiResource(final PlatformSecurityContext context, final ImageReadPlatformService readPlatformService,
-            final ImageWritePlatformService imageWritePlatformService, final DefaultToApiJsonSerializer<ClientData> toApiJsonSerializer) {
+            final ImageWritePlatformService imageWritePlatformService, final DefaultToApiJsonSerializer<ClientData> toApiJsonSerializer,
+            final ImageRenditionCache imageRenditionCache) {
         this.context = context;
         this.imageReadPlatformService = readPlatformService;
         this.imageWritePlatformService = imageWritePlatformService;
         this.toApiJsonSerializer = toApiJsonSerializer;
+        this.imageRenditionCache = imageRenditionCache;
     }
 
     /**
@@ -107,7 +116,7 @@ public class ImagesApiResource {
     @Produces({ MediaType.TEXT_PLAIN })
     public Response retrieveImage(@PathParam("entity") final String entityName, @PathParam("entityId") final Long entityId,
             @QueryParam("maxWidth") final Integer maxWidth, @QueryParam("maxHeight") final Integer maxHeight,
-            @QueryParam("output") final String output) {
+            @QueryParam("output") final String output, @HeaderParam("If-None-Match") final String ifNoneMatch) {
         validateEntityTypeforImage(entityName);
         if (ENTITY_TYPE_FOR_IMAGES.CLIENTS.toString().equalsIgnoreCase(entityName)) {
             this.context.authenticatedUser().validateHasReadPermission("CLIENTIMAGE");
@@ -116,9 +125,14 @@ public class ImagesApiResource {
         }
 
         if (output != null && (output.equals("octet") || output.equals("inline_octet"))) { return downloadClientImage(entityName, entityId,
-                maxWidth, maxHeight, output); }
+                maxWidth, maxHeight, output, ifNoneMatch); }
 
-        final ImageData imageData = this.imageReadPlatformService.retrieveImage(entityName, entityId);
+        final ImageData imageData = this.imageReadPlatformService.retrieveImageMetadata(entityName, entityId);
+
+        // the data URI and the image itself are different representations
+        final EntityTag entityTag = new EntityTag(this.imageRenditionCache.renditionTag(entityName, entityId, imageData, maxWidth,
+                maxHeight) + "-base64");
+        if (isNotModified(ifNoneMatch, entityTag)) { return Response.notModified(entityTag).cacheControl(revalidate()).build(); }
 
         // TODO: Need a better way of determining image type
         String imageDataURISuffix = ContentRepositoryUtils.IMAGE_DATA_URI_SUFFIX.JPEG.getValue();
@@ -128,8 +142,15 @@ public class ImagesApiResource {
             imageDataURISuffix = ContentRepositoryUtils.IMAGE_DATA_URI_SUFFIX.PNG.getValue();
         }
 
-        final String clientImageAsBase64Text = imageDataURISuffix + Base64.encodeBytes(imageData.getContentOfSize(maxWidth, maxHeight));
-        return Response.ok(clientImageAsBase64Text).build();
+        final InputStream rendition = this.imageRenditionCache.retrieveRendition(entityName, entityId, imageData, maxWidth, maxHeight);
+        try {
+            final String clientImageAsBase64Text = imageDataURISuffix + Base64.encodeBytes(IOUtils.toByteArray(rendition));
+            return Response.ok(clientImageAsBase64Text).tag(entityTag).cacheControl(revalidate()).build();
+        } catch (final IOException e) {
+            throw new ContentManagementException(imageData.location(), e.getMessage());
+        } finally {
+            IOUtils.closeQuietly(rendition);
+        }
     }
 
     @GET
@@ -137,7 +158,7 @@ public class ImagesApiResource {
     @Produces({ MediaType.APPLICATION_OCTET_STREAM })
     public Response downloadClientImage(@PathParam("entity") final String entityName, @PathParam("entityId") final Long entityId,
             @QueryParam("maxWidth") final Integer maxWidth, @QueryParam("maxHeight") final Integer maxHeight,
-            @QueryParam("output") String output) {
+            @QueryParam("output") String output, @HeaderParam("If-None-Match") final String ifNoneMatch) {
         validateEntityTypeforImage(entityName);
         if (ENTITY_TYPE_FOR_IMAGES.CLIENTS.toString().equalsIgnoreCase(entityName)) {
             this.context.authenticatedUser().validateHasReadPermission("CLIENTIMAGE");
@@ -145,9 +166,15 @@ public class ImagesApiResource {
             this.context.authenticatedUser().validateHasReadPermission("STAFFIMAGE");
         }
 
-        final ImageData imageData = this.imageReadPlatformService.retrieveImage(entityName, entityId);
+        final ImageData imageData = this.imageReadPlatformService.retrieveImageMetadata(entityName, entityId);
+
+        final EntityTag entityTag = new EntityTag(this.imageRenditionCache.renditionTag(entityName, entityId, imageData, maxWidth,
+                maxHeight));
+        if (isNotModified(ifNoneMatch, entityTag)) { return Response.notModified(entityTag).cacheControl(revalidate()).build(); }
 
-        final ResponseBuilder response = Response.ok(imageData.getContentOfSize(maxWidth, maxHeight));
+        // the stream is closed by the container once the response is written
+        final ResponseBuilder response = Response.ok(this.imageRenditionCache.retrieveRendition(entityName, entityId, imageData,
+                maxWidth, maxHeight));
         String dispositionType = "inline_octet".equals(output) ? "inline" : "attachment";
         response.header("Content-Disposition", dispositionType + "; filename=\"" + imageData.getEntityDisplayName()
                 + IMAGE_FILE_EXTENSION.JPEG + "\"");
@@ -155,7 +182,7 @@ public class ImagesApiResource {
         // TODO: Need a better way of determining image type
 
         response.header("Content-Type", imageData.contentType());
-        return response.build();
+        return response.tag(entityTag).cacheControl(revalidate()).build();
     }
 
     /**
@@ -204,6 +231,30 @@ public class ImagesApiResource {
         }
     }
 
+    /**
+     * Renditions may be kept by the client but have to be revalidated with
+     * their entity tag, as images can be replaced at any time.
+     */
+    private static CacheControl revalidate() {
+        final CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true);
+        return cacheControl;
+    }
+
+    private static boolean isNotModified(final String ifNoneMatch, final EntityTag entityTag) {
+        if (ifNoneMatch == null) { return false; }
+        final String quotedTag = "\"" + entityTag.getValue() + "\"";
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if ("*".equals(candidate) || quotedTag.equals(candidate)) { return true; }
+        }
+        return false;
+    }
+
     private void validateEntityTypeforImage(final String entityName) {
         if (!checkValidEntityType(entityName)) { throw new InvalidEntityTypeForImageManagementException(entityName); }
     }
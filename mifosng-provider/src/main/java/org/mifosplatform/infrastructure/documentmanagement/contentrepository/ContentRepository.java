@@ -9,6 +9,7 @@ import java.io.InputStream;
 
 import org.mifosplatform.infrastructure.core.domain.Base64EncodedImage;
 import org.mifosplatform.infrastructure.documentmanagement.command.DocumentCommand;
+import org.mifosplatform.infrastructure.documentmanagement.data.ByteRange;
 import org.mifosplatform.infrastructure.documentmanagement.data.DocumentData;
 import org.mifosplatform.infrastructure.documentmanagement.data.FileData;
 import org.mifosplatform.infrastructure.documentmanagement.data.ImageData;
@@ -30,6 +31,12 @@ public interface ContentRepository {
 
     public abstract FileData fetchFile(DocumentData documentData);
 
+    /**
+     * Fetches the requested range of the file of the document, or the whole
+     * file when the range cannot be satisfied.
+     */
+    public abstract FileData fetchFile(DocumentData documentData, ByteRange range);
+
     public abstract String saveImage(InputStream uploadedInputStream, Long resourceId, String imageName, Long fileSize);
 
     public abstract String saveImage(Base64EncodedImage base64EncodedImage, Long resourceId, String imageName);
@@ -27,20 +27,35 @@ public class ContentRepositoryFactory {
     }
 
     public ContentRepository getRepository() {
-        final ConfigurationDomainService configurationDomainServiceJpa = this.applicationContext.getBean("configurationDomainServiceJpa",
-                ConfigurationDomainService.class);
-        if (configurationDomainServiceJpa.isAmazonS3Enabled()) { return createS3DocumentStore(); }
-        return new FileSystemContentRepository();
+        final ConfigurationDomainService configurationDomainServiceJpa = configurationDomainService();
+        final int maxFileUploadSizeInMB = configurationDomainServiceJpa.retrieveMaxFileUploadSizeInMB();
+        if (configurationDomainServiceJpa.isAmazonS3Enabled()) { return createS3DocumentStore(maxFileUploadSizeInMB); }
+        return new FileSystemContentRepository(maxFileUploadSizeInMB);
     }
 
     public ContentRepository getRepository(final StorageType documentStoreType) {
-        if (documentStoreType == StorageType.FILE_SYSTEM) { return new FileSystemContentRepository(); }
-        return createS3DocumentStore();
+        final int maxFileUploadSizeInMB = configurationDomainService().retrieveMaxFileUploadSizeInMB();
+        if (documentStoreType == StorageType.FILE_SYSTEM) { return new FileSystemContentRepository(maxFileUploadSizeInMB); }
+        return createS3DocumentStore(maxFileUploadSizeInMB);
     }
 
-    private ContentRepository createS3DocumentStore() {
+    /**
+     * @return the configured repository, without the upload size limit, for
+     *         files generated by the platform itself such as the results of
+     *         background jobs
+     */
+    public ContentRepository getRepositoryForGeneratedFiles() {
+        if (configurationDomainService().isAmazonS3Enabled()) { return createS3DocumentStore(Integer.MAX_VALUE); }
+        return new FileSystemContentRepository(Integer.MAX_VALUE);
+    }
+
+    private ConfigurationDomainService configurationDomainService() {
+        return this.applicationContext.getBean("configurationDomainServiceJpa", ConfigurationDomainService.class);
+    }
+
+    private ContentRepository createS3DocumentStore(final int maxFileUploadSizeInMB) {
         final S3CredentialsData s3CredentialsData = this.externalServicesReadPlatformService.getS3Credentials();
         return new S3ContentRepository(s3CredentialsData.getBucketName(), s3CredentialsData.getSecretKey(),
-                s3CredentialsData.getAccessKey());
+                s3CredentialsData.getAccessKey(), maxFileUploadSizeInMB);
     }
 }
@@ -129,15 +129,16 @@ public class ContentRepositoryUtils {
         return new Base64EncodedImage(base64EncodedString, fileExtension);
     }
 
-    public static void validateFileSizeWithinPermissibleRange(final Long fileSize, final String name) {
+    public static void validateFileSizeWithinPermissibleRange(final Long fileSize, final String name, final int maxSizeInMB) {
         /**
          * Using Content-Length gives me size of the entire request, which is
          * good enough for now for a fast fail as the length of the rest of the
          * content i.e name and description while compared to the uploaded file
-         * size is negligible
+         * size is negligible. The size is enforced again while the upload is
+         * read, see {@link SizeLimitedInputStream}
          **/
-        if (fileSize != null && ((fileSize / (1024 * 1024)) > ContentRepository.MAX_FILE_UPLOAD_SIZE_IN_MB)) { throw new ContentManagementException(
-                name, fileSize, ContentRepository.MAX_FILE_UPLOAD_SIZE_IN_MB); }
+        if (fileSize != null && ((fileSize / (1024 * 1024)) > maxSizeInMB)) { throw new ContentManagementException(name, fileSize,
+                maxSizeInMB); }
     }
 
     public static void validateClientImageNotEmpty(final String imageFileName) {
@@ -14,6 +14,7 @@ import java.io.OutputStream;
 import org.mifosplatform.infrastructure.core.domain.Base64EncodedImage;
 import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.mifosplatform.infrastructure.documentmanagement.command.DocumentCommand;
+import org.mifosplatform.infrastructure.documentmanagement.data.ByteRange;
 import org.mifosplatform.infrastructure.documentmanagement.data.DocumentData;
 import org.mifosplatform.infrastructure.documentmanagement.data.FileData;
 import org.mifosplatform.infrastructure.documentmanagement.data.ImageData;
@@ -30,13 +31,19 @@ public class FileSystemContentRepository implements ContentRepository {
 
     public static final String MIFOSX_BASE_DIR = System.getProperty("user.home") + File.separator + ".mifosx";
 
+    private final int maxFileUploadSizeInMB;
+
+    public FileSystemContentRepository(final int maxFileUploadSizeInMB) {
+        this.maxFileUploadSizeInMB = maxFileUploadSizeInMB;
+    }
+
     @Override
     public String saveFile(final InputStream uploadedInputStream, final DocumentCommand documentCommand) {
         final String fileName = documentCommand.getFileName();
         final String uploadDocumentLocation = generateFileParentDirectory(documentCommand.getParentEntityType(),
                 documentCommand.getParentEntityId());
 
-        ContentRepositoryUtils.validateFileSizeWithinPermissibleRange(documentCommand.getSize(), fileName);
+        ContentRepositoryUtils.validateFileSizeWithinPermissibleRange(documentCommand.getSize(), fileName, this.maxFileUploadSizeInMB);
         makeDirectories(uploadDocumentLocation);
 
         final String fileLocation = uploadDocumentLocation + File.separator + fileName;
@@ -49,7 +56,7 @@ public class FileSystemContentRepository implements ContentRepository {
     public String saveImage(final InputStream uploadedInputStream, final Long resourceId, final String imageName, final Long fileSize) {
         final String uploadImageLocation = generateClientImageParentDirectory(resourceId);
 
-        ContentRepositoryUtils.validateFileSizeWithinPermissibleRange(fileSize, imageName);
+        ContentRepositoryUtils.validateFileSizeWithinPermissibleRange(fileSize, imageName, this.maxFileUploadSizeInMB);
         makeDirectories(uploadImageLocation);
 
         final String fileLocation = uploadImageLocation + File.separator + imageName;
@@ -65,9 +72,11 @@ public class FileSystemContentRepository implements ContentRepository {
         makeDirectories(uploadImageLocation);
 
         final String fileLocation = uploadImageLocation + File.separator + imageName + base64EncodedImage.getFileExtension();
+        final byte[] imgBytes = Base64.decode(base64EncodedImage.getBase64EncodedString());
+        ContentRepositoryUtils.validateFileSizeWithinPermissibleRange(Long.valueOf(imgBytes.length), imageName,
+                this.maxFileUploadSizeInMB);
         try {
             final OutputStream out = new FileOutputStream(new File(fileLocation));
-            final byte[] imgBytes = Base64.decode(base64EncodedImage.getBase64EncodedString());
             out.write(imgBytes);
             out.flush();
             out.close();
@@ -108,6 +117,14 @@ public class FileSystemContentRepository implements ContentRepository {
         return new FileData(file, documentData.fileName(), documentData.contentType());
     }
 
+    @Override
+    public FileData fetchFile(final DocumentData documentData, final ByteRange range) {
+        final File file = new File(documentData.fileLocation());
+        final long length = file.length();
+        if (range == null || !range.isSatisfiable(length)) { return new FileData(file, documentData.fileName(), documentData.contentType()); }
+        return FileData.range(file, documentData.fileName(), documentData.contentType(), range.start(length), range.end(length));
+    }
+
     @Override
     public ImageData fetchImage(final ImageData imageData) {
         final File file = new File(imageData.location());
@@ -146,19 +163,34 @@ public class FileSystemContentRepository implements ContentRepository {
         }
     }
 
+    /**
+     * Streams the upload to the file, failing and removing what was written
+     * as soon as it turns out to be larger than permitted.
+     */
     private void writeFileToFileSystem(final String fileName, final InputStream uploadedInputStream, final String fileLocation) {
+        final File file = new File(fileLocation);
+        final InputStream in = new SizeLimitedInputStream(uploadedInputStream, fileName, this.maxFileUploadSizeInMB);
+        boolean written = false;
         try {
-            final OutputStream out = new FileOutputStream(new File(fileLocation));
-            int read = 0;
-            final byte[] bytes = new byte[1024];
-
-            while ((read = uploadedInputStream.read(bytes)) != -1) {
-                out.write(bytes, 0, read);
+            final OutputStream out = new FileOutputStream(file);
+            try {
+                int read = 0;
+                final byte[] bytes = new byte[8192];
+
+                while ((read = in.read(bytes)) != -1) {
+                    out.write(bytes, 0, read);
+                }
+                out.flush();
+                written = true;
+            } finally {
+                out.close();
             }
-            out.flush();
-            out.close();
         } catch (final IOException ioException) {
             throw new ContentManagementException(fileName, ioException.getMessage());
+        } finally {
+            if (!written && file.exists() && !file.delete()) {
+                logger.warn("Unable to delete partially uploaded file " + fileLocation);
+            }
         }
     }
 }
\ No newline at end of file
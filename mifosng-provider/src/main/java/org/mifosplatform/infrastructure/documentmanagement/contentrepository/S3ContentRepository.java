@@ -7,10 +7,14 @@ package org.mifosplatform.infrastructure.documentmanagement.contentrepository;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 
 import org.mifosplatform.infrastructure.core.domain.Base64EncodedImage;
 import org.mifosplatform.infrastructure.documentmanagement.command.DocumentCommand;
+import org.mifosplatform.infrastructure.documentmanagement.data.ByteRange;
 import org.mifosplatform.infrastructure.documentmanagement.data.DocumentData;
 import org.mifosplatform.infrastructure.documentmanagement.data.FileData;
 import org.mifosplatform.infrastructure.documentmanagement.data.ImageData;
@@ -27,7 +31,6 @@ import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.model.DeleteObjectRequest;
 import com.amazonaws.services.s3.model.GetObjectRequest;
-import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.S3Object;
 import com.lowagie.text.pdf.codec.Base64;
@@ -38,16 +41,18 @@ public class S3ContentRepository implements ContentRepository {
 
     private final String s3BucketName;
     private final AmazonS3 s3Client;
+    private final int maxFileUploadSizeInMB;
 
-    public S3ContentRepository(final String bucketName, final String secretKey, final String accessKey) {
+    public S3ContentRepository(final String bucketName, final String secretKey, final String accessKey, final int maxFileUploadSizeInMB) {
         this.s3BucketName = bucketName;
         this.s3Client = new AmazonS3Client(new BasicAWSCredentials(accessKey, secretKey));
+        this.maxFileUploadSizeInMB = maxFileUploadSizeInMB;
     }
 
     @Override
     public String saveFile(final InputStream toUpload, final DocumentCommand documentCommand) {
         final String fileName = documentCommand.getFileName();
-        ContentRepositoryUtils.validateFileSizeWithinPermissibleRange(documentCommand.getSize(), fileName);
+        ContentRepositoryUtils.validateFileSizeWithinPermissibleRange(documentCommand.getSize(), fileName, this.maxFileUploadSizeInMB);
 
         final String uploadDocFolder = generateFileParentDirectory(documentCommand.getParentEntityType(),
                 documentCommand.getParentEntityId());
@@ -68,7 +73,7 @@ public class S3ContentRepository implements ContentRepository {
 
     @Override
     public String saveImage(final InputStream toUploadInputStream, final Long resourceId, final String imageName, final Long fileSize) {
-        ContentRepositoryUtils.validateFileSizeWithinPermissibleRange(fileSize, imageName);
+        ContentRepositoryUtils.validateFileSizeWithinPermissibleRange(fileSize, imageName, this.maxFileUploadSizeInMB);
         final String uploadImageLocation = generateClientImageParentDirectory(resourceId);
         final String fileLocation = uploadImageLocation + File.separator + imageName;
 
@@ -111,7 +116,8 @@ public class S3ContentRepository implements ContentRepository {
         try {
             logger.info("Downloading an object");
             final S3Object s3object = this.s3Client.getObject(new GetObjectRequest(this.s3BucketName, documentData.fileLocation()));
-            fileData = new FileData(s3object.getObjectContent(), fileName, documentData.contentType());
+            fileData = new FileData(s3object.getObjectContent(), fileName, documentData.contentType(), s3object.getObjectMetadata()
+                    .getContentLength());
         } catch (final AmazonClientException ace) {
             logger.error(ace.getMessage());
             throw new DocumentNotFoundException(documentData.getParentEntityType(), documentData.getParentEntityId(), documentData.getId());
@@ -119,6 +125,25 @@ public class S3ContentRepository implements ContentRepository {
         return fileData;
     }
 
+    @Override
+    public FileData fetchFile(final DocumentData documentData, final ByteRange range) throws DocumentNotFoundException {
+        if (range == null) { return fetchFile(documentData); }
+        try {
+            final long length = this.s3Client.getObjectMetadata(this.s3BucketName, documentData.fileLocation()).getContentLength();
+            if (!range.isSatisfiable(length)) { return fetchFile(documentData); }
+
+            final long start = range.start(length);
+            final long end = range.end(length);
+            final GetObjectRequest request = new GetObjectRequest(this.s3BucketName, documentData.fileLocation());
+            request.setRange(start, end);
+            final S3Object s3object = this.s3Client.getObject(request);
+            return FileData.range(s3object.getObjectContent(), documentData.fileName(), documentData.contentType(), start, end, length);
+        } catch (final AmazonClientException ace) {
+            logger.error(ace.getMessage());
+            throw new DocumentNotFoundException(documentData.getParentEntityType(), documentData.getParentEntityId(), documentData.getId());
+        }
+    }
+
     @Override
     public ImageData fetchImage(final ImageData imageData) {
         final S3Object s3object = this.s3Client.getObject(new GetObjectRequest(this.s3BucketName, imageData.location()));
@@ -151,14 +176,40 @@ public class S3ContentRepository implements ContentRepository {
         this.s3Client.deleteObject(new DeleteObjectRequest(this.s3BucketName, location));
     }
 
+    /**
+     * Uploads are spooled to a temporary file first: given a stream of unknown
+     * length the S3 client would buffer the whole object in memory.
+     */
     private void uploadDocument(final String filename, final InputStream inputStream, final String s3UploadLocation)
             throws ContentManagementException {
+        File spoolFile = null;
         try {
+            spoolFile = File.createTempFile("s3upload", null);
+            spool(new SizeLimitedInputStream(inputStream, filename, this.maxFileUploadSizeInMB), spoolFile);
             logger.info("Uploading a new object to S3 from a file to " + s3UploadLocation);
-            this.s3Client.putObject(new PutObjectRequest(this.s3BucketName, s3UploadLocation, inputStream, new ObjectMetadata()));
+            this.s3Client.putObject(new PutObjectRequest(this.s3BucketName, s3UploadLocation, spoolFile));
+        } catch (final IOException ioe) {
+            throw new ContentManagementException(filename, ioe.getMessage());
         } catch (final AmazonClientException ace) {
             final String message = ace.getMessage();
             throw new ContentManagementException(filename, message);
+        } finally {
+            if (spoolFile != null && !spoolFile.delete()) {
+                logger.warn("Unable to delete spooled upload " + spoolFile);
+            }
+        }
+    }
+
+    private static void spool(final InputStream in, final File spoolFile) throws IOException {
+        final OutputStream out = new FileOutputStream(spoolFile);
+        try {
+            int read = 0;
+            final byte[] bytes = new byte[8192];
+            while ((read = in.read(bytes)) != -1) {
+                out.write(bytes, 0, read);
+            }
+        } finally {
+            out.close();
         }
     }
 }
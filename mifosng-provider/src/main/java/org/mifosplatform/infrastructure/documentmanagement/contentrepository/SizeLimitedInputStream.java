@@ -0,0 +1,66 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.documentmanagement.contentrepository;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.mifosplatform.infrastructure.documentmanagement.exception.ContentManagementException;
+
+/**
+ * Stream of an upload that fails as soon as more than the permissible number
+ * of bytes are read from it, whatever size the client declared.
+ */
+public class SizeLimitedInputStream extends FilterInputStream {
+
+    private final String name;
+    private final int maxSizeInMB;
+    private final long maxSize;
+    private long bytesRead = 0;
+
+    public SizeLimitedInputStream(final InputStream in, final String name, final int maxSizeInMB) {
+        super(in);
+        this.name = name;
+        this.maxSizeInMB = maxSizeInMB;
+        this.maxSize = (long) maxSizeInMB * 1024 * 1024;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int read = super.read();
+        if (read != -1) {
+            count(1);
+        }
+        return read;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        final int read = super.read(b, off, len);
+        if (read > 0) {
+            count(read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        final long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void count(final long read) {
+        this.bytesRead += read;
+        if (this.bytesRead > this.maxSize) { throw new ContentManagementException(this.name, this.bytesRead, this.maxSizeInMB); }
+    }
+}
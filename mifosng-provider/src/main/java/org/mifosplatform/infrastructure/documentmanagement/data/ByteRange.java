@@ -0,0 +1,76 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.documentmanagement.data;
+
+/**
+ * A single range of bytes requested through the HTTP <code>Range</code>
+ * header, as <code>first-last</code>, <code>first-</code> or
+ * <code>-suffixLength</code>. The range is only resolved against the length
+ * of the file it is applied to.
+ */
+public class ByteRange {
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    private final Long first;
+    private final Long last;
+    private final Long suffixLength;
+
+    /**
+     * @return the requested range or <code>null</code> when the header is
+     *         absent, malformed or asks for several ranges, in which case the
+     *         whole file is sent
+     */
+    public static ByteRange fromHeader(final String rangeHeader) {
+        if (rangeHeader == null || !rangeHeader.startsWith(BYTES_UNIT)) { return null; }
+        final String range = rangeHeader.substring(BYTES_UNIT.length()).trim();
+        final int dash = range.indexOf('-');
+        if (dash < 0 || range.indexOf(',') >= 0) { return null; }
+        try {
+            final String first = range.substring(0, dash).trim();
+            final String last = range.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                if (last.isEmpty()) { return null; }
+                return new ByteRange(null, null, Long.valueOf(last));
+            }
+            final Long firstByte = Long.valueOf(first);
+            final Long lastByte = last.isEmpty() ? null : Long.valueOf(last);
+            if (lastByte != null && lastByte < firstByte) { return null; }
+            return new ByteRange(firstByte, lastByte, null);
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private ByteRange(final Long first, final Long last, final Long suffixLength) {
+        this.first = first;
+        this.last = last;
+        this.suffixLength = suffixLength;
+    }
+
+    public boolean isSatisfiable(final long length) {
+        if (this.suffixLength != null) { return this.suffixLength > 0 && length > 0; }
+        return this.first < length;
+    }
+
+    /**
+     * @return the offset of the first byte of the range in a file of the
+     *         length
+     */
+    public long start(final long length) {
+        if (this.suffixLength != null) { return Math.max(0, length - this.suffixLength); }
+        return this.first;
+    }
+
+    /**
+     * @return the offset of the last byte of the range in a file of the
+     *         length
+     */
+    public long end(final long length) {
+        if (this.suffixLength != null || this.last == null) { return length - 1; }
+        return Math.min(this.last, length - 1);
+    }
+}
@@ -13,6 +13,11 @@ import java.io.InputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * The content of a file or of a range of it. Content stored on the local file
+ * system is kept as a {@link File} so it can be transferred without being
+ * copied through the heap.
+ */
 public class FileData {
 
     private static final Logger logger = LoggerFactory.getLogger(FileData.class);
@@ -21,19 +26,48 @@ public class FileData {
     private final String fileName;
     private final String contentType;
     private final InputStream inputStream;
+    private final long offset;
+    private final Long length;
+    private final Long totalLength;
 
     public FileData(final File file, final String fileName, final String contentType) {
-        this.file = file;
-        this.fileName = fileName;
-        this.contentType = contentType;
-        this.inputStream = null;
+        this(file, null, fileName, contentType, 0, file.length(), file.length());
     }
 
     public FileData(final InputStream inputStream, final String fileName, final String contentType) {
-        this.file = null;
+        this(null, inputStream, fileName, contentType, 0, null, null);
+    }
+
+    public FileData(final InputStream inputStream, final String fileName, final String contentType, final Long length) {
+        this(null, inputStream, fileName, contentType, 0, length, length);
+    }
+
+    /**
+     * @return the bytes from <code>start</code> to <code>end</code>
+     *         (inclusive) of the local file
+     */
+    public static FileData range(final File file, final String fileName, final String contentType, final long start, final long end) {
+        return new FileData(file, null, fileName, contentType, start, end - start + 1, file.length());
+    }
+
+    /**
+     * @return the bytes from <code>start</code> to <code>end</code>
+     *         (inclusive) of a file of the total length, read from the stream
+     */
+    public static FileData range(final InputStream inputStream, final String fileName, final String contentType, final long start,
+            final long end, final long totalLength) {
+        return new FileData(null, inputStream, fileName, contentType, start, end - start + 1, totalLength);
+    }
+
+    private FileData(final File file, final InputStream inputStream, final String fileName, final String contentType, final long offset,
+            final Long length, final Long totalLength) {
+        this.file = file;
         this.inputStream = inputStream;
         this.fileName = fileName;
         this.contentType = contentType;
+        this.offset = offset;
+        this.length = length;
+        this.totalLength = totalLength;
     }
 
     public String contentType() {
@@ -53,4 +87,37 @@ public class FileData {
             return null;
         }
     }
+
+    /**
+     * @return the file on the local file system or <code>null</code> when the
+     *         content is read from a stream
+     */
+    public File localFile() {
+        return this.file;
+    }
+
+    /**
+     * @return the offset of the content in the file
+     */
+    public long offset() {
+        return this.offset;
+    }
+
+    /**
+     * @return the length of the content or <code>null</code> when unknown
+     */
+    public Long length() {
+        return this.length;
+    }
+
+    /**
+     * @return the length of the whole file or <code>null</code> when unknown
+     */
+    public Long totalLength() {
+        return this.totalLength;
+    }
+
+    public boolean isPartial() {
+        return this.length != null && this.totalLength != null && this.length < this.totalLength;
+    }
 }
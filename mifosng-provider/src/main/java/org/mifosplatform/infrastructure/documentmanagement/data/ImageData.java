@@ -9,6 +9,7 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -25,21 +26,30 @@ import org.mifosplatform.infrastructure.documentmanagement.domain.StorageType;
 
 public class ImageData {
 
-    @SuppressWarnings("unused")
     private final Long imageId;
     private final String location;
     private final Integer storageType;
     private final String entityDisplayName;
+    private final Integer version;
 
     private File file;
     private ContentRepositoryUtils.IMAGE_FILE_EXTENSION fileExtension;
     private InputStream inputStream;
 
     public ImageData(final Long imageId, final String location, final Integer storageType, final String entityDisplayName) {
+        this(imageId, location, storageType, entityDisplayName, 0);
+    }
+
+    public ImageData(final Long imageId, final String location, final Integer storageType, final String entityDisplayName,
+            final Integer version) {
         this.imageId = imageId;
         this.location = location;
         this.storageType = storageType;
         this.entityDisplayName = entityDisplayName;
+        this.version = version;
+        if (this.location != null) {
+            setImageContentType(this.location);
+        }
     }
 
     public byte[] getContent() {
@@ -90,6 +100,18 @@ public class ImageData {
 
     public byte[] getContentOfSize(Integer maxWidth, Integer maxHeight) {
         if (maxWidth == null && maxHeight == null) { return getContent(); }
+        if (this.file == null) {
+            // content read from a stream can only be read once
+            final byte[] content = getContent();
+            if (content == null) { return null; }
+            this.inputStream = new ByteArrayInputStream(content);
+            try {
+                return resizeImage(new ByteArrayInputStream(content), maxWidth != null ? maxWidth : Integer.MAX_VALUE,
+                        maxHeight != null ? maxHeight : Integer.MAX_VALUE);
+            } catch (IOException ex) {
+                return null;
+            }
+        }
         FileInputStream fis = null;
         try {
             fis = new FileInputStream(this.file);
@@ -148,4 +170,15 @@ public class ImageData {
         return this.entityDisplayName;
     }
 
+    public Long imageId() {
+        return this.imageId;
+    }
+
+    /**
+     * @return how many times the content of the image was replaced
+     */
+    public Integer version() {
+        return this.version;
+    }
+
 }
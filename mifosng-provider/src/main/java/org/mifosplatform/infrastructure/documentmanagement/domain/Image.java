@@ -21,9 +21,13 @@ public final class Image extends AbstractPersistable<Long> {
     @Column(name = "storage_type_enum")
     private Integer storageType;
 
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
     public Image(final String location, final StorageType storageType) {
         this.location = location;
         this.storageType = storageType.getValue();
+        this.version = 0;
     }
 
     protected Image() {
@@ -46,4 +50,15 @@ public final class Image extends AbstractPersistable<Long> {
         this.storageType = storageType;
     }
 
+    public Integer getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Marks the content of the image as replaced.
+     */
+    public void incrementVersion() {
+        this.version = this.version == null ? 1 : this.version + 1;
+    }
+
 }
\ No newline at end of file
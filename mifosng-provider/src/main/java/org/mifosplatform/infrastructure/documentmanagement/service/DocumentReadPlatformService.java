@@ -7,6 +7,7 @@ package org.mifosplatform.infrastructure.documentmanagement.service;
 
 import java.util.Collection;
 
+import org.mifosplatform.infrastructure.documentmanagement.data.ByteRange;
 import org.mifosplatform.infrastructure.documentmanagement.data.DocumentData;
 import org.mifosplatform.infrastructure.documentmanagement.data.FileData;
 
@@ -16,6 +17,12 @@ public interface DocumentReadPlatformService {
 
     FileData retrieveFileData(String entityType, Long entityId, Long documentId);
 
+    /**
+     * Retrieves the requested range of the file of the document, or the whole
+     * file when there is no range or it cannot be satisfied.
+     */
+    FileData retrieveFileData(String entityType, Long entityId, Long documentId, ByteRange range);
+
     DocumentData retrieveDocument(String entityType, Long entityId, Long documentId);
 
 }
\ No newline at end of file
@@ -13,6 +13,7 @@ import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.infrastructure.documentmanagement.contentrepository.ContentRepository;
 import org.mifosplatform.infrastructure.documentmanagement.contentrepository.ContentRepositoryFactory;
+import org.mifosplatform.infrastructure.documentmanagement.data.ByteRange;
 import org.mifosplatform.infrastructure.documentmanagement.data.DocumentData;
 import org.mifosplatform.infrastructure.documentmanagement.data.FileData;
 import org.mifosplatform.infrastructure.documentmanagement.exception.DocumentNotFoundException;
@@ -63,6 +64,18 @@ public class DocumentReadPlatformServiceImpl implements DocumentReadPlatformServ
         }
     }
 
+    @Override
+    public FileData retrieveFileData(final String entityType, final Long entityId, final Long documentId, final ByteRange range) {
+        try {
+            final DocumentMapper mapper = new DocumentMapper(false, false);
+            final DocumentData documentData = fetchDocumentDetails(entityType, entityId, documentId, mapper);
+            final ContentRepository contentRepository = this.contentRepositoryFactory.getRepository(documentData.storageType());
+            return contentRepository.fetchFile(documentData, range);
+        } catch (final EmptyResultDataAccessException e) {
+            throw new DocumentNotFoundException(entityType, entityId, documentId);
+        }
+    }
+
     @Override
     public DocumentData retrieveDocument(final String entityType, final Long entityId, final Long documentId) {
         try {
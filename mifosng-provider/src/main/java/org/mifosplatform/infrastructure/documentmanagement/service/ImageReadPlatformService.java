@@ -11,4 +11,10 @@ public interface ImageReadPlatformService {
 
     ImageData retrieveImage(String entityType, Long entityId);
 
+    /**
+     * Retrieves the image of the client or staff member without fetching its
+     * content from the content repository.
+     */
+    ImageData retrieveImageMetadata(String entityType, Long entityId);
+
 }
\ No newline at end of file
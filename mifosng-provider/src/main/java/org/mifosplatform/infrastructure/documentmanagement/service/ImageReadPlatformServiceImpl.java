@@ -70,6 +70,45 @@ public class ImageReadPlatformServiceImpl implements ImageReadPlatformService {
         }
     }
 
+    private static final class ImageMetadataMapper implements RowMapper<ImageData> {
+
+        public String schema(String entityType) {
+            StringBuilder builder = new StringBuilder(
+                    "image.id as id, image.location as location, image.storage_type_enum as storageType, image.version as version, ");
+            if (ENTITY_TYPE_FOR_IMAGES.CLIENTS.toString().equalsIgnoreCase(entityType)) {
+                builder.append("client.display_name as displayName from m_client client "
+                        + " join m_image image on image.id = client.image_id where client.id=?");
+            } else if (ENTITY_TYPE_FOR_IMAGES.STAFF.toString().equalsIgnoreCase(entityType)) {
+                builder.append("staff.display_name as displayName from m_staff staff "
+                        + " join m_image image on image.id = staff.image_id where staff.id=?");
+            }
+            return builder.toString();
+        }
+
+        @Override
+        public ImageData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+
+            final Long id = JdbcSupport.getLong(rs, "id");
+            final String location = rs.getString("location");
+            final Integer storageType = JdbcSupport.getInteger(rs, "storageType");
+            final Integer version = JdbcSupport.getInteger(rs, "version");
+            final String displayName = rs.getString("displayName");
+            return new ImageData(id, location, storageType, displayName, version);
+        }
+    }
+
+    @Override
+    public ImageData retrieveImageMetadata(final String entityType, final Long entityId) {
+        try {
+            final ImageMetadataMapper imageMetadataMapper = new ImageMetadataMapper();
+            final String sql = "select " + imageMetadataMapper.schema(entityType);
+
+            return this.jdbcTemplate.queryForObject(sql, imageMetadataMapper, new Object[] { entityId });
+        } catch (final EmptyResultDataAccessException e) {
+            throw new ImageNotFoundException(entityType, entityId);
+        }
+    }
+
     @Override
     public ImageData retrieveImage(String entityType, final Long entityId) {
         try {
@@ -0,0 +1,238 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.documentmanagement.service;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.documentmanagement.contentrepository.ContentRepository;
+import org.mifosplatform.infrastructure.documentmanagement.contentrepository.ContentRepositoryFactory;
+import org.mifosplatform.infrastructure.documentmanagement.contentrepository.FileSystemContentRepository;
+import org.mifosplatform.infrastructure.documentmanagement.data.ImageData;
+import org.mifosplatform.infrastructure.documentmanagement.exception.ContentManagementException;
+import org.mifosplatform.portfolio.client.exception.ImageNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+
+/**
+ * Local disk cache of the resized renditions of client and staff images, so
+ * an image is only fetched from the content repository, decoded and resized
+ * once for every size it is requested in.
+ *
+ * Renditions are keyed on the tenant, the owner of the image, the image and
+ * its version and the requested size. The index of the cached files is kept
+ * in memory and the least recently used renditions are removed once the
+ * cache grows beyond {@link #MAX_ENTRIES} files or {@link #MAX_BYTES} bytes.
+ * As the index does not survive a restart, the cache directory is emptied
+ * on startup.
+ */
+@Component
+public class ImageRenditionCache {
+
+    private final static Logger logger = LoggerFactory.getLogger(ImageRenditionCache.class);
+
+    public static final String CACHE_DIR = FileSystemContentRepository.MIFOSX_BASE_DIR + File.separator + "cache" + File.separator
+            + "images";
+
+    private static final int MAX_ENTRIES = 10000;
+    private static final long MAX_BYTES = 256L * 1024 * 1024;
+
+    private final ContentRepositoryFactory contentRepositoryFactory;
+    private final File cacheDirectory;
+
+    // guarded by itself
+    private final LinkedHashMap<String, CachedRendition> index = new LinkedHashMap<>(256, 0.75f, true);
+    private long cachedBytes = 0;
+
+    @Autowired
+    public ImageRenditionCache(final ContentRepositoryFactory contentRepositoryFactory) {
+        this.contentRepositoryFactory = contentRepositoryFactory;
+        this.cacheDirectory = new File(CACHE_DIR);
+    }
+
+    @PostConstruct
+    public void clearCacheDirectory() {
+        if (!this.cacheDirectory.isDirectory() && !this.cacheDirectory.mkdirs()) {
+            logger.warn("Unable to create image rendition cache directory " + this.cacheDirectory);
+            return;
+        }
+        final File[] files = this.cacheDirectory.listFiles();
+        if (files == null) { return; }
+        for (final File file : files) {
+            if (!file.delete()) {
+                logger.warn("Unable to delete cached image rendition " + file);
+            }
+        }
+    }
+
+    /**
+     * @return the tag identifying the rendition of the image in the requested
+     *         size, which changes whenever the image is replaced
+     */
+    public String renditionTag(final String entityType, final Long entityId, final ImageData image, final Integer maxWidth,
+            final Integer maxHeight) {
+        return Hashing.sha1().hashString(renditionKey(entityType, entityId, image, maxWidth, maxHeight), Charsets.UTF_8).toString();
+    }
+
+    /**
+     * Opens the rendition of the image in the requested size, fetching and
+     * resizing the image when it is not cached yet. The caller has to close
+     * the returned stream.
+     */
+    public InputStream retrieveRendition(final String entityType, final Long entityId, final ImageData image, final Integer maxWidth,
+            final Integer maxHeight) {
+        final String key = renditionKey(entityType, entityId, image, maxWidth, maxHeight);
+
+        final InputStream cached = openCached(key);
+        if (cached != null) { return cached; }
+
+        final CachedRendition rendered = new CachedRendition(render(entityType, entityId, image, maxWidth, maxHeight));
+        final List<File> evicted = new ArrayList<>();
+        final InputStream rendition;
+        synchronized (this.index) {
+            final CachedRendition previous = this.index.put(key, rendered);
+            if (previous != null) {
+                this.cachedBytes -= previous.length;
+            }
+            this.cachedBytes += rendered.length;
+            rendition = open(rendered.file);
+            evictEldest(evicted);
+        }
+        deleteFiles(evicted);
+
+        if (rendition == null) { throw new ImageNotFoundException(entityType, entityId); }
+        return rendition;
+    }
+
+    /**
+     * Removes the cached renditions of the image of the client or staff
+     * member of the current tenant.
+     */
+    public void invalidate(final String entityType, final Long entityId) {
+        final String prefix = ownerKey(entityType, entityId);
+        final List<File> evicted = new ArrayList<>();
+        synchronized (this.index) {
+            final Iterator<Map.Entry<String, CachedRendition>> entries = this.index.entrySet().iterator();
+            while (entries.hasNext()) {
+                final Map.Entry<String, CachedRendition> entry = entries.next();
+                if (entry.getKey().startsWith(prefix)) {
+                    this.cachedBytes -= entry.getValue().length;
+                    evicted.add(entry.getValue().file);
+                    entries.remove();
+                }
+            }
+        }
+        deleteFiles(evicted);
+    }
+
+    private InputStream openCached(final String key) {
+        synchronized (this.index) {
+            final CachedRendition cached = this.index.get(key);
+            if (cached == null) { return null; }
+            final InputStream rendition = open(cached.file);
+            if (rendition == null) {
+                this.index.remove(key);
+                this.cachedBytes -= cached.length;
+            }
+            return rendition;
+        }
+    }
+
+    private File render(final String entityType, final Long entityId, final ImageData image, final Integer maxWidth,
+            final Integer maxHeight) {
+        final ContentRepository contentRepository = this.contentRepositoryFactory.getRepository(image.storageType());
+        final byte[] content = contentRepository.fetchImage(image).getContentOfSize(maxWidth, maxHeight);
+        if (content == null) { throw new ImageNotFoundException(entityType, entityId); }
+
+        final String fileName = renditionTag(entityType, entityId, image, maxWidth, maxHeight);
+        try {
+            if (!this.cacheDirectory.isDirectory()) {
+                this.cacheDirectory.mkdirs();
+            }
+            // renditions are written aside and moved in place so a rendition
+            // being rendered by another request is never read half written
+            final File tempFile = File.createTempFile(fileName, ".tmp", this.cacheDirectory);
+            final OutputStream out = new FileOutputStream(tempFile);
+            try {
+                out.write(content);
+            } finally {
+                out.close();
+            }
+            final File renditionFile = new File(this.cacheDirectory, fileName);
+            Files.move(tempFile.toPath(), renditionFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return renditionFile;
+        } catch (final IOException e) {
+            throw new ContentManagementException(image.location(), e.getMessage());
+        }
+    }
+
+    private void evictEldest(final List<File> evicted) {
+        final Iterator<Map.Entry<String, CachedRendition>> entries = this.index.entrySet().iterator();
+        while ((this.index.size() > MAX_ENTRIES || this.cachedBytes > MAX_BYTES) && entries.hasNext()) {
+            final CachedRendition eldest = entries.next().getValue();
+            this.cachedBytes -= eldest.length;
+            evicted.add(eldest.file);
+            entries.remove();
+        }
+    }
+
+    private static InputStream open(final File file) {
+        try {
+            // renditions removed while they are read stay readable until closed
+            return new FileInputStream(file);
+        } catch (final FileNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static void deleteFiles(final List<File> files) {
+        for (final File file : files) {
+            if (file.exists() && !file.delete()) {
+                logger.warn("Unable to delete cached image rendition " + file);
+            }
+        }
+    }
+
+    private static String ownerKey(final String entityType, final Long entityId) {
+        return ThreadLocalContextUtil.getTenant().getTenantIdentifier() + "/" + entityType.toLowerCase() + "/" + entityId + "/";
+    }
+
+    private static String renditionKey(final String entityType, final Long entityId, final ImageData image, final Integer maxWidth,
+            final Integer maxHeight) {
+        return ownerKey(entityType, entityId) + image.imageId() + "/" + image.version() + "/" + maxWidth + "x" + maxHeight;
+    }
+
+    private static final class CachedRendition {
+
+        private final File file;
+        private final long length;
+
+        CachedRendition(final File file) {
+            this.file = file;
+            this.length = file.length();
+        }
+    }
+}
@@ -30,15 +30,17 @@ public class ImageWritePlatformServiceJpaRepositoryImpl implements ImageWritePla
     private final ClientRepositoryWrapper clientRepositoryWrapper;
     private final ImageRepository imageRepository;
     private final StaffRepositoryWrapper staffRepositoryWrapper;
+    private final ImageRenditionCache imageRenditionCache;
 
     @Autowired
     public ImageWritePlatformServiceJpaRepositoryImpl(final ContentRepositoryFactory documentStoreFactory,
             final ClientRepositoryWrapper clientRepositoryWrapper, final ImageRepository imageRepository,
-            StaffRepositoryWrapper staffRepositoryWrapper) {
+            StaffRepositoryWrapper staffRepositoryWrapper, final ImageRenditionCache imageRenditionCache) {
         this.contentRepositoryFactory = documentStoreFactory;
         this.clientRepositoryWrapper = clientRepositoryWrapper;
         this.imageRepository = imageRepository;
         this.staffRepositoryWrapper = staffRepositoryWrapper;
+        this.imageRenditionCache = imageRenditionCache;
     }
 
     @Transactional
@@ -89,6 +91,7 @@ public class ImageWritePlatformServiceJpaRepositoryImpl implements ImageWritePla
                     .getStorageType()));
             contentRepository.deleteImage(clientId, image.getLocation());
             this.imageRepository.delete(image);
+            this.imageRenditionCache.invalidate(entityName, clientId);
         }
 
         return new CommandProcessingResult(clientId);
@@ -115,6 +118,7 @@ public class ImageWritePlatformServiceJpaRepositoryImpl implements ImageWritePla
             final ContentRepository contentRepository = this.contentRepositoryFactory.getRepository(StorageType.fromInt(image
                     .getStorageType()));
             contentRepository.deleteImage(entityId, image.getLocation());
+            this.imageRenditionCache.invalidate(entityName, entityId);
         }
         return owner;
     }
@@ -148,6 +152,7 @@ public class ImageWritePlatformServiceJpaRepositoryImpl implements ImageWritePla
         } else {
             image.setLocation(imageLocation);
             image.setStorageType(storageType.getValue());
+            image.incrementVersion();
         }
         return image;
     }
@@ -27,6 +27,10 @@ public class HookApiConstants {
 
     public static final String contentTypeName = "Content Type";
 
+    public static final String batchSizeName = "Batch Size";
+
+    public static final String maxConcurrentDeliveriesName = "Max Concurrent Deliveries";
+
     public static final String smsProviderName = "SMS Provider";
 
     public static final String smsProviderAccountIdName = "SMS Provider Account Id";
@@ -0,0 +1,56 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.hooks.data;
+
+/**
+ * Immutable data object for the hook delivery counters of a tenant. The
+ * counters are kept in memory by the node answering the request and start
+ * from zero when it is restarted; the pending and failed counts are read from
+ * the outbox.
+ */
+public class HookDeliveryMetricsData {
+
+	@SuppressWarnings("unused")
+	private final long enqueued;
+	@SuppressWarnings("unused")
+	private final long delivered;
+	@SuppressWarnings("unused")
+	private final long failedAttempts;
+	@SuppressWarnings("unused")
+	private final long givenUp;
+	@SuppressWarnings("unused")
+	private final long requestsSent;
+	@SuppressWarnings("unused")
+	private final long averageDeliveryMillis;
+	@SuppressWarnings("unused")
+	private final long pending;
+	@SuppressWarnings("unused")
+	private final long failed;
+
+	public static HookDeliveryMetricsData instance(final long enqueued,
+			final long delivered, final long failedAttempts,
+			final long givenUp, final long requestsSent,
+			final long averageDeliveryMillis, final long pending,
+			final long failed) {
+		return new HookDeliveryMetricsData(enqueued, delivered,
+				failedAttempts, givenUp, requestsSent, averageDeliveryMillis,
+				pending, failed);
+	}
+
+	private HookDeliveryMetricsData(final long enqueued, final long delivered,
+			final long failedAttempts, final long givenUp,
+			final long requestsSent, final long averageDeliveryMillis,
+			final long pending, final long failed) {
+		this.enqueued = enqueued;
+		this.delivered = delivered;
+		this.failedAttempts = failedAttempts;
+		this.givenUp = givenUp;
+		this.requestsSent = requestsSent;
+		this.averageDeliveryMillis = averageDeliveryMillis;
+		this.pending = pending;
+		this.failed = failed;
+	}
+}
@@ -0,0 +1,102 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.hooks.data;
+
+import static org.mifosplatform.infrastructure.hooks.api.HookApiConstants.batchSizeName;
+import static org.mifosplatform.infrastructure.hooks.api.HookApiConstants.contentTypeName;
+import static org.mifosplatform.infrastructure.hooks.api.HookApiConstants.maxConcurrentDeliveriesName;
+import static org.mifosplatform.infrastructure.hooks.api.HookApiConstants.payloadURLName;
+
+import java.util.Map;
+
+/**
+ * An active hook with the configuration needed to deliver events to it
+ * resolved once, when the hook routing table is built.
+ */
+public class HookDeliveryTarget {
+
+	private static final int DEFAULT_BATCH_SIZE = 1;
+	private static final int DEFAULT_MAX_CONCURRENT_DELIVERIES = 2;
+
+	private final Long hookId;
+	private final String templateName;
+	private final String payloadUrl;
+	private final String contentType;
+	private final int batchSize;
+	private final int maxConcurrentDeliveries;
+
+	public static HookDeliveryTarget instance(final Long hookId,
+			final String templateName, final Map<String, String> config) {
+		final String payloadUrl = valueOrDefault(config.get(payloadURLName), "");
+		final String contentType = valueOrDefault(config.get(contentTypeName), "");
+		final int batchSize = positiveIntOrDefault(config.get(batchSizeName),
+				DEFAULT_BATCH_SIZE);
+		final int maxConcurrentDeliveries = positiveIntOrDefault(
+				config.get(maxConcurrentDeliveriesName),
+				DEFAULT_MAX_CONCURRENT_DELIVERIES);
+		return new HookDeliveryTarget(hookId, templateName, payloadUrl,
+				contentType, batchSize, maxConcurrentDeliveries);
+	}
+
+	private HookDeliveryTarget(final Long hookId, final String templateName,
+			final String payloadUrl, final String contentType,
+			final int batchSize, final int maxConcurrentDeliveries) {
+		this.hookId = hookId;
+		this.templateName = templateName;
+		this.payloadUrl = payloadUrl;
+		this.contentType = contentType;
+		this.batchSize = batchSize;
+		this.maxConcurrentDeliveries = maxConcurrentDeliveries;
+	}
+
+	private static String valueOrDefault(final String value,
+			final String defaultValue) {
+		return value == null ? defaultValue : value;
+	}
+
+	private static int positiveIntOrDefault(final String value,
+			final int defaultValue) {
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			final int intValue = Integer.parseInt(value.trim());
+			return intValue > 0 ? intValue : defaultValue;
+		} catch (final NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
+	public Long getHookId() {
+		return this.hookId;
+	}
+
+	public String getTemplateName() {
+		return this.templateName;
+	}
+
+	public String getPayloadUrl() {
+		return this.payloadUrl;
+	}
+
+	public String getContentType() {
+		return this.contentType;
+	}
+
+	/**
+	 * @return the number of events the hook accepts in one request
+	 */
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	/**
+	 * @return how many requests may be sent to the hook at the same time
+	 */
+	public int getMaxConcurrentDeliveries() {
+		return this.maxConcurrentDeliveries;
+	}
+}
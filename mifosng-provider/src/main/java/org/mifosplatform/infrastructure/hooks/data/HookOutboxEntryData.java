@@ -0,0 +1,78 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.hooks.data;
+
+/**
+ * A hook event waiting in <code>m_hook_outbox</code> to be delivered to one
+ * hook.
+ */
+public class HookOutboxEntryData {
+
+	private final Long id;
+	private final Long hookId;
+	private final String entityName;
+	private final String actionName;
+	private final String payload;
+	private final Long appUserId;
+	private final int attemptCount;
+
+	public static HookOutboxEntryData instance(final Long id,
+			final Long hookId, final String entityName,
+			final String actionName, final String payload,
+			final Long appUserId, final int attemptCount) {
+		return new HookOutboxEntryData(id, hookId, entityName, actionName,
+				payload, appUserId, attemptCount);
+	}
+
+	private HookOutboxEntryData(final Long id, final Long hookId,
+			final String entityName, final String actionName,
+			final String payload, final Long appUserId,
+			final int attemptCount) {
+		this.id = id;
+		this.hookId = hookId;
+		this.entityName = entityName;
+		this.actionName = actionName;
+		this.payload = payload;
+		this.appUserId = appUserId;
+		this.attemptCount = attemptCount;
+	}
+
+	public Long getId() {
+		return this.id;
+	}
+
+	public Long getHookId() {
+		return this.hookId;
+	}
+
+	public String getEntityName() {
+		return this.entityName;
+	}
+
+	public String getActionName() {
+		return this.actionName;
+	}
+
+	public String getPayload() {
+		return this.payload;
+	}
+
+	/**
+	 * @return the id of the user who raised the event, if any
+	 */
+	public Long getAppUserId() {
+		return this.appUserId;
+	}
+
+	public int getAttemptCount() {
+		return this.attemptCount;
+	}
+
+	public boolean isSameEventAs(final HookOutboxEntryData other) {
+		return this.entityName.equals(other.entityName)
+				&& this.actionName.equals(other.actionName);
+	}
+}
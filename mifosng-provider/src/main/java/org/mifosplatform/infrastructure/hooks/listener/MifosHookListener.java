@@ -7,60 +7,76 @@ package org.mifosplatform.infrastructure.hooks.listener;
 
 import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
 import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
-import org.mifosplatform.infrastructure.hooks.domain.Hook;
+import org.mifosplatform.infrastructure.hooks.data.HookDeliveryTarget;
 import org.mifosplatform.infrastructure.hooks.event.HookEvent;
 import org.mifosplatform.infrastructure.hooks.event.HookEventSource;
-import org.mifosplatform.infrastructure.hooks.processor.HookProcessor;
-import org.mifosplatform.infrastructure.hooks.processor.HookProcessorProvider;
-import org.mifosplatform.infrastructure.hooks.service.HookReadPlatformService;
-import org.mifosplatform.infrastructure.security.service.TenantDetailsService;
-import org.mifosplatform.useradministration.domain.AppUser;
+import org.mifosplatform.infrastructure.hooks.service.HookDeliveryDispatcher;
+import org.mifosplatform.infrastructure.hooks.service.HookDeliveryOutbox;
+import org.mifosplatform.infrastructure.hooks.service.HookRoutingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Writes hook events to the outbox of the tenant. Events are published
+ * synchronously by the command that raised them, so they are written in its
+ * transaction and only delivered once it committed.
+ */
 @Service
 public class MifosHookListener implements HookListener {
 
-    private final HookProcessorProvider hookProcessorProvider;
-    private final HookReadPlatformService hookReadPlatformService;
-    private final TenantDetailsService tenantDetailsService;
+    private final HookRoutingService hookRoutingService;
+    private final HookDeliveryOutbox hookDeliveryOutbox;
+    private final HookDeliveryDispatcher hookDeliveryDispatcher;
 
     @Autowired
-    public MifosHookListener(final HookProcessorProvider hookProcessorProvider,
-            final HookReadPlatformService hookReadPlatformService,
-            final TenantDetailsService tenantDetailsService) {
-        this.hookReadPlatformService = hookReadPlatformService;
-        this.hookProcessorProvider = hookProcessorProvider;
-        this.tenantDetailsService = tenantDetailsService;
+    public MifosHookListener(final HookRoutingService hookRoutingService,
+            final HookDeliveryOutbox hookDeliveryOutbox,
+            final HookDeliveryDispatcher hookDeliveryDispatcher) {
+        this.hookRoutingService = hookRoutingService;
+        this.hookDeliveryOutbox = hookDeliveryOutbox;
+        this.hookDeliveryDispatcher = hookDeliveryDispatcher;
     }
 
     @Override
     public void onApplicationEvent(final HookEvent event) {
 
-        final String tenantIdentifier = event.getTenantIdentifier();
-        final MifosPlatformTenant tenant = this.tenantDetailsService
-                .loadTenantById(tenantIdentifier);
-        ThreadLocalContextUtil.setTenant(tenant);
-
-        final AppUser appUser = event.getAppUser();
-        final String authToken = event.getAuthToken();
-
         final HookEventSource hookEventSource = event.getSource();
         final String entityName = hookEventSource.getEntityName();
         final String actionName = hookEventSource.getActionName();
-        final String payload = event.getPayload();
 
-        final List<Hook> hooks = this.hookReadPlatformService
-                .retrieveHooksByEvent(hookEventSource.getEntityName(),
-                        hookEventSource.getActionName());
+        final List<HookDeliveryTarget> targets = this.hookRoutingService
+                .retrieveDeliveryTargets(entityName, actionName);
+        if (targets.isEmpty()) { return; }
+
+        final String tenantIdentifier = event.getTenantIdentifier();
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+
+        final List<Long> hookIds = new ArrayList<>(targets.size());
+        for (final HookDeliveryTarget target : targets) {
+            hookIds.add(target.getHookId());
+        }
+        this.hookDeliveryOutbox.enqueue(hookIds, entityName, actionName,
+                event.getPayload(), event.getAppUser() == null ? null
+                        : event.getAppUser().getId());
+        this.hookDeliveryDispatcher.enqueued(tenantIdentifier, hookIds.size());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager
+                    .registerSynchronization(new TransactionSynchronizationAdapter() {
 
-        for (final Hook hook : hooks) {
-            final HookProcessor processor = this.hookProcessorProvider
-                    .getProcessor(hook);
-            processor.process(hook, appUser, payload, entityName, actionName,
-                    tenantIdentifier, authToken);
+                        @Override
+                        public void afterCommit() {
+                            MifosHookListener.this.hookDeliveryDispatcher
+                                    .signal(tenant);
+                        }
+                    });
+        } else {
+            this.hookDeliveryDispatcher.signal(tenant);
         }
     }
 
@@ -8,6 +8,10 @@ package org.mifosplatform.infrastructure.hooks.processor;
 import java.security.SecureRandom;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
@@ -18,12 +22,10 @@ import javax.net.ssl.X509TrustManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import retrofit.Callback;
 import retrofit.RestAdapter;
-import retrofit.RetrofitError;
 import retrofit.client.OkClient;
-import retrofit.client.Response;
 
+import com.squareup.okhttp.ConnectionPool;
 import com.squareup.okhttp.OkHttpClient;
 
 @SuppressWarnings("unused")
@@ -32,6 +34,24 @@ public class ProcessorHelper {
 	private final static Logger logger = LoggerFactory
 			.getLogger(ProcessorHelper.class);
 
+	private static final long CONNECT_TIMEOUT_SECONDS = 10;
+	private static final long READ_TIMEOUT_SECONDS = 30;
+	private static final int MAX_IDLE_CONNECTIONS = 10;
+	private static final long KEEP_ALIVE_DURATION_MILLIS = 5 * 60 * 1000;
+
+	// requests are only made synchronously, from the hook delivery workers
+	private static final Executor CALLING_THREAD = new Executor() {
+
+		@Override
+		public void execute(final Runnable command) {
+			command.run();
+		}
+	};
+
+	private static final OkHttpClient sharedClient = createClient();
+
+	private static final ConcurrentMap<String, WebHookService> webHookServices = new ConcurrentHashMap<>();
+
 	@SuppressWarnings("null")
 	public static OkHttpClient configureClient(final OkHttpClient client) {
 		final TrustManager[] certs = new TrustManager[] { new X509TrustManager() {
@@ -77,34 +97,33 @@ public class ProcessorHelper {
 
 	public static OkHttpClient createClient() {
 		final OkHttpClient client = new OkHttpClient();
+		client.setConnectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		client.setReadTimeout(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		client.setConnectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS,
+				KEEP_ALIVE_DURATION_MILLIS));
 		return configureClient(client);
 	}
 
-	@SuppressWarnings("rawtypes")
-	public static Callback createCallback(final String url) {
-
-		return new Callback() {
-			@Override
-			public void success(final Object o, final Response response) {
-				logger.info("URL : " + url + "\tStatus : "
-						+ response.getStatus());
-			}
-
-			@Override
-			public void failure(final RetrofitError retrofitError) {
-				logger.info(retrofitError.getMessage());
-			}
-		};
-	}
-
+	/**
+	 * @return the service for the url; services are created once per url and
+	 *         share one client, so that connections to hook endpoints are
+	 *         kept alive and reused between deliveries
+	 */
 	public static WebHookService createWebHookService(final String url) {
 
-		final OkHttpClient client = ProcessorHelper.createClient();
+		WebHookService service = webHookServices.get(url);
+		if (service != null) {
+			return service;
+		}
 
 		final RestAdapter restAdapter = new RestAdapter.Builder()
-				.setEndpoint(url).setClient(new OkClient(client)).build();
+				.setEndpoint(url).setClient(new OkClient(sharedClient))
+				.setExecutors(CALLING_THREAD, CALLING_THREAD).build();
 
-		return restAdapter.create(WebHookService.class);
+		service = restAdapter.create(WebHookService.class);
+		final WebHookService existing = webHookServices.putIfAbsent(url,
+				service);
+		return existing == null ? service : existing;
 	}
 
 }
\ No newline at end of file
@@ -19,7 +19,6 @@ import org.mifosplatform.template.service.TemplateMergeService;
 import org.mifosplatform.useradministration.domain.AppUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import retrofit.Callback;
 
 import java.io.IOException;
 import java.text.ParseException;
@@ -59,7 +58,6 @@ public class TwilioHookProcessor implements HookProcessor {
                 tenantIdentifier, authToken, hook);
     }
 
-    @SuppressWarnings("unchecked")
     private void sendRequest(final SmsProviderData smsProviderData,
             final String payload, String entityName, String actionName,
             final String tenantIdentifier, final String authToken,
@@ -68,10 +66,6 @@ public class TwilioHookProcessor implements HookProcessor {
         final WebHookService service = ProcessorHelper
                 .createWebHookService(smsProviderData.getUrl());
 
-        @SuppressWarnings("rawtypes")
-        final Callback callback = ProcessorHelper
-                .createCallback(smsProviderData.getUrl());
-
         String apiKey = this.hookConfigurationRepository
                 .findOneByHookIdAndFieldName(hook.getId(), apiKeyName);
         if (apiKey == null) {
@@ -98,7 +92,7 @@ public class TwilioHookProcessor implements HookProcessor {
                 json = new JsonParser().parse(payload).getAsJsonObject();
             }
             service.sendSmsBridgeRequest(entityName, actionName,
-                    tenantIdentifier, apiKey, json, callback);
+                    tenantIdentifier, apiKey, json);
         }
 
     }
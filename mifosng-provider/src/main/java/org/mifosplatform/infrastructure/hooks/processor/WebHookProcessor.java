@@ -9,17 +9,17 @@ import static org.mifosplatform.infrastructure.hooks.api.HookApiConstants.conten
 import static org.mifosplatform.infrastructure.hooks.api.HookApiConstants.payloadURLName;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
+import org.mifosplatform.infrastructure.hooks.data.HookDeliveryTarget;
 import org.mifosplatform.infrastructure.hooks.domain.Hook;
 import org.mifosplatform.infrastructure.hooks.domain.HookConfiguration;
 import org.mifosplatform.useradministration.domain.AppUser;
 import org.springframework.stereotype.Service;
 
-import retrofit.Callback;
-
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
@@ -33,24 +33,60 @@ public class WebHookProcessor implements HookProcessor {
 			final String actionName, final String tenantIdentifier,
 			final String authToken) {
 
-		final Set<HookConfiguration> config = hook.getHookConfig();
+		final String url = configValue(hook, payloadURLName, "");
+		final String contentType = configValue(hook, contentTypeName, "");
 
-		String url = "";
-		String contentType = "";
+		sendRequest(url, contentType, payload, entityName, actionName,
+				tenantIdentifier, authToken);
 
-		for (final HookConfiguration conf : config) {
-			final String fieldName = conf.getFieldName();
-			if (fieldName.equals(payloadURLName)) {
-				url = conf.getFieldValue();
-			}
-			if (fieldName.equals(contentTypeName)) {
-				contentType = conf.getFieldValue();
+	}
+
+	/**
+	 * Delivers several events of the same entity and action in one request,
+	 * as a JSON array of their payloads. Hooks sending form data get one
+	 * request per event.
+	 *
+	 * @return the number of requests sent
+	 */
+	public int processBatch(final HookDeliveryTarget target,
+			final List<String> payloads, final String entityName,
+			final String actionName, final String tenantIdentifier) {
+
+		final String url = target.getPayloadUrl();
+		final String contentType = target.getContentType();
+
+		if (payloads.size() == 1 || !isJson(contentType)) {
+			for (final String payload : payloads) {
+				sendRequest(url, contentType, payload, entityName,
+						actionName, tenantIdentifier, null);
 			}
+			return payloads.size();
 		}
 
-		sendRequest(url, contentType, payload, entityName, actionName,
-				tenantIdentifier, authToken);
+		final JsonParser parser = new JsonParser();
+		final JsonArray json = new JsonArray();
+		for (final String payload : payloads) {
+			json.add(parser.parse(payload));
+		}
+		ProcessorHelper.createWebHookService(url).sendJsonRequest(entityName,
+				actionName, tenantIdentifier, System.getProperty("baseUrl"),
+				json);
+		return 1;
+	}
 
+	private static String configValue(final Hook hook, final String fieldName,
+			final String defaultValue) {
+		for (final HookConfiguration conf : hook.getHookConfig()) {
+			if (conf.getFieldName().equals(fieldName)) {
+				return conf.getFieldValue();
+			}
+		}
+		return defaultValue;
+	}
+
+	private static boolean isJson(final String contentType) {
+		return contentType.equalsIgnoreCase("json")
+				|| contentType.contains("json");
 	}
 
 	@SuppressWarnings("unchecked")
@@ -63,20 +99,16 @@ public class WebHookProcessor implements HookProcessor {
 		final WebHookService service = ProcessorHelper
 				.createWebHookService(url);
 
-		@SuppressWarnings("rawtypes")
-		final Callback callback = ProcessorHelper.createCallback(url);
-
-		if (contentType.equalsIgnoreCase("json")
-				|| contentType.contains("json")) {
+		if (isJson(contentType)) {
 			final JsonObject json = new JsonParser().parse(payload)
 					.getAsJsonObject();
 			service.sendJsonRequest(entityName, actionName, tenantIdentifier,
-					mifosEndpointUrl, json, callback);
+					mifosEndpointUrl, json);
 		} else {
 			Map<String, String> map = new HashMap<>();
 			map = new Gson().fromJson(payload, map.getClass());
 			service.sendFormRequest(entityName, actionName, tenantIdentifier,
-					mifosEndpointUrl, map, callback);
+					mifosEndpointUrl, map);
 		}
 
 	}
@@ -9,7 +9,6 @@ import java.util.Map;
 
 import org.mifosplatform.infrastructure.hooks.processor.data.SmsProviderData;
 
-import retrofit.Callback;
 import retrofit.client.Response;
 import retrofit.http.Body;
 import retrofit.http.FieldMap;
@@ -18,6 +17,7 @@ import retrofit.http.GET;
 import retrofit.http.Header;
 import retrofit.http.POST;
 
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
 public interface WebHookService {
@@ -34,27 +34,27 @@ public interface WebHookService {
 
 	// Template - Web
 	@POST("/")
-	void sendJsonRequest(@Header(ENTITY_HEADER) String entityHeader,
+	Response sendJsonRequest(@Header(ENTITY_HEADER) String entityHeader,
 			@Header(ACTION_HEADER) String actionHeader,
 			@Header(TENANT_HEADER) String tenantHeader,
 			@Header(ENDPOINT_HEADER) String endpointHeader,
-			@Body JsonObject result, Callback<Response> callBack);
+			@Body JsonElement result);
 
 	@FormUrlEncoded
 	@POST("/")
-	void sendFormRequest(@Header(ENTITY_HEADER) String entityHeader,
+	Response sendFormRequest(@Header(ENTITY_HEADER) String entityHeader,
 			@Header(ACTION_HEADER) String actionHeader,
 			@Header(TENANT_HEADER) String tenantHeader,
 			@Header(ENDPOINT_HEADER) String endpointHeader,
-			@FieldMap Map<String, String> params, Callback<Response> callBack);
+			@FieldMap Map<String, String> params);
 
 	// Template - SMS Bridge
 	@POST("/")
-	void sendSmsBridgeRequest(@Header(ENTITY_HEADER) String entityHeader,
+	Response sendSmsBridgeRequest(@Header(ENTITY_HEADER) String entityHeader,
 			@Header(ACTION_HEADER) String actionHeader,
 			@Header(TENANT_HEADER) String tenantHeader,
 			@Header(API_KEY_HEADER) String apiKeyHeader,
-			@Body JsonObject result, Callback<Response> callBack);
+			@Body JsonObject result);
 
 	@POST("/configuration")
 	String sendSmsBridgeConfigRequest(@Body SmsProviderData config);
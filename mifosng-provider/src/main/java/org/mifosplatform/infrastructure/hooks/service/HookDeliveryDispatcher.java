@@ -0,0 +1,349 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.hooks.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.hooks.data.HookDeliveryMetricsData;
+import org.mifosplatform.infrastructure.hooks.data.HookDeliveryTarget;
+import org.mifosplatform.infrastructure.hooks.data.HookOutboxEntryData;
+import org.mifosplatform.infrastructure.hooks.domain.Hook;
+import org.mifosplatform.infrastructure.hooks.domain.HookRepository;
+import org.mifosplatform.infrastructure.hooks.processor.HookProcessor;
+import org.mifosplatform.infrastructure.hooks.processor.HookProcessorProvider;
+import org.mifosplatform.infrastructure.hooks.processor.WebHookProcessor;
+import org.mifosplatform.infrastructure.security.service.TenantDetailsService;
+import org.mifosplatform.useradministration.domain.AppUser;
+import org.mifosplatform.useradministration.domain.AppUserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Delivers the events of the hook outbox with a bounded number of threads.
+ *
+ * A tenant's outbox is drained when one of its commands committed events, and
+ * every {@link #SWEEP_INTERVAL_SECONDS} seconds to pick up retries and events
+ * left behind by a restart. At most one drain runs per tenant; the entries it
+ * claims are grouped by hook and delivered by at most as many threads as the
+ * hook allows concurrent deliveries, in batches of the hook's batch size.
+ *
+ * Processors get the user who raised an event but no authentication token:
+ * the credentials of the request that raised it are not kept in the outbox.
+ */
+@Service
+public class HookDeliveryDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(HookDeliveryDispatcher.class);
+
+    private static final int SWEEP_INTERVAL_SECONDS = 30;
+    private static final int CLAIM_SIZE = 100;
+    private static final int DRAIN_THREADS = 2;
+    private static final int DELIVERY_THREADS = 8;
+    private static final int DELIVERY_QUEUE_CAPACITY = 64;
+
+    private final HookDeliveryOutbox outbox;
+    private final HookRoutingService hookRoutingService;
+    private final HookRepository hookRepository;
+    private final HookProcessorProvider hookProcessorProvider;
+    private final TenantDetailsService tenantDetailsService;
+    private final AppUserRepository appUserRepository;
+
+    private final ConcurrentMap<String, AtomicInteger> signalsByTenant = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, DeliveryCounters> countersByTenant = new ConcurrentHashMap<>();
+
+    private ScheduledThreadPoolExecutor drainExecutor;
+    private ThreadPoolExecutor deliveryExecutor;
+
+    @Autowired
+    public HookDeliveryDispatcher(final HookDeliveryOutbox outbox, final HookRoutingService hookRoutingService,
+            final HookRepository hookRepository, final HookProcessorProvider hookProcessorProvider,
+            final TenantDetailsService tenantDetailsService, final AppUserRepository appUserRepository) {
+        this.outbox = outbox;
+        this.hookRoutingService = hookRoutingService;
+        this.hookRepository = hookRepository;
+        this.hookProcessorProvider = hookProcessorProvider;
+        this.tenantDetailsService = tenantDetailsService;
+        this.appUserRepository = appUserRepository;
+    }
+
+    @PostConstruct
+    public void start() {
+        this.drainExecutor = new ScheduledThreadPoolExecutor(DRAIN_THREADS, new NamedThreadFactory("hook-drain-"));
+        // a full delivery queue makes the draining thread deliver itself,
+        // which stops it from claiming more entries
+        this.deliveryExecutor = new ThreadPoolExecutor(DELIVERY_THREADS, DELIVERY_THREADS, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(DELIVERY_QUEUE_CAPACITY), new NamedThreadFactory("hook-delivery-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.drainExecutor.scheduleWithFixedDelay(new Runnable() {
+
+            @Override
+            public void run() {
+                sweep();
+            }
+        }, SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.drainExecutor.shutdownNow();
+        this.deliveryExecutor.shutdownNow();
+    }
+
+    /**
+     * Drains the outbox of the tenant. Signals received while the tenant is
+     * being drained make the running drain look for due entries once more
+     * instead of starting another one.
+     */
+    public void signal(final MifosPlatformTenant tenant) {
+        final String tenantIdentifier = tenant.getTenantIdentifier();
+        AtomicInteger signals = this.signalsByTenant.get(tenantIdentifier);
+        if (signals == null) {
+            final AtomicInteger newSignals = new AtomicInteger();
+            signals = this.signalsByTenant.putIfAbsent(tenantIdentifier, newSignals);
+            if (signals == null) {
+                signals = newSignals;
+            }
+        }
+        if (signals.getAndIncrement() > 0) { return; }
+
+        final AtomicInteger tenantSignals = signals;
+        this.drainExecutor.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                int seen;
+                do {
+                    seen = tenantSignals.get();
+                    drain(tenant);
+                } while (tenantSignals.addAndGet(-seen) > 0);
+            }
+        });
+    }
+
+    public void enqueued(final String tenantIdentifier, final int count) {
+        countersOf(tenantIdentifier).enqueued.addAndGet(count);
+    }
+
+    public HookDeliveryMetricsData retrieveMetrics() {
+        final DeliveryCounters counters = countersOf(ThreadLocalContextUtil.getTenant().getTenantIdentifier());
+        final long pending = this.outbox.countWithStatus(HookDeliveryOutbox.STATUS_PENDING)
+                + this.outbox.countWithStatus(HookDeliveryOutbox.STATUS_CLAIMED);
+        final long failed = this.outbox.countWithStatus(HookDeliveryOutbox.STATUS_FAILED);
+        final long delivered = counters.delivered.get();
+        final long averageDeliveryMillis = delivered == 0 ? 0 : counters.deliveryMillis.get() / delivered;
+        return HookDeliveryMetricsData.instance(counters.enqueued.get(), delivered, counters.failedAttempts.get(),
+                counters.givenUp.get(), counters.requestsSent.get(), averageDeliveryMillis, pending, failed);
+    }
+
+    private void sweep() {
+        try {
+            for (final MifosPlatformTenant tenant : this.tenantDetailsService.findAllTenants()) {
+                ThreadLocalContextUtil.setTenant(tenant);
+                try {
+                    this.outbox.releaseStaleClaims();
+                    if (this.outbox.hasDueEntries()) {
+                        signal(tenant);
+                    }
+                } catch (final RuntimeException e) {
+                    logger.warn("Could not check the hook outbox of tenant " + tenant.getTenantIdentifier(), e);
+                }
+            }
+        } catch (final RuntimeException e) {
+            logger.warn("Could not sweep the hook outboxes", e);
+        } finally {
+            ThreadLocalContextUtil.clearTenant();
+        }
+    }
+
+    private void drain(final MifosPlatformTenant tenant) {
+        ThreadLocalContextUtil.setTenant(tenant);
+        try {
+            List<HookOutboxEntryData> entries = this.outbox.claimDue(CLAIM_SIZE);
+            while (!entries.isEmpty()) {
+                deliver(tenant, entries);
+                entries = this.outbox.claimDue(CLAIM_SIZE);
+            }
+        } catch (final RuntimeException e) {
+            logger.warn("Could not drain the hook outbox of tenant " + tenant.getTenantIdentifier(), e);
+        } finally {
+            ThreadLocalContextUtil.clearTenant();
+        }
+    }
+
+    private void deliver(final MifosPlatformTenant tenant, final List<HookOutboxEntryData> entries) {
+        final Map<Long, List<HookOutboxEntryData>> entriesByHook = new LinkedHashMap<>();
+        for (final HookOutboxEntryData entry : entries) {
+            List<HookOutboxEntryData> hookEntries = entriesByHook.get(entry.getHookId());
+            if (hookEntries == null) {
+                hookEntries = new ArrayList<>();
+                entriesByHook.put(entry.getHookId(), hookEntries);
+            }
+            hookEntries.add(entry);
+        }
+
+        final List<Future<?>> deliveries = new ArrayList<>();
+        for (final Map.Entry<Long, List<HookOutboxEntryData>> hookEntries : entriesByHook.entrySet()) {
+            final HookDeliveryTarget target = this.hookRoutingService.retrieveDeliveryTarget(hookEntries.getKey());
+            final HookProcessor processor = target == null ? null : this.hookProcessorProvider.getProcessor(target.getTemplateName());
+            if (processor == null) {
+                // the hook was removed, deactivated or has no processor
+                this.outbox.delivered(idsOf(hookEntries.getValue()));
+                continue;
+            }
+
+            final List<HookOutboxEntryData> pending = hookEntries.getValue();
+            final int slices = Math.min(target.getMaxConcurrentDeliveries(), pending.size());
+            final int sliceSize = (pending.size() + slices - 1) / slices;
+            for (int from = 0; from < pending.size(); from += sliceSize) {
+                final List<HookOutboxEntryData> slice = pending.subList(from, Math.min(from + sliceSize, pending.size()));
+                deliveries.add(this.deliveryExecutor.submit(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        deliverSlice(tenant, target, processor, slice);
+                    }
+                }));
+            }
+        }
+
+        // the next claim waits for these deliveries, which bounds the number
+        // of concurrent deliveries per hook
+        for (final Future<?> delivery : deliveries) {
+            try {
+                delivery.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (final ExecutionException e) {
+                logger.warn("Hook delivery failed unexpectedly", e.getCause());
+            }
+        }
+    }
+
+    private void deliverSlice(final MifosPlatformTenant tenant, final HookDeliveryTarget target, final HookProcessor processor,
+            final List<HookOutboxEntryData> slice) {
+        final MifosPlatformTenant callerTenant = ThreadLocalContextUtil.getTenant();
+        ThreadLocalContextUtil.setTenant(tenant);
+        try {
+            final int batchSize = target.getBatchSize();
+            int from = 0;
+            while (from < slice.size()) {
+                int to = from + 1;
+                while (to < slice.size() && to - from < batchSize && slice.get(to).isSameEventAs(slice.get(from))) {
+                    to++;
+                }
+                deliverBatch(tenant.getTenantIdentifier(), target, processor, slice.subList(from, to));
+                from = to;
+            }
+        } finally {
+            // deliveries run on the draining thread when the delivery queue is full
+            if (callerTenant == null) {
+                ThreadLocalContextUtil.clearTenant();
+            } else {
+                ThreadLocalContextUtil.setTenant(callerTenant);
+            }
+        }
+    }
+
+    private void deliverBatch(final String tenantIdentifier, final HookDeliveryTarget target, final HookProcessor processor,
+            final List<HookOutboxEntryData> batch) {
+        final DeliveryCounters counters = countersOf(tenantIdentifier);
+        final HookOutboxEntryData first = batch.get(0);
+        final long start = System.currentTimeMillis();
+        try {
+            int requestsSent;
+            if (processor instanceof WebHookProcessor) {
+                final List<String> payloads = new ArrayList<>(batch.size());
+                for (final HookOutboxEntryData entry : batch) {
+                    payloads.add(entry.getPayload());
+                }
+                requestsSent = ((WebHookProcessor) processor).processBatch(target, payloads, first.getEntityName(),
+                        first.getActionName(), tenantIdentifier);
+            } else {
+                final Hook hook = this.hookRepository.findOne(target.getHookId());
+                for (final HookOutboxEntryData entry : batch) {
+                    final AppUser appUser = entry.getAppUserId() == null ? null : this.appUserRepository.findOne(entry.getAppUserId());
+                    processor.process(hook, appUser, entry.getPayload(), entry.getEntityName(), entry.getActionName(), tenantIdentifier,
+                            null);
+                }
+                requestsSent = batch.size();
+            }
+            counters.requestsSent.addAndGet(requestsSent);
+            counters.delivered.addAndGet(batch.size());
+            counters.deliveryMillis.addAndGet((System.currentTimeMillis() - start) * batch.size());
+            this.outbox.delivered(idsOf(batch));
+        } catch (final RuntimeException e) {
+            logger.info("Delivery of " + first.getEntityName() + " " + first.getActionName() + " to hook " + target.getHookId() + " failed: "
+                    + e.getMessage());
+            counters.failedAttempts.addAndGet(batch.size());
+            counters.givenUp.addAndGet(this.outbox.deliveryFailed(batch, String.valueOf(e.getMessage())));
+        }
+    }
+
+    private DeliveryCounters countersOf(final String tenantIdentifier) {
+        final DeliveryCounters counters = this.countersByTenant.get(tenantIdentifier);
+        if (counters != null) { return counters; }
+        final DeliveryCounters newCounters = new DeliveryCounters();
+        final DeliveryCounters existing = this.countersByTenant.putIfAbsent(tenantIdentifier, newCounters);
+        return existing == null ? newCounters : existing;
+    }
+
+    private static List<Long> idsOf(final List<HookOutboxEntryData> entries) {
+        final List<Long> ids = new ArrayList<>(entries.size());
+        for (final HookOutboxEntryData entry : entries) {
+            ids.add(entry.getId());
+        }
+        return ids;
+    }
+
+    private static final class DeliveryCounters {
+
+        private final AtomicLong enqueued = new AtomicLong();
+        private final AtomicLong delivered = new AtomicLong();
+        private final AtomicLong failedAttempts = new AtomicLong();
+        private final AtomicLong givenUp = new AtomicLong();
+        private final AtomicLong requestsSent = new AtomicLong();
+        private final AtomicLong deliveryMillis = new AtomicLong();
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        NamedThreadFactory(final String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, this.prefix + this.count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.hooks.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.commons.lang.StringUtils;
+import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.hooks.data.HookOutboxEntryData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+/**
+ * Access to <code>m_hook_outbox</code> of the current tenant.
+ *
+ * Events are written in the transaction of the command that raised them, so
+ * an event is delivered if and only if its command committed. Workers claim
+ * due entries with a claim token before delivering them, so that several
+ * nodes can drain the same outbox; delivered entries are deleted.
+ *
+ * Each entry keeps the id of the user who raised the event, never the
+ * credentials of the request that raised it.
+ */
+@Component
+public class HookDeliveryOutbox {
+
+    public static final int STATUS_PENDING = 0;
+    public static final int STATUS_CLAIMED = 1;
+    public static final int STATUS_FAILED = 2;
+
+    /**
+     * Entries are given up on after this many failed attempts and kept with
+     * the failed status.
+     */
+    public static final int MAX_ATTEMPTS = 10;
+
+    private static final int FIRST_RETRY_DELAY_SECONDS = 30;
+    private static final int MAX_RETRY_DELAY_SECONDS = 60 * 60;
+
+    /**
+     * Claims older than this are assumed to belong to a worker that died and
+     * are made pending again.
+     */
+    private static final int STALE_CLAIM_SECONDS = 10 * 60;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public HookDeliveryOutbox(final RoutingDataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public void enqueue(final Collection<Long> hookIds, final String entityName, final String actionName, final String payload,
+            final Long appUserId) {
+        final List<Object[]> batchArgs = new ArrayList<>(hookIds.size());
+        for (final Long hookId : hookIds) {
+            batchArgs.add(new Object[] { hookId, entityName, actionName, payload, appUserId, STATUS_PENDING });
+        }
+        this.jdbcTemplate.batchUpdate("insert into m_hook_outbox (hook_id, entity_name, action_name, payload, app_user_id, status_enum, "
+                + "attempt_count, next_attempt_time, created_date) values (?, ?, ?, ?, ?, ?, 0, now(), now())", batchArgs);
+    }
+
+    /**
+     * Claims up to <code>limit</code> due entries, oldest first.
+     */
+    public List<HookOutboxEntryData> claimDue(final int limit) {
+        final String claimToken = UUID.randomUUID().toString();
+        final int claimed = this.jdbcTemplate.update("update m_hook_outbox set status_enum = ?, claim_token = ?, claimed_time = now() "
+                + "where status_enum = ? and next_attempt_time <= now() order by id limit ?", STATUS_CLAIMED, claimToken, STATUS_PENDING,
+                limit);
+        if (claimed == 0) { return new ArrayList<>(); }
+
+        final OutboxEntryMapper rm = new OutboxEntryMapper();
+        return this.jdbcTemplate.query("select " + rm.schema() + " where o.claim_token = ? order by o.id", rm, claimToken);
+    }
+
+    public void delivered(final Collection<Long> entryIds) {
+        final List<Object[]> batchArgs = new ArrayList<>(entryIds.size());
+        for (final Long entryId : entryIds) {
+            batchArgs.add(new Object[] { entryId });
+        }
+        this.jdbcTemplate.batchUpdate("delete from m_hook_outbox where id = ?", batchArgs);
+    }
+
+    /**
+     * Schedules the next attempt of the entries with an exponential backoff,
+     * or marks them failed once they ran out of attempts.
+     *
+     * @return the number of entries given up on
+     */
+    public int deliveryFailed(final Collection<HookOutboxEntryData> entries, final String error) {
+        final String lastError = StringUtils.abbreviate(error, 500);
+        final List<Object[]> retryArgs = new ArrayList<>(entries.size());
+        final List<Object[]> failedArgs = new ArrayList<>();
+        for (final HookOutboxEntryData entry : entries) {
+            final int attemptCount = entry.getAttemptCount() + 1;
+            if (attemptCount >= MAX_ATTEMPTS) {
+                failedArgs.add(new Object[] { STATUS_FAILED, attemptCount, lastError, entry.getId() });
+            } else {
+                retryArgs.add(new Object[] { STATUS_PENDING, attemptCount, retryDelaySeconds(attemptCount), lastError, entry.getId() });
+            }
+        }
+        if (!retryArgs.isEmpty()) {
+            this.jdbcTemplate.batchUpdate("update m_hook_outbox set status_enum = ?, attempt_count = ?, "
+                    + "next_attempt_time = date_add(now(), interval ? second), claim_token = null, claimed_time = null, last_error = ? "
+                    + "where id = ?", retryArgs);
+        }
+        if (!failedArgs.isEmpty()) {
+            this.jdbcTemplate.batchUpdate("update m_hook_outbox set status_enum = ?, attempt_count = ?, claim_token = null, "
+                    + "claimed_time = null, last_error = ? where id = ?", failedArgs);
+        }
+        return failedArgs.size();
+    }
+
+    /**
+     * Makes entries claimed by a worker that did not finish them pending
+     * again.
+     */
+    public int releaseStaleClaims() {
+        return this.jdbcTemplate.update("update m_hook_outbox set status_enum = ?, claim_token = null, claimed_time = null "
+                + "where status_enum = ? and claimed_time < date_sub(now(), interval ? second)", STATUS_PENDING, STATUS_CLAIMED,
+                STALE_CLAIM_SECONDS);
+    }
+
+    public boolean hasDueEntries() {
+        return !this.jdbcTemplate.queryForList(
+                "select id from m_hook_outbox where status_enum = ? and next_attempt_time <= now() limit 1", Long.class, STATUS_PENDING)
+                .isEmpty();
+    }
+
+    public long countWithStatus(final int status) {
+        return this.jdbcTemplate.queryForObject("select count(*) from m_hook_outbox where status_enum = ?", Long.class, status);
+    }
+
+    static int retryDelaySeconds(final int attemptCount) {
+        final long delay = (long) FIRST_RETRY_DELAY_SECONDS << Math.min(attemptCount - 1, 16);
+        return (int) Math.min(delay, MAX_RETRY_DELAY_SECONDS);
+    }
+
+    private static final class OutboxEntryMapper implements RowMapper<HookOutboxEntryData> {
+
+        public String schema() {
+            return " o.id, o.hook_id, o.entity_name, o.action_name, o.payload, o.app_user_id, o.attempt_count from m_hook_outbox o ";
+        }
+
+        @Override
+        public HookOutboxEntryData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return HookOutboxEntryData.instance(rs.getLong("id"), rs.getLong("hook_id"), rs.getString("entity_name"),
+                    rs.getString("action_name"), rs.getString("payload"), JdbcSupport.getLong(rs, "app_user_id"), rs.getInt("attempt_count"));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.hooks.service;
+
+import java.util.List;
+
+import org.mifosplatform.infrastructure.hooks.data.HookDeliveryTarget;
+
+/**
+ * Answers which active hooks of the current tenant an event is delivered to
+ * from an in-memory routing table, so that events without hooks cost a map
+ * lookup.
+ */
+public interface HookRoutingService {
+
+    List<HookDeliveryTarget> retrieveDeliveryTargets(String entityName, String actionName);
+
+    /**
+     * @return the hook or <code>null</code> if it was deleted or deactivated
+     */
+    HookDeliveryTarget retrieveDeliveryTarget(Long hookId);
+
+    /**
+     * Drops the routing table of the current tenant now and once the current
+     * transaction completed, so that it is built again from the committed
+     * hooks.
+     */
+    void refreshRoutingTable();
+}
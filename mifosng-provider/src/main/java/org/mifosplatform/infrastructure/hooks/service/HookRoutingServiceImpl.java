@@ -0,0 +1,85 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.hooks.service;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.hooks.data.HookDeliveryTarget;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Service
+public class HookRoutingServiceImpl implements HookRoutingService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentMap<String, HookRoutingTable> routingTablesByTenant = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public HookRoutingServiceImpl(final RoutingDataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public List<HookDeliveryTarget> retrieveDeliveryTargets(final String entityName, final String actionName) {
+        return routingTable().targetsFor(entityName, actionName);
+    }
+
+    @Override
+    public HookDeliveryTarget retrieveDeliveryTarget(final Long hookId) {
+        return routingTable().target(hookId);
+    }
+
+    @Override
+    public void refreshRoutingTable() {
+        final String tenantIdentifier = currentTenantIdentifier();
+        evictRoutingTable(tenantIdentifier);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(@SuppressWarnings("unused") final int status) {
+                    evictRoutingTable(tenantIdentifier);
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the routing table of the current tenant, building it on first
+     * use. A table built while hooks were being changed is used once but not
+     * kept.
+     */
+    private HookRoutingTable routingTable() {
+        final String tenantIdentifier = currentTenantIdentifier();
+        final HookRoutingTable routingTable = this.routingTablesByTenant.get(tenantIdentifier);
+        if (routingTable != null) { return routingTable; }
+
+        final long generationAtLoad = this.generation.get();
+        final HookRoutingTable loadedRoutingTable = HookRoutingTable.load(this.jdbcTemplate);
+        if (generationAtLoad == this.generation.get()) {
+            this.routingTablesByTenant.putIfAbsent(tenantIdentifier, loadedRoutingTable);
+        }
+        return loadedRoutingTable;
+    }
+
+    private void evictRoutingTable(final String tenantIdentifier) {
+        this.generation.incrementAndGet();
+        this.routingTablesByTenant.remove(tenantIdentifier);
+    }
+
+    private static String currentTenantIdentifier() {
+        return ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.hooks.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.mifosplatform.infrastructure.hooks.data.HookDeliveryTarget;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Immutable routing table of the active hooks of a tenant, from the entity
+ * and action of an event to the hooks registered for it.
+ */
+final class HookRoutingTable {
+
+    private final ImmutableMap<String, List<HookDeliveryTarget>> targetsByEvent;
+    private final ImmutableMap<Long, HookDeliveryTarget> targetsByHookId;
+
+    static HookRoutingTable load(final JdbcTemplate jdbcTemplate) {
+        final Map<Long, String> templateNamesByHookId = new HashMap<>();
+        jdbcTemplate.query("select h.id, t.name from m_hook h join m_hook_templates t on t.id = h.template_id where h.is_active = 1",
+                new RowCallbackHandler() {
+
+                    @Override
+                    public void processRow(final ResultSet rs) throws SQLException {
+                        templateNamesByHookId.put(rs.getLong("id"), rs.getString("name"));
+                    }
+                });
+
+        final Map<Long, Map<String, String>> configByHookId = new HashMap<>();
+        jdbcTemplate.query("select c.hook_id, c.field_name, c.field_value from m_hook_configuration c "
+                + "join m_hook h on h.id = c.hook_id where h.is_active = 1", new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                final Long hookId = rs.getLong("hook_id");
+                Map<String, String> config = configByHookId.get(hookId);
+                if (config == null) {
+                    config = new HashMap<>();
+                    configByHookId.put(hookId, config);
+                }
+                config.put(rs.getString("field_name"), rs.getString("field_value"));
+            }
+        });
+
+        final Map<Long, HookDeliveryTarget> targetsByHookId = new HashMap<>();
+        for (final Map.Entry<Long, String> hook : templateNamesByHookId.entrySet()) {
+            final Map<String, String> config = configByHookId.get(hook.getKey());
+            targetsByHookId.put(hook.getKey(), HookDeliveryTarget.instance(hook.getKey(), hook.getValue(),
+                    config == null ? Collections.<String, String> emptyMap() : config));
+        }
+
+        final Map<String, List<HookDeliveryTarget>> targetsByEvent = new HashMap<>();
+        jdbcTemplate.query("select e.hook_id, e.entity_name, e.action_name from m_hook_registered_events e "
+                + "join m_hook h on h.id = e.hook_id where h.is_active = 1 order by e.hook_id", new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                final HookDeliveryTarget target = targetsByHookId.get(rs.getLong("hook_id"));
+                if (target == null) { return; }
+                final String key = eventKey(rs.getString("entity_name"), rs.getString("action_name"));
+                List<HookDeliveryTarget> targets = targetsByEvent.get(key);
+                if (targets == null) {
+                    targets = new ArrayList<>();
+                    targetsByEvent.put(key, targets);
+                }
+                if (!targets.contains(target)) {
+                    targets.add(target);
+                }
+            }
+        });
+
+        final Map<String, List<HookDeliveryTarget>> immutableTargetsByEvent = new HashMap<>();
+        for (final Map.Entry<String, List<HookDeliveryTarget>> event : targetsByEvent.entrySet()) {
+            immutableTargetsByEvent.put(event.getKey(), ImmutableList.copyOf(event.getValue()));
+        }
+        return new HookRoutingTable(ImmutableMap.copyOf(immutableTargetsByEvent), ImmutableMap.copyOf(targetsByHookId));
+    }
+
+    private HookRoutingTable(final ImmutableMap<String, List<HookDeliveryTarget>> targetsByEvent,
+            final ImmutableMap<Long, HookDeliveryTarget> targetsByHookId) {
+        this.targetsByEvent = targetsByEvent;
+        this.targetsByHookId = targetsByHookId;
+    }
+
+    /**
+     * @return the hooks registered for the event, never <code>null</code>
+     */
+    List<HookDeliveryTarget> targetsFor(final String entityName, final String actionName) {
+        final List<HookDeliveryTarget> targets = this.targetsByEvent.get(eventKey(entityName, actionName));
+        if (targets == null) { return Collections.emptyList(); }
+        return targets;
+    }
+
+    /**
+     * @return the hook or <code>null</code> if it is not active
+     */
+    HookDeliveryTarget target(final Long hookId) {
+        return this.targetsByHookId.get(hookId);
+    }
+
+    private static String eventKey(final String entityName, final String actionName) {
+        return entityName + ":" + actionName;
+    }
+}
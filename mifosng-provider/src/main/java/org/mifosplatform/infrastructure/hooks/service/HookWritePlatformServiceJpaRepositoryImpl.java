@@ -48,6 +48,7 @@ public class HookWritePlatformServiceJpaRepositoryImpl
     private final TemplateRepository ugdTemplateRepository;
     private final HookCommandFromApiJsonDeserializer fromApiJsonDeserializer;
     private final FromJsonHelper fromApiJsonHelper;
+    private final HookRoutingService hookRoutingService;
 
     @Autowired
     public HookWritePlatformServiceJpaRepositoryImpl(
@@ -56,13 +57,15 @@ public class HookWritePlatformServiceJpaRepositoryImpl
             final HookTemplateRepository hookTemplateRepository,
             final TemplateRepository ugdTemplateRepository,
             final HookCommandFromApiJsonDeserializer fromApiJsonDeserializer,
-            final FromJsonHelper fromApiJsonHelper) {
+            final FromJsonHelper fromApiJsonHelper,
+            final HookRoutingService hookRoutingService) {
         this.context = context;
         this.hookRepository = hookRepository;
         this.hookTemplateRepository = hookTemplateRepository;
         this.ugdTemplateRepository = ugdTemplateRepository;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.fromApiJsonHelper = fromApiJsonHelper;
+        this.hookRoutingService = hookRoutingService;
     }
 
     @Transactional
@@ -98,6 +101,7 @@ public class HookWritePlatformServiceJpaRepositoryImpl
             validateHookRules(template, config, allEvents);
 
             this.hookRepository.save(hook);
+            this.hookRoutingService.refreshRoutingTable();
 
             return new CommandProcessingResultBuilder()
                     .withCommandId(command.commandId())
@@ -159,6 +163,7 @@ public class HookWritePlatformServiceJpaRepositoryImpl
                 }
 
                 this.hookRepository.saveAndFlush(hook);
+                this.hookRoutingService.refreshRoutingTable();
             }
 
             return new CommandProcessingResultBuilder() //
@@ -184,6 +189,7 @@ public class HookWritePlatformServiceJpaRepositoryImpl
         try {
             this.hookRepository.delete(hook);
             this.hookRepository.flush();
+            this.hookRoutingService.refreshRoutingTable();
         } catch (final DataIntegrityViolationException e) {
             throw new PlatformDataIntegrityException(
                     "error.msg.unknown.data.integrity.issue",
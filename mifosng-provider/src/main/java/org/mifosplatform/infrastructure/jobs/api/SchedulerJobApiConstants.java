@@ -31,17 +31,21 @@ public class SchedulerJobApiConstants {
     public static final String jobRunErrorLogParamName = "jobRunErrorLog";
     public static final String cronExpressionParamName = "cronExpression";
     public static final String schedulerStatusParamName = "active";
+    public static final String partitionSizeParamName = "partitionSize";
+    public static final String workerCountParamName = "workerCount";
+    public static final String runProgressParamName = "runProgress";
 
     public static final Set<String> JOB_DETAIL_RESPONSE_DATA_PARAMETERS = new HashSet<>(Arrays.asList(jobIdentifierParamName,
             displayNameParamName, nextRunTimeParamName, initializingErrorParamName, cronExpressionParamName, jobActiveStatusParamName,
-            currentlyRunningParamName, lastRunHistoryObjParamName));
+            currentlyRunningParamName, lastRunHistoryObjParamName, partitionSizeParamName, workerCountParamName,
+            runProgressParamName));
 
     public static final Set<String> JOB_HISTORY_RESPONSE_DATA_PARAMETERS = new HashSet<>(Arrays.asList(versionParamName,
             jobRunStartTimeParamName, jobRunEndTimeParamName, statusParamName, jobRunErrorMessageParamName, triggerTypeParamName,
             jobRunErrorLogParamName));
 
     public static final Set<String> JOB_UPDATE_REQUEST_DATA_PARAMETERS = new HashSet<>(Arrays.asList(displayNameParamName,
-            jobActiveStatusParamName, cronExpressionParamName));
+            jobActiveStatusParamName, cronExpressionParamName, partitionSizeParamName, workerCountParamName));
 
     public static final Set<String> SCHEDULER_DETAIL_RESPONSE_DATA_PARAMETERS = new HashSet<>(Arrays.asList(schedulerStatusParamName));
 
@@ -33,8 +33,25 @@ public class JobDetailData {
     @SuppressWarnings("unused")
     private final JobDetailHistoryData lastRunHistory;
 
+    @SuppressWarnings("unused")
+    private final Integer partitionSize;
+
+    @SuppressWarnings("unused")
+    private final Integer workerCount;
+
+    @SuppressWarnings("unused")
+    private final JobRunProgressData runProgress;
+
     public JobDetailData(final Long jobId, final String displayName, final Date nextRunTime, final String initializingError,
-            final String cronExpression, final boolean active, final boolean currentlyRunning, final JobDetailHistoryData lastRunHistory) {
+            final String cronExpression, final boolean active, final boolean currentlyRunning, final JobDetailHistoryData lastRunHistory,
+            final Integer partitionSize, final Integer workerCount) {
+        this(jobId, displayName, nextRunTime, initializingError, cronExpression, active, currentlyRunning, lastRunHistory, partitionSize,
+                workerCount, null);
+    }
+
+    private JobDetailData(final Long jobId, final String displayName, final Date nextRunTime, final String initializingError,
+            final String cronExpression, final boolean active, final boolean currentlyRunning, final JobDetailHistoryData lastRunHistory,
+            final Integer partitionSize, final Integer workerCount, final JobRunProgressData runProgress) {
         this.jobId = jobId;
         this.displayName = displayName;
         this.nextRunTime = nextRunTime;
@@ -43,5 +60,13 @@ public class JobDetailData {
         this.active = active;
         this.lastRunHistory = lastRunHistory;
         this.currentlyRunning = currentlyRunning;
+        this.partitionSize = partitionSize;
+        this.workerCount = workerCount;
+        this.runProgress = runProgress;
+    }
+
+    public JobDetailData withRunProgress(final JobRunProgressData runProgress) {
+        return new JobDetailData(this.jobId, this.displayName, this.nextRunTime, this.initializingError, this.cronExpression, this.active,
+                this.currentlyRunning, this.lastRunHistory, this.partitionSize, this.workerCount, runProgress);
     }
 }
@@ -17,6 +17,7 @@ import org.mifosplatform.infrastructure.core.exception.InvalidJsonException;
 import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.mifosplatform.infrastructure.core.serialization.FromJsonHelper;
 import org.mifosplatform.infrastructure.jobs.api.SchedulerJobApiConstants;
+import org.mifosplatform.infrastructure.jobs.service.SchedulerServiceConstants;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -64,6 +65,20 @@ public class JobDetailDataValidator {
             baseDataValidator.reset().parameter(SchedulerJobApiConstants.jobActiveStatusParamName).value(status).notBlank()
                     .validateForBooleanValue();
         }
+        if (this.fromApiJsonHelper.parameterExists(SchedulerJobApiConstants.partitionSizeParamName, element)) {
+            atLeastOneParameterPassedForUpdate = true;
+            final Integer partitionSize = this.fromApiJsonHelper.extractIntegerSansLocaleNamed(
+                    SchedulerJobApiConstants.partitionSizeParamName, element);
+            baseDataValidator.reset().parameter(SchedulerJobApiConstants.partitionSizeParamName).value(partitionSize).notNull()
+                    .integerGreaterThanZero();
+        }
+        if (this.fromApiJsonHelper.parameterExists(SchedulerJobApiConstants.workerCountParamName, element)) {
+            atLeastOneParameterPassedForUpdate = true;
+            final Integer workerCount = this.fromApiJsonHelper.extractIntegerSansLocaleNamed(SchedulerJobApiConstants.workerCountParamName,
+                    element);
+            baseDataValidator.reset().parameter(SchedulerJobApiConstants.workerCountParamName).value(workerCount).notNull()
+                    .inMinMaxRange(1, SchedulerServiceConstants.MAX_JOB_WORKER_COUNT);
+        }
 
         if (!atLeastOneParameterPassedForUpdate) {
             final Object forceError = null;
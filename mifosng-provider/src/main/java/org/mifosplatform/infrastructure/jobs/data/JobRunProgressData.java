@@ -0,0 +1,48 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.data;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Immutable data object representing the progress of the latest
+ * (checkpointed) run of a job.
+ */
+public class JobRunProgressData {
+
+    @SuppressWarnings("unused")
+    private final Date startTime;
+
+    @SuppressWarnings("unused")
+    private final Date lastUpdateTime;
+
+    @SuppressWarnings("unused")
+    private final Integer totalCount;
+
+    @SuppressWarnings("unused")
+    private final Integer processedCount;
+
+    @SuppressWarnings("unused")
+    private final Integer failedCount;
+
+    @SuppressWarnings("unused")
+    private final boolean completed;
+
+    @SuppressWarnings("unused")
+    private final BigDecimal throughputPerSecond;
+
+    public JobRunProgressData(final Date startTime, final Date lastUpdateTime, final Integer totalCount, final Integer processedCount,
+            final Integer failedCount, final boolean completed, final BigDecimal throughputPerSecond) {
+        this.startTime = startTime;
+        this.lastUpdateTime = lastUpdateTime;
+        this.totalCount = totalCount;
+        this.processedCount = processedCount;
+        this.failedCount = failedCount;
+        this.completed = completed;
+        this.throughputPerSecond = throughputPerSecond;
+    }
+}
@@ -72,6 +72,12 @@ public class ScheduledJobDetail extends AbstractPersistable<Long> {
     @Column(name = "is_misfired")
     private boolean triggerMisfired;
 
+    @Column(name = "partition_size", nullable = false)
+    private Integer partitionSize;
+
+    @Column(name = "worker_count", nullable = false)
+    private Integer workerCount;
+
     protected ScheduledJobDetail() {
 
     }
@@ -136,6 +142,14 @@ public class ScheduledJobDetail extends AbstractPersistable<Long> {
         this.currentlyRunning = currentlyRunning;
     }
 
+    public Integer getPartitionSize() {
+        return this.partitionSize;
+    }
+
+    public Integer getWorkerCount() {
+        return this.workerCount;
+    }
+
     public Map<String, Object> update(final JsonCommand command) {
         final Map<String, Object> actualChanges = new LinkedHashMap<>(9);
 
@@ -156,6 +170,18 @@ public class ScheduledJobDetail extends AbstractPersistable<Long> {
             this.activeSchedular = newValue;
         }
 
+        if (command.isChangeInIntegerSansLocaleParameterNamed(SchedulerJobApiConstants.partitionSizeParamName, this.partitionSize)) {
+            final Integer newValue = command.integerValueSansLocaleOfParameterNamed(SchedulerJobApiConstants.partitionSizeParamName);
+            actualChanges.put(SchedulerJobApiConstants.partitionSizeParamName, newValue);
+            this.partitionSize = newValue;
+        }
+
+        if (command.isChangeInIntegerSansLocaleParameterNamed(SchedulerJobApiConstants.workerCountParamName, this.workerCount)) {
+            final Integer newValue = command.integerValueSansLocaleOfParameterNamed(SchedulerJobApiConstants.workerCountParamName);
+            actualChanges.put(SchedulerJobApiConstants.workerCountParamName, newValue);
+            this.workerCount = newValue;
+        }
+
         return actualChanges;
     }
 
@@ -21,6 +21,9 @@ public interface ScheduledJobDetailRepository extends JpaRepository<ScheduledJob
     @Query("from ScheduledJobDetail jobDetail where jobDetail.id=:jobId")
     ScheduledJobDetail findByJobId(@Param("jobId") Long jobId);
 
+    @Query("from ScheduledJobDetail jobDetail where jobDetail.jobName = :jobName")
+    ScheduledJobDetail findByJobName(@Param("jobName") String jobName);
+
     @Lock(value = LockModeType.NONE)
     @Query("from ScheduledJobDetail jobDetail where jobDetail.jobKey = :jobKey")
     ScheduledJobDetail findByJobKeyWithLock(@Param("jobKey") String jobKey);
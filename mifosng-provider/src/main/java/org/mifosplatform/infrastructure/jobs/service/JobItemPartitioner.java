@@ -0,0 +1,72 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits the work items of a batch job into partitions.
+ *
+ * Items having a partition key (e.g. office) are grouped by that key, items
+ * without one are ordered by their identifier and split into consecutive ID
+ * ranges. No partition holds more than <code>partitionSize</code> items.
+ */
+public final class JobItemPartitioner {
+
+    private JobItemPartitioner() {}
+
+    public static <T> List<List<T>> partition(final Collection<T> items, final JobPartitionItemProcessor<T> processor,
+            final int partitionSize) {
+        final Map<Long, List<T>> itemsByKey = new LinkedHashMap<>();
+        final List<T> itemsWithoutKey = new ArrayList<>();
+        for (final T item : items) {
+            final Long partitionKey = processor.partitionKeyOf(item);
+            if (partitionKey == null) {
+                itemsWithoutKey.add(item);
+            } else {
+                List<T> keyedItems = itemsByKey.get(partitionKey);
+                if (keyedItems == null) {
+                    keyedItems = new ArrayList<>();
+                    itemsByKey.put(partitionKey, keyedItems);
+                }
+                keyedItems.add(item);
+            }
+        }
+
+        Collections.sort(itemsWithoutKey, new Comparator<T>() {
+
+            @Override
+            public int compare(final T first, final T second) {
+                final Long firstId = processor.identifierOf(first);
+                final Long secondId = processor.identifierOf(second);
+                if (firstId == null) { return secondId == null ? 0 : -1; }
+                if (secondId == null) { return 1; }
+                return firstId.compareTo(secondId);
+            }
+        });
+
+        final List<List<T>> partitions = new ArrayList<>();
+        for (final List<T> keyedItems : itemsByKey.values()) {
+            split(keyedItems, partitionSize, partitions);
+        }
+        split(itemsWithoutKey, partitionSize, partitions);
+        return partitions;
+    }
+
+    private static <T> void split(final List<T> items, final int partitionSize, final List<List<T>> partitions) {
+        final int size = Math.max(partitionSize, 1);
+        for (int fromIndex = 0; fromIndex < items.size(); fromIndex += size) {
+            final int toIndex = Math.min(fromIndex + size, items.size());
+            partitions.add(new ArrayList<>(items.subList(fromIndex, toIndex)));
+        }
+    }
+}
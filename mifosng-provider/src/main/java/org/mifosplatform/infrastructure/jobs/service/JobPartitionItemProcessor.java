@@ -0,0 +1,40 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+/**
+ * Callback used by {@link PartitionedJobRunner} to process the individual
+ * items (accounts, loans etc.) of a batch job.
+ *
+ * @param <T>
+ *            type of the work item
+ */
+public interface JobPartitionItemProcessor<T> {
+
+    /**
+     * @return the identifier of the item, used for ID range partitioning and
+     *         for failure reporting
+     */
+    Long identifierOf(T item);
+
+    /**
+     * @return the partition key (e.g. office id) of the item, or
+     *         <code>null</code> to partition items by identifier range
+     */
+    Long partitionKeyOf(T item);
+
+    /**
+     * Processes the item on a worker thread, loading any entities it needs in
+     * a transaction of its own.
+     */
+    void process(T item) throws Exception;
+
+    /**
+     * @return the message recorded against the job run when processing of the
+     *         item fails
+     */
+    String failureMessage(T item, Throwable realCause);
+}
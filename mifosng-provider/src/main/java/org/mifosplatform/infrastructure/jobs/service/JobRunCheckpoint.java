@@ -0,0 +1,36 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Durable checkpoint of a job run: the identifiers of the items that were
+ * already processed by an earlier, interrupted attempt of the same run.
+ */
+public class JobRunCheckpoint {
+
+    private final Long id;
+    private final Set<Long> processedItemIds;
+
+    public JobRunCheckpoint(final Long id, final Set<Long> processedItemIds) {
+        this.id = id;
+        this.processedItemIds = Collections.unmodifiableSet(processedItemIds);
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public boolean isProcessed(final Long itemId) {
+        return itemId != null && this.processedItemIds.contains(itemId);
+    }
+
+    public boolean isResumed() {
+        return !this.processedItemIds.isEmpty();
+    }
+}
@@ -0,0 +1,25 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+import java.util.Collection;
+
+import org.mifosplatform.infrastructure.jobs.data.JobRunProgressData;
+
+public interface JobRunCheckpointService {
+
+    /**
+     * Resumes the interrupted run of the job for the current business date if
+     * there is one, else starts a new checkpointed run.
+     */
+    JobRunCheckpoint startOrResume(Long jobId, int totalCount);
+
+    void commitChunk(Long checkpointId, Collection<Long> processedItemIds, int failedCount);
+
+    void complete(Long checkpointId);
+
+    JobRunProgressData retrieveLatestProgress(Long jobId);
+}
@@ -0,0 +1,144 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+
+import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.core.service.DateUtils;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.jobs.data.JobRunProgressData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps the checkpoint of a job run in <code>job_run_checkpoint</code> and the
+ * identifiers of the processed items in <code>job_run_checkpoint_item</code>.
+ * Only the latest run of a job is kept; an incomplete run is resumed only on
+ * the business date it was started on.
+ */
+@Service
+public class JobRunCheckpointServiceImpl implements JobRunCheckpointService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public JobRunCheckpointServiceImpl(final RoutingDataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Transactional
+    @Override
+    public JobRunCheckpoint startOrResume(final Long jobId, final int totalCount) {
+        final String runDate = DateUtils.getLocalDateOfTenant().toString();
+
+        this.jdbcTemplate.update("delete from job_run_checkpoint where job_id = ? and (is_completed = 1 or run_date <> ?)", jobId,
+                runDate);
+
+        final List<Long> interruptedRuns = this.jdbcTemplate.queryForList(
+                "select id from job_run_checkpoint where job_id = ? and is_completed = 0 order by id desc limit 1", Long.class, jobId);
+        if (!interruptedRuns.isEmpty()) {
+            final Long checkpointId = interruptedRuns.get(0);
+            this.jdbcTemplate.update("update job_run_checkpoint set total_count = ?, failed_count = 0, resume_time = now(), "
+                    + "last_update_time = now(), processed_count_on_resume = processed_count where id = ?", totalCount, checkpointId);
+            final List<Long> processedItemIds = this.jdbcTemplate.queryForList(
+                    "select item_id from job_run_checkpoint_item where checkpoint_id = ?", Long.class, checkpointId);
+            return new JobRunCheckpoint(checkpointId, new HashSet<>(processedItemIds));
+        }
+
+        final String sql = "insert into job_run_checkpoint (job_id, run_date, start_time, resume_time, last_update_time, total_count) "
+                + "values (?, ?, now(), now(), now(), ?)";
+        final KeyHolder idHolder = new GeneratedKeyHolder();
+        this.jdbcTemplate.update(new PreparedStatementCreator() {
+
+            @Override
+            public PreparedStatement createPreparedStatement(final Connection connection) throws SQLException {
+                final PreparedStatement ps = connection.prepareStatement(sql, new String[] { "id" });
+                ps.setLong(1, jobId);
+                ps.setString(2, runDate);
+                ps.setInt(3, totalCount);
+                return ps;
+            }
+        }, idHolder);
+        return new JobRunCheckpoint(idHolder.getKey().longValue(), new HashSet<Long>());
+    }
+
+    @Transactional
+    @Override
+    public void commitChunk(final Long checkpointId, final Collection<Long> processedItemIds, final int failedCount) {
+        if (!processedItemIds.isEmpty()) {
+            final List<Object[]> batchArgs = new ArrayList<>(processedItemIds.size());
+            for (final Long itemId : processedItemIds) {
+                batchArgs.add(new Object[] { checkpointId, itemId });
+            }
+            this.jdbcTemplate.batchUpdate("insert ignore into job_run_checkpoint_item (checkpoint_id, item_id) values (?, ?)", batchArgs);
+        }
+        this.jdbcTemplate.update("update job_run_checkpoint set processed_count = processed_count + ?, failed_count = failed_count + ?, "
+                + "last_update_time = now() where id = ?", processedItemIds.size(), failedCount, checkpointId);
+    }
+
+    @Transactional
+    @Override
+    public void complete(final Long checkpointId) {
+        this.jdbcTemplate.update("delete from job_run_checkpoint_item where checkpoint_id = ?", checkpointId);
+        this.jdbcTemplate.update("update job_run_checkpoint set is_completed = 1, last_update_time = now() where id = ?", checkpointId);
+    }
+
+    @Override
+    public JobRunProgressData retrieveLatestProgress(final Long jobId) {
+        final JobRunProgressMapper mapper = new JobRunProgressMapper();
+        final List<JobRunProgressData> progress = this.jdbcTemplate.query(mapper.schema()
+                + " where checkpoint.job_id = ? order by checkpoint.id desc limit 1", mapper, jobId);
+        return progress.isEmpty() ? null : progress.get(0);
+    }
+
+    private static final class JobRunProgressMapper implements RowMapper<JobRunProgressData> {
+
+        public String schema() {
+            return "select checkpoint.start_time as startTime, checkpoint.resume_time as resumeTime, checkpoint.last_update_time as lastUpdateTime, "
+                    + "checkpoint.total_count as totalCount, checkpoint.processed_count as processedCount, "
+                    + "checkpoint.processed_count_on_resume as processedCountOnResume, checkpoint.failed_count as failedCount, "
+                    + "checkpoint.is_completed as completed from job_run_checkpoint checkpoint";
+        }
+
+        @Override
+        public JobRunProgressData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final Date startTime = rs.getTimestamp("startTime");
+            final Date resumeTime = rs.getTimestamp("resumeTime");
+            final Date lastUpdateTime = rs.getTimestamp("lastUpdateTime");
+            final Integer totalCount = JdbcSupport.getInteger(rs, "totalCount");
+            final Integer processedCount = JdbcSupport.getInteger(rs, "processedCount");
+            final Integer processedCountOnResume = JdbcSupport.getInteger(rs, "processedCountOnResume");
+            final Integer failedCount = JdbcSupport.getInteger(rs, "failedCount");
+            final boolean completed = rs.getBoolean("completed");
+
+            // throughput of the current attempt, so a resumed run is not
+            // measured against the time it spent interrupted
+            final long elapsedMillis = Math.max(lastUpdateTime.getTime() - resumeTime.getTime(), 1000L);
+            final BigDecimal throughputPerSecond = BigDecimal.valueOf((processedCount - processedCountOnResume) * 1000L).divide(
+                    BigDecimal.valueOf(elapsedMillis), 2, RoundingMode.HALF_UP);
+
+            return new JobRunProgressData(startTime, lastUpdateTime, totalCount, processedCount, failedCount, completed,
+                    throughputPerSecond);
+        }
+    }
+}
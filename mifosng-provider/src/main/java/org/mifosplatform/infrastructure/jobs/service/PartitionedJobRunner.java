@@ -0,0 +1,25 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+import java.util.Collection;
+
+public interface PartitionedJobRunner {
+
+    /**
+     * Splits the items into partitions and processes them on the worker pool
+     * configured for the job.
+     *
+     * Items are handed to other threads, so they are identifiers or data
+     * objects, never entities: an entity loaded by the calling thread would be
+     * detached and shared between workers. The processor loads what it needs
+     * in a transaction of its own for every item.
+     *
+     * @return the collected failure messages, empty if all items were
+     *         processed successfully
+     */
+    <T> String run(JobName jobName, Collection<T> items, JobPartitionItemProcessor<T> processor);
+}
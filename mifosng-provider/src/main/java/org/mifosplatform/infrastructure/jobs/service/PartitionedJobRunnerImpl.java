@@ -0,0 +1,234 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobDetail;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs the items of a batch job partition by partition on as many workers as
+ * the <code>job</code> table gives the job. The workers of all jobs share one
+ * pool of {@link SchedulerServiceConstants#MAX_JOB_WORKER_COUNT} threads, which
+ * end after a minute without work. Each worker carries the tenant and the
+ * authenticated (system) user of the thread that started the job, and takes
+ * partitions until none are left.
+ * 
+ * The identifiers of processed items are committed to the run's checkpoint
+ * every {@link SchedulerServiceConstants#JOB_CHECKPOINT_INTERVAL} items and at
+ * the end of each partition, so a run interrupted by a restart skips the
+ * already processed items when resumed. Each item is processed in a
+ * transaction of its own, so at most the items a worker processed since its
+ * last checkpoint are processed again on resume.
+ */
+@Service
+public class PartitionedJobRunnerImpl implements PartitionedJobRunner {
+
+    private final static Logger logger = LoggerFactory.getLogger(PartitionedJobRunnerImpl.class);
+
+    private final SchedularWritePlatformService schedularWritePlatformService;
+    private final JobRunCheckpointService jobRunCheckpointService;
+
+    private ThreadPoolExecutor workerExecutor;
+
+    @Autowired
+    public PartitionedJobRunnerImpl(final SchedularWritePlatformService schedularWritePlatformService,
+            final JobRunCheckpointService jobRunCheckpointService) {
+        this.schedularWritePlatformService = schedularWritePlatformService;
+        this.jobRunCheckpointService = jobRunCheckpointService;
+    }
+
+    @PostConstruct
+    public void start() {
+        this.workerExecutor = new ThreadPoolExecutor(SchedulerServiceConstants.MAX_JOB_WORKER_COUNT,
+                SchedulerServiceConstants.MAX_JOB_WORKER_COUNT, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new JobWorkerThreadFactory());
+        this.workerExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.workerExecutor.shutdownNow();
+    }
+
+    @Override
+    public <T> String run(final JobName jobName, final Collection<T> items, final JobPartitionItemProcessor<T> processor) {
+        if (items.isEmpty()) { return ""; }
+
+        int partitionSize = SchedulerServiceConstants.DEFAULT_JOB_PARTITION_SIZE;
+        int workerCount = SchedulerServiceConstants.DEFAULT_JOB_WORKER_COUNT;
+        JobRunCheckpoint checkpoint = null;
+        final ScheduledJobDetail jobDetail = this.schedularWritePlatformService.findByJobName(jobName.toString());
+        if (jobDetail != null) {
+            checkpoint = this.jobRunCheckpointService.startOrResume(jobDetail.getId(), items.size());
+            if (jobDetail.getPartitionSize() != null && jobDetail.getPartitionSize() > 0) {
+                partitionSize = jobDetail.getPartitionSize();
+            }
+            if (jobDetail.getWorkerCount() != null && jobDetail.getWorkerCount() > 0) {
+                workerCount = Math.min(jobDetail.getWorkerCount(), SchedulerServiceConstants.MAX_JOB_WORKER_COUNT);
+            }
+        }
+
+        final Collection<T> pendingItems = pendingItems(items, processor, checkpoint);
+        final List<List<T>> partitions = JobItemPartitioner.partition(pendingItems, processor, partitionSize);
+        final Queue<String> failures = new ConcurrentLinkedQueue<>();
+        final long startTime = System.currentTimeMillis();
+        logger.info(jobName + ": processing " + pendingItems.size() + " of " + items.size() + " items in " + partitions.size()
+                + " partitions using " + workerCount + " workers");
+
+        boolean interrupted = false;
+        if (workerCount == 1 || partitions.size() <= 1) {
+            for (final List<T> partition : partitions) {
+                processPartition(partition, processor, failures, checkpoint);
+            }
+            interrupted = Thread.currentThread().isInterrupted();
+        } else {
+            interrupted = !runOnWorkerPool(jobName, partitions, processor, failures, checkpoint, Math.min(workerCount, partitions.size()));
+        }
+
+        if (checkpoint != null && !interrupted) {
+            this.jobRunCheckpointService.complete(checkpoint.getId());
+        }
+
+        logger.info(jobName + ": processed " + pendingItems.size() + " items with " + failures.size() + " failures in "
+                + (System.currentTimeMillis() - startTime) + " ms");
+
+        final StringBuilder sb = new StringBuilder();
+        for (final String failure : failures) {
+            sb.append(failure);
+        }
+        return sb.toString();
+    }
+
+    private <T> Collection<T> pendingItems(final Collection<T> items, final JobPartitionItemProcessor<T> processor,
+            final JobRunCheckpoint checkpoint) {
+        if (checkpoint == null || !checkpoint.isResumed()) { return items; }
+        final List<T> pendingItems = new ArrayList<>(items.size());
+        for (final T item : items) {
+            if (!checkpoint.isProcessed(processor.identifierOf(item))) {
+                pendingItems.add(item);
+            }
+        }
+        return pendingItems;
+    }
+
+    /**
+     * @return <code>true</code> if all partitions were processed
+     */
+    private <T> boolean runOnWorkerPool(final JobName jobName, final List<List<T>> partitions,
+            final JobPartitionItemProcessor<T> processor, final Queue<String> failures, final JobRunCheckpoint checkpoint,
+            final int workerCount) {
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        final Queue<List<T>> pendingPartitions = new ConcurrentLinkedQueue<>(partitions);
+
+        final List<Callable<Void>> workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(new Callable<Void>() {
+
+                @Override
+                public Void call() {
+                    ThreadLocalContextUtil.setTenant(tenant);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    try {
+                        List<T> partition = pendingPartitions.poll();
+                        while (partition != null && !Thread.currentThread().isInterrupted()) {
+                            processPartition(partition, processor, failures, checkpoint);
+                            partition = pendingPartitions.poll();
+                        }
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                        ThreadLocalContextUtil.clearTenant();
+                    }
+                    return null;
+                }
+            });
+        }
+
+        try {
+            // cancels and interrupts the workers when interrupted
+            this.workerExecutor.invokeAll(workers);
+            return true;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failures.add(jobName + " was interrupted before all partitions were processed");
+            return false;
+        }
+    }
+
+    /**
+     * Processes the items of a partition and, for checkpointed runs, commits
+     * the identifiers of the successfully processed items in chunks of
+     * {@link SchedulerServiceConstants#JOB_CHECKPOINT_INTERVAL} items.
+     */
+    private <T> void processPartition(final List<T> partition, final JobPartitionItemProcessor<T> processor,
+            final Queue<String> failures, final JobRunCheckpoint checkpoint) {
+        List<Long> processedItemIds = new ArrayList<>(SchedulerServiceConstants.JOB_CHECKPOINT_INTERVAL);
+        int failedCount = 0;
+        for (final T item : partition) {
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            if (checkpoint != null && processedItemIds.size() + failedCount >= SchedulerServiceConstants.JOB_CHECKPOINT_INTERVAL) {
+                this.jobRunCheckpointService.commitChunk(checkpoint.getId(), processedItemIds, failedCount);
+                processedItemIds = new ArrayList<>(SchedulerServiceConstants.JOB_CHECKPOINT_INTERVAL);
+                failedCount = 0;
+            }
+            try {
+                processor.process(item);
+                final Long itemId = processor.identifierOf(item);
+                if (itemId != null) {
+                    processedItemIds.add(itemId);
+                }
+            } catch (final Exception e) {
+                failedCount++;
+                Throwable realCause = e;
+                if (e.getCause() != null) {
+                    realCause = e.getCause();
+                }
+                final String failure = processor.failureMessage(item, realCause);
+                logger.error(failure, e);
+                failures.add(failure);
+            }
+        }
+        if (checkpoint != null && processedItemIds.size() + failedCount > 0) {
+            this.jobRunCheckpointService.commitChunk(checkpoint.getId(), processedItemIds, failedCount);
+        }
+    }
+
+    private static final class JobWorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "job-worker-" + this.threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -27,6 +27,8 @@ public interface SchedularWritePlatformService {
 
     public ScheduledJobDetail findByJobId(Long jobId);
 
+    public ScheduledJobDetail findByJobName(String jobName);
+
     public CommandProcessingResult updateJobDetail(Long jobId, JsonCommand command);
 
     public SchedulerDetail retriveSchedulerDetail();
@@ -83,6 +83,11 @@ public class SchedularWritePlatformServiceJpaRepositoryImpl implements Schedular
         return this.scheduledJobDetailsRepository.findByJobId(jobId);
     }
 
+    @Override
+    public ScheduledJobDetail findByJobName(final String jobName) {
+        return this.scheduledJobDetailsRepository.findByJobName(jobName);
+    }
+
     @Override
     @Transactional
     public void updateSchedulerDetail(final SchedulerDetail schedulerDetail) {
@@ -10,6 +10,7 @@ import java.sql.SQLException;
 import java.util.Date;
 import java.util.List;
 
+import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
 import org.mifosplatform.infrastructure.core.service.Page;
 import org.mifosplatform.infrastructure.core.service.PaginationHelper;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
@@ -31,9 +32,12 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
 
     private final PaginationHelper<JobDetailHistoryData> paginationHelper = new PaginationHelper<>();
 
+    private final JobRunCheckpointService jobRunCheckpointService;
+
     @Autowired
-    public SchedulerJobRunnerReadServiceImpl(final RoutingDataSource dataSource) {
+    public SchedulerJobRunnerReadServiceImpl(final RoutingDataSource dataSource, final JobRunCheckpointService jobRunCheckpointService) {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jobRunCheckpointService = jobRunCheckpointService;
     }
 
     @Override
@@ -50,7 +54,8 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
         try {
             final JobDetailMapper detailMapper = new JobDetailMapper();
             final String sql = detailMapper.schema() + " where job.id=?";
-            return this.jdbcTemplate.queryForObject(sql, detailMapper, new Object[] { jobId });
+            final JobDetailData jobDetail = this.jdbcTemplate.queryForObject(sql, detailMapper, new Object[] { jobId });
+            return jobDetail.withRunProgress(this.jobRunCheckpointService.retrieveLatestProgress(jobId));
         } catch (final EmptyResultDataAccessException e) {
             throw new JobNotFoundException(String.valueOf(jobId));
         }
@@ -111,6 +116,7 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
 
         private final StringBuilder sqlBuilder = new StringBuilder("select")
                 .append(" job.id,job.display_name as displayName,job.next_run_time as nextRunTime,job.initializing_errorlog as initializingError,job.cron_expression as cronExpression,job.is_active as active,job.currently_running as currentlyRunning,")
+                .append(" job.partition_size as partitionSize,job.worker_count as workerCount,")
                 .append(" runHistory.version,runHistory.start_time as lastRunStartTime,runHistory.end_time as lastRunEndTime,runHistory.`status`,runHistory.error_message as jobRunErrorMessage,runHistory.trigger_type as triggerType,runHistory.error_log as jobRunErrorLog ")
                 .append(" from job job  left join job_run_history runHistory ON job.id=runHistory.job_id and job.previous_run_start_time=runHistory.start_time ");
 
@@ -127,6 +133,8 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
             final String cronExpression = rs.getString("cronExpression");
             final boolean active = rs.getBoolean("active");
             final boolean currentlyRunning = rs.getBoolean("currentlyRunning");
+            final Integer partitionSize = JdbcSupport.getInteger(rs, "partitionSize");
+            final Integer workerCount = JdbcSupport.getInteger(rs, "workerCount");
 
             final Long version = rs.getLong("version");
             final Date jobRunStartTime = rs.getTimestamp("lastRunStartTime");
@@ -142,7 +150,7 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
                         jobRunErrorLog);
             }
             final JobDetailData jobDetail = new JobDetailData(id, displayName, nextRunTime, initializingError, cronExpression, active,
-                    currentlyRunning, lastRunHistory);
+                    currentlyRunning, lastRunHistory, partitionSize, workerCount);
             return jobDetail;
         }
 
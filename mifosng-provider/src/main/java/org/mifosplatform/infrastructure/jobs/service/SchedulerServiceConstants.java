@@ -24,5 +24,9 @@ public interface SchedulerServiceConstants {
     public static final int DEFAULT_THREAD_COUNT = 7;
     public static final int GROUP_THREAD_COUNT = 1;
     public static final String SCHEDULER_NAME = "schedulerName";
+    public static final int DEFAULT_JOB_PARTITION_SIZE = 500;
+    public static final int DEFAULT_JOB_WORKER_COUNT = 1;
+    public static final int MAX_JOB_WORKER_COUNT = 32;
+    public static final int JOB_CHECKPOINT_INTERVAL = 50;
 
 }
\ No newline at end of file
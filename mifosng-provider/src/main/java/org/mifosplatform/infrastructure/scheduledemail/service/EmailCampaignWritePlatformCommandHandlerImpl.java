@@ -699,9 +699,6 @@ public class EmailCampaignWritePlatformCommandHandlerImpl implements EmailCampai
                                      final Map<String, String> reportParams, final String reportName, final StringBuilder errorLog){
 
         try{
-            final ByteArrayOutputStream byteArrayOutputStream = this.readReportingService.generatePentahoReportAsOutputStream(reportName,
-                    emailAttachmentFileFormat.getValue(), reportParams, null, emailCampaign.getApprovedBy(), errorLog);
-
             final String fileLocation = FileSystemContentRepository.MIFOSX_BASE_DIR + File.separator + "";
             final String fileNameWithoutExtension = fileLocation + File.separator + reportName;
 
@@ -710,16 +707,21 @@ public class EmailCampaignWritePlatformCommandHandlerImpl implements EmailCampai
                 new File(fileLocation).mkdirs();
             }
 
-            if (byteArrayOutputStream.size() == 0) {
-                errorLog.append("Pentaho report processing failed, empty output stream created");
+            // the report is written straight to the attachment file
+            final String fileName = fileNameWithoutExtension + "." + emailAttachmentFileFormat.getValue();
+            final File file = new File(fileName);
+            final FileOutputStream outputStream = new FileOutputStream(file);
+            try {
+                this.readReportingService.generatePentahoReport(reportName, emailAttachmentFileFormat.getValue(), reportParams, null,
+                        emailCampaign.getApprovedBy(), errorLog, outputStream);
+            } finally {
+                outputStream.close();
             }
-            else if (errorLog.length() == 0 && (byteArrayOutputStream.size() > 0)) {
-                final String fileName = fileNameWithoutExtension + "." + emailAttachmentFileFormat.getValue();
-
-                final File file = new File(fileName);
-                final FileOutputStream outputStream = new FileOutputStream(file);
-                byteArrayOutputStream.writeTo(outputStream);
 
+            if (file.length() == 0) {
+                errorLog.append("Pentaho report processing failed, empty output stream created");
+            }
+            else if (errorLog.length() == 0) {
                 return file;
             }
 
@@ -132,6 +132,12 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
                     }
                     TenantAwareBasicAuthenticationFilter.firstRequestProcessed = true;
                 }
+
+                // reads of GET requests may be served by the read replica of
+                // the tenant, if it has one
+                if ("GET".equalsIgnoreCase(request.getMethod())) {
+                    ThreadLocalContextUtil.setReadReplicaAllowed();
+                }
             }
 
             super.doFilter(req, res, chain);
@@ -142,6 +148,7 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
             response.addHeader("WWW-Authenticate", "Basic realm=\"" + "Mifos Platform API" + "\"");
             response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         } finally {
+            ThreadLocalContextUtil.clearReadReplicaAllowed();
             task.stop();
             final PlatformRequestLog log = PlatformRequestLog.from(task, request);
             logger.info(this.toApiJsonSerializer.serialize(log));
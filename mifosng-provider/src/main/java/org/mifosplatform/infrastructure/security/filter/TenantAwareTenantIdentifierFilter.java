@@ -130,6 +130,12 @@ public class TenantAwareTenantIdentifierFilter extends GenericFilterBean {
                     }
                     TenantAwareTenantIdentifierFilter.firstRequestProcessed = true;
                 }
+
+                // reads of GET requests may be served by the read replica of
+                // the tenant, if it has one
+                if ("GET".equalsIgnoreCase(request.getMethod())) {
+                    ThreadLocalContextUtil.setReadReplicaAllowed();
+                }
                 chain.doFilter(request, response);
             }
         } catch (final InvalidTenantIdentiferException e) {
@@ -139,6 +145,7 @@ public class TenantAwareTenantIdentifierFilter extends GenericFilterBean {
             response.addHeader("WWW-Authenticate", "Basic realm=\"" + "Mifos Platform API" + "\"");
             response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         } finally {
+            ThreadLocalContextUtil.clearReadReplicaAllowed();
             task.stop();
             final PlatformRequestLog log = PlatformRequestLog.from(task, request);
             logger.info(this.toApiJsonSerializer.serialize(log));
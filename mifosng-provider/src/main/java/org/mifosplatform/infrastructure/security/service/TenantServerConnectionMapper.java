@@ -0,0 +1,102 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.security.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenantConnection;
+
+/**
+ * Selects and maps the columns of a <code>tenant_server_connections</code> row
+ * joined into a tenant query. The column labels are prefixed so that more than
+ * one connection (e.g. the database and its read replica) can be joined into
+ * the same query.
+ */
+final class TenantServerConnectionMapper {
+
+    private final String tableAlias;
+    private final String labelPrefix;
+
+    TenantServerConnectionMapper(final String tableAlias, final String labelPrefix) {
+        this.tableAlias = tableAlias;
+        this.labelPrefix = labelPrefix;
+    }
+
+    public String columns() {
+        final String ts = this.tableAlias;
+        final String p = this.labelPrefix;
+        return new StringBuilder(ts).append(".id as ").append(p).append("connectionId, ")//
+                .append(ts).append(".schema_name as ").append(p).append("schemaName, ")//
+                .append(ts).append(".schema_server as ").append(p).append("schemaServer, ")//
+                .append(ts).append(".schema_server_port as ").append(p).append("schemaServerPort, ")//
+                .append(ts).append(".auto_update as ").append(p).append("autoUpdate, ")//
+                .append(ts).append(".schema_username as ").append(p).append("schemaUsername, ")//
+                .append(ts).append(".schema_password as ").append(p).append("schemaPassword, ")//
+                .append(ts).append(".pool_initial_size as ").append(p).append("initialSize, ")//
+                .append(ts).append(".pool_validation_interval as ").append(p).append("validationInterval, ")//
+                .append(ts).append(".pool_remove_abandoned as ").append(p).append("removeAbandoned, ")//
+                .append(ts).append(".pool_remove_abandoned_timeout as ").append(p).append("removeAbandonedTimeout, ")//
+                .append(ts).append(".pool_log_abandoned as ").append(p).append("logAbandoned, ")//
+                .append(ts).append(".pool_abandon_when_percentage_full as ").append(p).append("abandonedWhenPercentageFull, ")//
+                .append(ts).append(".pool_test_on_borrow as ").append(p).append("testOnBorrow, ")//
+                .append(ts).append(".pool_max_active as ").append(p).append("poolMaxActive, ")//
+                .append(ts).append(".pool_min_idle as ").append(p).append("poolMinIdle, ")//
+                .append(ts).append(".pool_max_idle as ").append(p).append("poolMaxIdle, ")//
+                .append(ts).append(".pool_suspect_timeout as ").append(p).append("poolSuspectTimeout, ")//
+                .append(ts).append(".pool_time_between_eviction_runs_millis as ").append(p).append("poolTimeBetweenEvictionRunsMillis, ")//
+                .append(ts).append(".pool_min_evictable_idle_time_millis as ").append(p).append("poolMinEvictableIdleTimeMillis, ")//
+                .append(ts).append(".deadlock_max_retries as ").append(p).append("maxRetriesOnDeadlock, ")//
+                .append(ts).append(".deadlock_max_retry_interval as ").append(p).append("maxIntervalBetweenRetries ").toString();
+    }
+
+    /**
+     * @return the connection or <code>null</code> if no connection was joined
+     */
+    public MifosPlatformTenantConnection mapRow(final ResultSet rs) throws SQLException {
+        final String p = this.labelPrefix;
+        final Long connectionId = JdbcSupport.getLong(rs, p + "connectionId");
+        if (connectionId == null) { return null; }
+
+        final String schemaName = rs.getString(p + "schemaName");
+        final String schemaServer = rs.getString(p + "schemaServer");
+        final String schemaServerPort = rs.getString(p + "schemaServerPort");
+        final String schemaUsername = rs.getString(p + "schemaUsername");
+        final String schemaPassword = rs.getString(p + "schemaPassword");
+        final boolean autoUpdateEnabled = rs.getBoolean(p + "autoUpdate");
+        final int initialSize = rs.getInt(p + "initialSize");
+        final boolean testOnBorrow = rs.getBoolean(p + "testOnBorrow");
+        final long validationInterval = rs.getLong(p + "validationInterval");
+        final boolean removeAbandoned = rs.getBoolean(p + "removeAbandoned");
+        final int removeAbandonedTimeout = rs.getInt(p + "removeAbandonedTimeout");
+        final boolean logAbandoned = rs.getBoolean(p + "logAbandoned");
+        final int abandonWhenPercentageFull = rs.getInt(p + "abandonedWhenPercentageFull");
+        final int maxActive = rs.getInt(p + "poolMaxActive");
+        final int minIdle = rs.getInt(p + "poolMinIdle");
+        final int maxIdle = rs.getInt(p + "poolMaxIdle");
+        final int suspectTimeout = rs.getInt(p + "poolSuspectTimeout");
+        final int timeBetweenEvictionRunsMillis = rs.getInt(p + "poolTimeBetweenEvictionRunsMillis");
+        final int minEvictableIdleTimeMillis = rs.getInt(p + "poolMinEvictableIdleTimeMillis");
+        int maxRetriesOnDeadlock = rs.getInt(p + "maxRetriesOnDeadlock");
+        int maxIntervalBetweenRetries = rs.getInt(p + "maxIntervalBetweenRetries");
+
+        maxRetriesOnDeadlock = bindValueInMinMaxRange(maxRetriesOnDeadlock, 0, 15);
+        maxIntervalBetweenRetries = bindValueInMinMaxRange(maxIntervalBetweenRetries, 1, 15);
+
+        return new MifosPlatformTenantConnection(connectionId, schemaName, schemaServer, schemaServerPort, schemaUsername, schemaPassword,
+                autoUpdateEnabled, initialSize, validationInterval, removeAbandoned, removeAbandonedTimeout, logAbandoned,
+                abandonWhenPercentageFull, maxActive, minIdle, maxIdle, suspectTimeout, timeBetweenEvictionRunsMillis,
+                minEvictableIdleTimeMillis, maxRetriesOnDeadlock, maxIntervalBetweenRetries, testOnBorrow);
+    }
+
+    private static int bindValueInMinMaxRange(final int value, final int min, final int max) {
+        if (value < min) {
+            return min;
+        } else if (value > max) { return max; }
+        return value;
+    }
+}
@@ -9,6 +9,7 @@ import java.math.BigDecimal;
 import java.sql.Date;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -37,7 +38,6 @@ public class XBRLResultServiceImpl implements XBRLResultService {
     private final MixTaxonomyMappingReadPlatformService readTaxonomyMappingService;
     private final MixTaxonomyReadPlatformService readTaxonomyService;
     private final JdbcTemplate jdbcTemplate;
-    private HashMap<String, BigDecimal> accountBalanceMap;
 
     @Autowired
     public XBRLResultServiceImpl(final RoutingDataSource dataSource,
@@ -67,9 +67,9 @@ public class XBRLResultServiceImpl implements XBRLResultService {
             if (configMap == null) { return null; }
             // <taxonomyId, value>
             final HashMap<MixTaxonomyData, BigDecimal> resultMap = new HashMap<>();
-            setupBalanceMap(getAccountSql(startDate, endDate));
+            final Map<String, BigDecimal> accountBalances = retrieveAccountBalances(startDate, endDate);
             for (final Entry<String, String> entry : configMap.entrySet()) {
-                final BigDecimal value = processMappingString(entry.getValue());
+                final BigDecimal value = processMappingString(entry.getValue(), accountBalances);
                 if (value != null) {
                     final MixTaxonomyData taxonomy = this.readTaxonomyService.retrieveOne(Long.parseLong(entry.getKey()));
                     resultMap.put(taxonomy, value);
@@ -81,80 +81,28 @@ public class XBRLResultServiceImpl implements XBRLResultService {
         return null;
     }
 
-    private String getAccountSql(final Date startDate, final Date endDate) {
-        final String sql = "select debits.glcode as 'glcode', debits.name as 'name', (ifnull(debits.debitamount,0)-ifnull(credits.creditamount,0)) as 'balance' "
-                + "from (select acc_gl_account.gl_code as 'glcode',name,sum(amount) as 'debitamount' "
-                + "from acc_gl_journal_entry,acc_gl_account "
-                + "where acc_gl_account.id = acc_gl_journal_entry.account_id "
-                + "and acc_gl_journal_entry.type_enum=2 " + "and acc_gl_journal_entry.entry_date <= "
-                + endDate
-                + " and acc_gl_journal_entry.entry_date > "
-                + startDate
-                +
-                // "and (acc_gl_journal_entry.office_id=${branch} or ${branch}=1) "
-                // +
-                " group by glcode "
-                + "order by glcode) debits "
-                + "LEFT OUTER JOIN "
-                + "(select acc_gl_account.gl_code as 'glcode',name,sum(amount) as 'creditamount' "
-                + "from acc_gl_journal_entry,acc_gl_account "
-                + "where acc_gl_account.id = acc_gl_journal_entry.account_id "
-                + "and acc_gl_journal_entry.type_enum=1 "
-                + "and acc_gl_journal_entry.entry_date <= "
-                + endDate
-                + " and acc_gl_journal_entry.entry_date > "
-                + startDate
-                +
-                // "and (acc_gl_journal_entry.office_id=${branch} or ${branch}=1) "
-                // +
-                " group by glcode "
-                + "order by glcode) credits "
-                + "on debits.glcode=credits.glcode "
-                + "union "
-                + "select credits.glcode as 'glcode', credits.name as 'name', (ifnull(debits.debitamount,0)-ifnull(credits.creditamount,0)) as 'balance' "
-                + "from (select acc_gl_account.gl_code as 'glcode',name,sum(amount) as 'debitamount' "
-                + "from acc_gl_journal_entry,acc_gl_account "
-                + "where acc_gl_account.id = acc_gl_journal_entry.account_id "
-                + "and acc_gl_journal_entry.type_enum=2 "
-                + "and acc_gl_journal_entry.entry_date <= "
-                + endDate
-                + " and acc_gl_journal_entry.entry_date > "
-                + startDate
-                +
-                // "and (acc_gl_journal_entry.office_id=${branch} or ${branch}=1) "
-                // +
-                " group by glcode "
-                + "order by glcode) debits "
-                + "RIGHT OUTER JOIN "
-                + "(select acc_gl_account.gl_code as 'glcode',name,sum(amount) as 'creditamount' "
-                + "from acc_gl_journal_entry,acc_gl_account "
-                + "where acc_gl_account.id = acc_gl_journal_entry.account_id "
-                + "and acc_gl_journal_entry.type_enum=1 "
-                + "and acc_gl_journal_entry.entry_date <= "
-                + endDate
-                + " and acc_gl_journal_entry.entry_date > " + startDate +
-                // "and (acc_gl_journal_entry.office_id=${branch} or ${branch}=1) "
-                // +
-                " group by name " + "order by glcode) credits " + "on debits.glcode=credits.glcode;";
-        return sql;
-    }
-
-    private void setupBalanceMap(final String sql) {
-        if (this.accountBalanceMap == null) {
-            this.accountBalanceMap = new HashMap<>();
-            final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(sql);
-            while (rs.next()) {
-                this.accountBalanceMap.put(rs.getString("glcode"), rs.getBigDecimal("balance"));
-            }
+    /**
+     * @return the balance (debits minus credits) of every GL account with
+     *         entries after the start date up to the end date, by GL code
+     */
+    private Map<String, BigDecimal> retrieveAccountBalances(final Date startDate, final Date endDate) {
+        final String sql = "select ga.gl_code as glcode, sum(db.debit_amount) - sum(db.credit_amount) as balance "
+                + "from acc_gl_daily_balance db join acc_gl_account ga on ga.id = db.account_id "
+                + "where db.entry_date > ? and db.entry_date <= ? group by ga.gl_code";
+        final Map<String, BigDecimal> accountBalances = new HashMap<>();
+        final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(sql, startDate, endDate);
+        while (rs.next()) {
+            accountBalances.put(rs.getString("glcode"), rs.getBigDecimal("balance"));
         }
+        return accountBalances;
     }
 
     // Calculate Taxonomy value from expression
-    private BigDecimal processMappingString(String mappingString) {
+    private BigDecimal processMappingString(String mappingString, final Map<String, BigDecimal> accountBalances) {
         final ArrayList<String> glCodes = getGLCodes(mappingString);
         for (final String glcode : glCodes) {
 
-            final BigDecimal balance = this.accountBalanceMap.get(glcode);
+            final BigDecimal balance = accountBalances.get(glcode);
             mappingString = mappingString.replaceAll("\\{" + glcode + "\\}", balance != null ? balance.toString() : "0");
         }
 
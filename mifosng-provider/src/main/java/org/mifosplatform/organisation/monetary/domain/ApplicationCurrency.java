@@ -9,12 +9,15 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.mifosplatform.organisation.monetary.data.CurrencyData;
 import org.mifosplatform.organisation.office.domain.OrganisationCurrency;
 import org.springframework.data.jpa.domain.AbstractPersistable;
 
 @Entity
 @Table(name = "m_currency")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class ApplicationCurrency extends AbstractPersistable<Long> {
 
     @Column(name = "code", nullable = false, length = 3)
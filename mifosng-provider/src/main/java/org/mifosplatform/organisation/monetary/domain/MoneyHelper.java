@@ -16,7 +16,6 @@ import org.springframework.stereotype.Component;
 @Component
 public class MoneyHelper {
     
-    private static RoundingMode roundingMode = null;
     private static ConfigurationDomainService staticConfigurationDomainService;
     
     @Autowired
@@ -27,12 +26,12 @@ public class MoneyHelper {
         staticConfigurationDomainService = configurationDomainService;
     }
 
-    
+    /**
+     * @return the rounding mode configured for the current tenant, read from
+     *         the tenant's configuration snapshot
+     */
     public static RoundingMode getRoundingMode() {
-        if (roundingMode == null) {
-            roundingMode = RoundingMode.valueOf(staticConfigurationDomainService.getRoundingMode());
-        }
-        return roundingMode;
+        return RoundingMode.valueOf(staticConfigurationDomainService.getRoundingMode());
     }
 
 }
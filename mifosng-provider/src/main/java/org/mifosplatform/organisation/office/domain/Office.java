@@ -6,6 +6,8 @@
 package org.mifosplatform.organisation.office.domain;
 
 import org.apache.commons.lang.StringUtils;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.joda.time.LocalDate;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.organisation.office.exception.CannotUpdateOfficeWithParentOfficeSameAsSelf;
@@ -31,6 +33,7 @@ import java.util.Map;
 @Entity
 @Table(name = "m_office", uniqueConstraints = { @UniqueConstraint(columnNames = { "name" }, name = "name_org"),
         @UniqueConstraint(columnNames = { "external_id" }, name = "externalid_org") })
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Office extends AbstractPersistable<Long> {
 
     @OneToMany(fetch = FetchType.EAGER)
@@ -12,6 +12,8 @@ import java.util.Map;
 import javax.persistence.*;
 
 import org.apache.commons.lang.StringUtils;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.joda.time.LocalDate;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.EnumOptionData;
@@ -23,6 +25,7 @@ import org.springframework.data.jpa.domain.AbstractPersistable;
 @Table(name = "m_staff", uniqueConstraints = { @UniqueConstraint(columnNames = { "display_name" }, name = "display_name"),
         @UniqueConstraint(columnNames = { "external_id" }, name = "external_id_UNIQUE"),
         @UniqueConstraint(columnNames = { "mobile_no" }, name = "mobile_no_UNIQUE") })
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Staff extends AbstractPersistable<Long> {
 
     @Column(name = "firstname", length = 50)
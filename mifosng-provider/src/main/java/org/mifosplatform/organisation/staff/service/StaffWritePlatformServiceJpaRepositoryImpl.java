@@ -9,6 +9,7 @@ import java.math.BigInteger;
 import java.util.Map;
 
 import org.apache.commons.lang.StringUtils;
+import org.mifosplatform.infrastructure.cache.service.SecondLevelCacheService;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
@@ -36,13 +37,16 @@ public class StaffWritePlatformServiceJpaRepositoryImpl implements StaffWritePla
     private final StaffCommandFromApiJsonDeserializer fromApiJsonDeserializer;
     private final StaffRepository staffRepository;
     private final OfficeRepository officeRepository;
+    private final SecondLevelCacheService secondLevelCacheService;
 
     @Autowired
     public StaffWritePlatformServiceJpaRepositoryImpl(final StaffCommandFromApiJsonDeserializer fromApiJsonDeserializer,
-            final StaffRepository staffRepository, final OfficeRepository officeRepository) {
+            final StaffRepository staffRepository, final OfficeRepository officeRepository,
+            final SecondLevelCacheService secondLevelCacheService) {
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.staffRepository = staffRepository;
         this.officeRepository = officeRepository;
+        this.secondLevelCacheService = secondLevelCacheService;
     }
 
     @Transactional
@@ -74,6 +78,7 @@ public class StaffWritePlatformServiceJpaRepositoryImpl implements StaffWritePla
     @Transactional
     @Override
     public CommandProcessingResult updateStaff(final Long staffId, final JsonCommand command) {
+        this.secondLevelCacheService.evictAfterCommit(Staff.class);
 
         try {
             this.fromApiJsonDeserializer.validateForUpdate(command.json(), staffId);
@@ -6,6 +6,7 @@
 package org.mifosplatform.organisation.teller.service;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -23,6 +24,7 @@ import org.mifosplatform.accounting.glaccount.service.GLAccountReadPlatformServi
 import org.mifosplatform.accounting.journalentry.data.JournalEntryAssociationParametersData;
 import org.mifosplatform.accounting.journalentry.domain.JournalEntry;
 import org.mifosplatform.accounting.journalentry.domain.JournalEntryRepository;
+import org.mifosplatform.accounting.journalentry.service.JournalEntryDailyBalanceService;
 import org.mifosplatform.accounting.journalentry.domain.JournalEntryType;
 import org.mifosplatform.accounting.journalentry.exception.JournalEntryInvalidException;
 import org.mifosplatform.accounting.journalentry.exception.JournalEntryInvalidException.GL_JOURNAL_ENTRY_INVALID_REASON;
@@ -80,6 +82,7 @@ public class TellerWritePlatformServiceJpaImpl implements TellerWritePlatformSer
     private final TellerManagementReadPlatformService tellerManagementReadPlatformService;
     private final GLAccountReadPlatformService glAccountReadPlatformService;
     private final AppUserRepository appUserRepository;
+    private final JournalEntryDailyBalanceService journalEntryDailyBalanceService;
 
     @Autowired
     public TellerWritePlatformServiceJpaImpl(final PlatformSecurityContext context,
@@ -89,7 +92,8 @@ public class TellerWritePlatformServiceJpaImpl implements TellerWritePlatformSer
             JournalEntryRepository glJournalEntryRepository,
             FinancialActivityAccountRepositoryWrapper financialActivityAccountRepositoryWrapper,
              final TellerManagementReadPlatformService tellerManagementReadPlatformService,
-             final GLAccountReadPlatformService glAccountReadPlatformService, final AppUserRepository appUserRepository) {
+             final GLAccountReadPlatformService glAccountReadPlatformService, final AppUserRepository appUserRepository,
+             final JournalEntryDailyBalanceService journalEntryDailyBalanceService) {
         this.context = context;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.tellerRepository = tellerRepository;
@@ -103,6 +107,7 @@ public class TellerWritePlatformServiceJpaImpl implements TellerWritePlatformSer
         this.tellerManagementReadPlatformService = tellerManagementReadPlatformService;
         this.glAccountReadPlatformService = glAccountReadPlatformService;
         this.appUserRepository = appUserRepository;
+        this.journalEntryDailyBalanceService = journalEntryDailyBalanceService;
     }
 
     @Override
@@ -602,6 +607,7 @@ public class TellerWritePlatformServiceJpaImpl implements TellerWritePlatformSer
 
             this.glJournalEntryRepository.saveAndFlush(debitJournalEntry);
             this.glJournalEntryRepository.saveAndFlush(creditJournalEntry);
+            this.journalEntryDailyBalanceService.addJournalEntries(Arrays.asList(debitJournalEntry, creditJournalEntry));
 
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
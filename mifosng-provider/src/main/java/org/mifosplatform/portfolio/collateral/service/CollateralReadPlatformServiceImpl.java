@@ -25,6 +25,7 @@ import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class CollateralReadPlatformServiceImpl implements CollateralReadPlatformService {
@@ -105,6 +106,7 @@ public class CollateralReadPlatformServiceImpl implements CollateralReadPlatform
 
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<CollateralData> retrieveCollateralsForValidLoan(final Long loanId) {
         final Loan loan = this.loanRepository.findOne(loanId);
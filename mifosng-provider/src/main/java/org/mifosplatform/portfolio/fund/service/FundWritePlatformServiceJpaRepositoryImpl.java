@@ -7,6 +7,7 @@ package org.mifosplatform.portfolio.fund.service;
 
 import java.util.Map;
 
+import org.mifosplatform.infrastructure.cache.service.SecondLevelCacheService;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
@@ -32,13 +33,16 @@ public class FundWritePlatformServiceJpaRepositoryImpl implements FundWritePlatf
     private final PlatformSecurityContext context;
     private final FundCommandFromApiJsonDeserializer fromApiJsonDeserializer;
     private final FundRepository fundRepository;
+    private final SecondLevelCacheService secondLevelCacheService;
 
     @Autowired
     public FundWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
-            final FundCommandFromApiJsonDeserializer fromApiJsonDeserializer, final FundRepository fundRepository) {
+            final FundCommandFromApiJsonDeserializer fromApiJsonDeserializer, final FundRepository fundRepository,
+            final SecondLevelCacheService secondLevelCacheService) {
         this.context = context;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.fundRepository = fundRepository;
+        this.secondLevelCacheService = secondLevelCacheService;
     }
 
     @Transactional
@@ -66,6 +70,7 @@ public class FundWritePlatformServiceJpaRepositoryImpl implements FundWritePlatf
     @Override
     @CacheEvict(value = "funds", key = "T(org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat('fn')")
     public CommandProcessingResult updateFund(final Long fundId, final JsonCommand command) {
+        this.secondLevelCacheService.evictAfterCommit(Fund.class);
 
         try {
             this.context.authenticatedUser();
@@ -6,9 +6,12 @@
 package org.mifosplatform.portfolio.loanaccount.domain;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import org.joda.time.LocalDate;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.mifosplatform.portfolio.collectionsheet.command.SingleRepaymentCommand;
 import org.mifosplatform.portfolio.loanaccount.data.HolidayDetailDTO;
 import org.mifosplatform.portfolio.paymentdetail.domain.PaymentDetail;
 
@@ -18,6 +21,18 @@ public interface LoanAccountDomainService {
             BigDecimal transactionAmount, PaymentDetail paymentDetail, String noteText, String txnExternalId,
             final boolean isRecoveryRepayment, boolean isAccountTransfer, HolidayDetailDTO holidatDetailDto, Boolean isHolidayValidationDone);
 
+    /**
+     * Makes the repayments of a collection sheet as one unit: the loans are
+     * loaded together, every repayment is applied in memory before anything
+     * is written, and the changes are flushed once.
+     * 
+     * @throws PlatformApiDataValidationException
+     *             with an error for every loan whose repayment was rejected,
+     *             in which case none of the repayments is made
+     */
+    List<LoanTransaction> makeBulkRepayment(List<SingleRepaymentCommand> repayments, LocalDate transactionDate, String noteText,
+            HolidayDetailDTO holidayDetailDto, Boolean isHolidayValidationDone);
+
     LoanTransaction makeRefund(Long accountId, CommandProcessingResultBuilder builderResult, LocalDate transactionDate,
             BigDecimal transactionAmount, PaymentDetail paymentDetail, String noteText, String txnExternalId);
 
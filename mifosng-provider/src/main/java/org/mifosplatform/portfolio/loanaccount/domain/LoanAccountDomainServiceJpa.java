@@ -16,6 +16,8 @@ import org.mifosplatform.infrastructure.configuration.domain.ConfigurationDomain
 import org.mifosplatform.infrastructure.core.data.ApiParameterError;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.mifosplatform.infrastructure.core.data.DataValidatorBuilder;
+import org.mifosplatform.infrastructure.core.exception.AbstractPlatformDomainRuleException;
+import org.mifosplatform.infrastructure.core.exception.AbstractPlatformResourceNotFoundException;
 import org.mifosplatform.infrastructure.core.exception.GeneralPlatformDomainRuleException;
 import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.mifosplatform.infrastructure.core.service.DateUtils;
@@ -37,6 +39,7 @@ import org.mifosplatform.portfolio.account.domain.StandingInstructionRepository;
 import org.mifosplatform.portfolio.account.domain.StandingInstructionStatus;
 import org.mifosplatform.portfolio.client.domain.Client;
 import org.mifosplatform.portfolio.client.exception.ClientNotActiveException;
+import org.mifosplatform.portfolio.collectionsheet.command.SingleRepaymentCommand;
 import org.mifosplatform.portfolio.common.BusinessEventNotificationConstants.BUSINESS_ENTITY;
 import org.mifosplatform.portfolio.common.BusinessEventNotificationConstants.BUSINESS_EVENTS;
 import org.mifosplatform.portfolio.common.domain.PeriodFrequencyType;
@@ -46,6 +49,7 @@ import org.mifosplatform.portfolio.group.exception.GroupNotActiveException;
 import org.mifosplatform.portfolio.loanaccount.data.HolidayDetailDTO;
 import org.mifosplatform.portfolio.loanaccount.data.LoanScheduleAccrualData;
 import org.mifosplatform.portfolio.loanaccount.data.ScheduleGeneratorDTO;
+import org.mifosplatform.portfolio.loanaccount.exception.LoanNotFoundException;
 import org.mifosplatform.portfolio.loanaccount.service.LoanAccrualPlatformService;
 import org.mifosplatform.portfolio.loanaccount.service.LoanAssembler;
 import org.mifosplatform.portfolio.loanaccount.service.LoanUtilService;
@@ -220,6 +224,168 @@ public class LoanAccountDomainServiceJpa implements LoanAccountDomainService {
         return newRepaymentTransaction;
     }
 
+    @Transactional
+    @Override
+    public List<LoanTransaction> makeBulkRepayment(final List<SingleRepaymentCommand> repayments, final LocalDate transactionDate,
+            final String noteText, final HolidayDetailDTO holidayDetailDto, final Boolean isHolidayValidationDone) {
+        final AppUser currentUser = getAppUserIfPresent();
+
+        final Set<Long> loanIds = new HashSet<>();
+        for (final SingleRepaymentCommand repayment : repayments) {
+            loanIds.add(repayment.getLoanId());
+        }
+        final Map<Long, Loan> loansById = new HashMap<>();
+        for (final Loan loan : this.loanRepository.findAllWithFetchPlan(loanIds, LoanFetchPlan.REPAYMENT)) {
+            this.loanAccountAssembler.setHelpers(loan);
+            loansById.put(loan.getId(), loan);
+        }
+
+        // apply every repayment in memory first, so that all rejected
+        // repayments are reported at once and nothing is written for them
+        final List<BulkRepayment> appliedRepayments = new ArrayList<>(repayments.size());
+        final List<ApiParameterError> dataValidationErrors = new ArrayList<>();
+        final Set<Long> repaidLoanIds = new HashSet<>();
+        for (final SingleRepaymentCommand repayment : repayments) {
+            final Long loanId = repayment.getLoanId();
+            // journal entries and accruals are posted once per applied
+            // repayment, which is only right for one repayment per loan
+            if (!repaidLoanIds.add(loanId)) {
+                dataValidationErrors.add(repaymentError(loanId, "error.msg.collectionsheet.loan.repaid.more.than.once", "Loan with identifier "
+                        + loanId + " is repaid more than once in the collection sheet."));
+                continue;
+            }
+            try {
+                final Loan loan = loansById.get(loanId);
+                if (loan == null) { throw new LoanNotFoundException(loanId); }
+                appliedRepayments.add(applyRepayment(loan, repayment, transactionDate, holidayDetailDto, isHolidayValidationDone,
+                        currentUser));
+            } catch (final AbstractPlatformDomainRuleException e) {
+                dataValidationErrors.add(repaymentError(loanId, e.getGlobalisationMessageCode(), e.getDefaultUserMessage()));
+            } catch (final AbstractPlatformResourceNotFoundException e) {
+                dataValidationErrors.add(repaymentError(loanId, e.getGlobalisationMessageCode(), e.getDefaultUserMessage()));
+            } catch (final PlatformApiDataValidationException e) {
+                for (final ApiParameterError error : e.getErrors()) {
+                    dataValidationErrors.add(repaymentError(loanId, error.getUserMessageGlobalisationCode(),
+                            error.getDefaultUserMessage()));
+                }
+            }
+        }
+        if (!dataValidationErrors.isEmpty()) { throw new PlatformApiDataValidationException("validation.msg.validation.errors.exist",
+                "Validation errors exist.", dataValidationErrors); }
+
+        // write the loans, their schedules and transactions, and flush them
+        // once so that the updates go out as JDBC batches
+        for (final BulkRepayment appliedRepayment : appliedRepayments) {
+            final Loan loan = appliedRepayment.loan;
+            saveLoanTransactionWithDataIntegrityViolationChecks(appliedRepayment.transaction);
+            saveLoanWithDataIntegrityViolationChecks(loan);
+            final ChangedTransactionDetail changedTransactionDetail = appliedRepayment.changedTransactionDetail;
+            if (changedTransactionDetail != null) {
+                for (Map.Entry<Long, LoanTransaction> mapEntry : changedTransactionDetail.getNewTransactionMappings().entrySet()) {
+                    saveLoanTransactionWithDataIntegrityViolationChecks(mapEntry.getValue());
+                    loan.getLoanTransactions().add(mapEntry.getValue());
+                    updateLoanTransaction(mapEntry.getKey(), mapEntry.getValue());
+                }
+                appliedRepayment.transaction.getLoan().updateChangedTransactionDetail(changedTransactionDetail);
+            }
+            if (StringUtils.isNotBlank(noteText)) {
+                this.noteRepository.save(Note.loanTransactionNote(loan, appliedRepayment.transaction, noteText));
+            }
+        }
+        this.loanRepository.flush();
+
+        // journal entries are buffered until commit; accruals are added for
+        // all loans accrued till the same date together
+        final Map<LocalDate, Collection<LoanScheduleAccrualData>> accrualsByDate = new HashMap<>();
+        final List<LoanTransaction> transactions = new ArrayList<>(appliedRepayments.size());
+        for (final BulkRepayment appliedRepayment : appliedRepayments) {
+            final Loan loan = appliedRepayment.loan;
+            postJournalEntries(loan, appliedRepayment.existingTransactionIds, appliedRepayment.existingReversedTransactionIds, false);
+            final Collection<LoanScheduleAccrualData> accruals = collectAccruals(loan);
+            if (!accruals.isEmpty()) {
+                Collection<LoanScheduleAccrualData> accrualsOfDate = accrualsByDate.get(loan.getAccruedTill());
+                if (accrualsOfDate == null) {
+                    accrualsOfDate = new ArrayList<>();
+                    accrualsByDate.put(loan.getAccruedTill(), accrualsOfDate);
+                }
+                accrualsOfDate.addAll(accruals);
+            }
+            transactions.add(appliedRepayment.transaction);
+        }
+        for (final Map.Entry<LocalDate, Collection<LoanScheduleAccrualData>> accruals : accrualsByDate.entrySet()) {
+            addPeriodicAccruals(accruals.getKey(), accruals.getValue());
+        }
+
+        for (final BulkRepayment appliedRepayment : appliedRepayments) {
+            this.loanSuspendAccruedIncomeWritePlatformService.suspendedIncomeOutOfNPA(appliedRepayment.loan, appliedRepayment.transaction);
+            disableStandingInstructionsLinkedToClosedLoan(appliedRepayment.loan);
+        }
+
+        // listeners are told once every repayment of the sheet has been made
+        for (final LoanTransaction transaction : transactions) {
+            this.businessEventNotifierService.notifyBusinessEventWasExecuted(BUSINESS_EVENTS.LOAN_MAKE_REPAYMENT,
+                    constructEntityMap(BUSINESS_ENTITY.LOAN_TRANSACTION, transaction));
+        }
+
+        return transactions;
+    }
+
+    /**
+     * Applies a repayment of a collection sheet to the loan in memory.
+     */
+    private BulkRepayment applyRepayment(final Loan loan, final SingleRepaymentCommand repayment, final LocalDate transactionDate,
+            final HolidayDetailDTO holidayDetailDto, final Boolean isHolidayValidationDone, final AppUser currentUser) {
+        checkClientOrGroupActive(loan);
+        this.businessEventNotifierService.notifyBusinessEventToBeExecuted(BUSINESS_EVENTS.LOAN_MAKE_REPAYMENT,
+                constructEntityMap(BUSINESS_ENTITY.LOAN, loan));
+
+        final PaymentDetail paymentDetail = repayment.getPaymentDetail();
+        final Money repaymentAmount = Money.of(loan.getCurrency(), repayment.getTransactionAmount());
+        final LoanTransaction newRepaymentTransaction = LoanTransaction.repayment(loan.getOffice(), repaymentAmount, paymentDetail,
+                transactionDate, null, new LocalDateTime(), currentUser);
+        newRepaymentTransaction.updateIsAccountTransfer(false);
+
+        LocalDate recalculateFrom = null;
+        if (loan.repaymentScheduleDetail().isInterestRecalculationEnabled()) {
+            recalculateFrom = transactionDate;
+        }
+        final ScheduleGeneratorDTO scheduleGeneratorDTO = this.loanUtilService.buildScheduleGeneratorDTO(loan, recalculateFrom,
+                holidayDetailDto);
+
+        final BulkRepayment appliedRepayment = new BulkRepayment(loan, newRepaymentTransaction);
+        final boolean isRecoveryRepayment = false;
+        appliedRepayment.changedTransactionDetail = loan.makeRepayment(newRepaymentTransaction, defaultLoanLifecycleStateMachine(),
+                appliedRepayment.existingTransactionIds, appliedRepayment.existingReversedTransactionIds, isRecoveryRepayment,
+                scheduleGeneratorDTO, currentUser, isHolidayValidationDone);
+        return appliedRepayment;
+    }
+
+    private static ApiParameterError repaymentError(final Long loanId, final String globalisationMessageCode,
+            final String defaultUserMessage) {
+        final ApiParameterError error = ApiParameterError.parameterError(globalisationMessageCode, defaultUserMessage,
+                "bulkRepaymentTransactions", loanId);
+        error.setValue(loanId);
+        return error;
+    }
+
+    /**
+     * A repayment of a collection sheet applied to its loan but not written
+     * yet.
+     */
+    private static final class BulkRepayment {
+
+        private final Loan loan;
+        private final LoanTransaction transaction;
+        private final List<Long> existingTransactionIds = new ArrayList<>();
+        private final List<Long> existingReversedTransactionIds = new ArrayList<>();
+        private ChangedTransactionDetail changedTransactionDetail;
+
+        BulkRepayment(final Loan loan, final LoanTransaction transaction) {
+            this.loan = loan;
+            this.transaction = transaction;
+        }
+    }
+
     private void saveLoanTransactionWithDataIntegrityViolationChecks(LoanTransaction newRepaymentTransaction) {
         try {
             this.loanTransactionRepository.save(newRepaymentTransaction);
@@ -363,7 +529,7 @@ public class LoanAccountDomainServiceJpa implements LoanAccountDomainService {
             final String txnExternalId) {
         AppUser currentUser = getAppUserIfPresent();
         boolean isAccountTransfer = true;
-        final Loan loan = this.loanAccountAssembler.assembleFrom(accountId);
+        final Loan loan = this.loanAccountAssembler.assembleFrom(accountId, LoanFetchPlan.REPAYMENT);
         checkClientOrGroupActive(loan);
         this.businessEventNotifierService.notifyBusinessEventToBeExecuted(BUSINESS_EVENTS.LOAN_REFUND,
                 constructEntityMap(BUSINESS_ENTITY.LOAN, loan));
@@ -407,7 +573,7 @@ public class LoanAccountDomainServiceJpa implements LoanAccountDomainService {
     public LoanTransaction makeDisburseTransaction(final Long loanId, final LocalDate transactionDate, final BigDecimal transactionAmount,
             final PaymentDetail paymentDetail, final String noteText, final String txnExternalId) {
         AppUser currentUser = getAppUserIfPresent();
-        final Loan loan = this.loanAccountAssembler.assembleFrom(loanId);
+        final Loan loan = this.loanAccountAssembler.assembleFrom(loanId, LoanFetchPlan.DISBURSEMENT);
         checkClientOrGroupActive(loan);
         boolean isAccountTransfer = true;
         final List<Long> existingTransactionIds = new ArrayList<>();
@@ -446,10 +612,21 @@ public class LoanAccountDomainServiceJpa implements LoanAccountDomainService {
      */
     @Override
     public void recalculateAccruals(Loan loan) {
+        final Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas = collectAccruals(loan);
+        if (!loanScheduleAccrualDatas.isEmpty()) {
+            addPeriodicAccruals(loan.getAccruedTill(), loanScheduleAccrualDatas);
+        }
+    }
+
+    /**
+     * @return the accruals of the installments up to the date the loan is
+     *         accrued till, empty if its income is not to be re-accrued
+     */
+    private Collection<LoanScheduleAccrualData> collectAccruals(final Loan loan) {
+        Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas = new ArrayList<>();
         LocalDate accruedTill = loan.getAccruedTill();
         if (!loan.isPeriodicAccrualAccountingEnabledOnLoanProduct() || !loan.repaymentScheduleDetail().isInterestRecalculationEnabled()
-                || accruedTill == null || loan.isNpa() || !loan.status().isActive()) { return; }
-        Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas = new ArrayList<>();
+                || accruedTill == null || loan.isNpa() || !loan.status().isActive()) { return loanScheduleAccrualDatas; }
         List<LoanRepaymentScheduleInstallment> installments = loan.fetchRepaymentScheduleInstallments();
         Long loanId = loan.getId();
         Long officeId = loan.getOfficeId();
@@ -494,12 +671,14 @@ public class LoanAccountDomainServiceJpa implements LoanAccountDomainService {
             }
         }
 
-        if (!loanScheduleAccrualDatas.isEmpty()) {
-            String error = this.loanAccrualPlatformService.addPeriodicAccruals(accruedTill, loanScheduleAccrualDatas);
-            if (error.length() > 0) {
-                String globalisationMessageCode = "error.msg.accrual.exception";
-                throw new GeneralPlatformDomainRuleException(globalisationMessageCode, error, error);
-            }
+        return loanScheduleAccrualDatas;
+    }
+
+    private void addPeriodicAccruals(final LocalDate accruedTill, final Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas) {
+        String error = this.loanAccrualPlatformService.addPeriodicAccruals(accruedTill, loanScheduleAccrualDatas);
+        if (error.length() > 0) {
+            String globalisationMessageCode = "error.msg.accrual.exception";
+            throw new GeneralPlatformDomainRuleException(globalisationMessageCode, error, error);
         }
     }
 
@@ -535,7 +714,7 @@ public class LoanAccountDomainServiceJpa implements LoanAccountDomainService {
     @Override
     public LoanTransaction makeRefundForActiveLoan(Long accountId, CommandProcessingResultBuilder builderResult, LocalDate transactionDate,
             BigDecimal transactionAmount, PaymentDetail paymentDetail, String noteText, String txnExternalId) {
-        final Loan loan = this.loanAccountAssembler.assembleFrom(accountId);
+        final Loan loan = this.loanAccountAssembler.assembleFrom(accountId, LoanFetchPlan.REPAYMENT);
         checkClientOrGroupActive(loan);
         this.businessEventNotifierService.notifyBusinessEventToBeExecuted(BUSINESS_EVENTS.LOAN_REFUND,
                 constructEntityMap(BUSINESS_ENTITY.LOAN, loan));
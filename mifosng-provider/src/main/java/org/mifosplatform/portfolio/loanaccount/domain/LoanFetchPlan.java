@@ -0,0 +1,50 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.domain;
+
+/**
+ * The collections of a {@link Loan} an operation works on, loaded up front
+ * by {@link LoanRepositoryCustom} with one query each. Collections left out
+ * are loaded lazily, with one query, if the operation touches them after all.
+ */
+public enum LoanFetchPlan {
+
+    /**
+     * Loan account with its summary only, e.g. for status checks.
+     */
+    SUMMARY, //
+
+    /**
+     * Repayments, waivers, write-offs and adjustments: the transactions are
+     * reprocessed against the schedule and the charges.
+     */
+    REPAYMENT("repaymentScheduleInstallments", "loanTransactions", "charges", "disbursementDetails"), //
+
+    /**
+     * Rescheduling and interest recalculation, which also apply the term
+     * variations.
+     */
+    SCHEDULE_REGENERATION("repaymentScheduleInstallments", "loanTransactions", "charges", "disbursementDetails", "loanTermVariations"), //
+
+    /**
+     * Approval and disbursal, which also book the tranche charges.
+     */
+    DISBURSEMENT("repaymentScheduleInstallments", "loanTransactions", "charges", "disbursementDetails", "loanTermVariations",
+            "trancheCharges");
+
+    private final String[] collections;
+
+    private LoanFetchPlan(final String... collections) {
+        this.collections = collections;
+    }
+
+    /**
+     * @return the names of the collections of {@link Loan} to fetch
+     */
+    public String[] getCollections() {
+        return this.collections.clone();
+    }
+}
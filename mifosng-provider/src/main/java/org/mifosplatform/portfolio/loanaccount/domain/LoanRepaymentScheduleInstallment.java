@@ -6,7 +6,7 @@
 package org.mifosplatform.portfolio.loanaccount.domain;
 
 import org.joda.time.LocalDate;
-import org.mifosplatform.infrastructure.core.domain.AbstractAuditableCustom;
+import org.mifosplatform.infrastructure.core.domain.AbstractPooledIdAuditableCustom;
 import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
 import org.mifosplatform.organisation.monetary.domain.Money;
 import org.mifosplatform.useradministration.domain.AppUser;
@@ -24,7 +24,7 @@ import java.util.Date;
 
 @Entity
 @Table(name = "m_loan_repayment_schedule")
-public final class LoanRepaymentScheduleInstallment extends AbstractAuditableCustom<AppUser, Long> {
+public final class LoanRepaymentScheduleInstallment extends AbstractPooledIdAuditableCustom<AppUser> {
 
     @ManyToOne(optional = false)
     @JoinColumn(name = "loan_id")
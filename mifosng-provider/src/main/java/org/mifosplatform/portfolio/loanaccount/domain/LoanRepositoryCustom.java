@@ -0,0 +1,24 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.domain;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface LoanRepositoryCustom {
+
+    /**
+     * @return the loan with the collections of the fetch plan loaded, or
+     *         <code>null</code> when there is no such loan
+     */
+    Loan findOneWithFetchPlan(Long id, LoanFetchPlan fetchPlan);
+
+    /**
+     * @return the loans with the collections of the fetch plan loaded, in one
+     *         query per collection whatever the number of loans
+     */
+    List<Loan> findAllWithFetchPlan(Collection<Long> ids, LoanFetchPlan fetchPlan);
+}
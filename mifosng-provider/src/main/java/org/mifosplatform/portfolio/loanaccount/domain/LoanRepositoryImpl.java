@@ -0,0 +1,59 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.domain;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Loads loans following a {@link LoanFetchPlan}: the loans in one query,
+ * then each collection of the plan in a query of its own. The collections
+ * cannot be join fetched in a single query, Hibernate refuses to fetch
+ * several lists at once and joining the sets would multiply the rows.
+ * 
+ * The queries share a transaction, joining the one of the caller if any, so
+ * that they initialize the collections of the same loan instances.
+ */
+@Repository
+public class LoanRepositoryImpl implements LoanRepositoryCustom {
+
+    private static final String LOANS_QUERY = "select loan from Loan loan where loan.id in :ids";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Loan findOneWithFetchPlan(final Long id, final LoanFetchPlan fetchPlan) {
+        final List<Loan> loans = findAllWithFetchPlan(Collections.singletonList(id), fetchPlan);
+        return loans.isEmpty() ? null : loans.get(0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Loan> findAllWithFetchPlan(final Collection<Long> ids, final LoanFetchPlan fetchPlan) {
+        if (ids.isEmpty()) { return Collections.emptyList(); }
+
+        final List<Loan> loans = this.entityManager.createQuery(LOANS_QUERY, Loan.class).setParameter("ids", ids).getResultList();
+        if (loans.isEmpty()) { return loans; }
+
+        // the loans are managed already: each query only initializes one
+        // collection of them
+        for (final String collection : fetchPlan.getCollections()) {
+            this.entityManager
+                    .createQuery("select distinct loan from Loan loan left join fetch loan." + collection + " where loan.id in :ids",
+                            Loan.class).setParameter("ids", ids).getResultList();
+        }
+        return loans;
+    }
+}
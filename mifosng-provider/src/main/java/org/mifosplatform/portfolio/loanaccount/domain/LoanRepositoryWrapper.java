@@ -35,6 +35,12 @@ public class LoanRepositoryWrapper {
         return loan;
     }
 
+    public Loan findOneWithNotFoundDetection(final Long id, final LoanFetchPlan fetchPlan) {
+        final Loan loan = this.repository.findOneWithFetchPlan(id, fetchPlan);
+        if (loan == null) { throw new LoanNotFoundException(id); }
+        return loan;
+    }
+
     public Collection<Loan> findActiveLoansByLoanIdAndGroupId(Long clientId, Long groupId) {
         final Collection<Integer> loanStatuses = new ArrayList<>(Arrays.asList(LoanStatus.SUBMITTED_AND_PENDING_APPROVAL.getValue(),
                 LoanStatus.APPROVED.getValue(), LoanStatus.ACTIVE.getValue(), LoanStatus.OVERPAID.getValue()));
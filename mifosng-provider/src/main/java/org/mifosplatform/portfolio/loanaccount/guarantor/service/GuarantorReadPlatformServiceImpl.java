@@ -38,6 +38,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class GuarantorReadPlatformServiceImpl implements GuarantorReadPlatformService {
@@ -59,6 +60,7 @@ public class GuarantorReadPlatformServiceImpl implements GuarantorReadPlatformSe
         this.guarantorInterestPaymentRepository = guarantorInterestPaymentRepository;
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<GuarantorData> retrieveGuarantorsForValidLoan(final Long loanId) {
         final Loan loan = this.loanRepository.findOne(loanId);
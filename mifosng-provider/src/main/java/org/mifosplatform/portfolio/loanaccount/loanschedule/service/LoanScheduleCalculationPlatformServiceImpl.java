@@ -29,6 +29,7 @@ import org.mifosplatform.portfolio.accountdetails.domain.AccountType;
 import org.mifosplatform.portfolio.loanaccount.data.ScheduleGeneratorDTO;
 import org.mifosplatform.portfolio.loanaccount.domain.Loan;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanDisbursementDetails;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanFetchPlan;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanRepaymentScheduleTransactionProcessorFactory;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanTransaction;
@@ -48,6 +49,7 @@ import org.mifosplatform.portfolio.loanproduct.exception.LoanProductNotFoundExce
 import org.mifosplatform.portfolio.loanproduct.serialization.LoanProductDataValidator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleCalculationPlatformService {
@@ -127,10 +129,11 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
         return this.loanScheduleAssembler.assembleLoanScheduleFrom(query.parsedJson());
     }
 
+    @Transactional(readOnly = true)
     @Override
     public void updateFutureSchedule(LoanScheduleData loanScheduleData, final Long loanId) {
 
-        final Loan loan = this.loanAssembler.assembleFrom(loanId);
+        final Loan loan = this.loanAssembler.assembleFrom(loanId, LoanFetchPlan.SCHEDULE_REGENERATION);
 
         LocalDate today = DateUtils.getLocalDateOfTenant();
         final LoanRepaymentScheduleTransactionProcessor loanRepaymentScheduleTransactionProcessor = loanRepaymentScheduleTransactionProcessorFactory
@@ -202,9 +205,10 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
         loanScheduleData.updateFuturePeriods(futureInstallments);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public LoanScheduleData generateLoanScheduleForVariableInstallmentRequest(Long loanId, final String json) {
-        final Loan loan = this.loanAssembler.assembleFrom(loanId);
+        final Loan loan = this.loanAssembler.assembleFrom(loanId, LoanFetchPlan.SCHEDULE_REGENERATION);
         this.loanScheduleAssembler.assempleVariableScheduleFrom(loan, json);
         return constructLoanScheduleData(loan);
     }
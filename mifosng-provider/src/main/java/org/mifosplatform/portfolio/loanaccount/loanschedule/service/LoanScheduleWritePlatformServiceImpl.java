@@ -19,6 +19,7 @@ import org.mifosplatform.portfolio.loanaccount.data.LoanTermVariationsData;
 import org.mifosplatform.portfolio.loanaccount.data.ScheduleGeneratorDTO;
 import org.mifosplatform.portfolio.loanaccount.domain.Loan;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanAccountDomainService;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanFetchPlan;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanTermVariations;
 import org.mifosplatform.portfolio.loanaccount.service.LoanAssembler;
 import org.mifosplatform.portfolio.loanaccount.service.LoanUtilService;
@@ -48,7 +49,7 @@ public class LoanScheduleWritePlatformServiceImpl implements LoanScheduleWritePl
 
     @Override
     public CommandProcessingResult addLoanScheduleVariations(final Long loanId, final JsonCommand command) {
-        final Loan loan = this.loanAssembler.assembleFrom(loanId);
+        final Loan loan = this.loanAssembler.assembleFrom(loanId, LoanFetchPlan.SCHEDULE_REGENERATION);
         Map<Long, LoanTermVariations> loanTermVariations = new HashMap<>();
         for (LoanTermVariations termVariations : loan.getLoanTermVariations()) {
             loanTermVariations.put(termVariations.getId(), termVariations);
@@ -79,7 +80,7 @@ public class LoanScheduleWritePlatformServiceImpl implements LoanScheduleWritePl
 
     @Override
     public CommandProcessingResult deleteLoanScheduleVariations(final Long loanId) {
-        final Loan loan = this.loanAssembler.assembleFrom(loanId);
+        final Loan loan = this.loanAssembler.assembleFrom(loanId, LoanFetchPlan.SCHEDULE_REGENERATION);
         List<LoanTermVariations> variations = loan.getLoanTermVariations();
         List<Long> deletedVariations = new ArrayList<>(variations.size());
         for (LoanTermVariations loanTermVariations : variations) {
@@ -29,6 +29,7 @@ import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class LoanRescheduleRequestReadPlatformServiceImpl implements LoanRescheduleRequestReadPlatformService {
@@ -154,6 +155,7 @@ public class LoanRescheduleRequestReadPlatformServiceImpl implements LoanResched
 
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<LoanRescheduleRequestData> readLoanRescheduleRequests(Long loanId) {
         final Loan loan = this.loanRepository.findOne(loanId);
@@ -179,6 +181,7 @@ public class LoanRescheduleRequestReadPlatformServiceImpl implements LoanResched
         }
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<LoanRescheduleRequestData> readLoanRescheduleRequests(Long loanId, Integer statusEnum) {
         final Loan loan = this.loanRepository.findOne(loanId);
@@ -7,13 +7,15 @@ package org.mifosplatform.portfolio.loanaccount.service;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.joda.time.LocalDate;
 import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
 import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
 import org.mifosplatform.infrastructure.jobs.service.JobName;
+import org.mifosplatform.infrastructure.jobs.service.JobPartitionItemProcessor;
+import org.mifosplatform.infrastructure.jobs.service.PartitionedJobRunner;
 import org.mifosplatform.portfolio.loanaccount.data.LoanScheduleAccrualData;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -23,49 +25,52 @@ public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformServic
 
     private final LoanReadPlatformService loanReadPlatformService;
     private final LoanAccrualWritePlatformService loanAccrualWritePlatformService;
+    private final PartitionedJobRunner partitionedJobRunner;
 
     @Autowired
     public LoanAccrualPlatformServiceImpl(final LoanReadPlatformService loanReadPlatformService,
-            final LoanAccrualWritePlatformService loanAccrualWritePlatformService) {
+            final LoanAccrualWritePlatformService loanAccrualWritePlatformService, final PartitionedJobRunner partitionedJobRunner) {
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanAccrualWritePlatformService = loanAccrualWritePlatformService;
+        this.partitionedJobRunner = partitionedJobRunner;
     }
 
     @Override
     @CronTarget(jobName = JobName.ADD_ACCRUAL_ENTRIES)
     public void addAccrualAccounting() throws JobExecutionException {
         Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas = this.loanReadPlatformService.retriveScheduleAccrualData();
-        StringBuilder sb = new StringBuilder();
-        Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = new HashMap<>();
-        for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
-            if (loanDataMap.containsKey(accrualData.getLoanId())) {
-                loanDataMap.get(accrualData.getLoanId()).add(accrualData);
-            } else {
-                Collection<LoanScheduleAccrualData> accrualDatas = new ArrayList<>();
-                accrualDatas.add(accrualData);
-                loanDataMap.put(accrualData.getLoanId(), accrualDatas);
-            }
-        }
+        final Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = groupByLoan(loanScheduleAccrualDatas);
 
-        for (Map.Entry<Long, Collection<LoanScheduleAccrualData>> mapEntry : loanDataMap.entrySet()) {
-            try {
-                this.loanAccrualWritePlatformService.addAccrualAccounting(mapEntry.getKey(), mapEntry.getValue());
-            } catch (Exception e) {
-                Throwable realCause = e;
-                if (e.getCause() != null) {
-                    realCause = e.getCause();
-                }
-                sb.append("failed to add accural transaction for loan " + mapEntry.getKey() + " with message " + realCause.getMessage());
-            }
-        }
+        final String errors = this.partitionedJobRunner.run(JobName.ADD_ACCRUAL_ENTRIES, loanDataMap.entrySet(),
+                new LoanAccrualItemProcessor() {
+
+                    @Override
+                    public void process(final Map.Entry<Long, Collection<LoanScheduleAccrualData>> mapEntry) throws Exception {
+                        LoanAccrualPlatformServiceImpl.this.loanAccrualWritePlatformService.addAccrualAccounting(mapEntry.getKey(),
+                                mapEntry.getValue());
+                    }
+                });
 
-        if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
+        if (errors.length() > 0) { throw new JobExecutionException(errors); }
     }
 
     @Override
     @CronTarget(jobName = JobName.ADD_PERIODIC_ACCRUAL_ENTRIES)
     public void addPeriodicAccruals() throws JobExecutionException {
-        String errors = addPeriodicAccruals(LocalDate.now());
+        final LocalDate tilldate = LocalDate.now();
+        Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas = this.loanReadPlatformService.retrivePeriodicAccrualData(tilldate);
+        final Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = groupByLoan(loanScheduleAccrualDatas);
+
+        final String errors = this.partitionedJobRunner.run(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES, loanDataMap.entrySet(),
+                new LoanAccrualItemProcessor() {
+
+                    @Override
+                    public void process(final Map.Entry<Long, Collection<LoanScheduleAccrualData>> mapEntry) throws Exception {
+                        LoanAccrualPlatformServiceImpl.this.loanAccrualWritePlatformService.addPeriodicAccruals(tilldate,
+                                mapEntry.getKey(), mapEntry.getValue());
+                    }
+                });
+
         if (errors.length() > 0) { throw new JobExecutionException(errors); }
     }
 
@@ -75,19 +80,14 @@ public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformServic
         return addPeriodicAccruals(tilldate, loanScheduleAccrualDatas);
     }
 
+    /**
+     * Runs on the calling thread, as callers may already participate in a
+     * transaction.
+     */
     @Override
     public String addPeriodicAccruals(final LocalDate tilldate, Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas) {
         StringBuilder sb = new StringBuilder();
-        Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = new HashMap<>();
-        for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
-            if (loanDataMap.containsKey(accrualData.getLoanId())) {
-                loanDataMap.get(accrualData.getLoanId()).add(accrualData);
-            } else {
-                Collection<LoanScheduleAccrualData> accrualDatas = new ArrayList<>();
-                accrualDatas.add(accrualData);
-                loanDataMap.put(accrualData.getLoanId(), accrualDatas);
-            }
-        }
+        Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = groupByLoan(loanScheduleAccrualDatas);
 
         for (Map.Entry<Long, Collection<LoanScheduleAccrualData>> mapEntry : loanDataMap.entrySet()) {
             try {
@@ -104,4 +104,40 @@ public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformServic
         return sb.toString();
     }
 
+    private Map<Long, Collection<LoanScheduleAccrualData>> groupByLoan(final Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas) {
+        Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = new LinkedHashMap<>();
+        for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
+            if (loanDataMap.containsKey(accrualData.getLoanId())) {
+                loanDataMap.get(accrualData.getLoanId()).add(accrualData);
+            } else {
+                Collection<LoanScheduleAccrualData> accrualDatas = new ArrayList<>();
+                accrualDatas.add(accrualData);
+                loanDataMap.put(accrualData.getLoanId(), accrualDatas);
+            }
+        }
+        return loanDataMap;
+    }
+
+    /**
+     * Partitions the accrual work of a job by the office of the loan.
+     */
+    private static abstract class LoanAccrualItemProcessor implements
+            JobPartitionItemProcessor<Map.Entry<Long, Collection<LoanScheduleAccrualData>>> {
+
+        @Override
+        public Long identifierOf(final Map.Entry<Long, Collection<LoanScheduleAccrualData>> mapEntry) {
+            return mapEntry.getKey();
+        }
+
+        @Override
+        public Long partitionKeyOf(final Map.Entry<Long, Collection<LoanScheduleAccrualData>> mapEntry) {
+            return mapEntry.getValue().iterator().next().getOfficeId();
+        }
+
+        @Override
+        public String failureMessage(final Map.Entry<Long, Collection<LoanScheduleAccrualData>> mapEntry, final Throwable realCause) {
+            return "failed to add accural transaction for loan " + mapEntry.getKey() + " with message " + realCause.getMessage();
+        }
+    }
+
 }
@@ -52,6 +52,7 @@ import org.mifosplatform.portfolio.loanaccount.domain.GroupLoanMemberAllocation;
 import org.mifosplatform.portfolio.loanaccount.domain.Loan;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanCharge;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanDisbursementDetails;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanFetchPlan;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanLifecycleStateMachine;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanRepaymentScheduleTransactionProcessorFactory;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanRepositoryWrapper;
@@ -143,6 +144,18 @@ public class LoanAssembler {
         return loanAccount;
     }
 
+    /**
+     * Assembles the loan with the collections the operation works on loaded
+     * up front, see {@link LoanFetchPlan}.
+     */
+    public Loan assembleFrom(final Long accountId, final LoanFetchPlan fetchPlan) {
+        final Loan loanAccount = this.loanRepository.findOneWithNotFoundDetection(accountId, fetchPlan);
+        loanAccount.setHelpers(defaultLoanLifecycleStateMachine(), this.loanSummaryWrapper,
+                this.loanRepaymentScheduleTransactionProcessorFactory);
+
+        return loanAccount;
+    }
+
     public void setHelpers(final Loan loanAccount) {
         loanAccount.setHelpers(defaultLoanLifecycleStateMachine(), this.loanSummaryWrapper,
                 this.loanRepaymentScheduleTransactionProcessorFactory);
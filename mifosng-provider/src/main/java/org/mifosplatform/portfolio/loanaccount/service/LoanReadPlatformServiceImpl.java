@@ -79,6 +79,7 @@ import org.mifosplatform.portfolio.loanaccount.data.PaidInAdvanceData;
 import org.mifosplatform.portfolio.loanaccount.data.RepaymentScheduleRelatedLoanData;
 import org.mifosplatform.portfolio.loanaccount.data.ScheduleGeneratorDTO;
 import org.mifosplatform.portfolio.loanaccount.domain.Loan;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanFetchPlan;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanRepaymentScheduleTransactionProcessorFactory;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanRepository;
@@ -110,6 +111,7 @@ import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
 @Service
@@ -381,6 +383,7 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         return loanDetails;
     }
 
+    @Transactional(readOnly = true)
     @Override
     public LoanTransactionData retrieveLoanTransactionTemplate(final Long loanId) {
 
@@ -411,6 +414,7 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
                 paymentOptions, null, null, null, outstandingLoanBalance, false);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public LoanTransactionData retrieveLoanPrePaymentTemplate(final Long loanId, LocalDate onDate) {
 
@@ -441,6 +445,7 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
                 paymentOptions, null, null, null, outstandingLoanBalance, false);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public LoanTransactionData retrieveWaiveInterestDetails(final Long loanId) {
 
@@ -480,16 +485,18 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
 
     }
 
+    @Transactional(readOnly = true)
     @Override
     public LoanApprovalData retrieveApprovalTemplate(final Long loanId) {
 
-        final Loan loan = this.loanRepository.findOne(loanId);
+        final Loan loan = this.loanRepository.findOneWithFetchPlan(loanId, LoanFetchPlan.SUMMARY);
         if (loan == null) { throw new LoanNotFoundException(loanId); }
 
         return new LoanApprovalData(loan.getProposedPrincipal(), DateUtils.getLocalDateOfTenant());
 
     }
 
+    @Transactional(readOnly = true)
     @Override
     public LoanTransactionData retrieveDisbursalTemplate(final Long loanId, boolean paymentDetailsRequired) {
         final Loan loan = this.loanRepository.findOne(loanId);
@@ -504,6 +511,7 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
 
     }
 
+    @Transactional(readOnly = true)
     @Override
     public LoanTransactionData retrieveLoanTransaction(final Long loanId, final Long transactionId) {
 
@@ -1860,9 +1868,10 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         }
     }
 
+    @Transactional(readOnly = true)
     @Override
     public LoanTransactionData retrieveRecoveryPaymentTemplate(Long loanId) {
-        final Loan loan = this.loanRepository.findOne(loanId);
+        final Loan loan = this.loanRepository.findOneWithFetchPlan(loanId, LoanFetchPlan.SUMMARY);
         if (loan == null) { throw new LoanNotFoundException(loanId); }
         final LoanTransactionEnumData transactionType = LoanEnumerations.transactionType(LoanTransactionType.RECOVERY_REPAYMENT);
         final Collection<PaymentTypeData> paymentOptions = this.paymentTypeReadPlatformService.retrieveAllPaymentTypes(false);
@@ -2149,6 +2158,7 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         }
     }
 
+    @Transactional(readOnly = true)
     @Override
     public LoanTransactionData retrieveRefundByCashTemplate(Long loanId) {
         // TODO Auto-generated method stub
@@ -2174,6 +2184,7 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
                 null, null, null, false);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public Collection<InterestRatePeriodData> retrieveLoanInterestRatePeriodData(Long loanId) {
         this.context.authenticatedUser();
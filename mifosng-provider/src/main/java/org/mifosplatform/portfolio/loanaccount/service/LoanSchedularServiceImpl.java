@@ -11,9 +11,9 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 
 import org.mifosplatform.accounting.journalentry.exception.JournalEntryInvalidException;
+import org.mifosplatform.commands.service.AccountCommandSerializer;
 import org.mifosplatform.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.mifosplatform.infrastructure.core.data.ApiParameterError;
 import org.mifosplatform.infrastructure.core.exception.AbstractPlatformDomainRuleException;
@@ -22,6 +22,8 @@ import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
 import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
 import org.mifosplatform.infrastructure.jobs.service.JobName;
+import org.mifosplatform.infrastructure.jobs.service.JobPartitionItemProcessor;
+import org.mifosplatform.infrastructure.jobs.service.PartitionedJobRunner;
 import org.mifosplatform.portfolio.charge.domain.*;
 import org.mifosplatform.portfolio.charge.service.ChargeReadPlatformServiceImpl;
 import org.mifosplatform.portfolio.common.BusinessEventNotificationConstants;
@@ -47,16 +49,21 @@ public class LoanSchedularServiceImpl implements LoanSchedularService {
     private final LoanWritePlatformService loanWritePlatformService;
 	private final LoanAssembler loanAssembler;
 	private final ChargeReadPlatformServiceImpl chargeReadPlatformService;
+	private final PartitionedJobRunner partitionedJobRunner;
+	private final AccountCommandSerializer accountCommandSerializer;
 
     @Autowired
     public LoanSchedularServiceImpl(final ConfigurationDomainService configurationDomainService,
             final LoanReadPlatformService loanReadPlatformService, final LoanWritePlatformService loanWritePlatformService,final LoanAssembler loanAssembler,
-									final ChargeReadPlatformServiceImpl chargeReadPlatformService) {
+									final ChargeReadPlatformServiceImpl chargeReadPlatformService, final PartitionedJobRunner partitionedJobRunner,
+									final AccountCommandSerializer accountCommandSerializer) {
         this.configurationDomainService = configurationDomainService;
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanWritePlatformService = loanWritePlatformService;
 		this.loanAssembler = loanAssembler;
 		this.chargeReadPlatformService = chargeReadPlatformService;
+		this.partitionedJobRunner = partitionedJobRunner;
+		this.accountCommandSerializer = accountCommandSerializer;
     }
 
     @Override
@@ -71,7 +78,6 @@ public class LoanSchedularServiceImpl implements LoanSchedularService {
                 .retrieveAllLoansWithOverdueInstallments(penaltyWaitPeriodValue,backdatePenalties);
 
         if (!overdueLoanScheduledInstallments.isEmpty()) {
-            final StringBuilder sb = new StringBuilder();
             final Map<Long, Collection<OverdueLoanScheduleData>> overdueScheduleData = new HashMap<>();
             for (final OverdueLoanScheduleData overdueInstallment : overdueLoanScheduledInstallments) {
                 if (overdueScheduleData.containsKey(overdueInstallment.getLoanId())) {
@@ -83,35 +89,41 @@ public class LoanSchedularServiceImpl implements LoanSchedularService {
                 }
             }
 
-            for (final Long loanId : overdueScheduleData.keySet()) {
-                try {
-                    this.loanWritePlatformService.applyOverdueChargesForLoan(loanId, overdueScheduleData.get(loanId));
-
-                } catch (final PlatformApiDataValidationException e) {
-                    final List<ApiParameterError> errors = e.getErrors();
-                    for (final ApiParameterError error : errors) {
-                        logger.error("Apply Charges due for overdue loans failed for account:" + loanId + " with message "
-                                + error.getDeveloperMessage());
-                        sb.append("Apply Charges due for overdue loans failed for account:").append(loanId).append(" with message ")
-                                .append(error.getDeveloperMessage());
-                    }
-                } catch (final AbstractPlatformDomainRuleException ex) {
-                    logger.error("Apply Charges due for overdue loans failed for account:" + loanId + " with message "
-                            + ex.getDefaultUserMessage());
-                    sb.append("Apply Charges due for overdue loans failed for account:").append(loanId).append(" with message ")
-                            .append(ex.getDefaultUserMessage());
-                } catch (Exception e) {
-                    Throwable realCause = e;
-                    if (e.getCause() != null) {
-                        realCause = e.getCause();
-                    }
-                    logger.error("Apply Charges due for overdue loans failed for account:" + loanId + " with message "
-                            + realCause.getMessage());
-                    sb.append("Apply Charges due for overdue loans failed for account:").append(loanId).append(" with message ")
-                            .append(realCause.getMessage());
-                }
-            }
-            if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
+            final String errors = this.partitionedJobRunner.run(JobName.APPLY_CHARGE_TO_OVERDUE_LOAN_INSTALLMENT,
+                    overdueScheduleData.keySet(), new LoanIdItemProcessor() {
+
+                        @Override
+                        public void process(final Long loanId) {
+                            final AccountCommandSerializer.Permit permit = LoanSchedularServiceImpl.this.accountCommandSerializer.acquire(
+                                    loanId, null, null);
+                            try {
+                                LoanSchedularServiceImpl.this.loanWritePlatformService.applyOverdueChargesForLoan(loanId,
+                                        overdueScheduleData.get(loanId));
+                            } finally {
+                                permit.release();
+                            }
+                        }
+
+                        @Override
+                        public String failureMessage(final Long loanId, final Throwable realCause) {
+                            final StringBuilder sb = new StringBuilder();
+                            if (realCause instanceof PlatformApiDataValidationException) {
+                                final List<ApiParameterError> validationErrors = ((PlatformApiDataValidationException) realCause).getErrors();
+                                for (final ApiParameterError error : validationErrors) {
+                                    sb.append("Apply Charges due for overdue loans failed for account:").append(loanId)
+                                            .append(" with message ").append(error.getDeveloperMessage());
+                                }
+                            } else if (realCause instanceof AbstractPlatformDomainRuleException) {
+                                sb.append("Apply Charges due for overdue loans failed for account:").append(loanId).append(" with message ")
+                                        .append(((AbstractPlatformDomainRuleException) realCause).getDefaultUserMessage());
+                            } else {
+                                sb.append("Apply Charges due for overdue loans failed for account:").append(loanId).append(" with message ")
+                                        .append(realCause.getMessage());
+                            }
+                            return sb.toString();
+                        }
+                    });
+            if (errors.length() > 0) { throw new JobExecutionException(errors); }
         }
     }
 
@@ -149,11 +161,9 @@ public class LoanSchedularServiceImpl implements LoanSchedularService {
 				}
 
 				for (final Long loanId : overdueScheduleData.keySet()) {
+					final AccountCommandSerializer.Permit permit = this.accountCommandSerializer.acquire(loanId, null, null);
 					try {
-
-
 						this.loanWritePlatformService.applyOverdueChargesForLoan(loanId, overdueScheduleData.get(loanId));
-
 					} catch (final PlatformApiDataValidationException e) {
 						final List<ApiParameterError> errors = e.getErrors();
 						for (final ApiParameterError error : errors) {
@@ -176,6 +186,8 @@ public class LoanSchedularServiceImpl implements LoanSchedularService {
 								+ realCause.getMessage());
 						sb.append("Apply Charges due for overdue loans failed for account:").append(loanId).append(" with message ")
 								.append(realCause.getMessage());
+					} finally {
+						permit.release();
 					}
 				}
 				if (sb.length() > 0) {
@@ -188,80 +200,79 @@ public class LoanSchedularServiceImpl implements LoanSchedularService {
 	@Override
 	@CronTarget(jobName = JobName.RECALCULATE_INTEREST_FOR_LOAN)
 	public void recalculateInterest() throws JobExecutionException {
-		Integer maxNumberOfRetries = ThreadLocalContextUtil.getTenant()
+		final Integer maxNumberOfRetries = ThreadLocalContextUtil.getTenant()
 				.getConnection().getMaxRetriesOnDeadlock();
-		Integer maxIntervalBetweenRetries = ThreadLocalContextUtil.getTenant()
-				.getConnection().getMaxIntervalBetweenRetries();
 		Collection<Long> loanIds = this.loanReadPlatformService
 				.fetchLoansForInterestRecalculation();
-		int i = 0;
 		if (!loanIds.isEmpty()) {
-			final StringBuilder sb = new StringBuilder();
-			for (Long loanId : loanIds) {
-				logger.info("Loan ID " + loanId);
-				Integer numberOfRetries = 0;
-				while (numberOfRetries <= maxNumberOfRetries) {
-					try {
-						numberOfRetries++;
-						this.loanWritePlatformService
-								.recalculateInterest(loanId);
-					} catch (CannotAcquireLockException
-							| ObjectOptimisticLockingFailureException exception) {
-						logger.info("Recalulate interest job has been retried  "
-								+ numberOfRetries + " time(s)");
-						/***
-						 * Fail if the transaction has been retired for
-						 * maxNumberOfRetries
-						 **/
-						if (numberOfRetries >= maxNumberOfRetries) {
-							logger.warn("Recalulate interest job has been retried for the max allowed attempts of "
-									+ numberOfRetries
-									+ " and will be rolled back");
-							sb.append("Recalulate interest job has been retried for the max allowed attempts of "
-									+ numberOfRetries
-									+ " and will be rolled back");
-							break;
-						}
-						/***
-						 * Else sleep for a random time (between 1 to 10
-						 * seconds) and continue
-						 **/
-						try {
-							Random random = new Random();
-							int randomNum = random
-									.nextInt(maxIntervalBetweenRetries + 1);
-							Thread.sleep(1000 + (randomNum * 1000));
-							numberOfRetries = numberOfRetries + 1;
-						} catch (InterruptedException e) {
-							sb.append("Interest recalculation for loans failed " + exception.getMessage()) ;
-							break;
+			final String errors = this.partitionedJobRunner.run(JobName.RECALCULATE_INTEREST_FOR_LOAN, loanIds,
+					new LoanIdItemProcessor() {
+
+						@Override
+						public void process(final Long loanId) {
+							recalculateInterest(loanId, maxNumberOfRetries);
 						}
-					} catch (JournalEntryInvalidException je) {
-						String exceptionMessage = je.getDefaultUserMessage();
-						
-						logger.error("Interest recalculation for loans failed for account:"	+ loanId + " with message - \""
-								+ exceptionMessage + "\"");
-						sb.append("Interest recalculation for loans failed for account:").append(loanId).append(" with message - \"")
-                        .append(exceptionMessage + "\"");
-					} catch (Exception e) {
-						Throwable realCause = e;
-						if (e.getCause() != null) {
-							realCause = e.getCause();
+
+						@Override
+						public String failureMessage(final Long loanId, final Throwable realCause) {
+							String exceptionMessage = realCause.getMessage();
+							if (realCause instanceof JournalEntryInvalidException) {
+								exceptionMessage = ((JournalEntryInvalidException) realCause).getDefaultUserMessage();
+							}
+							return "Interest recalculation for loans failed for account:" + loanId + " with message - \""
+									+ exceptionMessage + "\"";
 						}
-						logger.error("Interest recalculation for loans failed for account:"	+ loanId + " with message "
-								+ realCause.getMessage());
-						sb.append("Interest recalculation for loans failed for account:").append(loanId).append(" with message ")
-                        .append(realCause.getMessage());
+					});
+			if (errors.length() > 0) {
+				throw new JobExecutionException(errors);
+			}
+		}
+
+	}
+
+	private void recalculateInterest(final Long loanId, final Integer maxNumberOfRetries) {
+		logger.info("Loan ID " + loanId);
+		final AccountCommandSerializer.Permit permit = this.accountCommandSerializer.acquire(loanId, null, null);
+		try {
+			Integer numberOfRetries = 0;
+			while (true) {
+				try {
+					numberOfRetries++;
+					this.loanWritePlatformService.recalculateInterest(loanId);
+					return;
+				} catch (CannotAcquireLockException | ObjectOptimisticLockingFailureException exception) {
+					logger.info("Recalulate interest job has been retried  " + numberOfRetries + " time(s)");
+					/***
+					 * Fail if the transaction has been retired for
+					 * maxNumberOfRetries, else retry straight away: commands
+					 * on the loan wait for the job on this node
+					 **/
+					if (numberOfRetries >= maxNumberOfRetries) {
+						logger.warn("Recalulate interest job has been retried for the max allowed attempts of " + numberOfRetries
+								+ " and will be rolled back");
+						throw exception;
 					}
-					i++;
 				}
-				logger.info("Loans count " + i);
-			}
-			if (sb.length() > 0) {
-				throw new JobExecutionException(sb.toString());
 			}
+		} finally {
+			permit.release();
+		}
+	}
+
+	/**
+	 * Partitions loan ids by id range.
+	 */
+	private static abstract class LoanIdItemProcessor implements JobPartitionItemProcessor<Long> {
+
+		@Override
+		public Long identifierOf(final Long loanId) {
+			return loanId;
 		}
 
+		@Override
+		public Long partitionKeyOf(@SuppressWarnings("unused") final Long loanId) {
+			return null;
+		}
 	}
 
 }
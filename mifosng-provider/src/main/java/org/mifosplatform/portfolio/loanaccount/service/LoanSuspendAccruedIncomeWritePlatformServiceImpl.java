@@ -9,6 +9,7 @@ package org.mifosplatform.portfolio.loanaccount.service;
 import org.joda.time.LocalDate;
 import org.mifosplatform.accounting.journalentry.service.JournalEntryWritePlatformService;
 import org.mifosplatform.infrastructure.core.service.DateUtils;
+import org.mifosplatform.infrastructure.core.service.PooledIdAllocator;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.organisation.monetary.domain.ApplicationCurrencyRepositoryWrapper;
 import org.mifosplatform.portfolio.loanaccount.data.LoanChargeData;
@@ -52,6 +53,7 @@ public class LoanSuspendAccruedIncomeWritePlatformServiceImpl implements LoanSus
     private final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository;
     private final LoanRepaymentScheduleInstallmentRepository repaymentScheduleInstallmentRepository;
     private final LoanRepository loanRepository;
+    private final PooledIdAllocator pooledIdAllocator;
 
 
 
@@ -60,7 +62,7 @@ public class LoanSuspendAccruedIncomeWritePlatformServiceImpl implements LoanSus
     public LoanSuspendAccruedIncomeWritePlatformServiceImpl(final LoanReadPlatformService loanReadPlatformService, final LoanChargeReadPlatformService loanChargeReadPlatformService,
             final RoutingDataSource dataSource,final JpaTransactionManager transactionManager,final JournalEntryWritePlatformService journalEntryWritePlatformService,
             final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository,final LoanRepaymentScheduleInstallmentRepository repaymentScheduleInstallmentRepository,
-            final LoanRepository loanRepository) {
+            final LoanRepository loanRepository, final PooledIdAllocator pooledIdAllocator) {
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanChargeReadPlatformService = loanChargeReadPlatformService;
         this.dataSource = dataSource;
@@ -70,6 +72,7 @@ public class LoanSuspendAccruedIncomeWritePlatformServiceImpl implements LoanSus
         this.applicationCurrencyRepository = applicationCurrencyRepository;
         this.repaymentScheduleInstallmentRepository = repaymentScheduleInstallmentRepository;
         this.loanRepository = loanRepository;
+        this.pooledIdAllocator = pooledIdAllocator;
 
     }
 
@@ -121,13 +124,12 @@ public class LoanSuspendAccruedIncomeWritePlatformServiceImpl implements LoanSus
                                                BigDecimal feePortion, BigDecimal penaltyPortion){
         TransactionStatus transactionStatus = this.transactionManager.getTransaction(new DefaultTransactionDefinition());
         try{
-            String transactionSql = "INSERT INTO m_loan_transaction  (loan_id,office_id,is_reversed,transaction_type_enum,transaction_date,amount,suspended_interest_portion_derived,"
-                    + "suspended_fee_charges_portion_derived,suspended_penalty_charges_portion_derived, submitted_on_date, is_account_transfer) VALUES (?, ?, 0, ?, ?, ?, ?, ?, ?, ?, 0)";
-            this.jdbcTemplate.update(transactionSql, loanScheduleSuspendedAccruedIncomeData.getLoanId(), loanScheduleSuspendedAccruedIncomeData.getOfficeId(),
+            final Long transactionId = this.pooledIdAllocator.nextId("m_loan_transaction");
+            String transactionSql = "INSERT INTO m_loan_transaction  (id,loan_id,office_id,is_reversed,transaction_type_enum,transaction_date,amount,suspended_interest_portion_derived,"
+                    + "suspended_fee_charges_portion_derived,suspended_penalty_charges_portion_derived, submitted_on_date, is_account_transfer) VALUES (?, ?, ?, 0, ?, ?, ?, ?, ?, ?, ?, 0)";
+            this.jdbcTemplate.update(transactionSql, transactionId, loanScheduleSuspendedAccruedIncomeData.getLoanId(), loanScheduleSuspendedAccruedIncomeData.getOfficeId(),
                     LoanTransactionType.SUSPENDED_ACCRUED_INCOME.getValue(), DateUtils.getLocalDateOfTenant().toDate(), amount, interestPortion, feePortion, penaltyPortion,
                     DateUtils.getDateOfTenant());
-            @SuppressWarnings("deprecation")
-            final Long transactionId = this.jdbcTemplate.queryForLong("SELECT LAST_INSERT_ID()");
 
             Map<String, Object> transactionMap = toMapData(transactionId, amount, interestPortion, feePortion, penaltyPortion,
                     loanScheduleSuspendedAccruedIncomeData, DateUtils.getLocalDateOfTenant(),LoanTransactionType.SUSPENDED_ACCRUED_INCOME.getValue());
@@ -153,13 +155,12 @@ public class LoanSuspendAccruedIncomeWritePlatformServiceImpl implements LoanSus
                                                BigDecimal feePortion, BigDecimal penaltyPortion){
         TransactionStatus transactionStatus = this.transactionManager.getTransaction(new DefaultTransactionDefinition());
         try{
-            String transactionSql = "INSERT INTO m_loan_transaction  (loan_id,office_id,is_reversed,transaction_type_enum,transaction_date,amount,suspended_interest_portion_derived,"
-                    + "suspended_fee_charges_portion_derived,suspended_penalty_charges_portion_derived, submitted_on_date, is_account_transfer) VALUES (?, ?, 0, ?, ?, ?, ?, ?, ?, ?, 0)";
-            this.jdbcTemplate.update(transactionSql, loanScheduleSuspendedAccruedIncomeData.getLoanId(), loanScheduleSuspendedAccruedIncomeData.getOfficeId(),
+            final Long transactionId = this.pooledIdAllocator.nextId("m_loan_transaction");
+            String transactionSql = "INSERT INTO m_loan_transaction  (id,loan_id,office_id,is_reversed,transaction_type_enum,transaction_date,amount,suspended_interest_portion_derived,"
+                    + "suspended_fee_charges_portion_derived,suspended_penalty_charges_portion_derived, submitted_on_date, is_account_transfer) VALUES (?, ?, ?, 0, ?, ?, ?, ?, ?, ?, ?, 0)";
+            this.jdbcTemplate.update(transactionSql, transactionId, loanScheduleSuspendedAccruedIncomeData.getLoanId(), loanScheduleSuspendedAccruedIncomeData.getOfficeId(),
                     LoanTransactionType.REVERSE_SUSPENDED_ACCRUED_INCOME.getValue(), DateUtils.getLocalDateOfTenant().toDate(), amount, interestPortion, feePortion, penaltyPortion,
                     DateUtils.getDateOfTenant());
-            @SuppressWarnings("deprecation")
-            final Long transactionId = this.jdbcTemplate.queryForLong("SELECT LAST_INSERT_ID()");
 
             Map<String, Object> transactionMap = toMapData(transactionId, amount, interestPortion, feePortion, penaltyPortion,
                     loanScheduleSuspendedAccruedIncomeData, DateUtils.getLocalDateOfTenant(),LoanTransactionType.REVERSE_SUSPENDED_ACCRUED_INCOME.getValue());
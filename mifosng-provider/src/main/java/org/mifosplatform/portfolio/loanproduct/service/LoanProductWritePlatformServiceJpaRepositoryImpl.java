@@ -11,6 +11,7 @@ import java.util.Map;
 
 import org.joda.time.LocalDate;
 import org.mifosplatform.accounting.producttoaccountmapping.service.ProductToGLAccountMappingWritePlatformService;
+import org.mifosplatform.infrastructure.cache.service.SecondLevelCacheService;
 import org.mifosplatform.infrastructure.codes.domain.CodeValue;
 import org.mifosplatform.infrastructure.codes.domain.CodeValueRepositoryWrapper;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
@@ -68,6 +69,7 @@ public class LoanProductWritePlatformServiceJpaRepositoryImpl implements LoanPro
     private final FloatingRateRepositoryWrapper floatingRateRepository;
     private final LoanRepository loanRepository;
     private final CreditCheckRepositoryWrapper creditCheckRepositoryWrapper;
+    private final SecondLevelCacheService secondLevelCacheService;
 
     @Autowired
     public LoanProductWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
@@ -80,7 +82,7 @@ public class LoanProductWritePlatformServiceJpaRepositoryImpl implements LoanPro
             final FloatingRateRepositoryWrapper floatingRateRepository,
             final LoanRepository loanRepository, 
             final CreditCheckRepositoryWrapper creditCheckRepositoryWrapper,
-            final CodeValueRepositoryWrapper codeValueRepository) {
+            final CodeValueRepositoryWrapper codeValueRepository, final SecondLevelCacheService secondLevelCacheService) {
         this.context = context;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.loanProductRepository = loanProductRepository;
@@ -94,6 +96,7 @@ public class LoanProductWritePlatformServiceJpaRepositoryImpl implements LoanPro
         this.loanRepository = loanRepository;
         this.creditCheckRepositoryWrapper = creditCheckRepositoryWrapper;
         this.codeValueRepository = codeValueRepository;
+        this.secondLevelCacheService = secondLevelCacheService;
     }
 
     @Transactional
@@ -172,6 +175,7 @@ public class LoanProductWritePlatformServiceJpaRepositoryImpl implements LoanPro
     @Transactional
     @Override
     public CommandProcessingResult updateLoanProduct(final Long loanProductId, final JsonCommand command) {
+        this.secondLevelCacheService.evictAfterCommit(LoanProduct.class);
 
         try {
             this.context.authenticatedUser();
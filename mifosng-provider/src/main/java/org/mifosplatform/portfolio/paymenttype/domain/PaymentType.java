@@ -14,6 +14,8 @@ import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
 
 import org.apache.commons.lang.StringUtils;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.portfolio.paymenttype.api.PaymentTypeApiResourceConstants;
 import org.mifosplatform.portfolio.paymenttype.data.PaymentTypeData;
@@ -21,6 +23,7 @@ import org.springframework.data.jpa.domain.AbstractPersistable;
 
 @Entity
 @Table(name = "m_payment_type", uniqueConstraints = { @UniqueConstraint(columnNames = { "value" }, name = "unique_payment_type") })
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class PaymentType extends AbstractPersistable<Long> {
 
     @Column(name = "value")
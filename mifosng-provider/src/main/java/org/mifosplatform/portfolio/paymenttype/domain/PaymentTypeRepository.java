@@ -5,9 +5,13 @@
  */
 package org.mifosplatform.portfolio.paymenttype.domain;
 
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface PaymentTypeRepository extends JpaRepository<PaymentType, Long>, JpaSpecificationExecutor<PaymentType> {
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     PaymentType findByName(String name);
 }
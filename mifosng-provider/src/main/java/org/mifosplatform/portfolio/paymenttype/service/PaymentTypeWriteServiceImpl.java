@@ -7,6 +7,7 @@ package org.mifosplatform.portfolio.paymenttype.service;
 
 import java.util.Map;
 
+import org.mifosplatform.infrastructure.cache.service.SecondLevelCacheService;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
@@ -28,14 +29,16 @@ public class PaymentTypeWriteServiceImpl implements PaymentTypeWriteService {
     private final PaymentTypeRepository repository;
     private final PaymentTypeRepositoryWrapper repositoryWrapper;
     private final PaymentTypeDataValidator fromApiJsonDeserializer;
+    private final SecondLevelCacheService secondLevelCacheService;
     private final static Logger logger = LoggerFactory.getLogger(PaymentTypeWriteServiceImpl.class);
 
     @Autowired
     public PaymentTypeWriteServiceImpl(PaymentTypeRepository repository, PaymentTypeRepositoryWrapper repositoryWrapper,
-            PaymentTypeDataValidator fromApiJsonDeserializer) {
+            PaymentTypeDataValidator fromApiJsonDeserializer, SecondLevelCacheService secondLevelCacheService) {
         this.repository = repository;
         this.repositoryWrapper = repositoryWrapper;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
+        this.secondLevelCacheService = secondLevelCacheService;
 
     }
 
@@ -66,6 +69,7 @@ public class PaymentTypeWriteServiceImpl implements PaymentTypeWriteService {
 
     @Override
     public CommandProcessingResult updatePaymentType(Long paymentTypeId, JsonCommand command) {
+        this.secondLevelCacheService.evictAfterCommit(PaymentType.class);
 
         try {
             this.fromApiJsonDeserializer.validateForUpdate(command.json());
@@ -90,6 +94,8 @@ public class PaymentTypeWriteServiceImpl implements PaymentTypeWriteService {
 
     @Override
     public CommandProcessingResult deletePaymentType(Long paymentTypeId) {
+        this.secondLevelCacheService.evictAfterCommit(PaymentType.class);
+
         final PaymentType paymentType = this.repositoryWrapper.findOneWithNotFoundDetection(paymentTypeId);
         
         // delete the entity by setting the "deleted" flag to 1
@@ -273,6 +273,9 @@ public class SavingsAccount extends AbstractPersistable<Long> {
     @Embedded
     protected SavingsAccountSummary summary;
 
+    @Embedded
+    protected SavingsAccountInterestCheckpoint interestCheckpoint;
+
     @OrderBy(value = "dateOf, createdDate, id")
     @LazyCollection(LazyCollectionOption.FALSE)
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "savingsAccount", orphanRemoval = true)
@@ -526,19 +529,76 @@ public class SavingsAccount extends AbstractPersistable<Long> {
         }
 
         if (recalucateDailyBalanceDetails) {
-            // no openingBalance concept supported yet but probably will to
-            // allow
-            // for migrations.
-            final Money openingAccountBalance = Money.zero(this.currency);
-
-            // update existing transactions so derived balance fields are
-            // correct.
-            recalculateDailyBalances(openingAccountBalance, interestPostingUpToDate);
+            if (this.interestCheckpoint != null) {
+                recalculateDailyBalancesSince(this.interestCheckpoint, interestPostingUpToDate);
+            } else {
+                // no openingBalance concept supported yet but probably will to
+                // allow
+                // for migrations.
+                final Money openingAccountBalance = Money.zero(this.currency);
+
+                // update existing transactions so derived balance fields are
+                // correct.
+                recalculateDailyBalances(openingAccountBalance, interestPostingUpToDate);
+            }
         }
 
+        updateInterestCheckpoint(postingPeriods, interestPostingUpToDate);
+
         this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
     }
 
+    /**
+     * Moves the interest checkpoint of a savings account to the end of the
+     * last posting period that has been posted.
+     */
+    private void updateInterestCheckpoint(final List<PostingPeriod> postingPeriods, final LocalDate interestPostingUpToDate) {
+        if (!depositAccountType().isSavingsDeposit()) { return; }
+
+        // the posting periods start after the checkpoint when interest was
+        // calculated incrementally
+        Money totalInterestEarned = Money.zero(this.currency);
+        if (this.interestCheckpoint != null) {
+            totalInterestEarned = this.interestCheckpoint.getTotalInterestEarned(this.currency);
+        }
+
+        PostingPeriod lastPostedPeriod = null;
+        for (final PostingPeriod postingPeriod : postingPeriods) {
+            if (postingPeriod.dateOfPostingTransaction().isAfter(interestPostingUpToDate)) {
+                break;
+            }
+            if (postingPeriod.interest() != null) {
+                totalInterestEarned = totalInterestEarned.plus(postingPeriod.interest());
+            }
+            lastPostedPeriod = postingPeriod;
+        }
+
+        if (lastPostedPeriod != null) {
+            this.interestCheckpoint = SavingsAccountInterestCheckpoint.createFrom(lastPostedPeriod, totalInterestEarned, this.transactions);
+        }
+    }
+
+    /**
+     * @return the interest checkpoint of the account if interest up to
+     *         <code>upToInterestCalculationDate</code> can be calculated from
+     *         it, otherwise <code>null</code>
+     */
+    private SavingsAccountInterestCheckpoint validInterestCheckpointFor(final LocalDate upToInterestCalculationDate,
+            final LocalDate postInterestOnDate) {
+        if (this.interestCheckpoint == null || !depositAccountType().isSavingsDeposit()) { return null; }
+
+        // a transaction added, reversed or removed on or before the
+        // checkpoint date requires a full recalculation
+        if (!this.interestCheckpoint.isValidFor(this.transactions, this.currency)) { return null; }
+
+        final LocalDate checkpointDate = this.interestCheckpoint.getCheckpointDate();
+        if (!checkpointDate.isBefore(upToInterestCalculationDate)) { return null; }
+        if (postInterestOnDate != null && !postInterestOnDate.isAfter(checkpointDate)) { return null; }
+        if (getStartInterestCalculationDate().isAfter(checkpointDate)) { return null; }
+
+        return this.interestCheckpoint;
+    }
+
     protected SavingsAccountTransaction findInterestPostingTransactionFor(final LocalDate postingDate) {
 
         SavingsAccountTransaction postingTransation = null;
@@ -600,17 +660,24 @@ public class SavingsAccount extends AbstractPersistable<Long> {
     public List<PostingPeriod> calculateInterestUsing(final MathContext mc, final LocalDate upToInterestCalculationDate,
             boolean isInterestTransfer, final boolean isSavingsInterestPostingAtCurrentPeriodEnd, final Integer financialYearBeginningMonth,final LocalDate postInterestOnDate) {
 
-        // no openingBalance concept supported yet but probably will to allow
-        // for migrations.
-        final Money openingAccountBalance = Money.zero(this.currency);
+        // 1. calculate interest from the last posted 'posting period' when
+        // the interest checkpoint of the account is still valid OR
+        // 2. default to calculate interest based on entire history
+        final SavingsAccountInterestCheckpoint checkpoint = validInterestCheckpointFor(upToInterestCalculationDate, postInterestOnDate);
+
+        if (checkpoint != null) {
+            recalculateDailyBalancesSince(checkpoint, upToInterestCalculationDate);
+        } else {
+            this.interestCheckpoint = null;
 
-        // update existing transactions so derived balance fields are
-        // correct.
-        recalculateDailyBalances(openingAccountBalance, upToInterestCalculationDate);
+            // no openingBalance concept supported yet but probably will to
+            // allow for migrations.
+            final Money openingAccountBalance = Money.zero(this.currency);
 
-        // 1. default to calculate interest based on entire history OR
-        // 2. determine latest 'posting period' and find interest credited to
-        // that period
+            // update existing transactions so derived balance fields are
+            // correct.
+            recalculateDailyBalances(openingAccountBalance, upToInterestCalculationDate);
+        }
 
         // A generate list of EndOfDayBalances (not including interest postings)
         final SavingsPostingInterestPeriodType postingPeriodType = SavingsPostingInterestPeriodType.fromInt(this.interestPostingPeriodType);
@@ -626,13 +693,17 @@ public class SavingsAccount extends AbstractPersistable<Long> {
             postedAsOnDates.add(postInterestOnDate);
         }
 
+        final LocalDate postingPeriodsStartDate = checkpoint != null ? checkpoint.getCheckpointDate().plusDays(1)
+                : getStartInterestCalculationDate();
         final List<LocalDateInterval> postingPeriodIntervals = this.savingsHelper.determineInterestPostingPeriods(
-                getStartInterestCalculationDate(), upToInterestCalculationDate, postingPeriodType, financialYearBeginningMonth,postedAsOnDates);
+                postingPeriodsStartDate, upToInterestCalculationDate, postingPeriodType, financialYearBeginningMonth,postedAsOnDates);
 
         final List<PostingPeriod> allPostingPeriods = new ArrayList<>();
 
         Money periodStartingBalance;
-        if (this.startInterestCalculationDate != null) {
+        if (checkpoint != null) {
+            periodStartingBalance = checkpoint.getClosingBalance(this.currency);
+        } else if (this.startInterestCalculationDate != null) {
             LocalDate startInterestCalculationDate = new LocalDate(this.startInterestCalculationDate);
             final SavingsAccountTransaction transaction = findLastTransaction(startInterestCalculationDate);
 
@@ -665,6 +736,8 @@ public class SavingsAccount extends AbstractPersistable<Long> {
         final Collection<Long> interestPostTransactions = this.savingsHelper.fetchPostInterestTransactionIds(getId());
         final Money minBalanceForInterestCalculation = Money.of(getCurrency(), minBalanceForInterestCalculation());
         final Money minOverdraftForInterestCalculation = Money.of(getCurrency(), this.minOverdraftForInterestCalculation);
+        final List<SavingsAccountTransaction> orderedNonInterestPostingTransactions = checkpoint != null ? retreiveOrderedNonInterestPostingTransactionsSince(checkpoint
+                .getCheckpointDate()) : retreiveOrderedNonInterestPostingTransactions();
 
         for (final LocalDateInterval periodInterval : postingPeriodIntervals) {
 
@@ -675,7 +748,7 @@ public class SavingsAccount extends AbstractPersistable<Long> {
             BigDecimal interestRateAsFractionFromPeriodSlab =getEffectiveInterestRateFromProductSlab(mc,periodInterval.startDate(),periodInterval.endDate());
 
             final PostingPeriod postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance,
-                    retreiveOrderedNonInterestPostingTransactions(), this.currency, compoundingPeriodType, interestCalculationType,
+                    orderedNonInterestPostingTransactions, this.currency, compoundingPeriodType, interestCalculationType,
                     interestRateAsFractionFromPeriodSlab, daysInYearType.getValue(), upToInterestCalculationDate, interestPostTransactions,
                     isInterestTransfer, minBalanceForInterestCalculation, isSavingsInterestPostingAtCurrentPeriodEnd,
                     overdraftInterestRateAsFraction, minOverdraftForInterestCalculation);
@@ -685,10 +758,16 @@ public class SavingsAccount extends AbstractPersistable<Long> {
             allPostingPeriods.add(postingPeriod);
         }
 
-        this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, allPostingPeriods, getLockedInUntilLocalDate(),
-                isTransferInterestToOtherAccount());
-
-        this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods);
+        if (checkpoint != null) {
+            this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, allPostingPeriods, getLockedInUntilLocalDate(),
+                    isTransferInterestToOtherAccount(), checkpoint.getInterestCarriedForward());
+            this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods,
+                    checkpoint.getTotalInterestEarned(this.currency));
+        } else {
+            this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, allPostingPeriods, getLockedInUntilLocalDate(),
+                    isTransferInterestToOtherAccount());
+            this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods);
+        }
         this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
 
         return allPostingPeriods;
@@ -730,6 +809,47 @@ public class SavingsAccount extends AbstractPersistable<Long> {
         return orderedNonInterestPostingTransactions;
     }
 
+    /**
+     * Ordered non interest posting transactions after the interest checkpoint
+     * date, preceded by the last one on or before it as its balance spans
+     * into the posting periods after the checkpoint.
+     */
+    private List<SavingsAccountTransaction> retreiveOrderedNonInterestPostingTransactionsSince(final LocalDate checkpointDate) {
+        final List<SavingsAccountTransaction> orderedNonInterestPostingTransactions = new ArrayList<>();
+
+        final SavingsAccountTransaction lastTransactionOnCheckpoint = findLastNonInterestPostingTransactionOnOrBefore(checkpointDate);
+        if (lastTransactionOnCheckpoint != null) {
+            orderedNonInterestPostingTransactions.add(lastTransactionOnCheckpoint);
+        }
+
+        for (final SavingsAccountTransaction transaction : retreiveListOfTransactionsAfter(checkpointDate)) {
+            if (isNonInterestPostingAndNotReversed(transaction)) {
+                orderedNonInterestPostingTransactions.add(transaction);
+            }
+        }
+
+        return orderedNonInterestPostingTransactions;
+    }
+
+    private SavingsAccountTransaction findLastNonInterestPostingTransactionOnOrBefore(final LocalDate date) {
+        final SavingsAccountTransactionComparator transactionComparator = new SavingsAccountTransactionComparator();
+
+        SavingsAccountTransaction lastTransaction = null;
+        for (final SavingsAccountTransaction transaction : this.transactions) {
+            if (isNonInterestPostingAndNotReversed(transaction) && !transaction.isAfter(date)
+                    && (lastTransaction == null || transactionComparator.compare(transaction, lastTransaction) > 0)) {
+                lastTransaction = transaction;
+            }
+        }
+
+        return lastTransaction;
+    }
+
+    private static boolean isNonInterestPostingAndNotReversed(final SavingsAccountTransaction transaction) {
+        return !(transaction.isInterestPostingAndNotReversed() || transaction.isOverdraftInterestAndNotReversed())
+                && transaction.isNotReversed();
+    }
+
     /**
      * This functions checks a savings product interest rate chart and see if there is an interest rate set in the
      * time frame period if true this interest rate will be use instead of the standard interest rate on the savings product
@@ -753,11 +873,40 @@ public class SavingsAccount extends AbstractPersistable<Long> {
         return listOfTransactionsSorted;
     }
 
+    private List<SavingsAccountTransaction> retreiveListOfTransactionsAfter(final LocalDate date) {
+        if (date == null) { return retreiveListOfTransactions(); }
+
+        final List<SavingsAccountTransaction> listOfTransactionsSorted = new ArrayList<>();
+        for (final SavingsAccountTransaction transaction : this.transactions) {
+            if (transaction.isAfter(date)) {
+                listOfTransactionsSorted.add(transaction);
+            }
+        }
+
+        final SavingsAccountTransactionComparator transactionComparator = new SavingsAccountTransactionComparator();
+        Collections.sort(listOfTransactionsSorted, transactionComparator);
+        return listOfTransactionsSorted;
+    }
+
     protected void recalculateDailyBalances(final Money openingAccountBalance, final LocalDate interestPostingUpToDate) {
+        recalculateDailyBalances(openingAccountBalance, interestPostingUpToDate, null);
+    }
+
+    /**
+     * Recalculates the derived balances of the transactions after the
+     * interest checkpoint, starting from the running balance on the
+     * checkpoint date.
+     */
+    private void recalculateDailyBalancesSince(final SavingsAccountInterestCheckpoint checkpoint, final LocalDate interestPostingUpToDate) {
+        recalculateDailyBalances(checkpoint.getRunningBalance(this.currency), interestPostingUpToDate, checkpoint.getCheckpointDate());
+    }
+
+    private void recalculateDailyBalances(final Money openingAccountBalance, final LocalDate interestPostingUpToDate,
+            final LocalDate recalculateAfterDate) {
 
         Money runningBalance = openingAccountBalance.copy();
 
-        List<SavingsAccountTransaction> accountTransactionsSorted = retreiveListOfTransactions();
+        List<SavingsAccountTransaction> accountTransactionsSorted = retreiveListOfTransactionsAfter(recalculateAfterDate);
         boolean isTransactionsModified = false;
         for (final SavingsAccountTransaction transaction : accountTransactionsSorted) {
             if (transaction.isReversed()) {
@@ -804,7 +953,15 @@ public class SavingsAccount extends AbstractPersistable<Long> {
         }
 
         if (isTransactionsModified) {
-            accountTransactionsSorted = retreiveListOfTransactions();
+            accountTransactionsSorted = retreiveListOfTransactionsAfter(recalculateAfterDate);
+        }
+        if (recalculateAfterDate != null) {
+            // the balance of the last transaction on or before the checkpoint
+            // now ends the day before the first transaction after it
+            final SavingsAccountTransaction lastTransactionOnCheckpoint = findLastNonInterestPostingTransactionOnOrBefore(recalculateAfterDate);
+            if (lastTransactionOnCheckpoint != null) {
+                accountTransactionsSorted.add(0, lastTransactionOnCheckpoint);
+            }
         }
         resetAccountTransactionsEndOfDayBalances(accountTransactionsSorted, interestPostingUpToDate);
     }
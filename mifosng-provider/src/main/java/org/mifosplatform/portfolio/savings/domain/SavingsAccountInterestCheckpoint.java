@@ -0,0 +1,134 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.savings.domain;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.joda.time.LocalDate;
+import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
+import org.mifosplatform.organisation.monetary.domain.Money;
+import org.mifosplatform.portfolio.savings.domain.interest.PostingPeriod;
+
+/**
+ * {@link SavingsAccountInterestCheckpoint} captures the state of the interest
+ * calculation of a {@link SavingsAccount} at the end of its last posted
+ * interest posting period, so that later calculations only need to process
+ * the periods and transactions after it.
+ *
+ * The checkpoint also records the number of transactions and the running
+ * balance on the checkpoint date. Any transaction added, reversed or removed
+ * on or before that date changes one of these and so invalidates the
+ * checkpoint.
+ */
+@Embeddable
+public final class SavingsAccountInterestCheckpoint {
+
+    @Temporal(TemporalType.DATE)
+    @Column(name = "interest_checkpoint_date")
+    private Date checkpointDate;
+
+    @Column(name = "interest_checkpoint_closing_balance", scale = 6, precision = 19)
+    private BigDecimal closingBalance;
+
+    @Column(name = "interest_checkpoint_running_balance", scale = 6, precision = 19)
+    private BigDecimal runningBalance;
+
+    @Column(name = "interest_checkpoint_compounded_interest", scale = 6, precision = 19)
+    private BigDecimal interestCarriedForward;
+
+    @Column(name = "interest_checkpoint_interest_earned", scale = 6, precision = 19)
+    private BigDecimal totalInterestEarned;
+
+    @Column(name = "interest_checkpoint_transaction_count")
+    private Integer transactionCount;
+
+    public static SavingsAccountInterestCheckpoint createFrom(final PostingPeriod lastPostedPeriod, final Money totalInterestEarned,
+            final Collection<SavingsAccountTransaction> transactions) {
+        final LocalDate checkpointDate = lastPostedPeriod.periodInterval().endDate();
+        final MonetaryCurrency currency = totalInterestEarned.getCurrency();
+        return new SavingsAccountInterestCheckpoint(checkpointDate, lastPostedPeriod.closingBalance().getAmount(), runningBalanceOn(
+                checkpointDate, transactions, currency).getAmount(), lastPostedPeriod.interestCarriedForward(),
+                totalInterestEarned.getAmount(), transactionCountOn(checkpointDate, transactions));
+    }
+
+    protected SavingsAccountInterestCheckpoint() {
+        //
+    }
+
+    private SavingsAccountInterestCheckpoint(final LocalDate checkpointDate, final BigDecimal closingBalance,
+            final BigDecimal runningBalance, final BigDecimal interestCarriedForward, final BigDecimal totalInterestEarned,
+            final Integer transactionCount) {
+        this.checkpointDate = checkpointDate.toDate();
+        this.closingBalance = closingBalance;
+        this.runningBalance = runningBalance;
+        this.interestCarriedForward = interestCarriedForward;
+        this.totalInterestEarned = totalInterestEarned;
+        this.transactionCount = transactionCount;
+    }
+
+    /**
+     * @return <code>true</code> if none of the transactions on or before the
+     *         checkpoint date changed since the checkpoint was taken
+     */
+    public boolean isValidFor(final Collection<SavingsAccountTransaction> transactions, final MonetaryCurrency currency) {
+        if (this.checkpointDate == null || this.transactionCount == null) { return false; }
+        final LocalDate checkpointLocalDate = getCheckpointDate();
+        return this.transactionCount.intValue() == transactionCountOn(checkpointLocalDate, transactions)
+                && runningBalanceOn(checkpointLocalDate, transactions, currency).isEqualTo(getRunningBalance(currency));
+    }
+
+    public LocalDate getCheckpointDate() {
+        return new LocalDate(this.checkpointDate);
+    }
+
+    public Money getClosingBalance(final MonetaryCurrency currency) {
+        return Money.of(currency, this.closingBalance);
+    }
+
+    public Money getRunningBalance(final MonetaryCurrency currency) {
+        return Money.of(currency, this.runningBalance);
+    }
+
+    public BigDecimal getInterestCarriedForward() {
+        return this.interestCarriedForward == null ? BigDecimal.ZERO : this.interestCarriedForward;
+    }
+
+    public Money getTotalInterestEarned(final MonetaryCurrency currency) {
+        return Money.of(currency, this.totalInterestEarned);
+    }
+
+    private static int transactionCountOn(final LocalDate date, final Collection<SavingsAccountTransaction> transactions) {
+        int count = 0;
+        for (final SavingsAccountTransaction transaction : transactions) {
+            if (!transaction.isAfter(date)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Money runningBalanceOn(final LocalDate date, final Collection<SavingsAccountTransaction> transactions,
+            final MonetaryCurrency currency) {
+        Money runningBalance = Money.zero(currency);
+        for (final SavingsAccountTransaction transaction : transactions) {
+            if (transaction.isNotReversed() && !transaction.isAfter(date)) {
+                if (transaction.isCredit()) {
+                    runningBalance = runningBalance.plus(transaction.getAmount(currency));
+                } else if (transaction.isDebit()) {
+                    runningBalance = runningBalance.minus(transaction.getAmount(currency));
+                }
+            }
+        }
+        return runningBalance;
+    }
+}
@@ -84,8 +84,18 @@ public final class SavingsAccountSummary {
     }
 
     public void updateFromInterestPeriodSummaries(final MonetaryCurrency currency, final List<PostingPeriod> allPostingPeriods) {
+        updateFromInterestPeriodSummaries(currency, allPostingPeriods, Money.zero(currency));
+    }
+
+    /**
+     * @param interestEarnedBeforePostingPeriods
+     *            interest earned in the posting periods before
+     *            <code>allPostingPeriods</code>
+     */
+    public void updateFromInterestPeriodSummaries(final MonetaryCurrency currency, final List<PostingPeriod> allPostingPeriods,
+            final Money interestEarnedBeforePostingPeriods) {
 
-        Money totalEarned = Money.zero(currency);
+        Money totalEarned = interestEarnedBeforePostingPeriods;
 
         for (final PostingPeriod period : allPostingPeriods) {
             Money interestEarned = period.interest();
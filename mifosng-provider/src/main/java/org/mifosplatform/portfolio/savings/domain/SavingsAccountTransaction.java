@@ -28,6 +28,7 @@ import org.hibernate.annotations.LazyCollection;
 import org.hibernate.annotations.LazyCollectionOption;
 import org.joda.time.LocalDate;
 import org.joda.time.LocalDateTime;
+import org.mifosplatform.infrastructure.core.domain.AbstractPooledIdPersistable;
 import org.mifosplatform.infrastructure.core.domain.LocalDateInterval;
 import org.mifosplatform.organisation.monetary.data.CurrencyData;
 import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
@@ -39,7 +40,6 @@ import org.mifosplatform.portfolio.savings.data.SavingsAccountTransactionEnumDat
 import org.mifosplatform.portfolio.savings.domain.interest.EndOfDayBalance;
 import org.mifosplatform.portfolio.savings.service.SavingsEnumerations;
 import org.mifosplatform.useradministration.domain.AppUser;
-import org.springframework.data.jpa.domain.AbstractPersistable;
 import org.springframework.util.CollectionUtils;
 
 /**
@@ -48,7 +48,7 @@ import org.springframework.util.CollectionUtils;
  */
 @Entity
 @Table(name = "m_savings_account_transaction")
-public final class SavingsAccountTransaction extends AbstractPersistable<Long> {
+public final class SavingsAccountTransaction extends AbstractPooledIdPersistable {
 
     @ManyToOne(optional = false)
     @JoinColumn(name = "savings_account_id", nullable = false)
@@ -11,6 +11,8 @@ import java.util.*;
 import javax.persistence.*;
 
 import com.google.gson.JsonObject;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.LazyCollection;
 import org.hibernate.annotations.LazyCollectionOption;
 import org.joda.time.DateTime;
@@ -41,6 +43,7 @@ import static org.mifosplatform.portfolio.savings.SavingsApiConstants.*;
 @Inheritance
 @DiscriminatorColumn(name = "deposit_type_enum", discriminatorType = DiscriminatorType.INTEGER)
 @DiscriminatorValue("100")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class SavingsProduct extends AbstractPersistable<Long> {
 
     @Column(name = "name", nullable = false, unique = true)
@@ -105,6 +108,7 @@ public class SavingsProduct extends AbstractPersistable<Long> {
     @Column(name = "withdrawal_fee_for_transfer")
     protected boolean withdrawalFeeApplicableForTransfer;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @ManyToMany
     @JoinTable(name = "m_savings_product_charge", joinColumns = @JoinColumn(name = "savings_product_id") , inverseJoinColumns = @JoinColumn(name = "charge_id") )
     protected Set<Charge> charges;
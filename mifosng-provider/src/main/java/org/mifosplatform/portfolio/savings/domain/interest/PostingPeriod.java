@@ -21,7 +21,6 @@ import org.mifosplatform.portfolio.savings.domain.SavingsAccountTransaction;
 
 public class PostingPeriod {
 
-    @SuppressWarnings("unused")
     private final LocalDateInterval periodInterval;
     private final MonetaryCurrency currency;
     private final SavingsCompoundingInterestPeriodType interestCompoundingType;
@@ -33,6 +32,8 @@ public class PostingPeriod {
     private final LocalDate dateOfPostingTransaction;
     private BigDecimal interestEarnedUnrounded;
     private Money interestEarnedRounded;
+    // interest earned but not posted carried into the next posting period
+    private BigDecimal interestCarriedForward;
 
     // opening/closing details
     private final Money openingBalance;
@@ -171,6 +172,18 @@ public class PostingPeriod {
         return this.dateOfPostingTransaction;
     }
 
+    public LocalDateInterval periodInterval() {
+        return this.periodInterval;
+    }
+
+    public BigDecimal interestCarriedForward() {
+        return this.interestCarriedForward;
+    }
+
+    void updateInterestCarriedForward(final BigDecimal interestCarriedForward) {
+        this.interestCarriedForward = interestCarriedForward;
+    }
+
     public Money closingBalance() {
         return this.closingBalance;
     }
@@ -12,6 +12,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.mifosplatform.accounting.producttoaccountmapping.service.ProductToGLAccountMappingWritePlatformService;
+import org.mifosplatform.infrastructure.cache.service.SecondLevelCacheService;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
@@ -24,6 +25,7 @@ import org.mifosplatform.portfolio.savings.data.DepositProductDataValidator;
 import org.mifosplatform.portfolio.savings.domain.DepositProductAssembler;
 import org.mifosplatform.portfolio.savings.domain.FixedDepositProduct;
 import org.mifosplatform.portfolio.savings.domain.FixedDepositProductRepository;
+import org.mifosplatform.portfolio.savings.domain.SavingsProduct;
 import org.mifosplatform.portfolio.savings.exception.FixedDepositProductNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,13 +44,14 @@ public class FixedDepositProductWritePlatformServiceJpaRepositoryImpl implements
     private final DepositProductAssembler depositProductAssembler;
     private final ProductToGLAccountMappingWritePlatformService accountMappingWritePlatformService;
     private final InterestRateChartAssembler chartAssembler;
+    private final SecondLevelCacheService secondLevelCacheService;
 
     @Autowired
     public FixedDepositProductWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
             final FixedDepositProductRepository fixedDepositProductRepository, final DepositProductDataValidator fromApiJsonDataValidator,
             final DepositProductAssembler depositProductAssembler,
             final ProductToGLAccountMappingWritePlatformService accountMappingWritePlatformService,
-            final InterestRateChartAssembler chartAssembler) {
+            final InterestRateChartAssembler chartAssembler, final SecondLevelCacheService secondLevelCacheService) {
         this.context = context;
         this.fixedDepositProductRepository = fixedDepositProductRepository;
         this.fromApiJsonDataValidator = fromApiJsonDataValidator;
@@ -56,6 +59,7 @@ public class FixedDepositProductWritePlatformServiceJpaRepositoryImpl implements
         this.logger = LoggerFactory.getLogger(FixedDepositProductWritePlatformServiceJpaRepositoryImpl.class);
         this.accountMappingWritePlatformService = accountMappingWritePlatformService;
         this.chartAssembler = chartAssembler;
+        this.secondLevelCacheService = secondLevelCacheService;
     }
 
     @Transactional
@@ -85,6 +89,7 @@ public class FixedDepositProductWritePlatformServiceJpaRepositoryImpl implements
     @Transactional
     @Override
     public CommandProcessingResult update(final Long productId, final JsonCommand command) {
+        this.secondLevelCacheService.evictAfterCommit(SavingsProduct.class);
 
         try {
             this.context.authenticatedUser();
@@ -128,6 +133,7 @@ public class FixedDepositProductWritePlatformServiceJpaRepositoryImpl implements
     @Transactional
     @Override
     public CommandProcessingResult delete(final Long productId) {
+        this.secondLevelCacheService.evictAfterCommit(SavingsProduct.class);
 
         this.context.authenticatedUser();
         final FixedDepositProduct product = this.fixedDepositProductRepository.findOne(productId);
@@ -67,6 +67,12 @@ public interface SavingsAccountWritePlatformService {
             Set<Long> existingReversedTransactionIds);
 
     void postInterest(SavingsAccount account, boolean postInterestAs, LocalDate transactionDate);
+
+    /**
+     * Loads the savings account and posts the interest due on it in one
+     * transaction.
+     */
+    void postInterest(Long savingsId);
     
     List<Long> updateIncorrectTransactionOverdraftAmount(String apiRequestBodyAsJson);
 }
\ No newline at end of file
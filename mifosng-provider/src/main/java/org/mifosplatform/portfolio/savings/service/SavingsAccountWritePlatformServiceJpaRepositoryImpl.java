@@ -425,6 +425,15 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
                 .build();
     }
 
+    @Transactional
+    @Override
+    public void postInterest(final Long savingsId) {
+        final SavingsAccount account = this.savingAccountAssembler.assembleFrom(savingsId);
+        final boolean postInterestAs = false;
+        final LocalDate transactionDate = null;
+        postInterest(account, postInterestAs, transactionDate);
+    }
+
     @Transactional
     public void postInterest(final SavingsAccount account,final boolean postInterestAs,final LocalDate transactionDate) {
 
@@ -16,6 +16,7 @@ import org.joda.time.LocalDate;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 import org.mifosplatform.accounting.producttoaccountmapping.service.ProductToGLAccountMappingWritePlatformService;
+import org.mifosplatform.infrastructure.cache.service.SecondLevelCacheService;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
@@ -56,6 +57,7 @@ public class SavingsProductWritePlatformServiceJpaRepositoryImpl implements Savi
     private final MifosEntityAccessUtil mifosEntityAccessUtil;
     private final ApplyChargesToExistingSavingsAccountRepository applyChargesToExistingSavingsAccountRepository;
     private final SavingsAccountRepository savingsAccountRepository;
+    private final SecondLevelCacheService secondLevelCacheService;
 
     @Autowired
     public SavingsProductWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
@@ -63,8 +65,7 @@ public class SavingsProductWritePlatformServiceJpaRepositoryImpl implements Savi
             final SavingsProductAssembler savingsProductAssembler,
             final ProductToGLAccountMappingWritePlatformService accountMappingWritePlatformService,
             final MifosEntityAccessUtil mifosEntityAccessUtil,final ApplyChargesToExistingSavingsAccountRepository applyChargesToExistingSavingsAccountRepository,
-            final SavingsAccountRepository savingsAccountRepository
-            ) {
+            final SavingsAccountRepository savingsAccountRepository, final SecondLevelCacheService secondLevelCacheService) {
         this.context = context;
         this.savingProductRepository = savingProductRepository;
         this.fromApiJsonDataValidator = fromApiJsonDataValidator;
@@ -74,6 +75,7 @@ public class SavingsProductWritePlatformServiceJpaRepositoryImpl implements Savi
         this.mifosEntityAccessUtil = mifosEntityAccessUtil;
         this.applyChargesToExistingSavingsAccountRepository = applyChargesToExistingSavingsAccountRepository;
         this.savingsAccountRepository = savingsAccountRepository;
+        this.secondLevelCacheService = secondLevelCacheService;
     }
 
     /*
@@ -138,6 +140,7 @@ public class SavingsProductWritePlatformServiceJpaRepositoryImpl implements Savi
     @Transactional
     @Override
     public CommandProcessingResult update(final Long productId, final JsonCommand command) {
+        this.secondLevelCacheService.evictAfterCommit(SavingsProduct.class);
 
         try {
             this.context.authenticatedUser();
@@ -189,6 +192,7 @@ public class SavingsProductWritePlatformServiceJpaRepositoryImpl implements Savi
     @Transactional
     @Override
     public CommandProcessingResult delete(final Long productId) {
+        this.secondLevelCacheService.evictAfterCommit(SavingsProduct.class);
 
         this.context.authenticatedUser();
         final SavingsProduct product = this.savingProductRepository.findOne(productId);
@@ -5,15 +5,14 @@
  */
 package org.mifosplatform.portfolio.savings.service;
 
-import java.util.ArrayList;
 import java.util.List;
 
-import org.joda.time.LocalDate;
+import org.mifosplatform.commands.service.AccountCommandSerializer;
 import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
 import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
 import org.mifosplatform.infrastructure.jobs.service.JobName;
-import org.mifosplatform.portfolio.savings.domain.SavingsAccount;
-import org.mifosplatform.portfolio.savings.domain.SavingsAccountAssembler;
+import org.mifosplatform.infrastructure.jobs.service.JobPartitionItemProcessor;
+import org.mifosplatform.infrastructure.jobs.service.PartitionedJobRunner;
 import org.mifosplatform.portfolio.savings.domain.SavingsAccountRepository;
 import org.mifosplatform.portfolio.savings.domain.SavingsAccountStatusType;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,42 +21,63 @@ import org.springframework.stereotype.Service;
 @Service
 public class SavingsSchedularServiceImpl implements SavingsSchedularService {
 
-    private final SavingsAccountAssembler savingAccountAssembler;
     private final SavingsAccountWritePlatformService savingsAccountWritePlatformService;
     private final SavingsAccountRepository savingAccountRepository;
+    private final PartitionedJobRunner partitionedJobRunner;
+    private final AccountCommandSerializer accountCommandSerializer;
 
     @Autowired
-    public SavingsSchedularServiceImpl(final SavingsAccountAssembler savingAccountAssembler,
-            final SavingsAccountWritePlatformService savingsAccountWritePlatformService,
-            final SavingsAccountRepository savingAccountRepository) {
-        this.savingAccountAssembler = savingAccountAssembler;
+    public SavingsSchedularServiceImpl(final SavingsAccountWritePlatformService savingsAccountWritePlatformService,
+            final SavingsAccountRepository savingAccountRepository, final PartitionedJobRunner partitionedJobRunner,
+            final AccountCommandSerializer accountCommandSerializer) {
         this.savingsAccountWritePlatformService = savingsAccountWritePlatformService;
         this.savingAccountRepository = savingAccountRepository;
+        this.partitionedJobRunner = partitionedJobRunner;
+        this.accountCommandSerializer = accountCommandSerializer;
     }
 
     @CronTarget(jobName = JobName.POST_INTEREST_FOR_SAVINGS)
     @Override
     public void postInterestForAccounts() throws JobExecutionException {
-        final List<SavingsAccount> accounts = new ArrayList<>();
-        final List<SavingsAccount> savingsAccounts = this.savingAccountRepository.findSavingAccountByStatusAndInterest(SavingsAccountStatusType.ACTIVE
+        final List<Long> savingsIds = this.savingAccountRepository.findIdsOfSavingAccountsByStatusAndInterest(SavingsAccountStatusType.ACTIVE
                 .getValue());
-        StringBuffer sb = new StringBuffer();
-        for (final SavingsAccount savingsAccount : savingsAccounts) {
-            try {
-                this.savingAccountAssembler.assignSavingAccountHelpers(savingsAccount);
-                boolean postInterestAsOn = false;
-                LocalDate transactionDate = null;
-                this.savingsAccountWritePlatformService.postInterest(savingsAccount,postInterestAsOn,transactionDate);
-            } catch (Exception e) {
-                Throwable realCause = e;
-                if (e.getCause() != null) {
-                    realCause = e.getCause();
-                }
-                sb.append("failed to post interest for Savings with id " + savingsAccount.getId() + " with message "
-                        + realCause.getMessage());
-            }
-        }
-        
-        if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
+
+        final String errors = this.partitionedJobRunner.run(JobName.POST_INTEREST_FOR_SAVINGS, savingsIds,
+                new JobPartitionItemProcessor<Long>() {
+
+                    @Override
+                    public Long identifierOf(final Long savingsId) {
+                        return savingsId;
+                    }
+
+                    @Override
+                    public Long partitionKeyOf(@SuppressWarnings("unused") final Long savingsId) {
+                        // partition by id range
+                        return null;
+                    }
+
+                    /**
+                     * The account is loaded once the permit is held, so that
+                     * the interest is posted on its state after the commands
+                     * that ran before.
+                     */
+                    @Override
+                    public void process(final Long savingsId) {
+                        final AccountCommandSerializer.Permit permit = SavingsSchedularServiceImpl.this.accountCommandSerializer.acquire(
+                                null, savingsId, null);
+                        try {
+                            SavingsSchedularServiceImpl.this.savingsAccountWritePlatformService.postInterest(savingsId);
+                        } finally {
+                            permit.release();
+                        }
+                    }
+
+                    @Override
+                    public String failureMessage(final Long savingsId, final Throwable realCause) {
+                        return "failed to post interest for Savings with id " + savingsId + " with message " + realCause.getMessage();
+                    }
+                });
+
+        if (errors.length() > 0) { throw new JobExecutionException(errors); }
     }
 }
@@ -0,0 +1,65 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mifosplatform.portfolio.search.domain.SearchIndexEntityType;
+
+/**
+ * What the search index holds for one entity: the office hierarchy used to
+ * filter results, the name and the other values (account number, external
+ * id, mobile number, document key) it is found by.
+ */
+public class SearchIndexDocument {
+
+    private final SearchIndexEntityType entityType;
+    private final Long entityId;
+    private final String officeHierarchy;
+    private final String name;
+    private final List<String> values;
+
+    public static SearchIndexDocument instance(final SearchIndexEntityType entityType, final Long entityId, final String officeHierarchy,
+            final String name, final String... values) {
+        final List<String> nonEmptyValues = new ArrayList<>(values.length);
+        for (final String value : values) {
+            if (value != null && !value.trim().isEmpty()) {
+                nonEmptyValues.add(value);
+            }
+        }
+        return new SearchIndexDocument(entityType, entityId, officeHierarchy, name, nonEmptyValues);
+    }
+
+    private SearchIndexDocument(final SearchIndexEntityType entityType, final Long entityId, final String officeHierarchy,
+            final String name, final List<String> values) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.officeHierarchy = officeHierarchy;
+        this.name = name;
+        this.values = values;
+    }
+
+    public SearchIndexEntityType getEntityType() {
+        return this.entityType;
+    }
+
+    public Long getEntityId() {
+        return this.entityId;
+    }
+
+    public String getOfficeHierarchy() {
+        return this.officeHierarchy;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public List<String> getValues() {
+        return this.values;
+    }
+}
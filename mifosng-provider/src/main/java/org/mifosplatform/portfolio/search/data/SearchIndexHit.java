@@ -0,0 +1,42 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.data;
+
+import org.mifosplatform.portfolio.search.domain.SearchIndexEntityType;
+
+/**
+ * An entity matching a search, as found in the search index.
+ */
+public class SearchIndexHit {
+
+    private final SearchIndexEntityType entityType;
+    private final Long entityId;
+
+    public SearchIndexHit(final SearchIndexEntityType entityType, final Long entityId) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+    }
+
+    public SearchIndexEntityType getEntityType() {
+        return this.entityType;
+    }
+
+    public Long getEntityId() {
+        return this.entityId;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!(obj instanceof SearchIndexHit)) { return false; }
+        final SearchIndexHit other = (SearchIndexHit) obj;
+        return this.entityType == other.entityType && this.entityId.equals(other.entityId);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.entityType.hashCode() + this.entityId.hashCode();
+    }
+}
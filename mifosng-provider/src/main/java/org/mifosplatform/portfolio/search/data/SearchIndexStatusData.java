@@ -0,0 +1,39 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.data;
+
+import org.joda.time.DateTime;
+
+/**
+ * Whether searches use the search index and how far the index lags behind
+ * the portfolio: the number of entities waiting to be indexed and how long
+ * the oldest of them has been waiting.
+ */
+public class SearchIndexStatusData {
+
+    @SuppressWarnings("unused")
+    private final boolean enabled;
+    @SuppressWarnings("unused")
+    private final Long queuedEntities;
+    @SuppressWarnings("unused")
+    private final DateTime oldestQueuedDate;
+    @SuppressWarnings("unused")
+    private final Long lagInSeconds;
+
+    public static SearchIndexStatusData instance(final boolean enabled, final Long queuedEntities, final DateTime oldestQueuedDate) {
+        final Long lagInSeconds = oldestQueuedDate == null ? 0L : Math.max(0L,
+                (DateTime.now().getMillis() - oldestQueuedDate.getMillis()) / 1000);
+        return new SearchIndexStatusData(enabled, queuedEntities, oldestQueuedDate, lagInSeconds);
+    }
+
+    private SearchIndexStatusData(final boolean enabled, final Long queuedEntities, final DateTime oldestQueuedDate,
+            final Long lagInSeconds) {
+        this.enabled = enabled;
+        this.queuedEntities = queuedEntities;
+        this.oldestQueuedDate = oldestQueuedDate;
+        this.lagInSeconds = lagInSeconds;
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.domain;
+
+/**
+ * Kinds of entities kept in the search index. Centers are indexed as groups
+ * and fixed and recurring deposit accounts as savings accounts, since they
+ * share a table.
+ */
+public enum SearchIndexEntityType {
+
+    CLIENT, //
+    GROUP, //
+    LOAN, //
+    SAVING, //
+    CLIENTIDENTIFIER;
+
+    public static SearchIndexEntityType fromName(final String name) {
+        for (final SearchIndexEntityType entityType : values()) {
+            if (entityType.name().equalsIgnoreCase(name)) { return entityType; }
+        }
+        return null;
+    }
+
+    /**
+     * @return whether entities of this type are found by name, which adds
+     *         phonetic and typo tolerant matching
+     */
+    public boolean hasName() {
+        return this == CLIENT || this == GROUP;
+    }
+}
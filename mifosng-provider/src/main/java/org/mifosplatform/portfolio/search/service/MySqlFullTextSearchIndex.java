@@ -0,0 +1,208 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang.StringUtils;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.portfolio.search.data.SearchIndexDocument;
+import org.mifosplatform.portfolio.search.data.SearchIndexHit;
+import org.mifosplatform.portfolio.search.domain.SearchIndexEntityType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link SearchIndex} kept in the <code>m_search_index</code> table, searched
+ * through its InnoDB full-text indexes in boolean mode:
+ * <ul>
+ * <li>every word of the query must start a word of the search text, which
+ * holds the name and values of the entity;</li>
+ * <li>for clients and groups not found that way, every word must have a
+ * phonetic code in common with a word of the name;</li>
+ * <li>finally names sharing trigrams with the query are checked in memory
+ * for words within one or two typos of the query words.</li>
+ * </ul>
+ * Query words shorter than the minimum full-text word length are left out of
+ * the full-text matches.
+ */
+@Service
+public class MySqlFullTextSearchIndex implements SearchIndex {
+
+    /**
+     * Names sharing trigrams with the query checked for near misses, as a
+     * multiple of the number of results still wanted.
+     */
+    private static final int NEAR_MATCH_CANDIDATES_FACTOR = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    public MySqlFullTextSearchIndex(final RoutingDataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void save(final Collection<SearchIndexDocument> documents) {
+        if (documents.isEmpty()) { return; }
+
+        final List<SearchIndexDocument> documentList = new ArrayList<>(documents);
+        final Timestamp indexedDate = new Timestamp(System.currentTimeMillis());
+        final String sql = "insert into m_search_index (entity_type, entity_id, office_hierarchy, display_name, search_text, phonetic_text, trigram_text, indexed_date)"
+                + " values (?, ?, ?, ?, ?, ?, ?, ?) on duplicate key update office_hierarchy = values(office_hierarchy),"
+                + " display_name = values(display_name), search_text = values(search_text), phonetic_text = values(phonetic_text),"
+                + " trigram_text = values(trigram_text), indexed_date = values(indexed_date)";
+
+        this.jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+
+            @Override
+            public void setValues(final PreparedStatement ps, final int i) throws SQLException {
+                final SearchIndexDocument document = documentList.get(i);
+
+                final Set<String> searchWords = new LinkedHashSet<>(SearchIndexAnalyzer.searchWords(document.getName()));
+                for (final String value : document.getValues()) {
+                    searchWords.addAll(SearchIndexAnalyzer.searchWords(value));
+                }
+                final Set<String> phoneticCodes = new LinkedHashSet<>();
+                final Set<String> trigrams = new LinkedHashSet<>();
+                for (final String word : SearchIndexAnalyzer.words(document.getName())) {
+                    phoneticCodes.addAll(SearchIndexAnalyzer.phoneticCodes(word));
+                    trigrams.addAll(SearchIndexAnalyzer.trigrams(word));
+                }
+
+                ps.setString(1, document.getEntityType().name());
+                ps.setLong(2, document.getEntityId());
+                ps.setString(3, document.getOfficeHierarchy());
+                ps.setString(4, StringUtils.abbreviate(document.getName(), 200));
+                ps.setString(5, StringUtils.join(searchWords, ' '));
+                ps.setString(6, StringUtils.join(phoneticCodes, ' '));
+                ps.setString(7, StringUtils.join(trigrams, ' '));
+                ps.setTimestamp(8, indexedDate);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return documentList.size();
+            }
+        });
+    }
+
+    @Override
+    public void remove(final SearchIndexEntityType entityType, final Collection<Long> entityIds) {
+        if (entityIds.isEmpty()) { return; }
+
+        final MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue("entityType", entityType.name());
+        params.addValue("entityIds", entityIds);
+        this.namedParameterJdbcTemplate.update("delete from m_search_index where entity_type = :entityType and entity_id in (:entityIds)",
+                params);
+    }
+
+    @Override
+    public List<SearchIndexHit> search(final String query, final String officeHierarchy,
+            final Collection<SearchIndexEntityType> entityTypes, final int limit) {
+
+        final List<String> queryWords = new ArrayList<>();
+        for (final String word : SearchIndexAnalyzer.words(query)) {
+            if (word.length() >= SearchIndexAnalyzer.MIN_WORD_LENGTH) {
+                queryWords.add(word);
+            }
+        }
+        if (queryWords.isEmpty() || entityTypes.isEmpty()) { return null; }
+
+        final Set<SearchIndexHit> hits = new LinkedHashSet<>();
+
+        final StringBuilder prefixQuery = new StringBuilder();
+        for (final String word : queryWords) {
+            prefixQuery.append(" +").append(word).append('*');
+        }
+        hits.addAll(match("search_text", prefixQuery.toString(), officeHierarchy, entityTypes, limit, null));
+
+        final List<SearchIndexEntityType> namedEntityTypes = new ArrayList<>();
+        for (final SearchIndexEntityType entityType : entityTypes) {
+            if (entityType.hasName()) {
+                namedEntityTypes.add(entityType);
+            }
+        }
+        if (hits.size() >= limit || namedEntityTypes.isEmpty()) { return new ArrayList<>(hits); }
+
+        final StringBuilder phoneticQuery = new StringBuilder();
+        final StringBuilder trigramQuery = new StringBuilder();
+        for (final String word : queryWords) {
+            final Set<String> phoneticCodes = SearchIndexAnalyzer.phoneticCodes(word);
+            if (!phoneticCodes.isEmpty()) {
+                phoneticQuery.append(" +(").append(StringUtils.join(phoneticCodes, ' ')).append(')');
+            }
+            trigramQuery.append(' ').append(StringUtils.join(SearchIndexAnalyzer.trigrams(word), ' '));
+        }
+
+        if (phoneticQuery.length() > 0) {
+            hits.addAll(match("phonetic_text", phoneticQuery.toString(), officeHierarchy, namedEntityTypes, limit, null));
+        }
+        if (hits.size() < limit) {
+            final int candidates = (limit - hits.size()) * NEAR_MATCH_CANDIDATES_FACTOR;
+            hits.addAll(match("trigram_text", trigramQuery.toString(), officeHierarchy, namedEntityTypes, candidates, queryWords));
+        }
+
+        final List<SearchIndexHit> result = new ArrayList<>(hits);
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    /**
+     * @param nearMatchWords
+     *            when given, only rows whose name is a near match of these
+     *            words are returned
+     */
+    private List<SearchIndexHit> match(final String column, final String booleanQuery, final String officeHierarchy,
+            final Collection<SearchIndexEntityType> entityTypes, final int limit, final List<String> nearMatchWords) {
+
+        final List<String> entityTypeNames = new ArrayList<>(entityTypes.size());
+        for (final SearchIndexEntityType entityType : entityTypes) {
+            entityTypeNames.add(entityType.name());
+        }
+
+        final MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue("query", booleanQuery);
+        params.addValue("entityTypes", entityTypeNames);
+        params.addValue("hierarchy", officeHierarchy + "%");
+        params.addValue("limit", limit);
+
+        // group loans and savings accounts have no office hierarchy
+        final String sql = "select entity_type, entity_id, display_name from m_search_index where match(" + column
+                + ") against (:query in boolean mode) and entity_type in (:entityTypes)"
+                + " and (office_hierarchy is null or office_hierarchy like :hierarchy) order by match(" + column
+                + ") against (:query in boolean mode) desc limit :limit";
+
+        return this.namedParameterJdbcTemplate.query(sql, params, new ResultSetExtractor<List<SearchIndexHit>>() {
+
+            @Override
+            public List<SearchIndexHit> extractData(final ResultSet rs) throws SQLException {
+                final List<SearchIndexHit> hits = new ArrayList<>();
+                while (rs.next()) {
+                    if (nearMatchWords == null || SearchIndexAnalyzer.isNearMatch(nearMatchWords, rs.getString("display_name"))) {
+                        hits.add(new SearchIndexHit(SearchIndexEntityType.fromName(rs.getString("entity_type")), rs.getLong("entity_id")));
+                    }
+                }
+                return hits;
+            }
+        });
+    }
+}
@@ -0,0 +1,40 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.mifosplatform.portfolio.search.data.SearchIndexDocument;
+import org.mifosplatform.portfolio.search.data.SearchIndexHit;
+import org.mifosplatform.portfolio.search.domain.SearchIndexEntityType;
+
+/**
+ * Index answering the global search without scanning the portfolio tables.
+ * The index decides how documents are analysed; it is kept current by
+ * {@link SearchIndexUpdater} from the entities queued in
+ * {@link SearchIndexQueue}.
+ */
+public interface SearchIndex {
+
+    void save(Collection<SearchIndexDocument> documents);
+
+    void remove(SearchIndexEntityType entityType, Collection<Long> entityIds);
+
+    /**
+     * Finds the entities whose name or values start with every word of the
+     * query, followed by those whose name sounds like or is a near miss of
+     * the query.
+     *
+     * @param officeHierarchy
+     *            hierarchy of the office whose entities are searched,
+     *            including those of its sub-offices
+     * @return the matching entities, best matches first, or
+     *         <code>null</code> when the query cannot be answered from the
+     *         index (for instance because all its words are too short)
+     */
+    List<SearchIndexHit> search(String query, String officeHierarchy, Collection<SearchIndexEntityType> entityTypes, int limit);
+}
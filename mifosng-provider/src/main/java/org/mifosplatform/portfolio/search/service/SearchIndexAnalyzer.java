@@ -0,0 +1,144 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.commons.codec.language.DoubleMetaphone;
+
+/**
+ * Splits names and values into the words written to and searched in the
+ * MySQL full-text indexes.
+ *
+ * Words are lower cased runs of letters and digits. Every name word is also
+ * written as its double metaphone codes for phonetic matching and as its
+ * trigrams for typo tolerant matching. Phonetic codes and trigrams carry a
+ * prefix so that none is shorter than the minimum word length of InnoDB
+ * full-text indexes (3) or is one of its stopwords.
+ */
+final class SearchIndexAnalyzer {
+
+    static final int MIN_WORD_LENGTH = 3;
+
+    private static final Pattern NON_WORD_CHARACTERS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern LEADING_ZEROS = Pattern.compile("^0+(?=\\d)");
+    private static final String PHONETIC_PREFIX = "ph";
+    private static final String TRIGRAM_PREFIX = "t";
+
+    private SearchIndexAnalyzer() {
+        //
+    }
+
+    static List<String> words(final String text) {
+        final List<String> words = new ArrayList<>();
+        if (text == null) { return words; }
+        for (final String word : NON_WORD_CHARACTERS.split(text.toLowerCase())) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * @return the words of the text, with account numbers also written
+     *         without their leading zeros
+     */
+    static Set<String> searchWords(final String text) {
+        final Set<String> searchWords = new LinkedHashSet<>();
+        for (final String word : words(text)) {
+            searchWords.add(word);
+            final String withoutLeadingZeros = LEADING_ZEROS.matcher(word).replaceFirst("");
+            if (withoutLeadingZeros.length() >= MIN_WORD_LENGTH) {
+                searchWords.add(withoutLeadingZeros);
+            }
+        }
+        return searchWords;
+    }
+
+    /**
+     * @return the primary and alternate double metaphone codes of the word,
+     *         empty for words without letters
+     */
+    static Set<String> phoneticCodes(final String word) {
+        final Set<String> codes = new LinkedHashSet<>();
+        final DoubleMetaphone doubleMetaphone = new DoubleMetaphone();
+        final String primary = doubleMetaphone.doubleMetaphone(word);
+        if (primary != null && !primary.isEmpty()) {
+            codes.add(PHONETIC_PREFIX + primary.toLowerCase());
+            final String alternate = doubleMetaphone.doubleMetaphone(word, true);
+            if (alternate != null && !alternate.isEmpty()) {
+                codes.add(PHONETIC_PREFIX + alternate.toLowerCase());
+            }
+        }
+        return codes;
+    }
+
+    static Set<String> trigrams(final String word) {
+        final Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= word.length(); i++) {
+            trigrams.add(TRIGRAM_PREFIX + word.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    /**
+     * @return whether every word of the query of at least
+     *         {@link #MIN_WORD_LENGTH} characters starts a word of the name,
+     *         allowing one typo in words of up to five characters and two in
+     *         longer ones
+     */
+    static boolean isNearMatch(final List<String> queryWords, final String name) {
+        final List<String> nameWords = words(name);
+        for (final String queryWord : queryWords) {
+            if (queryWord.length() < MIN_WORD_LENGTH) {
+                continue;
+            }
+            final int allowedTypos = queryWord.length() <= 5 ? 1 : 2;
+            boolean matched = false;
+            for (final String nameWord : nameWords) {
+                if (nameWord.startsWith(queryWord) || editDistanceToPrefix(queryWord, nameWord) <= allowedTypos) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) { return false; }
+        }
+        return true;
+    }
+
+    /**
+     * @return the Levenshtein distance between the query word and the
+     *         closest prefix of the name word, so that a misspelt beginning
+     *         of a name still matches
+     */
+    private static int editDistanceToPrefix(final String queryWord, final String nameWord) {
+        int[] previous = new int[nameWord.length() + 1];
+        int[] current = new int[nameWord.length() + 1];
+        for (int j = 0; j <= nameWord.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= queryWord.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= nameWord.length(); j++) {
+                final int substitution = previous[j - 1] + (queryWord.charAt(i - 1) == nameWord.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j] + 1, current[j - 1] + 1));
+            }
+            final int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        int closestPrefix = Integer.MAX_VALUE;
+        for (int j = 0; j <= nameWord.length(); j++) {
+            closestPrefix = Math.min(closestPrefix, previous[j]);
+        }
+        return closestPrefix;
+    }
+}
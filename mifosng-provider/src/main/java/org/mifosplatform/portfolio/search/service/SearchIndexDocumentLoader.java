@@ -0,0 +1,81 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.portfolio.search.data.SearchIndexDocument;
+import org.mifosplatform.portfolio.search.domain.SearchIndexEntityType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads the values the global search matches on from the portfolio tables,
+ * the same values the search used to scan with <code>like</code>.
+ */
+@Component
+public class SearchIndexDocumentLoader {
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    public SearchIndexDocumentLoader(final RoutingDataSource dataSource) {
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    /**
+     * @return the documents of the entities that still exist
+     */
+    public List<SearchIndexDocument> load(final SearchIndexEntityType entityType, final Collection<Long> entityIds) {
+        final String sql;
+        switch (entityType) {
+            case CLIENT:
+                sql = "select c.id as id, o.hierarchy as hierarchy, c.display_name as name, c.account_no as value1,"
+                        + " c.external_id as value2, c.mobile_no as value3, null as value4"
+                        + " from m_client c join m_office o on o.id = c.office_id where c.id in (:ids)";
+            break;
+            case GROUP:
+                sql = "select g.id as id, o.hierarchy as hierarchy, g.display_name as name, g.account_no as value1,"
+                        + " g.external_id as value2, cast(g.id as char) as value3, null as value4"
+                        + " from m_group g join m_office o on o.id = g.office_id where g.id in (:ids)";
+            break;
+            case LOAN:
+                sql = "select l.id as id, o.hierarchy as hierarchy, null as name, l.account_no as value1,"
+                        + " l.external_id as value2, null as value3, null as value4"
+                        + " from m_loan l left join m_client c on c.id = l.client_id left join m_office o on o.id = c.office_id"
+                        + " where l.id in (:ids)";
+            break;
+            case SAVING:
+                sql = "select s.id as id, o.hierarchy as hierarchy, null as name, s.account_no as value1,"
+                        + " s.external_id as value2, null as value3, null as value4"
+                        + " from m_savings_account s left join m_client c on c.id = s.client_id left join m_office o on o.id = c.office_id"
+                        + " where s.id in (:ids)";
+            break;
+            default:
+                sql = "select ci.id as id, o.hierarchy as hierarchy, null as name, ci.document_key as value1,"
+                        + " null as value2, null as value3, null as value4"
+                        + " from m_client_identifier ci join m_client c on c.id = ci.client_id join m_office o on o.id = c.office_id"
+                        + " where ci.id in (:ids)";
+            break;
+        }
+
+        return this.namedParameterJdbcTemplate.query(sql, new MapSqlParameterSource("ids", entityIds), new RowMapper<SearchIndexDocument>() {
+
+            @Override
+            public SearchIndexDocument mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+                return SearchIndexDocument.instance(entityType, rs.getLong("id"), rs.getString("hierarchy"), rs.getString("name"),
+                        rs.getString("value1"), rs.getString("value2"), rs.getString("value3"), rs.getString("value4"));
+            }
+        });
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.hooks.event.HookEvent;
+import org.mifosplatform.portfolio.search.domain.SearchIndexEntityType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Queues the entities changed by a command for indexing. Command events are
+ * published synchronously by the command, so entities are queued in its
+ * transaction; the {@link SearchIndexUpdater} is signalled once it
+ * committed.
+ *
+ * Every command on clients, groups, centers and client identifiers is
+ * queued. Of the far more frequent loan and savings commands only those that
+ * can change an account number or external id are.
+ */
+@Service
+public class SearchIndexEventListener implements ApplicationListener<HookEvent> {
+
+    private final SearchIndexQueue searchIndexQueue;
+    private final SearchIndexUpdater searchIndexUpdater;
+
+    @Autowired
+    public SearchIndexEventListener(final SearchIndexQueue searchIndexQueue, final SearchIndexUpdater searchIndexUpdater) {
+        this.searchIndexQueue = searchIndexQueue;
+        this.searchIndexUpdater = searchIndexUpdater;
+    }
+
+    @Override
+    public void onApplicationEvent(final HookEvent event) {
+        final String entityName = event.getSource().getEntityName();
+        final String actionName = event.getSource().getActionName();
+        if (entityName == null || actionName == null) { return; }
+
+        final boolean accountChanged = "CREATE".equals(actionName) || "UPDATE".equals(actionName) || "DELETE".equals(actionName);
+
+        SearchIndexEntityType entityType = null;
+        String idParameter = "resourceId";
+        if ("CLIENT".equals(entityName)) {
+            entityType = SearchIndexEntityType.CLIENT;
+            idParameter = "clientId";
+        } else if ("GROUP".equals(entityName) || "CENTER".equals(entityName)) {
+            entityType = SearchIndexEntityType.GROUP;
+            idParameter = "groupId";
+        } else if ("CLIENTIDENTIFIER".equals(entityName)) {
+            entityType = SearchIndexEntityType.CLIENTIDENTIFIER;
+        } else if ("LOAN".equals(entityName) && accountChanged) {
+            entityType = SearchIndexEntityType.LOAN;
+            idParameter = "loanId";
+        } else if (("SAVINGSACCOUNT".equals(entityName) || "FIXEDDEPOSITACCOUNT".equals(entityName) || "RECURRINGDEPOSITACCOUNT"
+                .equals(entityName)) && accountChanged) {
+            entityType = SearchIndexEntityType.SAVING;
+            idParameter = "savingsId";
+        }
+        if (entityType == null) { return; }
+
+        final JsonObject result = new JsonParser().parse(event.getPayload()).getAsJsonObject();
+        Long entityId = longValue(result, idParameter);
+        if (entityId == null) {
+            entityId = longValue(result, "resourceId");
+        }
+        if (entityId == null) { return; }
+
+        this.searchIndexQueue.enqueue(entityType, entityId);
+        if (entityType == SearchIndexEntityType.CLIENT && (actionName.contains("TRANSFER") || "UPDATE".equals(actionName))) {
+            // the accounts and identifiers of the client are searched within
+            // its office
+            this.searchIndexQueue.enqueueClientDependants(entityId);
+        }
+
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCommit() {
+                    SearchIndexEventListener.this.searchIndexUpdater.signal(tenant);
+                }
+            });
+        } else {
+            this.searchIndexUpdater.signal(tenant);
+        }
+    }
+
+    private static Long longValue(final JsonObject object, final String parameterName) {
+        final JsonElement element = object.get(parameterName);
+        return element == null || element.isJsonNull() ? null : element.getAsLong();
+    }
+}
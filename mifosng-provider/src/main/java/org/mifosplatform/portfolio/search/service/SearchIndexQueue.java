@@ -0,0 +1,154 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+import org.joda.time.DateTime;
+import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.portfolio.search.domain.SearchIndexEntityType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Entities waiting to be (re)indexed, in the <code>m_search_index_queue</code>
+ * table of the current tenant. Entries are written in the transaction that
+ * changed the entity, so none is lost when it commits and none is left
+ * behind when it rolls back.
+ */
+@Component
+public class SearchIndexQueue {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    public SearchIndexQueue(final RoutingDataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    public void enqueue(final SearchIndexEntityType entityType, final Long entityId) {
+        this.jdbcTemplate.update("insert into m_search_index_queue (entity_type, entity_id, queued_date) values (?, ?, ?)",
+                entityType.name(), entityId, new Timestamp(System.currentTimeMillis()));
+    }
+
+    /**
+     * Queues the loans, savings accounts and identifiers of the client, whose
+     * office hierarchy follows that of the client.
+     */
+    public void enqueueClientDependants(final Long clientId) {
+        final Timestamp now = new Timestamp(System.currentTimeMillis());
+        this.jdbcTemplate.update("insert into m_search_index_queue (entity_type, entity_id, queued_date)"
+                + " select ?, l.id, ? from m_loan l where l.client_id = ?", SearchIndexEntityType.LOAN.name(), now, clientId);
+        this.jdbcTemplate.update("insert into m_search_index_queue (entity_type, entity_id, queued_date)"
+                + " select ?, s.id, ? from m_savings_account s where s.client_id = ?", SearchIndexEntityType.SAVING.name(), now, clientId);
+        this.jdbcTemplate.update("insert into m_search_index_queue (entity_type, entity_id, queued_date)"
+                + " select ?, ci.id, ? from m_client_identifier ci where ci.client_id = ?", SearchIndexEntityType.CLIENTIDENTIFIER.name(),
+                now, clientId);
+    }
+
+    /**
+     * Queues every entity of the portfolio, and every entity in the index so
+     * that entries of entities deleted behind the back of the index are
+     * removed.
+     *
+     * @return the number of entries queued
+     */
+    public int enqueueAll() {
+        final Timestamp now = new Timestamp(System.currentTimeMillis());
+        final String insert = "insert into m_search_index_queue (entity_type, entity_id, queued_date) ";
+        int queued = 0;
+        queued += this.jdbcTemplate.update(insert + "select ?, id, ? from m_client", SearchIndexEntityType.CLIENT.name(), now);
+        queued += this.jdbcTemplate.update(insert + "select ?, id, ? from m_group", SearchIndexEntityType.GROUP.name(), now);
+        queued += this.jdbcTemplate.update(insert + "select ?, id, ? from m_loan", SearchIndexEntityType.LOAN.name(), now);
+        queued += this.jdbcTemplate.update(insert + "select ?, id, ? from m_savings_account", SearchIndexEntityType.SAVING.name(), now);
+        queued += this.jdbcTemplate.update(insert + "select ?, id, ? from m_client_identifier",
+                SearchIndexEntityType.CLIENTIDENTIFIER.name(), now);
+        queued += this.jdbcTemplate.update(insert + "select entity_type, entity_id, ? from m_search_index", now);
+        return queued;
+    }
+
+    /**
+     * @return the oldest entries, at most <code>limit</code>
+     */
+    public List<QueuedEntity> retrieveOldest(final int limit) {
+        return this.jdbcTemplate.query("select id, entity_type, entity_id from m_search_index_queue order by id limit ?",
+                new QueuedEntityMapper(), limit);
+    }
+
+    public void delete(final Collection<Long> ids) {
+        if (ids.isEmpty()) { return; }
+        this.namedParameterJdbcTemplate.update("delete from m_search_index_queue where id in (:ids)",
+                new MapSqlParameterSource("ids", ids));
+    }
+
+    public boolean hasQueued() {
+        return !this.jdbcTemplate.queryForList("select id from m_search_index_queue limit 1", Long.class).isEmpty();
+    }
+
+    public Long countQueued() {
+        return this.jdbcTemplate.queryForObject("select count(*) from m_search_index_queue", Long.class);
+    }
+
+    /**
+     * @return when the entry waiting longest was queued, <code>null</code>
+     *         when the queue is empty
+     */
+    public DateTime retrieveOldestQueuedDate() {
+        final List<DateTime> dates = this.jdbcTemplate.query("select queued_date from m_search_index_queue order by id limit 1",
+                new RowMapper<DateTime>() {
+
+                    @Override
+                    public DateTime mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+                        return JdbcSupport.getDateTime(rs, "queued_date");
+                    }
+                });
+        return dates.isEmpty() ? null : dates.get(0);
+    }
+
+    public static final class QueuedEntity {
+
+        private final Long id;
+        private final SearchIndexEntityType entityType;
+        private final Long entityId;
+
+        QueuedEntity(final Long id, final SearchIndexEntityType entityType, final Long entityId) {
+            this.id = id;
+            this.entityType = entityType;
+            this.entityId = entityId;
+        }
+
+        public Long getId() {
+            return this.id;
+        }
+
+        public SearchIndexEntityType getEntityType() {
+            return this.entityType;
+        }
+
+        public Long getEntityId() {
+            return this.entityId;
+        }
+    }
+
+    private static final class QueuedEntityMapper implements RowMapper<QueuedEntity> {
+
+        @Override
+        public QueuedEntity mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new QueuedEntity(rs.getLong("id"), SearchIndexEntityType.fromName(rs.getString("entity_type")), rs.getLong("entity_id"));
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.security.service.TenantDetailsService;
+import org.mifosplatform.portfolio.search.data.SearchIndexDocument;
+import org.mifosplatform.portfolio.search.domain.SearchIndexEntityType;
+import org.mifosplatform.portfolio.search.service.SearchIndexQueue.QueuedEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Applies the queued entities of a tenant to the {@link SearchIndex} in
+ * batches, on a single background thread.
+ *
+ * Tenants are signalled once a transaction that queued entities committed.
+ * Every {@link #SWEEP_INTERVAL_SECONDS} seconds all tenants are checked for
+ * entities queued on another node, before a restart or by a rebuild.
+ */
+@Service
+public class SearchIndexUpdater {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexUpdater.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final int SWEEP_INTERVAL_SECONDS = 30;
+
+    private final SearchIndexQueue searchIndexQueue;
+    private final SearchIndexDocumentLoader searchIndexDocumentLoader;
+    private final SearchIndex searchIndex;
+    private final TenantDetailsService tenantDetailsService;
+
+    private final LinkedBlockingQueue<MifosPlatformTenant> waitingTenants = new LinkedBlockingQueue<>();
+    private final Set<String> waitingTenantIdentifiers = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private ExecutorService updateExecutor;
+    private ScheduledExecutorService sweepExecutor;
+
+    @Autowired
+    public SearchIndexUpdater(final SearchIndexQueue searchIndexQueue, final SearchIndexDocumentLoader searchIndexDocumentLoader,
+            final SearchIndex searchIndex, final TenantDetailsService tenantDetailsService) {
+        this.searchIndexQueue = searchIndexQueue;
+        this.searchIndexDocumentLoader = searchIndexDocumentLoader;
+        this.searchIndex = searchIndex;
+        this.tenantDetailsService = tenantDetailsService;
+    }
+
+    @PostConstruct
+    public void start() {
+        this.updateExecutor = Executors.newSingleThreadExecutor(new DaemonThreadFactory("search-index-updater"));
+        this.updateExecutor.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                work();
+            }
+        });
+        this.sweepExecutor = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("search-index-sweep"));
+        this.sweepExecutor.scheduleWithFixedDelay(new Runnable() {
+
+            @Override
+            public void run() {
+                sweep();
+            }
+        }, SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.sweepExecutor.shutdownNow();
+        this.updateExecutor.shutdownNow();
+    }
+
+    /**
+     * Puts the tenant in the queue of tenants with entities to index, unless
+     * it is already waiting there.
+     */
+    public void signal(final MifosPlatformTenant tenant) {
+        if (this.waitingTenantIdentifiers.add(tenant.getTenantIdentifier())) {
+            this.waitingTenants.offer(tenant);
+        }
+    }
+
+    private void work() {
+        while (!Thread.currentThread().isInterrupted()) {
+            final MifosPlatformTenant tenant;
+            try {
+                tenant = this.waitingTenants.take();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            this.waitingTenantIdentifiers.remove(tenant.getTenantIdentifier());
+
+            ThreadLocalContextUtil.setTenant(tenant);
+            try {
+                // one batch per turn so that a rebuild does not hold up the
+                // other tenants
+                if (updateBatch() == BATCH_SIZE) {
+                    signal(tenant);
+                }
+            } catch (final RuntimeException e) {
+                logger.warn("Could not update the search index of tenant " + tenant.getTenantIdentifier(), e);
+            } finally {
+                ThreadLocalContextUtil.clearTenant();
+            }
+        }
+    }
+
+    /**
+     * @return the number of queue entries applied
+     */
+    int updateBatch() {
+        final List<QueuedEntity> entries = this.searchIndexQueue.retrieveOldest(BATCH_SIZE);
+        if (entries.isEmpty()) { return 0; }
+
+        final Map<SearchIndexEntityType, Set<Long>> entityIdsByType = new EnumMap<>(SearchIndexEntityType.class);
+        final List<Long> entryIds = new ArrayList<>(entries.size());
+        for (final QueuedEntity entry : entries) {
+            entryIds.add(entry.getId());
+            if (entry.getEntityType() == null) {
+                continue;
+            }
+            Set<Long> entityIds = entityIdsByType.get(entry.getEntityType());
+            if (entityIds == null) {
+                entityIds = new LinkedHashSet<>();
+                entityIdsByType.put(entry.getEntityType(), entityIds);
+            }
+            entityIds.add(entry.getEntityId());
+        }
+
+        for (final Map.Entry<SearchIndexEntityType, Set<Long>> entityIds : entityIdsByType.entrySet()) {
+            final List<SearchIndexDocument> documents = this.searchIndexDocumentLoader.load(entityIds.getKey(), entityIds.getValue());
+            final Set<Long> deletedEntityIds = new LinkedHashSet<>(entityIds.getValue());
+            for (final SearchIndexDocument document : documents) {
+                deletedEntityIds.remove(document.getEntityId());
+            }
+            this.searchIndex.save(documents);
+            this.searchIndex.remove(entityIds.getKey(), deletedEntityIds);
+        }
+
+        this.searchIndexQueue.delete(entryIds);
+        return entries.size();
+    }
+
+    private void sweep() {
+        try {
+            for (final MifosPlatformTenant tenant : this.tenantDetailsService.findAllTenants()) {
+                ThreadLocalContextUtil.setTenant(tenant);
+                try {
+                    if (this.searchIndexQueue.hasQueued()) {
+                        signal(tenant);
+                    }
+                } catch (final RuntimeException e) {
+                    logger.warn("Could not check the search index queue of tenant " + tenant.getTenantIdentifier(), e);
+                }
+            }
+        } catch (final RuntimeException e) {
+            logger.warn("Could not sweep the search index queues", e);
+        } finally {
+            ThreadLocalContextUtil.clearTenant();
+        }
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+
+        private final String name;
+
+        DaemonThreadFactory(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, this.name);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
+
+public interface SearchIndexWritePlatformService {
+
+    /**
+     * Queues every client, group, loan, savings account and client
+     * identifier for indexing; the index is rebuilt in the background.
+     */
+    CommandProcessingResult rebuildSearchIndex();
+}
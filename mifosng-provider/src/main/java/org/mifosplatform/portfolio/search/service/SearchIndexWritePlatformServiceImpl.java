@@ -0,0 +1,57 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
+import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Service
+public class SearchIndexWritePlatformServiceImpl implements SearchIndexWritePlatformService {
+
+    private final PlatformSecurityContext context;
+    private final SearchIndexQueue searchIndexQueue;
+    private final SearchIndexUpdater searchIndexUpdater;
+
+    @Autowired
+    public SearchIndexWritePlatformServiceImpl(final PlatformSecurityContext context, final SearchIndexQueue searchIndexQueue,
+            final SearchIndexUpdater searchIndexUpdater) {
+        this.context = context;
+        this.searchIndexQueue = searchIndexQueue;
+        this.searchIndexUpdater = searchIndexUpdater;
+    }
+
+    @Transactional
+    @Override
+    public CommandProcessingResult rebuildSearchIndex() {
+        this.context.authenticatedUser();
+
+        final int queuedEntities = this.searchIndexQueue.enqueueAll();
+
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+            @Override
+            public void afterCommit() {
+                SearchIndexWritePlatformServiceImpl.this.searchIndexUpdater.signal(tenant);
+            }
+        });
+
+        final Map<String, Object> changes = new HashMap<>();
+        changes.put("queuedEntities", queuedEntities);
+        return new CommandProcessingResultBuilder().with(changes).build();
+    }
+}
@@ -11,11 +11,14 @@ import org.mifosplatform.portfolio.search.data.AdHocQuerySearchConditions;
 import org.mifosplatform.portfolio.search.data.AdHocSearchQueryData;
 import org.mifosplatform.portfolio.search.data.SearchConditions;
 import org.mifosplatform.portfolio.search.data.SearchData;
+import org.mifosplatform.portfolio.search.data.SearchIndexStatusData;
 
 public interface SearchReadPlatformService {
 
     Collection<SearchData> retriveMatchingData(SearchConditions searchConditions);
 
+    SearchIndexStatusData retrieveSearchIndexStatus();
+
     AdHocSearchQueryData retrieveAdHocQueryTemplate();
 
     Collection<AdHocSearchQueryData> retrieveAdHocQueryMatchingData(AdHocQuerySearchConditions searchConditions);
@@ -9,9 +9,18 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang.StringUtils;
+import org.mifosplatform.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.mifosplatform.infrastructure.core.data.EnumOptionData;
 import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
@@ -29,6 +38,9 @@ import org.mifosplatform.portfolio.search.data.AdHocQuerySearchConditions;
 import org.mifosplatform.portfolio.search.data.AdHocSearchQueryData;
 import org.mifosplatform.portfolio.search.data.SearchConditions;
 import org.mifosplatform.portfolio.search.data.SearchData;
+import org.mifosplatform.portfolio.search.data.SearchIndexHit;
+import org.mifosplatform.portfolio.search.data.SearchIndexStatusData;
+import org.mifosplatform.portfolio.search.domain.SearchIndexEntityType;
 import org.mifosplatform.useradministration.domain.AppUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.RowMapper;
@@ -39,18 +51,31 @@ import org.springframework.stereotype.Service;
 @Service
 public class SearchReadPlatformServiceImpl implements SearchReadPlatformService {
 
+    /**
+     * Entities looked up in the search index when no limit is given.
+     */
+    private static final int DEFAULT_SEARCH_INDEX_LIMIT = 1000;
+
     private final NamedParameterJdbcTemplate namedParameterjdbcTemplate;
     private final PlatformSecurityContext context;
     private final LoanProductReadPlatformService loanProductReadPlatformService;
     private final OfficeReadPlatformService officeReadPlatformService;
+    private final ConfigurationDomainService configurationDomainService;
+    private final SearchIndex searchIndex;
+    private final SearchIndexQueue searchIndexQueue;
 
     @Autowired
     public SearchReadPlatformServiceImpl(final PlatformSecurityContext context, final RoutingDataSource dataSource,
-            final LoanProductReadPlatformService loanProductReadPlatformService, final OfficeReadPlatformService officeReadPlatformService) {
+            final LoanProductReadPlatformService loanProductReadPlatformService, final OfficeReadPlatformService officeReadPlatformService,
+            final ConfigurationDomainService configurationDomainService, final SearchIndex searchIndex,
+            final SearchIndexQueue searchIndexQueue) {
         this.context = context;
         this.namedParameterjdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
         this.loanProductReadPlatformService = loanProductReadPlatformService;
         this.officeReadPlatformService = officeReadPlatformService;
+        this.configurationDomainService = configurationDomainService;
+        this.searchIndex = searchIndex;
+        this.searchIndexQueue = searchIndexQueue;
     }
 
     @Override
@@ -62,20 +87,115 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
 
         final MapSqlParameterSource params = new MapSqlParameterSource();
         params.addValue("hierarchy", hierarchy + "%");
+
+        if (!searchConditions.getExactMatch() && this.configurationDomainService.isSearchIndexEnabled()) {
+            final Integer searchLimit = searchConditions.getSearchLimit();
+            final int limit = searchLimit != null && searchLimit > 0 ? searchLimit : DEFAULT_SEARCH_INDEX_LIMIT;
+            final List<SearchIndexHit> hits = this.searchIndex.search(searchConditions.getSearchQuery(), hierarchy,
+                    searchedEntityTypes(searchConditions), limit);
+            if (hits != null) { return retrieveIndexHits(searchConditions, hits, rm, params); }
+        }
+
         if(searchConditions.getExactMatch()){
        	 params.addValue("search", searchConditions.getSearchQuery());
        	}else{
        	 params.addValue("search", "%" + searchConditions.getSearchQuery() + "%");
        	}  
-        return this.namedParameterjdbcTemplate.query(rm.searchSchema(searchConditions), params, rm);
+        return this.namedParameterjdbcTemplate.query(rm.searchSchema(searchConditions, null), params, rm);
+    }
+
+    @Override
+    public SearchIndexStatusData retrieveSearchIndexStatus() {
+        this.context.authenticatedUser().validateHasReadPermission("SEARCHINDEX");
+
+        return SearchIndexStatusData.instance(this.configurationDomainService.isSearchIndexEnabled(),
+                this.searchIndexQueue.countQueued(), this.searchIndexQueue.retrieveOldestQueuedDate());
+    }
+
+    /**
+     * Reads the entities found in the search index with the same queries as
+     * the <code>like</code> search, so the office hierarchy of the user is
+     * still checked against the portfolio tables, and returns them in the
+     * order of the index.
+     */
+    private Collection<SearchData> retrieveIndexHits(final SearchConditions searchConditions, final List<SearchIndexHit> hits,
+            final SearchMapper rm, final MapSqlParameterSource params) {
+        if (hits.isEmpty()) { return new ArrayList<>(); }
+
+        final Map<SearchIndexEntityType, List<Long>> entityIdsByType = new EnumMap<>(SearchIndexEntityType.class);
+        final Map<String, Integer> rankByEntity = new HashMap<>();
+        for (final SearchIndexHit hit : hits) {
+            List<Long> entityIds = entityIdsByType.get(hit.getEntityType());
+            if (entityIds == null) {
+                entityIds = new ArrayList<>();
+                entityIdsByType.put(hit.getEntityType(), entityIds);
+                params.addValue(hit.getEntityType().name(), entityIds);
+            }
+            entityIds.add(hit.getEntityId());
+            rankByEntity.put(hit.getEntityType().name() + hit.getEntityId(), rankByEntity.size());
+        }
+
+        final List<SearchData> results = this.namedParameterjdbcTemplate.query(rm.searchSchema(searchConditions, entityIdsByType.keySet()),
+                params, rm);
+        Collections.sort(results, new Comparator<SearchData>() {
+
+            @Override
+            public int compare(final SearchData first, final SearchData second) {
+                return rank(first).compareTo(rank(second));
+            }
+
+            private Integer rank(final SearchData data) {
+                final Integer rank = rankByEntity.get(indexEntityType(data.getEntityType()).name() + data.getEntityId());
+                return rank == null ? Integer.MAX_VALUE : rank;
+            }
+        });
+        return results;
+    }
+
+    static Collection<SearchIndexEntityType> searchedEntityTypes(final SearchConditions searchConditions) {
+        final Collection<SearchIndexEntityType> entityTypes = EnumSet.noneOf(SearchIndexEntityType.class);
+        if (searchConditions.isClientSearch()) {
+            entityTypes.add(SearchIndexEntityType.CLIENT);
+        }
+        if (searchConditions.isLoanSeach()) {
+            entityTypes.add(SearchIndexEntityType.LOAN);
+        }
+        if (searchConditions.isSavingSeach()) {
+            entityTypes.add(SearchIndexEntityType.SAVING);
+        }
+        if (searchConditions.isClientIdentifierSearch()) {
+            entityTypes.add(SearchIndexEntityType.CLIENTIDENTIFIER);
+        }
+        if (searchConditions.isGroupSearch()) {
+            entityTypes.add(SearchIndexEntityType.GROUP);
+        }
+        return entityTypes;
+    }
+
+    /**
+     * @return the index entity type of an entity type returned by the search
+     */
+    private static SearchIndexEntityType indexEntityType(final String entityType) {
+        if ("FTD_SAVING".equals(entityType)) { return SearchIndexEntityType.SAVING; }
+        if ("CENTER".equals(entityType)) { return SearchIndexEntityType.GROUP; }
+        return SearchIndexEntityType.valueOf(entityType);
     }
 
-    private static final class SearchMapper implements RowMapper<SearchData> {
+    static final class SearchMapper implements RowMapper<SearchData> {
 
-        public String searchSchema(final SearchConditions searchConditions) {
+        /**
+         * @param indexedEntityTypes
+         *            when given, entities are matched on the ids found in the
+         *            search index, passed in a parameter named after their
+         *            type, instead of with <code>like</code>; types without
+         *            hits are not searched, so that every parameter of the
+         *            query is bound
+         */
+        public String searchSchema(final SearchConditions searchConditions, final Collection<SearchIndexEntityType> indexedEntityTypes) {
 
         	final Integer searchLimit = searchConditions.getSearchLimit();
         	final String limitClause = (searchLimit != null && searchLimit > 0) ? " limit " + searchLimit : "";
+            final boolean indexed = indexedEntityTypes != null;
         	final String union = " union ";
             final String clientMatchSql = " (select 'CLIENT' as entityType, c.id as entityId, c.display_name as entityName, c.external_id as entityExternalId, c.account_no as entityAccountNo,"
                     + " c.office_id as parentId, o.name as parentName, c.mobile_no as entityMobileNo,c.status_enum as entityStatusEnum, null as parentType,"
@@ -84,7 +204,7 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
                     + " from m_client c join m_office o on o.id = c.office_id"
                     + " left join m_group_client gc ON gc.client_id = c.id"
                     + " left join m_group g ON g.id = gc.group_id"
-                    + " where o.hierarchy like :hierarchy and (c.account_no like :search or c.display_name like :search or c.external_id like :search or c.mobile_no like :search)" + limitClause + ") ";
+                    + " where o.hierarchy like :hierarchy and " + (indexed ? "c.id in (:CLIENT)" : "(c.account_no like :search or c.display_name like :search or c.external_id like :search or c.mobile_no like :search)") + limitClause + ") ";
 
             final String loanMatchSql = " (select 'LOAN' as entityType, l.id as entityId, pl.name as entityName, l.external_id as entityExternalId, l.account_no as entityAccountNo,"
                     + " IFNULL(c.id,g.id) as parentId, IFNULL(c.display_name,g.display_name) as parentName, null as entityMobileNo, l.loan_status_id as entityStatusEnum, IF(g.id is null, 'client', 'group') as parentType,"
@@ -94,7 +214,7 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
                     + " left join m_group g ON l.group_id = g.id"
                     + " left join m_office o on o.id = c.office_id"
                     + " left join m_product_loan pl on pl.id=l.product_id"
-                    + " where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy) and (l.account_no like :search or l.external_id like :search)" + limitClause + ") ";
+                    + " where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy) and " + (indexed ? "l.id in (:LOAN)" : "(l.account_no like :search or l.external_id like :search)") + limitClause + ") ";
 
             final String savingMatchSql = " (select CASE WHEN s.deposit_type_enum=200 THEN 'FTD_SAVING' ELSE 'SAVING' END as entityType, s.id as entityId, sp.name as entityName, s.external_id as entityExternalId, s.account_no as entityAccountNo,"
                     + " IFNULL(c.id,g.id) as parentId, IFNULL(c.display_name,g.display_name) as parentName, null as entityMobileNo, s.status_enum as entityStatusEnum, IF(g.id is null, 'client', 'group') as parentType,"
@@ -105,7 +225,7 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
                     + " left join m_group g ON s.group_id = g.id "
                     + " left join m_office o on o.id = c.office_id "
                     + " left join m_savings_product sp on sp.id=s.product_id "
-                    + " where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy) and (s.account_no like :search or s.external_id like :search)" + limitClause + ") ";
+                    + " where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy) and " + (indexed ? "s.id in (:SAVING)" : "(s.account_no like :search or s.external_id like :search)") + limitClause + ") ";
             
             final String clientIdentifierMatchSql = " (select 'CLIENTIDENTIFIER' as entityType, ci.id as entityId, ci.document_key as entityName, "
                     + " null as entityExternalId, null as entityAccountNo, c.id as parentId, c.display_name as parentName,null as entityMobileNo, c.status_enum as entityStatusEnum, null as parentType,"
@@ -116,33 +236,34 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
                     + " join m_office o on o.id = c.office_id"
                     + " left join m_group_client gc ON gc.client_id = c.id"
                     + " left join m_group g ON g.id = gc.group_id"
-                    + " where o.hierarchy like :hierarchy and ci.document_key like :search" + limitClause + ") ";
+                    + " where o.hierarchy like :hierarchy and " + (indexed ? "ci.id in (:CLIENTIDENTIFIER)" : "ci.document_key like :search") + limitClause + ") ";
             final String groupMatchSql = " (select IF(g.level_id=1,'CENTER','GROUP') as entityType, g.id as entityId, g.display_name as entityName, g.external_id as entityExternalId, g.account_no as entityAccountNo,"
                     + " g.office_id as parentId, o.name as parentName, null as entityMobileNo, g.status_enum as entityStatusEnum, null as parentType,"
                     + " g.display_name as groupName, g.id as groupId, o.name as officeName, o.id as officeId,"
                     + " null as parentAccountNo"
                     + " from m_group g"
                     + " join m_office o on o.id = g.office_id"
-                    + " where o.hierarchy like :hierarchy and (g.account_no like :search or g.display_name like :search or g.external_id like :search or g.id like :search )" + limitClause + ") ";
+                    + " where o.hierarchy like :hierarchy and " + (indexed ? "g.id in (:GROUP)" : "(g.account_no like :search or g.display_name like :search or g.external_id like :search or g.id like :search )") + limitClause + ") ";
             final StringBuffer sql = new StringBuffer();
 
-            if (searchConditions.isClientSearch()) {
+            if (searchConditions.isClientSearch() && (!indexed || indexedEntityTypes.contains(SearchIndexEntityType.CLIENT))) {
                 sql.append(clientMatchSql).append(union);
             }
 
-            if (searchConditions.isLoanSeach()) {
+            if (searchConditions.isLoanSeach() && (!indexed || indexedEntityTypes.contains(SearchIndexEntityType.LOAN))) {
                 sql.append(loanMatchSql).append(union);
             }
 
-            if (searchConditions.isSavingSeach()) {
+            if (searchConditions.isSavingSeach() && (!indexed || indexedEntityTypes.contains(SearchIndexEntityType.SAVING))) {
                 sql.append(savingMatchSql).append(union);
             }
 
-            if (searchConditions.isClientIdentifierSearch()) {
+            if (searchConditions.isClientIdentifierSearch()
+                    && (!indexed || indexedEntityTypes.contains(SearchIndexEntityType.CLIENTIDENTIFIER))) {
                 sql.append(clientIdentifierMatchSql).append(union);
             }
 
-            if (searchConditions.isGroupSearch()) {
+            if (searchConditions.isGroupSearch() && (!indexed || indexedEntityTypes.contains(SearchIndexEntityType.GROUP))) {
                 sql.append(groupMatchSql).append(union);
             }
 
@@ -8,6 +8,7 @@ package org.mifosplatform.portfolio.self.client.api;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
@@ -122,12 +123,13 @@ public class SelfClientsApiResource {
 	public Response retrieveImage(@PathParam("clientId") final Long clientId,
 			@QueryParam("maxWidth") final Integer maxWidth,
 			@QueryParam("maxHeight") final Integer maxHeight,
-			@QueryParam("output") final String output) {
+			@QueryParam("output") final String output,
+			@HeaderParam("If-None-Match") final String ifNoneMatch) {
 
 		validateAppuserClientsMapping(clientId);
 
 		return this.imagesApiResource.retrieveImage("clients", clientId,
-				maxWidth, maxHeight, output);
+				maxWidth, maxHeight, output, ifNoneMatch);
 	}
 
 	@GET
@@ -0,0 +1,3 @@
+ALTER TABLE `job`
+	ADD COLUMN `partition_size` INT(11) NOT NULL DEFAULT '500' AFTER `scheduler_group`,
+	ADD COLUMN `worker_count` SMALLINT(2) NOT NULL DEFAULT '1' AFTER `partition_size`;
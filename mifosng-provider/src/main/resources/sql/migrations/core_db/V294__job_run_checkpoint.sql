@@ -0,0 +1,27 @@
+CREATE TABLE `job_run_checkpoint` (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	`job_id` BIGINT(20) NOT NULL,
+	`run_date` DATE NOT NULL,
+	`start_time` DATETIME NOT NULL,
+	`resume_time` DATETIME NOT NULL,
+	`last_update_time` DATETIME NOT NULL,
+	`total_count` INT(11) NOT NULL DEFAULT '0',
+	`processed_count` INT(11) NOT NULL DEFAULT '0',
+	`processed_count_on_resume` INT(11) NOT NULL DEFAULT '0',
+	`failed_count` INT(11) NOT NULL DEFAULT '0',
+	`is_completed` TINYINT(1) NOT NULL DEFAULT '0',
+	PRIMARY KEY (`id`),
+	INDEX `IDX_job_run_checkpoint_job_completed` (`job_id`, `is_completed`),
+	CONSTRAINT `FK_job_run_checkpoint_job` FOREIGN KEY (`job_id`) REFERENCES `job` (`id`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+CREATE TABLE `job_run_checkpoint_item` (
+	`checkpoint_id` BIGINT(20) NOT NULL,
+	`item_id` BIGINT(20) NOT NULL,
+	PRIMARY KEY (`checkpoint_id`, `item_id`),
+	CONSTRAINT `FK_job_run_checkpoint_item_checkpoint` FOREIGN KEY (`checkpoint_id`) REFERENCES `job_run_checkpoint` (`id`) ON DELETE CASCADE
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
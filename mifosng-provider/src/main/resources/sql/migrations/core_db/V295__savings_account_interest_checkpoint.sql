@@ -0,0 +1,7 @@
+ALTER TABLE `m_savings_account`
+	ADD COLUMN `interest_checkpoint_date` DATE NULL DEFAULT NULL,
+	ADD COLUMN `interest_checkpoint_closing_balance` DECIMAL(19,6) NULL DEFAULT NULL,
+	ADD COLUMN `interest_checkpoint_running_balance` DECIMAL(19,6) NULL DEFAULT NULL,
+	ADD COLUMN `interest_checkpoint_compounded_interest` DECIMAL(19,6) NULL DEFAULT NULL,
+	ADD COLUMN `interest_checkpoint_interest_earned` DECIMAL(19,6) NULL DEFAULT NULL,
+	ADD COLUMN `interest_checkpoint_transaction_count` INT(11) NULL DEFAULT NULL;
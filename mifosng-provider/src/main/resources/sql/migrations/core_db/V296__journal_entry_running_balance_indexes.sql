@@ -0,0 +1,4 @@
+-- lets the running balance update stream journal entries in (entry_date, id) order
+ALTER TABLE `acc_gl_journal_entry`
+	ADD INDEX `IDX_acc_gl_journal_entry_entry_date` (`entry_date`),
+	ADD INDEX `IDX_acc_gl_journal_entry_office_entry_date` (`office_id`, `entry_date`);
@@ -0,0 +1,29 @@
+-- -----------------------------------------------------
+-- Table `m_hook_outbox`: hook events waiting to be delivered
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `m_hook_outbox` (
+  `id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+  `hook_id` BIGINT(20) NOT NULL,
+  `entity_name` VARCHAR(100) NOT NULL,
+  `action_name` VARCHAR(100) NOT NULL,
+  `payload` LONGTEXT NOT NULL,
+  `status_enum` SMALLINT(5) NOT NULL DEFAULT 0,
+  `attempt_count` INT(11) NOT NULL DEFAULT 0,
+  `next_attempt_time` DATETIME NOT NULL,
+  `claim_token` VARCHAR(40) NULL DEFAULT NULL,
+  `claimed_time` DATETIME NULL DEFAULT NULL,
+  `last_error` VARCHAR(500) NULL DEFAULT NULL,
+  `created_date` DATETIME NOT NULL,
+  PRIMARY KEY (`id`),
+  INDEX `idx_hook_outbox_due` (`status_enum`, `next_attempt_time`),
+  INDEX `idx_hook_outbox_claim_token` (`claim_token`),
+  CONSTRAINT `fk_hook_outbox_hook_id`
+    FOREIGN KEY (`hook_id`)
+    REFERENCES `m_hook` (`id`)
+    ON DELETE CASCADE)
+ENGINE = InnoDB DEFAULT CHARSET=utf8;
+
+INSERT INTO `m_hook_schema` (`hook_template_id`, `field_type`, `field_name`, `placeholder`, `optional`)
+VALUES (1, 'string', 'Batch Size', '1', 1);
+INSERT INTO `m_hook_schema` (`hook_template_id`, `field_type`, `field_name`, `placeholder`, `optional`)
+VALUES (1, 'string', 'Max Concurrent Deliveries', '2', 1);
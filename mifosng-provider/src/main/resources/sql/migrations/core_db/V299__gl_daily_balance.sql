@@ -0,0 +1,23 @@
+-- debit and credit totals of the journal entries per office, account, currency and day
+CREATE TABLE `acc_gl_daily_balance` (
+	`office_id` BIGINT(20) NOT NULL,
+	`account_id` BIGINT(20) NOT NULL,
+	`currency_code` VARCHAR(3) NOT NULL,
+	`entry_date` DATE NOT NULL,
+	`debit_amount` DECIMAL(19,6) NOT NULL DEFAULT '0.000000',
+	`credit_amount` DECIMAL(19,6) NOT NULL DEFAULT '0.000000',
+	PRIMARY KEY (`office_id`, `account_id`, `currency_code`, `entry_date`),
+	INDEX `IDX_acc_gl_daily_balance_entry_date` (`entry_date`, `account_id`),
+	CONSTRAINT `FK_acc_gl_daily_balance_office` FOREIGN KEY (`office_id`) REFERENCES `m_office` (`id`),
+	CONSTRAINT `FK_acc_gl_daily_balance_account` FOREIGN KEY (`account_id`) REFERENCES `acc_gl_account` (`id`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+INSERT INTO `acc_gl_daily_balance` (`office_id`, `account_id`, `currency_code`, `entry_date`, `debit_amount`, `credit_amount`)
+SELECT je.office_id, je.account_id, je.currency_code, je.entry_date,
+	SUM(IF(je.type_enum = 2, je.amount, 0)), SUM(IF(je.type_enum = 1, je.amount, 0))
+FROM acc_gl_journal_entry je
+GROUP BY je.office_id, je.account_id, je.currency_code, je.entry_date;
+
+INSERT INTO `m_permission` (`grouping`, `code`, `entity_name`, `action_name`, `can_maker_checker`) VALUES ('accounting', 'REBUILDDAILYBALANCE_JOURNALENTRY', 'JOURNALENTRY', 'REBUILDDAILYBALANCE', 0);
@@ -0,0 +1,3 @@
+-- incremented whenever the content of an image is replaced, so derived renditions can be told apart
+ALTER TABLE `m_image`
+	ADD COLUMN `version` INT(11) NOT NULL DEFAULT '0';
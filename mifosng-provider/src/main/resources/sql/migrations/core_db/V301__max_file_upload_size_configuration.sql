@@ -0,0 +1,2 @@
+INSERT INTO `c_configuration` (`name`, `value`, `enabled`, `description`)
+VALUES ('max-file-upload-size-mb', 5, 1, 'Largest document or image in MB that can be uploaded; enforced while the upload is streamed to the content repository');
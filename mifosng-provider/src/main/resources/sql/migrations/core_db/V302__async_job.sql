@@ -0,0 +1,30 @@
+-- -----------------------------------------------------
+-- Table `m_async_job`: data exports and reports generated in the background
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `m_async_job` (
+  `id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+  `job_type` VARCHAR(50) NOT NULL,
+  `resource_name` VARCHAR(100) NOT NULL,
+  `request_params` TEXT NULL DEFAULT NULL,
+  `request_key` VARCHAR(40) NOT NULL,
+  `inflight_request_key` VARCHAR(40) NULL DEFAULT NULL,
+  `status_enum` SMALLINT(5) NOT NULL DEFAULT 0,
+  `claim_token` VARCHAR(40) NULL DEFAULT NULL,
+  `file_name` VARCHAR(250) NULL DEFAULT NULL,
+  `content_type` VARCHAR(100) NULL DEFAULT NULL,
+  `file_size` BIGINT(20) NULL DEFAULT NULL,
+  `location` VARCHAR(500) NULL DEFAULT NULL,
+  `storage_type_enum` SMALLINT(5) NULL DEFAULT NULL,
+  `error` VARCHAR(500) NULL DEFAULT NULL,
+  `submittedby_id` BIGINT(20) NOT NULL,
+  `submitted_date` DATETIME NOT NULL,
+  `started_date` DATETIME NULL DEFAULT NULL,
+  `completed_date` DATETIME NULL DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE INDEX `uq_async_job_inflight_request_key` (`inflight_request_key`),
+  INDEX `idx_async_job_status` (`status_enum`, `id`),
+  INDEX `idx_async_job_claim_token` (`claim_token`),
+  CONSTRAINT `fk_async_job_submittedby_id`
+    FOREIGN KEY (`submittedby_id`)
+    REFERENCES `m_appuser` (`id`))
+ENGINE = InnoDB DEFAULT CHARSET=utf8;
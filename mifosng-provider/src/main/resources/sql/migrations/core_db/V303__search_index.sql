@@ -0,0 +1,37 @@
+-- -----------------------------------------------------
+-- Table `m_search_index`: search text of clients, groups, loans, savings
+-- accounts and client identifiers for the global search (needs MySQL 5.6+
+-- for FULLTEXT indexes on InnoDB)
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `m_search_index` (
+  `entity_type` VARCHAR(20) NOT NULL,
+  `entity_id` BIGINT(20) NOT NULL,
+  `office_hierarchy` VARCHAR(100) NULL DEFAULT NULL,
+  `display_name` VARCHAR(200) NULL DEFAULT NULL,
+  `search_text` TEXT NOT NULL,
+  `phonetic_text` TEXT NOT NULL,
+  `trigram_text` TEXT NOT NULL,
+  `indexed_date` DATETIME NOT NULL,
+  PRIMARY KEY (`entity_type`, `entity_id`),
+  FULLTEXT INDEX `ft_search_index_text` (`search_text`),
+  FULLTEXT INDEX `ft_search_index_phonetic` (`phonetic_text`),
+  FULLTEXT INDEX `ft_search_index_trigram` (`trigram_text`))
+ENGINE = InnoDB DEFAULT CHARSET=utf8;
+
+-- -----------------------------------------------------
+-- Table `m_search_index_queue`: entities waiting to be (re)indexed
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `m_search_index_queue` (
+  `id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+  `entity_type` VARCHAR(20) NOT NULL,
+  `entity_id` BIGINT(20) NOT NULL,
+  `queued_date` DATETIME NOT NULL,
+  PRIMARY KEY (`id`))
+ENGINE = InnoDB DEFAULT CHARSET=utf8;
+
+INSERT INTO `c_configuration` (`name`, `value`, `enabled`, `description`)
+VALUES ('search-index-enabled', NULL, 0, 'Answer the global search from the search index instead of scanning the portfolio tables; rebuild the index before enabling');
+
+INSERT INTO `m_permission` (`grouping`, `code`, `entity_name`, `action_name`, `can_maker_checker`)
+VALUES ('portfolio', 'REBUILD_SEARCHINDEX', 'SEARCHINDEX', 'REBUILD', 0),
+('portfolio', 'READ_SEARCHINDEX', 'SEARCHINDEX', 'READ', 0);
@@ -0,0 +1,17 @@
+-- -----------------------------------------------------
+-- Table `m_sequence`: lowest identifier not yet reserved per table, for the
+-- entities whose identifiers are reserved in blocks so that their inserts
+-- can be batched. The id columns keep their AUTO_INCREMENT; anything
+-- inserting into these tables must take its identifiers from this table too.
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `m_sequence` (
+  `sequence_name` VARCHAR(100) NOT NULL,
+  `next_val` BIGINT(20) NOT NULL,
+  PRIMARY KEY (`sequence_name`))
+ENGINE = InnoDB DEFAULT CHARSET=utf8;
+
+INSERT INTO `m_sequence` (`sequence_name`, `next_val`) SELECT 'm_loan_transaction', IFNULL(MAX(`id`), 0) + 1 FROM `m_loan_transaction`;
+INSERT INTO `m_sequence` (`sequence_name`, `next_val`) SELECT 'm_savings_account_transaction', IFNULL(MAX(`id`), 0) + 1 FROM `m_savings_account_transaction`;
+INSERT INTO `m_sequence` (`sequence_name`, `next_val`) SELECT 'acc_gl_journal_entry', IFNULL(MAX(`id`), 0) + 1 FROM `acc_gl_journal_entry`;
+INSERT INTO `m_sequence` (`sequence_name`, `next_val`) SELECT 'm_loan_repayment_schedule', IFNULL(MAX(`id`), 0) + 1 FROM `m_loan_repayment_schedule`;
+INSERT INTO `m_sequence` (`sequence_name`, `next_val`) SELECT 'm_portfolio_command_source', IFNULL(MAX(`id`), 0) + 1 FROM `m_portfolio_command_source`;
@@ -0,0 +1,3 @@
+-- authentication token of the user who raised the event, for hook processors calling back into the platform
+ALTER TABLE `m_hook_outbox`
+  ADD COLUMN `auth_token` VARCHAR(500) NULL DEFAULT NULL AFTER `payload`;
@@ -0,0 +1,4 @@
+-- hook outbox entries keep the user who raised the event instead of the credentials of the request
+ALTER TABLE `m_hook_outbox`
+  DROP COLUMN `auth_token`,
+  ADD COLUMN `app_user_id` BIGINT(20) NULL DEFAULT NULL AFTER `payload`;
@@ -0,0 +1,10 @@
+-- the identifiers of these tables are only taken from m_sequence (V305); without
+-- AUTO_INCREMENT an insert leaving out the id fails instead of taking an
+-- identifier already reserved in a block
+SET FOREIGN_KEY_CHECKS = 0;
+ALTER TABLE `m_loan_transaction` MODIFY COLUMN `id` BIGINT(20) NOT NULL;
+ALTER TABLE `m_savings_account_transaction` MODIFY COLUMN `id` BIGINT(20) NOT NULL;
+ALTER TABLE `acc_gl_journal_entry` MODIFY COLUMN `id` BIGINT(20) NOT NULL;
+ALTER TABLE `m_loan_repayment_schedule` MODIFY COLUMN `id` BIGINT(20) NOT NULL;
+ALTER TABLE `m_portfolio_command_source` MODIFY COLUMN `id` BIGINT(20) NOT NULL;
+SET FOREIGN_KEY_CHECKS = 1;
@@ -0,0 +1,5 @@
+ALTER TABLE `tenants`
+	ADD COLUMN `replica_id` BIGINT(20) NULL DEFAULT NULL AFTER `report_id`,
+	ADD COLUMN `replica_max_lag_seconds` INT(5) NOT NULL DEFAULT '30' AFTER `replica_id`,
+	ADD INDEX `fk_replica_id` (`replica_id`),
+	ADD CONSTRAINT `fk_replica_id` FOREIGN KEY (`replica_id`) REFERENCES `tenant_server_connections` (`id`);
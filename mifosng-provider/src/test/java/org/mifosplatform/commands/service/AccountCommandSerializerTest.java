@@ -0,0 +1,153 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.commands.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Runs commands on threads of their own and checks which of them have to wait
+ * for the permit held by the test thread.
+ */
+public class AccountCommandSerializerTest {
+
+    private static final long BLOCKED_MILLIS = 200;
+    private static final long ACQUIRE_TIMEOUT_SECONDS = 5;
+
+    private AccountCommandSerializer serializer;
+
+    @Before
+    public void setUp() {
+        this.serializer = new AccountCommandSerializer();
+    }
+
+    @Test
+    public void commandsOnTheSameAccountRunOneAfterTheOther() throws InterruptedException {
+        final AccountCommandSerializer.Permit permit = this.serializer.acquire(null, 1L, null);
+
+        final CountDownLatch acquired = runCommand(null, 1L, null);
+
+        assertFalse(acquired.await(BLOCKED_MILLIS, TimeUnit.MILLISECONDS));
+        assertEquals(1, queuedCommands());
+        permit.release();
+        assertTrue(acquired.await(ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void commandsOnOtherAccountsRunInParallel() throws InterruptedException {
+        final AccountCommandSerializer.Permit permit = this.serializer.acquire(1L, null, null);
+        try {
+            assertTrue(runCommand(2L, null, null).await(ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            assertTrue(runCommand(null, 1L, null).await(ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        } finally {
+            permit.release();
+        }
+    }
+
+    @Test
+    public void commandTouchingAnAccountOfARunningCommandWaitsForIt() throws InterruptedException {
+        final AccountCommandSerializer.Permit permit = this.serializer.acquire(null, null, 1L);
+
+        final CountDownLatch acquired = runCommand(1L, 2L, 1L);
+
+        assertFalse(acquired.await(BLOCKED_MILLIS, TimeUnit.MILLISECONDS));
+        permit.release();
+        assertTrue(acquired.await(ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void nestedCommandJoinsThePermitOfItsThread() throws InterruptedException {
+        final AccountCommandSerializer.Permit outerPermit = this.serializer.acquire(1L, null, null);
+
+        // a nested command on another account neither waits nor takes its
+        // stripe
+        final AccountCommandSerializer.Permit nestedPermit = this.serializer.acquire(null, 1L, null);
+        assertSame(outerPermit, nestedPermit);
+        assertTrue(runCommand(null, 1L, null).await(ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        final CountDownLatch acquired = runCommand(1L, null, null);
+        nestedPermit.release();
+        assertFalse("released by the nested command", acquired.await(BLOCKED_MILLIS, TimeUnit.MILLISECONDS));
+
+        outerPermit.release();
+        assertTrue(acquired.await(ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void permitIsReleasedWhenTheCommandFails() throws InterruptedException {
+        final AccountCommandSerializer.Permit failedPermit = this.serializer.acquire(1L, null, null);
+        try {
+            failingCommand(failedPermit);
+            fail();
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+
+        assertEquals(0, runningCommands());
+        assertTrue(runCommand(1L, null, null).await(ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        // the next command of the thread takes a permit of its own
+        final AccountCommandSerializer.Permit nextPermit = this.serializer.acquire(1L, null, null);
+        try {
+            assertNotSame(failedPermit, nextPermit);
+        } finally {
+            nextPermit.release();
+        }
+    }
+
+    private static void failingCommand(final AccountCommandSerializer.Permit permit) {
+        try {
+            throw new IllegalStateException("command failed");
+        } finally {
+            permit.release();
+        }
+    }
+
+    /**
+     * Starts a command on the given accounts that releases its permit straight
+     * after acquiring it.
+     *
+     * @return counted down once the command acquired its permit
+     */
+    private CountDownLatch runCommand(final Long loanId, final Long savingsId, final Long clientId) {
+        final CountDownLatch acquired = new CountDownLatch(1);
+        final Thread command = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                final AccountCommandSerializer.Permit permit = AccountCommandSerializerTest.this.serializer.acquire(loanId, savingsId,
+                        clientId);
+                try {
+                    acquired.countDown();
+                } finally {
+                    permit.release();
+                }
+            }
+        });
+        command.setDaemon(true);
+        command.start();
+        return acquired;
+    }
+
+    private int queuedCommands() {
+        return (Integer) ReflectionTestUtils.getField(this.serializer.retrieveMetricsOfCurrentTenant(), "queued");
+    }
+
+    private int runningCommands() {
+        return (Integer) ReflectionTestUtils.getField(this.serializer.retrieveMetricsOfCurrentTenant(), "running");
+    }
+}
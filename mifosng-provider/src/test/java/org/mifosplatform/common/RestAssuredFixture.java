@@ -44,9 +44,13 @@ public class RestAssuredFixture {
 		return httpGet(apiPath, "");
 	}
 
+	public <T> T httpPost(String apiPath, String jsonBodyToSend, String jsonAttributeToGetBack) {
+		return Utils.performServerPost(this.requestSpec, this.responseSpec, getApiPath(apiPath), jsonBodyToSend, jsonAttributeToGetBack);
+	}
+
 	private String getApiPath(String apiPath) {
         Preconditions.checkArgument(apiPath.startsWith("/"), "trailingApiUrl must start with slash: " + apiPath);
-        return "/mifosng-provider/api/v1" + apiPath + "?tenantIdentifier=default";
+        return "/mifosng-provider/api/v1" + apiPath + (apiPath.contains("?") ? "&" : "?") + "tenantIdentifier=default";
 	}
 
 	protected String getApiUrl(String apiPath) {
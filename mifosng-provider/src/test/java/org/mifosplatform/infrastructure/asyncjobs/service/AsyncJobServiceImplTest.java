@@ -0,0 +1,105 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.asyncjobs.service;
+
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.asyncjobs.data.AsyncJobData;
+import org.mifosplatform.infrastructure.asyncjobs.domain.AsyncJobStatus;
+import org.mifosplatform.infrastructure.asyncjobs.domain.AsyncJobType;
+import org.mifosplatform.infrastructure.asyncjobs.exception.AsyncJobNotFoundException;
+import org.mifosplatform.infrastructure.dataexport.domain.DataExportRepository;
+import org.mifosplatform.infrastructure.documentmanagement.contentrepository.ContentRepositoryFactory;
+import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.mifosplatform.useradministration.domain.AppUser;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Guards that the status and result of a background job are only given to the
+ * user who submitted it.
+ */
+public class AsyncJobServiceImplTest {
+
+    private static final Long OWNER_ID = 1L;
+    private static final Long OTHER_USER_ID = 2L;
+    private static final Long JOB_ID = 10L;
+
+    private final PlatformSecurityContext context = mock(PlatformSecurityContext.class);
+    private final AsyncJobStore asyncJobStore = mock(AsyncJobStore.class);
+    private final ContentRepositoryFactory contentRepositoryFactory = mock(ContentRepositoryFactory.class);
+
+    private AsyncJobServiceImpl asyncJobService;
+
+    @Before
+    public void setUp() {
+        this.asyncJobService = new AsyncJobServiceImpl(this.context, this.asyncJobStore, mock(AsyncJobDispatcher.class),
+                mock(DataExportRepository.class), this.contentRepositoryFactory);
+        when(this.asyncJobStore.findOne(JOB_ID)).thenReturn(
+                AsyncJobData.instance(JOB_ID, AsyncJobType.REPORT.name(), "Client Listing", AsyncJobStatus.COMPLETED.getValue(), "{}",
+                        "Client Listing.csv", "text/csv", 100L, "/tmp/async/10.csv", 1, null, OWNER_ID, null, null, null));
+    }
+
+    @Test
+    public void ownerRetrievesTheirJob() {
+        authenticateAs(OWNER_ID);
+
+        assertSame(this.asyncJobStore.findOne(JOB_ID), this.asyncJobService.retrieveOne(JOB_ID));
+    }
+
+    @Test(expected = AsyncJobNotFoundException.class)
+    public void jobOfAnotherUserIsNotFound() {
+        authenticateAs(OTHER_USER_ID);
+
+        this.asyncJobService.retrieveOne(JOB_ID);
+    }
+
+    @Test
+    public void resultOfAnotherUserIsNotFetched() {
+        authenticateAs(OTHER_USER_ID);
+
+        try {
+            this.asyncJobService.retrieveResult(JOB_ID);
+        } catch (final AsyncJobNotFoundException e) {
+            verifyZeroInteractions(this.contentRepositoryFactory);
+            return;
+        }
+        throw new AssertionError("result of another user was returned");
+    }
+
+    @Test
+    public void identicalRequestsOfDifferentUsersAreNotShared() {
+        authenticateAs(OWNER_ID);
+        this.asyncJobService.submitReport("Client Listing", "CSV", "en", new HashMap<String, String>());
+        authenticateAs(OTHER_USER_ID);
+        this.asyncJobService.submitReport("Client Listing", "CSV", "en", new HashMap<String, String>());
+
+        final ArgumentCaptor<String> ownerRequestKey = ArgumentCaptor.forClass(String.class);
+        verify(this.asyncJobStore).enqueue(any(AsyncJobType.class), anyString(), anyString(), ownerRequestKey.capture(), eq(OWNER_ID));
+        final ArgumentCaptor<String> otherRequestKey = ArgumentCaptor.forClass(String.class);
+        verify(this.asyncJobStore).enqueue(any(AsyncJobType.class), anyString(), anyString(), otherRequestKey.capture(),
+                eq(OTHER_USER_ID));
+        assertNotEquals(ownerRequestKey.getValue(), otherRequestKey.getValue());
+    }
+
+    private void authenticateAs(final Long userId) {
+        final AppUser user = mock(AppUser.class);
+        when(user.getId()).thenReturn(userId);
+        when(user.hasNotPermissionForReport(anyString())).thenReturn(false);
+        when(this.context.authenticatedUser()).thenReturn(user);
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Element;
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.config.Configuration;
+import net.sf.ehcache.statistics.StatisticsGateway;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.cache.domain.TenantRoutingEhcache;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+
+/**
+ * Guards that entries put in a second-level cache region by one tenant are
+ * never seen by another.
+ */
+public class TenantRoutingEhcacheTest {
+
+    private static final String REGION = "org.mifosplatform.portfolio.charge.domain.Charge";
+
+    private CacheManager cacheManager;
+    private TenantRoutingEhcache region;
+
+    @Before
+    public void setUp() {
+        this.cacheManager = new CacheManager(new Configuration().name("tenantRoutingEhcacheTest"));
+        this.region = new TenantRoutingEhcache(this.cacheManager, new Cache(new CacheConfiguration(REGION, 100).eternal(true)));
+        this.cacheManager.addDecoratedCache(this.region);
+    }
+
+    @After
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+        this.cacheManager.shutdown();
+    }
+
+    @Test
+    public void entriesAreKeptPerTenant() {
+        useTenant("default");
+        this.region.put(new Element(1L, "default charge"));
+
+        useTenant("other");
+        assertNull(this.region.get(1L));
+        this.region.put(new Element(1L, "other charge"));
+
+        useTenant("default");
+        assertEquals("default charge", this.region.get(1L).getObjectValue());
+        assertEquals(1, this.region.getSize());
+    }
+
+    @Test
+    public void clearingTheRegionOnlyClearsTheCurrentTenant() {
+        useTenant("default");
+        this.region.put(new Element(1L, "default charge"));
+        useTenant("other");
+        this.region.put(new Element(1L, "other charge"));
+
+        this.region.removeAll();
+
+        assertNull(this.region.get(1L));
+        useTenant("default");
+        assertNotNull(this.region.get(1L));
+    }
+
+    @Test
+    public void tenantCachesAreNamedAfterTenantAndRegion() {
+        useTenant("default");
+        this.region.put(new Element(1L, "default charge"));
+
+        assertNotNull(this.cacheManager.getEhcache(TenantRoutingEhcache.tenantRegionName("default", REGION)));
+        assertEquals(100, this.cacheManager.getEhcache("default/" + REGION).getCacheConfiguration().getMaxEntriesLocalHeap());
+    }
+
+    @Test
+    public void statisticsAreKeptPerTenant() {
+        useTenant("default");
+        this.region.put(new Element(1L, "default charge"));
+        this.region.get(1L);
+        this.region.get(2L);
+        useTenant("other");
+        this.region.get(1L);
+
+        useTenant("default");
+        final StatisticsGateway statistics = this.region.tenantCache().getStatistics();
+        assertEquals(1, statistics.cachePutCount());
+        assertEquals(1, statistics.cacheHitCount());
+        assertEquals(1, statistics.cacheMissCount());
+    }
+
+    private static void useTenant(final String tenantIdentifier) {
+        ThreadLocalContextUtil.setTenant(new MifosPlatformTenant(null, tenantIdentifier, tenantIdentifier, null, null));
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.boot.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.security.service.TenantDetailsService;
+import org.mifosplatform.portfolio.loanaccount.domain.Loan;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanFetchPlan;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Guards <code>hibernate.jdbc.batch_versioned_data</code>: the updates of
+ * versioned loans are sent as one JDBC batch over a connection with
+ * <code>rewriteBatchedStatements</code>, so Hibernate can only detect a
+ * concurrent change if the driver reports the row count of each statement of
+ * the batch.
+ */
+public class BatchedVersionedUpdateTest extends AbstractSpringBootWithMariaDB4jIntegrationTest {
+
+    private static final List<Long> loanIds = new ArrayList<>();
+
+    @Autowired
+    private LoanRepository loanRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private RoutingDataSource dataSource;
+    @Autowired
+    private TenantDetailsService tenantDetailsService;
+
+    @Before
+    public void setUp() {
+        if (loanIds.isEmpty()) {
+            loanIds.addAll(RepaidLoansFixture.create(2));
+        }
+        ThreadLocalContextUtil.setTenant(this.tenantDetailsService.loadTenantById("default"));
+    }
+
+    @After
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void batchedUpdatesOfCurrentLoansAreWritten() {
+        final int updated = updateLoans(false);
+
+        assertEquals(loanIds.size(), updated);
+    }
+
+    @Test
+    public void staleLoanInABatchOfUpdatesFailsTheFlush() {
+        try {
+            updateLoans(true);
+            fail("the update of the stale loan was not detected");
+        } catch (final OptimisticLockingFailureException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Changes the external id of all loans and flushes them together, after
+     * bumping the version of the last loan behind Hibernate's back if
+     * <code>stale</code>.
+     *
+     * @return the number of loans carrying the new external id
+     */
+    private int updateLoans(final boolean stale) {
+        final String externalId = "BATCH_" + System.currentTimeMillis();
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+        new TransactionTemplate(this.transactionManager).execute(new TransactionCallback<Void>() {
+
+            @Override
+            public Void doInTransaction(@SuppressWarnings("unused") final TransactionStatus status) {
+                final List<Loan> loans = BatchedVersionedUpdateTest.this.loanRepository.findAllWithFetchPlan(loanIds,
+                        LoanFetchPlan.SUMMARY);
+                if (stale) {
+                    jdbcTemplate.update("update m_loan set version = version + 1 where id = ?", loanIds.get(loanIds.size() - 1));
+                }
+                for (final Loan loan : loans) {
+                    ReflectionTestUtils.setField(loan, "externalId", externalId + "_" + loan.getId());
+                }
+                BatchedVersionedUpdateTest.this.loanRepository.flush();
+                return null;
+            }
+        });
+        return jdbcTemplate.queryForObject("select count(*) from m_loan where external_id like ?", Integer.class, externalId + "_%");
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.boot.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.jobs.data.JobRunProgressData;
+import org.mifosplatform.infrastructure.jobs.service.JobRunCheckpoint;
+import org.mifosplatform.infrastructure.jobs.service.JobRunCheckpointService;
+import org.mifosplatform.infrastructure.security.service.TenantDetailsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Interrupts and resumes checkpointed job runs against the embedded database.
+ */
+public class JobRunCheckpointServiceTest extends AbstractSpringBootWithMariaDB4jIntegrationTest {
+
+    @Autowired
+    private JobRunCheckpointService jobRunCheckpointService;
+    @Autowired
+    private RoutingDataSource dataSource;
+    @Autowired
+    private TenantDetailsService tenantDetailsService;
+
+    private Long jobId;
+
+    @Before
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(this.tenantDetailsService.loadTenantById("default"));
+        this.jobId = new JdbcTemplate(this.dataSource).queryForObject("select min(id) from job", Long.class);
+        // completes whatever run an earlier test left behind
+        this.jobRunCheckpointService.complete(this.jobRunCheckpointService.startOrResume(this.jobId, 0).getId());
+    }
+
+    @After
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void interruptedRunIsResumedWithItsProcessedItems() {
+        final JobRunCheckpoint firstAttempt = this.jobRunCheckpointService.startOrResume(this.jobId, 5);
+        assertFalse(firstAttempt.isResumed());
+        this.jobRunCheckpointService.commitChunk(firstAttempt.getId(), Arrays.asList(1L, 2L), 0);
+        this.jobRunCheckpointService.commitChunk(firstAttempt.getId(), Arrays.asList(3L), 1);
+
+        final JobRunCheckpoint resumedAttempt = this.jobRunCheckpointService.startOrResume(this.jobId, 5);
+
+        assertEquals(firstAttempt.getId(), resumedAttempt.getId());
+        assertTrue(resumedAttempt.isResumed());
+        assertTrue(resumedAttempt.isProcessed(1L));
+        assertTrue(resumedAttempt.isProcessed(3L));
+        assertFalse(resumedAttempt.isProcessed(4L));
+        final JobRunProgressData progress = this.jobRunCheckpointService.retrieveLatestProgress(this.jobId);
+        assertEquals(3, ReflectionTestUtils.getField(progress, "processedCount"));
+        // failures of the interrupted attempt are retried, so not counted
+        assertEquals(0, ReflectionTestUtils.getField(progress, "failedCount"));
+    }
+
+    @Test
+    public void completedRunIsNotResumed() {
+        final JobRunCheckpoint completedRun = this.jobRunCheckpointService.startOrResume(this.jobId, 2);
+        this.jobRunCheckpointService.commitChunk(completedRun.getId(), Arrays.asList(1L, 2L), 0);
+        this.jobRunCheckpointService.complete(completedRun.getId());
+        assertTrue((Boolean) ReflectionTestUtils.getField(this.jobRunCheckpointService.retrieveLatestProgress(this.jobId), "completed"));
+
+        final JobRunCheckpoint nextRun = this.jobRunCheckpointService.startOrResume(this.jobId, 2);
+
+        assertNotEquals(completedRun.getId(), nextRun.getId());
+        assertFalse(nextRun.isResumed());
+    }
+}
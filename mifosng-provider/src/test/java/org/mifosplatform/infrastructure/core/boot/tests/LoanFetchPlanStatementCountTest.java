@@ -0,0 +1,143 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.boot.tests;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnitUtil;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.security.service.TenantDetailsService;
+import org.mifosplatform.portfolio.loanaccount.domain.Loan;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanFetchPlan;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Counts the JDBC statements Hibernate prepares to load loans with each
+ * {@link LoanFetchPlan}, including the selects of eager references and of the
+ * eager collections of transactions and charges, against the embedded
+ * database.
+ */
+public class LoanFetchPlanStatementCountTest extends AbstractSpringBootWithMariaDB4jIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanFetchPlanStatementCountTest.class);
+
+    private static final int NUMBER_OF_LOANS = 3;
+    private static final List<Long> loanIds = new ArrayList<>();
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private LoanRepository loanRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private TenantDetailsService tenantDetailsService;
+
+    private Statistics statistics;
+
+    @Before
+    public void setUp() {
+        if (loanIds.isEmpty()) {
+            loanIds.addAll(RepaidLoansFixture.create(NUMBER_OF_LOANS));
+        }
+        ThreadLocalContextUtil.setTenant(this.tenantDetailsService.loadTenantById("default"));
+        this.statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void statementCountOfEachPlanDoesNotGrowWithTheNumberOfLoans() {
+        for (final LoanFetchPlan fetchPlan : LoanFetchPlan.values()) {
+            // warm up the second-level cache of the reference data
+            countStatements(loanIds, fetchPlan);
+
+            final long oneLoan = countStatements(loanIds.subList(0, 1), fetchPlan);
+            final long allLoans = countStatements(loanIds, fetchPlan);
+            logger.info(fetchPlan + ": " + oneLoan + " statements for one loan, " + allLoans + " for " + loanIds.size());
+
+            assertTrue(fetchPlan + " needs " + allLoans + " statements for " + loanIds.size() + " loans but " + oneLoan + " for one",
+                    allLoans <= oneLoan);
+        }
+    }
+
+    @Test
+    public void planCollectionsAreLoadedWithoutFurtherStatements() {
+        for (final LoanFetchPlan fetchPlan : LoanFetchPlan.values()) {
+            final PersistenceUnitUtil persistenceUnitUtil = this.entityManagerFactory.getPersistenceUnitUtil();
+            inReadOnlyTransaction(new TransactionCallback<Void>() {
+
+                @Override
+                public Void doInTransaction(@SuppressWarnings("unused") final TransactionStatus status) {
+                    for (final Loan loan : LoanFetchPlanStatementCountTest.this.loanRepository.findAllWithFetchPlan(loanIds, fetchPlan)) {
+                        for (final String collection : fetchPlan.getCollections()) {
+                            assertTrue(fetchPlan + " " + collection, persistenceUnitUtil.isLoaded(loan, collection));
+                        }
+                    }
+                    return null;
+                }
+            });
+        }
+    }
+
+    @Test
+    public void summaryPlanLeavesTheCollectionsUnloaded() {
+        final PersistenceUnitUtil persistenceUnitUtil = this.entityManagerFactory.getPersistenceUnitUtil();
+        inReadOnlyTransaction(new TransactionCallback<Void>() {
+
+            @Override
+            public Void doInTransaction(@SuppressWarnings("unused") final TransactionStatus status) {
+                final Loan loan = LoanFetchPlanStatementCountTest.this.loanRepository.findOneWithFetchPlan(loanIds.get(0),
+                        LoanFetchPlan.SUMMARY);
+                for (final String collection : LoanFetchPlan.DISBURSEMENT.getCollections()) {
+                    assertFalse(collection, persistenceUnitUtil.isLoaded(loan, collection));
+                }
+                return null;
+            }
+        });
+    }
+
+    private long countStatements(final List<Long> ids, final LoanFetchPlan fetchPlan) {
+        this.statistics.clear();
+        inReadOnlyTransaction(new TransactionCallback<Void>() {
+
+            @Override
+            public Void doInTransaction(@SuppressWarnings("unused") final TransactionStatus status) {
+                LoanFetchPlanStatementCountTest.this.loanRepository.findAllWithFetchPlan(ids, fetchPlan);
+                return null;
+            }
+        });
+        return this.statistics.getPrepareStatementCount();
+    }
+
+    private void inReadOnlyTransaction(final TransactionCallback<Void> callback) {
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.execute(callback);
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.boot.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.commands.domain.CommandSource;
+import org.mifosplatform.commands.domain.CommandSourceRepository;
+import org.mifosplatform.commands.domain.CommandWrapper;
+import org.mifosplatform.commands.service.CommandWrapperBuilder;
+import org.mifosplatform.infrastructure.core.api.JsonCommand;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.security.service.TenantDetailsService;
+import org.mifosplatform.useradministration.domain.AppUser;
+import org.mifosplatform.useradministration.domain.AppUserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Guards the batching of the inserts of entities with pooled identifiers
+ * against the embedded database: Hibernate prepares one statement per insert
+ * for auto increment identifiers, but one per JDBC batch for pooled ones.
+ */
+public class PooledIdBatchedInsertTest extends AbstractSpringBootWithMariaDB4jIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PooledIdBatchedInsertTest.class);
+
+    /**
+     * More than one batch of <code>hibernate.jdbc.batch_size</code>.
+     */
+    private static final int NUMBER_OF_ENTITIES = 150;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private CommandSourceRepository commandSourceRepository;
+    @Autowired
+    private AppUserRepository appUserRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private RoutingDataSource dataSource;
+    @Autowired
+    private TenantDetailsService tenantDetailsService;
+
+    private JdbcTemplate jdbcTemplate;
+    private Statistics statistics;
+    private final List<Long> insertedIds = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(this.tenantDetailsService.loadTenantById("default"));
+        this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+        this.statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        for (final Long id : this.insertedIds) {
+            this.jdbcTemplate.update("delete from m_portfolio_command_source where id = ?", id);
+        }
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void insertsOfPooledIdEntitiesAreBatched() {
+        final AppUser maker = this.appUserRepository.findOne(1L);
+        final CommandWrapper wrapper = new CommandWrapperBuilder().createClient().withJson("{}").build();
+        final JsonCommand command = JsonCommand.from("{}", null, null, wrapper.entityName(), null, null, null, null, null, null, null,
+                wrapper.getHref(), null);
+
+        this.statistics.clear();
+        new TransactionTemplate(this.transactionManager).execute(new TransactionCallbackWithoutResult() {
+
+            @Override
+            protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                for (int i = 0; i < NUMBER_OF_ENTITIES; i++) {
+                    final CommandSource commandSource = CommandSource.fullEntryFrom(wrapper, command, maker);
+                    PooledIdBatchedInsertTest.this.commandSourceRepository.save(commandSource);
+                    PooledIdBatchedInsertTest.this.insertedIds.add(commandSource.getId());
+                }
+            }
+        });
+
+        final long inserts = this.statistics.getEntityStatistics(CommandSource.class.getName()).getInsertCount();
+        final long statements = this.statistics.getPrepareStatementCount();
+        logger.info(inserts + " command sources inserted with " + statements + " prepared statements");
+        assertEquals(NUMBER_OF_ENTITIES, inserts);
+        assertTrue(statements + " statements prepared for " + inserts + " inserts", statements < NUMBER_OF_ENTITIES / 10);
+
+        final Long nextId = this.jdbcTemplate.queryForObject(
+                "select next_val from m_sequence where sequence_name = 'm_portfolio_command_source'", Long.class);
+        for (final Long id : this.insertedIds) {
+            assertTrue(id + " was not reserved from m_sequence", id < nextId);
+        }
+    }
+
+    @Test
+    public void tablesOfPooledIdEntitiesHaveNoAutoIncrementColumn() {
+        final List<String> autoIncrementTables = this.jdbcTemplate.queryForList("select table_name from information_schema.columns "
+                + "where table_schema = database() and column_name = 'id' and extra like '%auto_increment%' and table_name in "
+                + "(select sequence_name from m_sequence)", String.class);
+
+        assertEquals(new ArrayList<String>(), autoIncrementTables);
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.boot.tests;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.mifosplatform.common.RestAssuredFixture;
+
+import com.google.gson.Gson;
+
+/**
+ * Creates loans through the API of the server started by
+ * {@link AbstractSpringBootWithMariaDB4jIntegrationTest}.
+ */
+final class RepaidLoansFixture {
+
+    private RepaidLoansFixture() {
+        //
+    }
+
+    /**
+     * Disbursed loans of one client with a schedule, a repayment and the
+     * transactions they come with, created through the API.
+     */
+    static List<Long> create(final int numberOfLoans) {
+        final List<Long> loanIds = new ArrayList<>(numberOfLoans);
+        final RestAssuredFixture util = new RestAssuredFixture(8443);
+        final Integer productId = util.httpPost("/loanproducts", loanProductJson(), "resourceId");
+        final Integer clientId = util.httpPost("/clients", clientJson(), "clientId");
+        for (int i = 0; i < numberOfLoans; i++) {
+            final Integer loanId = util.httpPost("/loans", loanApplicationJson(clientId, productId), "loanId");
+            util.httpPost("/loans/" + loanId + "?command=approve", commandJson("approvedOnDate", "01 January 2014"), "resourceId");
+            util.httpPost("/loans/" + loanId + "?command=disburse", commandJson("actualDisbursementDate", "01 January 2014"), "resourceId");
+            final Map<String, String> repayment = commandMap("transactionDate", "01 February 2014");
+            repayment.put("transactionAmount", "2700");
+            util.httpPost("/loans/" + loanId + "/transactions?command=repayment", new Gson().toJson(repayment), "resourceId");
+            loanIds.add(loanId.longValue());
+        }
+        return loanIds;
+    }
+
+    private static String loanProductJson() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put("name", "FETCH_PLAN_" + System.currentTimeMillis());
+        map.put("shortName", Long.toString(System.currentTimeMillis() % 10000));
+        map.put("currencyCode", "USD");
+        map.put("locale", "en_GB");
+        map.put("digitsAfterDecimal", "2");
+        map.put("inMultiplesOf", "0");
+        map.put("principal", "10000.00");
+        map.put("numberOfRepayments", "4");
+        map.put("repaymentEvery", "1");
+        map.put("repaymentFrequencyType", "2");
+        map.put("interestRatePerPeriod", "2");
+        map.put("interestRateFrequencyType", "2");
+        map.put("amortizationType", "1");
+        map.put("interestType", "1");
+        map.put("interestCalculationPeriodType", "1");
+        map.put("inArrearsTolerance", "0");
+        map.put("transactionProcessingStrategyId", "1");
+        map.put("accountingRule", "1");
+        map.put("daysInMonthType", "1");
+        map.put("daysInYearType", "1");
+        map.put("isInterestRecalculationEnabled", false);
+        return new Gson().toJson(map);
+    }
+
+    private static String clientJson() {
+        final Map<String, String> map = new HashMap<>();
+        map.put("officeId", "1");
+        map.put("firstname", "Fetch");
+        map.put("lastname", "Plan");
+        map.put("dateFormat", "dd MMMM yyyy");
+        map.put("locale", "en");
+        map.put("active", "true");
+        map.put("activationDate", "01 January 2013");
+        return new Gson().toJson(map);
+    }
+
+    private static String loanApplicationJson(final Integer clientId, final Integer productId) {
+        final Map<String, String> map = new HashMap<>();
+        map.put("clientId", clientId.toString());
+        map.put("productId", productId.toString());
+        map.put("loanType", "individual");
+        map.put("dateFormat", "dd MMMM yyyy");
+        map.put("locale", "en_GB");
+        map.put("principal", "10000");
+        map.put("loanTermFrequency", "4");
+        map.put("loanTermFrequencyType", "2");
+        map.put("numberOfRepayments", "4");
+        map.put("repaymentEvery", "1");
+        map.put("repaymentFrequencyType", "2");
+        map.put("interestRatePerPeriod", "2");
+        map.put("amortizationType", "1");
+        map.put("interestType", "1");
+        map.put("interestCalculationPeriodType", "1");
+        map.put("transactionProcessingStrategyId", "1");
+        map.put("expectedDisbursementDate", "01 January 2014");
+        map.put("submittedOnDate", "01 January 2014");
+        return new Gson().toJson(map);
+    }
+
+    private static String commandJson(final String dateParameter, final String date) {
+        return new Gson().toJson(commandMap(dateParameter, date));
+    }
+
+    private static Map<String, String> commandMap(final String dateParameter, final String date) {
+        final Map<String, String> map = new HashMap<>();
+        map.put("locale", "en");
+        map.put("dateFormat", "dd MMMM yyyy");
+        map.put(dateParameter, date);
+        return map;
+    }
+}
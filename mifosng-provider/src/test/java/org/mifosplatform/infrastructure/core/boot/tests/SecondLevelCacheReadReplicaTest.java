@@ -0,0 +1,140 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.boot.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.cache.service.SecondLevelCacheService;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenantConnection;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.security.service.TenantDetailsService;
+import org.mifosplatform.portfolio.fund.domain.Fund;
+import org.mifosplatform.portfolio.fund.domain.FundRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reads of a lagging read replica must not put the rows a commit on the
+ * tenant database just evicted back into the second-level cache. The replica
+ * is a second database on the embedded server holding the funds as they were
+ * before the commit.
+ */
+public class SecondLevelCacheReadReplicaTest extends AbstractSpringBootWithMariaDB4jIntegrationTest {
+
+    @Autowired
+    private FundRepository fundRepository;
+    @Autowired
+    private SecondLevelCacheService secondLevelCacheService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private RoutingDataSource dataSource;
+    @Autowired
+    private TenantDetailsService tenantDetailsService;
+
+    private JdbcTemplate jdbcTemplate;
+    private String replicaSchemaName;
+    private String fundName;
+    private Long fundId;
+
+    @Before
+    public void setUp() {
+        final MifosPlatformTenant tenant = this.tenantDetailsService.loadTenantById("default");
+        ThreadLocalContextUtil.setTenant(tenant);
+        this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+
+        final String schemaName = tenant.getConnection().getSchemaName();
+        this.replicaSchemaName = schemaName + "_replica";
+        this.fundName = "replica fund " + System.currentTimeMillis();
+        this.jdbcTemplate.update("insert into m_fund (name) values (?)", this.fundName);
+        this.fundId = this.jdbcTemplate.queryForObject("select id from m_fund where name = ?", Long.class, this.fundName);
+
+        this.jdbcTemplate.execute("drop database if exists `" + this.replicaSchemaName + "`");
+        this.jdbcTemplate.execute("create database `" + this.replicaSchemaName + "`");
+        this.jdbcTemplate.execute("create table `" + this.replicaSchemaName + "`.m_fund like `" + schemaName + "`.m_fund");
+        this.jdbcTemplate.execute("insert into `" + this.replicaSchemaName + "`.m_fund select * from `" + schemaName + "`.m_fund");
+
+        ThreadLocalContextUtil.setTenant(new MifosPlatformTenant(tenant.getId(), tenant.getTenantIdentifier(), tenant.getName(), tenant
+                .getTimezoneId(), tenant.getConnection(), replicaOf(tenant.getConnection(), this.replicaSchemaName), 60));
+    }
+
+    @After
+    public void tearDown() {
+        ThreadLocalContextUtil.clearReadReplicaAllowed();
+        this.jdbcTemplate.update("delete from m_fund where id = ?", this.fundId);
+        this.jdbcTemplate.execute("drop database if exists `" + this.replicaSchemaName + "`");
+        this.secondLevelCacheService.evictAfterCommit(Fund.class);
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void tenantDatabaseReadAfterEvictionAndReplicaReadSeesTheCommittedRow() {
+        assertEquals(this.fundName, fundName(readWriteTransaction()));
+
+        final String renamed = this.fundName + " renamed";
+        readWriteTransaction().execute(new TransactionCallbackWithoutResult() {
+
+            @Override
+            protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                SecondLevelCacheReadReplicaTest.this.jdbcTemplate.update("update m_fund set name = ? where id = ?", renamed,
+                        SecondLevelCacheReadReplicaTest.this.fundId);
+                SecondLevelCacheReadReplicaTest.this.secondLevelCacheService.evictAfterCommit(Fund.class);
+            }
+        });
+
+        ThreadLocalContextUtil.setReadReplicaAllowed();
+        try {
+            // the replica has not caught up yet
+            assertEquals(this.fundName, fundName(readOnlyTransaction()));
+        } finally {
+            ThreadLocalContextUtil.clearReadReplicaAllowed();
+        }
+
+        assertEquals(renamed, fundName(readWriteTransaction()));
+    }
+
+    private String fundName(final TransactionTemplate transaction) {
+        return transaction.execute(new TransactionCallback<String>() {
+
+            @Override
+            public String doInTransaction(@SuppressWarnings("unused") final TransactionStatus status) {
+                final Fund fund = SecondLevelCacheReadReplicaTest.this.fundRepository.findOne(SecondLevelCacheReadReplicaTest.this.fundId);
+                return (String) ReflectionTestUtils.getField(fund, "name");
+            }
+        });
+    }
+
+    private TransactionTemplate readWriteTransaction() {
+        return new TransactionTemplate(this.transactionManager);
+    }
+
+    private TransactionTemplate readOnlyTransaction() {
+        final TransactionTemplate transaction = new TransactionTemplate(this.transactionManager);
+        transaction.setReadOnly(true);
+        return transaction;
+    }
+
+    private static MifosPlatformTenantConnection replicaOf(final MifosPlatformTenantConnection connection, final String schemaName) {
+        return new MifosPlatformTenantConnection(connection.getConnectionId() + 1000, schemaName, connection.getSchemaServer(),
+                connection.getSchemaServerPort(), connection.getSchemaUsername(), connection.getSchemaPassword(), false,
+                connection.getInitialSize(), connection.getValidationInterval(), connection.isRemoveAbandoned(),
+                connection.getRemoveAbandonedTimeout(), connection.isLogAbandoned(), connection.getAbandonWhenPercentageFull(),
+                connection.getMaxActive(), connection.getMinIdle(), connection.getMaxIdle(), connection.getSuspectTimeout(),
+                connection.getTimeBetweenEvictionRunsMillis(), connection.getMinEvictableIdleTimeMillis(),
+                connection.getMaxRetriesOnDeadlock(), connection.getMaxIntervalBetweenRetries(), connection.isTestOnBorrow());
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataexport.helper;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.text.SimpleDateFormat;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.codes.data.CodeValueData;
+import org.mifosplatform.infrastructure.dataexport.api.DataExportApiConstants;
+import org.mifosplatform.infrastructure.dataexport.data.DataExportCoreTable;
+import org.mifosplatform.useradministration.data.AppUserData;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import au.com.bytecode.opencsv.CSVReader;
+
+/**
+ * Writes the same client rows with every export writer and reads the file
+ * back with a parser of its format.
+ */
+public class DataExportWriterRoundTripTest {
+
+    private static final String[] COLUMN_NAMES = { "id", "display_name", "gender_cv_id", "submittedon_date", "principal" };
+    private static final String[] COLUMN_TYPES = { "BIGINT", "VARCHAR", "INT", "DATE", "DECIMAL" };
+    private static final String[][] ROWS = { { "1", "Doe, Jane \"JD\"; senior", "22", "2014-03-15", "1500.50" },
+            { "2", "<Smith & Sons>", null, null, "0" } };
+    private static final Long FEMALE_CODE_VALUE_ID = 22L;
+
+    private final HashMap<Long, CodeValueData> codeValueMap = new HashMap<>();
+    private final HashMap<Long, AppUserData> appUserMap = new HashMap<>();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @Before
+    public void setUp() {
+        this.codeValueMap.put(FEMALE_CODE_VALUE_ID, CodeValueData.instance(FEMALE_CODE_VALUE_ID, "Female", true));
+    }
+
+    @Test
+    public void csvExportReadsBackAsTheExportedRows() throws Exception {
+        export(new CsvDataExportWriter(this.output, this.codeValueMap, this.appUserMap, DataExportCoreTable.M_CLIENT, this.rowsWritten));
+
+        final CSVReader reader = new CSVReader(new InputStreamReader(new ByteArrayInputStream(this.output.toByteArray()),
+                CsvDataExportWriter.ENCODING), CsvDataExportWriter.SEPARATOR, '"');
+        final List<String[]> lines = reader.readAll();
+        reader.close();
+
+        assertEquals(3, lines.size());
+        assertArrayEquals(new String[] { "Id", "Display_name", "Gender_cv_id", "Submittedon_date", "Principal" }, lines.get(0));
+        assertArrayEquals(new String[] { "1", "Doe, Jane \"JD\"; senior", "Female", "2014-03-15", "1500.50" }, lines.get(1));
+        assertArrayEquals(new String[] { "2", "<Smith & Sons>", "", "", "0" }, lines.get(2));
+    }
+
+    @Test
+    public void xlsxExportReadsBackAsTheExportedRows() throws Exception {
+        export(new XlsxDataExportWriter(this.output, this.codeValueMap, this.appUserMap, DataExportCoreTable.M_CLIENT, this.rowsWritten));
+
+        final Sheet sheet = new XSSFWorkbook(new ByteArrayInputStream(this.output.toByteArray())).getSheetAt(0);
+
+        assertEquals(2, sheet.getLastRowNum());
+        final Row header = sheet.getRow(0);
+        assertEquals("Id", header.getCell(0).getStringCellValue());
+        assertEquals("Display Name", header.getCell(1).getStringCellValue());
+        assertEquals("Gender", header.getCell(2).getStringCellValue());
+        assertEquals("Registration Date", header.getCell(3).getStringCellValue());
+        assertEquals("Principal", header.getCell(4).getStringCellValue());
+
+        final Row first = sheet.getRow(1);
+        assertEquals(1, first.getCell(0).getNumericCellValue(), 0);
+        assertEquals(ROWS[0][1], first.getCell(1).getStringCellValue());
+        assertEquals("Female", first.getCell(2).getStringCellValue());
+        assertEquals(new SimpleDateFormat(DataExportApiConstants.MYSQL_DATE_FORMAT).parse("2014-03-15"), first.getCell(3)
+                .getDateCellValue());
+        assertEquals(1500.5, first.getCell(4).getNumericCellValue(), 0);
+
+        final Row second = sheet.getRow(2);
+        assertEquals(ROWS[1][1], second.getCell(1).getStringCellValue());
+        assertNull(second.getCell(2));
+        assertNull(second.getCell(3));
+        assertEquals(0, second.getCell(4).getNumericCellValue(), 0);
+    }
+
+    @Test
+    public void xmlExportReadsBackAsTheExportedRows() throws Exception {
+        export(new XmlDataExportWriter(this.output, this.codeValueMap, this.appUserMap, DataExportCoreTable.M_CLIENT, this.rowsWritten));
+
+        final Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(this.output.toByteArray()));
+
+        assertEquals("dataExport", document.getDocumentElement().getTagName());
+        final NodeList rows = document.getElementsByTagName("row");
+        assertEquals(2, rows.getLength());
+
+        final NodeList first = ((Element) rows.item(0)).getElementsByTagName("column");
+        assertEquals(COLUMN_NAMES.length, first.getLength());
+        assertColumn("Id", "1", first.item(0));
+        assertColumn("Display Name", ROWS[0][1], first.item(1));
+        assertColumn("Gender", "Female", first.item(2));
+        assertColumn("Registration Date", "2014-03-15", first.item(3));
+        assertColumn("Principal", "1500.50", first.item(4));
+
+        final NodeList second = ((Element) rows.item(1)).getElementsByTagName("column");
+        assertColumn("Display Name", ROWS[1][1], second.item(1));
+        assertColumn("Gender", "", second.item(2));
+        assertFalse(second.item(2).hasChildNodes());
+    }
+
+    private static void assertColumn(final String name, final String value, final Node column) {
+        assertEquals(name, ((Element) column).getAttribute("name"));
+        assertEquals(value, column.getTextContent());
+    }
+
+    private void export(final DataExportResultSetWriter writer) throws Exception {
+        final Long exportedRows = writer.extractData(resultSet());
+
+        assertEquals(Long.valueOf(ROWS.length), exportedRows);
+    }
+
+    /**
+     * A forward-only result set over {@link #ROWS}.
+     */
+    private static ResultSet resultSet() throws Exception {
+        final ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(metaData.getColumnCount()).thenReturn(COLUMN_NAMES.length);
+        for (int i = 0; i < COLUMN_NAMES.length; i++) {
+            Mockito.when(metaData.getColumnName(i + 1)).thenReturn(COLUMN_NAMES[i]);
+            Mockito.when(metaData.getColumnLabel(i + 1)).thenReturn(COLUMN_NAMES[i]);
+            Mockito.when(metaData.getColumnTypeName(i + 1)).thenReturn(COLUMN_TYPES[i]);
+        }
+
+        final int[] rowIndex = { -1 };
+        final ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+        Mockito.when(resultSet.next()).thenAnswer(new Answer<Boolean>() {
+
+            @Override
+            public Boolean answer(@SuppressWarnings("unused") final InvocationOnMock invocation) {
+                return ++rowIndex[0] < ROWS.length;
+            }
+        });
+        Mockito.when(resultSet.getString(Matchers.anyInt())).thenAnswer(new Answer<String>() {
+
+            @Override
+            public String answer(final InvocationOnMock invocation) {
+                final int columnIndex = (Integer) invocation.getArguments()[0];
+                return ROWS[rowIndex[0]][columnIndex - 1];
+            }
+        });
+        return resultSet;
+    }
+}
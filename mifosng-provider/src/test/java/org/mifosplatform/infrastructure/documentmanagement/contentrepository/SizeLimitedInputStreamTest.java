@@ -0,0 +1,102 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.documentmanagement.contentrepository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+import org.mifosplatform.infrastructure.documentmanagement.exception.ContentManagementException;
+
+public class SizeLimitedInputStreamTest {
+
+    private static final int MAX_SIZE_IN_MB = 1;
+    private static final int MAX_SIZE = MAX_SIZE_IN_MB * 1024 * 1024;
+
+    @Test
+    public void shouldReadAnUploadOfExactlyTheLimit() throws IOException {
+        final InputStream upload = upload(MAX_SIZE);
+
+        assertEquals(MAX_SIZE, readFully(upload, 8192));
+    }
+
+    @Test
+    public void shouldReadAnUploadOfExactlyTheLimitByteByByte() throws IOException {
+        final InputStream upload = upload(MAX_SIZE);
+
+        int read = 0;
+        while (upload.read() != -1) {
+            read++;
+        }
+
+        assertEquals(MAX_SIZE, read);
+    }
+
+    @Test
+    public void shouldFailOnTheByteBeyondTheLimit() throws IOException {
+        final InputStream upload = upload(MAX_SIZE + 1);
+        readExactly(upload, MAX_SIZE);
+
+        try {
+            upload.read();
+            fail("read beyond the limit");
+        } catch (final ContentManagementException e) {
+            assertEquals("error.msg.document.file.too.big", e.getGlobalisationMessageCode());
+        }
+    }
+
+    @Test
+    public void shouldFailOnABufferReadCrossingTheLimit() throws IOException {
+        final InputStream upload = upload(MAX_SIZE + 100);
+        readExactly(upload, MAX_SIZE - 10);
+
+        try {
+            upload.read(new byte[8192], 0, 8192);
+            fail("read beyond the limit");
+        } catch (final ContentManagementException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void shouldCountSkippedBytes() throws IOException {
+        final InputStream upload = upload(MAX_SIZE + 1);
+        assertEquals(MAX_SIZE, upload.skip(MAX_SIZE));
+
+        try {
+            upload.read();
+            fail("read beyond the limit");
+        } catch (final ContentManagementException e) {
+            // expected
+        }
+    }
+
+    private static InputStream upload(final int size) {
+        return new SizeLimitedInputStream(new ByteArrayInputStream(new byte[size]), "upload.pdf", MAX_SIZE_IN_MB);
+    }
+
+    private static int readFully(final InputStream in, final int bufferSize) throws IOException {
+        final byte[] buffer = new byte[bufferSize];
+        int total = 0;
+        int read;
+        while ((read = in.read(buffer, 0, buffer.length)) != -1) {
+            total += read;
+        }
+        return total;
+    }
+
+    private static void readExactly(final InputStream in, final int count) throws IOException {
+        final byte[] buffer = new byte[count];
+        int offset = 0;
+        while (offset < count) {
+            offset += in.read(buffer, offset, count - offset);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.documentmanagement.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ByteRangeTest {
+
+    private static final long LENGTH = 1000;
+
+    @Test
+    public void shouldResolveAClosedRange() {
+        final ByteRange range = ByteRange.fromHeader("bytes=100-199");
+
+        assertTrue(range.isSatisfiable(LENGTH));
+        assertEquals(100, range.start(LENGTH));
+        assertEquals(199, range.end(LENGTH));
+    }
+
+    @Test
+    public void shouldCutAClosedRangeAtTheEndOfTheFile() {
+        final ByteRange range = ByteRange.fromHeader("bytes=900-1999");
+
+        assertEquals(900, range.start(LENGTH));
+        assertEquals(LENGTH - 1, range.end(LENGTH));
+    }
+
+    @Test
+    public void shouldResolveAnOpenEndedRangeToTheEndOfTheFile() {
+        final ByteRange range = ByteRange.fromHeader("bytes=400-");
+
+        assertTrue(range.isSatisfiable(LENGTH));
+        assertEquals(400, range.start(LENGTH));
+        assertEquals(LENGTH - 1, range.end(LENGTH));
+    }
+
+    @Test
+    public void shouldResolveASuffixRangeToTheLastBytes() {
+        final ByteRange range = ByteRange.fromHeader("bytes=-100");
+
+        assertTrue(range.isSatisfiable(LENGTH));
+        assertEquals(900, range.start(LENGTH));
+        assertEquals(LENGTH - 1, range.end(LENGTH));
+    }
+
+    @Test
+    public void shouldResolveASuffixLongerThanTheFileToTheWholeFile() {
+        final ByteRange range = ByteRange.fromHeader("bytes=-5000");
+
+        assertTrue(range.isSatisfiable(LENGTH));
+        assertEquals(0, range.start(LENGTH));
+        assertEquals(LENGTH - 1, range.end(LENGTH));
+    }
+
+    @Test
+    public void shouldNotSatisfyARangeStartingAtOrBeyondTheEndOfTheFile() {
+        assertFalse(ByteRange.fromHeader("bytes=1000-1100").isSatisfiable(LENGTH));
+        assertFalse(ByteRange.fromHeader("bytes=2000-").isSatisfiable(LENGTH));
+        assertTrue(ByteRange.fromHeader("bytes=999-").isSatisfiable(LENGTH));
+    }
+
+    @Test
+    public void shouldNotSatisfyAnEmptySuffixOrASuffixOfAnEmptyFile() {
+        assertFalse(ByteRange.fromHeader("bytes=-0").isSatisfiable(LENGTH));
+        assertFalse(ByteRange.fromHeader("bytes=-100").isSatisfiable(0));
+    }
+
+    @Test
+    public void shouldSendTheWholeFileForSeveralRanges() {
+        assertNull(ByteRange.fromHeader("bytes=0-99,200-299"));
+        assertNull(ByteRange.fromHeader("bytes=-100, 0-99"));
+    }
+
+    @Test
+    public void shouldSendTheWholeFileForAnAbsentOrMalformedHeader() {
+        assertNull(ByteRange.fromHeader(null));
+        assertNull(ByteRange.fromHeader("items=0-99"));
+        assertNull(ByteRange.fromHeader("bytes=100"));
+        assertNull(ByteRange.fromHeader("bytes=-"));
+        assertNull(ByteRange.fromHeader("bytes=a-b"));
+        assertNull(ByteRange.fromHeader("bytes=200-100"));
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class JobItemPartitionerTest {
+
+    /**
+     * Items are {id, officeId} pairs; an officeId of null means the item is
+     * partitioned by id range.
+     */
+    private final JobPartitionItemProcessor<Long[]> processor = new JobPartitionItemProcessor<Long[]>() {
+
+        @Override
+        public Long identifierOf(final Long[] item) {
+            return item[0];
+        }
+
+        @Override
+        public Long partitionKeyOf(final Long[] item) {
+            return item[1];
+        }
+
+        @Override
+        public void process(@SuppressWarnings("unused") final Long[] item) {
+            // not used
+        }
+
+        @Override
+        public String failureMessage(@SuppressWarnings("unused") final Long[] item, @SuppressWarnings("unused") final Throwable realCause) {
+            return "";
+        }
+    };
+
+    @Test
+    public void shouldSplitItemsWithoutPartitionKeyIntoOrderedIdRanges() {
+        final List<Long[]> items = Arrays.asList(item(5L, null), item(1L, null), item(4L, null), item(2L, null), item(3L, null));
+
+        final List<List<Long[]>> partitions = JobItemPartitioner.partition(items, this.processor, 2);
+
+        assertEquals(3, partitions.size());
+        assertEquals(Long.valueOf(1L), partitions.get(0).get(0)[0]);
+        assertEquals(Long.valueOf(2L), partitions.get(0).get(1)[0]);
+        assertEquals(Long.valueOf(3L), partitions.get(1).get(0)[0]);
+        assertEquals(Long.valueOf(4L), partitions.get(1).get(1)[0]);
+        assertEquals(1, partitions.get(2).size());
+        assertEquals(Long.valueOf(5L), partitions.get(2).get(0)[0]);
+    }
+
+    @Test
+    public void shouldKeepItemsOfTheSamePartitionKeyTogether() {
+        final List<Long[]> items = Arrays.asList(item(1L, 10L), item(2L, 20L), item(3L, 10L), item(4L, 20L), item(5L, 10L));
+
+        final List<List<Long[]>> partitions = JobItemPartitioner.partition(items, this.processor, 100);
+
+        assertEquals(2, partitions.size());
+        assertEquals(3, partitions.get(0).size());
+        for (final Long[] item : partitions.get(0)) {
+            assertEquals(Long.valueOf(10L), item[1]);
+        }
+        assertEquals(2, partitions.get(1).size());
+        for (final Long[] item : partitions.get(1)) {
+            assertEquals(Long.valueOf(20L), item[1]);
+        }
+    }
+
+    @Test
+    public void shouldBoundPartitionKeyGroupsByPartitionSize() {
+        final List<Long[]> items = Arrays.asList(item(1L, 10L), item(2L, 10L), item(3L, 10L));
+
+        final List<List<Long[]>> partitions = JobItemPartitioner.partition(items, this.processor, 2);
+
+        assertEquals(2, partitions.size());
+        assertEquals(2, partitions.get(0).size());
+        assertEquals(1, partitions.get(1).size());
+    }
+
+    private static Long[] item(final Long id, final Long officeId) {
+        return new Long[] { id, officeId };
+    }
+}
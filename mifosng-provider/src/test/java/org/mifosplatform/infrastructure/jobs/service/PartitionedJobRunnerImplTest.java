@@ -0,0 +1,215 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobDetail;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PartitionedJobRunnerImplTest {
+
+    private static final Long JOB_ID = 7L;
+    private static final Long CHECKPOINT_ID = 11L;
+
+    @Mock
+    private SchedularWritePlatformService schedularWritePlatformService;
+    @Mock
+    private JobRunCheckpointService jobRunCheckpointService;
+    @Mock
+    private ScheduledJobDetail jobDetail;
+
+    private PartitionedJobRunnerImpl partitionedJobRunner;
+    private RecordingProcessor processor;
+
+    @Before
+    public void setUp() {
+        Mockito.when(this.jobDetail.getId()).thenReturn(JOB_ID);
+        Mockito.when(this.jobDetail.getPartitionSize()).thenReturn(500);
+        Mockito.when(this.jobDetail.getWorkerCount()).thenReturn(1);
+        Mockito.when(this.schedularWritePlatformService.findByJobName(JobName.POST_INTEREST_FOR_SAVINGS.toString())).thenReturn(
+                this.jobDetail);
+        this.partitionedJobRunner = new PartitionedJobRunnerImpl(this.schedularWritePlatformService, this.jobRunCheckpointService);
+        this.partitionedJobRunner.start();
+        this.processor = new RecordingProcessor();
+    }
+
+    @After
+    public void tearDown() {
+        this.partitionedJobRunner.stop();
+        ThreadLocalContextUtil.clearTenant();
+        // clears the interrupt a test left on the test thread
+        Thread.interrupted();
+    }
+
+    @Test
+    public void shouldCommitTheCheckpointEveryIntervalWithinAPartition() {
+        final int interval = SchedulerServiceConstants.JOB_CHECKPOINT_INTERVAL;
+        final List<Long> items = itemIds(1, 2 * interval + 3);
+        startRun(new HashSet<Long>());
+
+        run(items);
+
+        final List<Collection<Long>> chunks = committedChunks(3);
+        assertEquals(itemIds(1, interval), new ArrayList<>(chunks.get(0)));
+        assertEquals(itemIds(interval + 1, 2 * interval), new ArrayList<>(chunks.get(1)));
+        assertEquals(itemIds(2 * interval + 1, 2 * interval + 3), new ArrayList<>(chunks.get(2)));
+        Mockito.verify(this.jobRunCheckpointService).complete(CHECKPOINT_ID);
+    }
+
+    @Test
+    public void shouldCountFailedItemsInTheChunkTheyFailedIn() {
+        this.processor.failingItemId = 2L;
+        startRun(new HashSet<Long>());
+
+        final String failures = run(itemIds(1, 3));
+
+        assertEquals("failed 2", failures);
+        Mockito.verify(this.jobRunCheckpointService).commitChunk(CHECKPOINT_ID, Arrays.asList(1L, 3L), 1);
+    }
+
+    @Test
+    public void shouldSkipTheItemsOfTheCheckpointWhenResumed() {
+        startRun(new HashSet<>(itemIds(1, 3)));
+
+        run(itemIds(1, 5));
+
+        assertEquals(Arrays.asList(4L, 5L), this.processor.processedItemIds);
+        Mockito.verify(this.jobRunCheckpointService).startOrResume(JOB_ID, 5);
+        Mockito.verify(this.jobRunCheckpointService).commitChunk(CHECKPOINT_ID, Arrays.asList(4L, 5L), 0);
+        Mockito.verify(this.jobRunCheckpointService).complete(CHECKPOINT_ID);
+    }
+
+    @Test
+    public void shouldCheckpointTheProcessedItemsOfAnInterruptedRunWithoutCompletingIt() {
+        this.processor.interruptingItemId = 3L;
+        startRun(new HashSet<Long>());
+
+        run(itemIds(1, 5));
+
+        assertEquals(itemIds(1, 3), this.processor.processedItemIds);
+        Mockito.verify(this.jobRunCheckpointService).commitChunk(CHECKPOINT_ID, itemIds(1, 3), 0);
+        Mockito.verify(this.jobRunCheckpointService, Mockito.never()).complete(Matchers.anyLong());
+    }
+
+    @Test
+    public void shouldProcessEveryPartitionOnceOnWorkersOfTheSharedPoolCarryingTheTenant() {
+        Mockito.when(this.jobDetail.getPartitionSize()).thenReturn(2);
+        Mockito.when(this.jobDetail.getWorkerCount()).thenReturn(3);
+        startRun(new HashSet<Long>());
+        final MifosPlatformTenant tenant = new MifosPlatformTenant(null, "default", "default", null, null);
+        ThreadLocalContextUtil.setTenant(tenant);
+
+        run(itemIds(1, 11));
+        run(itemIds(12, 15));
+
+        assertEquals(itemIds(1, 15), sorted(this.processor.processedItemIds));
+        assertEquals(Collections.singleton(tenant), new HashSet<>(this.processor.tenants));
+        for (final String threadName : this.processor.threadNames) {
+            assertTrue(threadName, threadName.startsWith("job-worker-"));
+        }
+        Mockito.verify(this.jobRunCheckpointService, Mockito.times(2)).complete(CHECKPOINT_ID);
+    }
+
+    @Test
+    public void shouldNotCheckpointAJobWithoutJobDetail() {
+        Mockito.when(this.schedularWritePlatformService.findByJobName(Matchers.anyString())).thenReturn(null);
+
+        run(itemIds(1, 3));
+
+        assertEquals(itemIds(1, 3), this.processor.processedItemIds);
+        Mockito.verifyZeroInteractions(this.jobRunCheckpointService);
+    }
+
+    private void startRun(final HashSet<Long> processedItemIds) {
+        Mockito.when(this.jobRunCheckpointService.startOrResume(Matchers.eq(JOB_ID), Matchers.anyInt())).thenReturn(
+                new JobRunCheckpoint(CHECKPOINT_ID, processedItemIds));
+    }
+
+    private String run(final List<Long> items) {
+        return this.partitionedJobRunner.run(JobName.POST_INTEREST_FOR_SAVINGS, items, this.processor);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private List<Collection<Long>> committedChunks(final int expectedCount) {
+        final ArgumentCaptor<Collection> chunks = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(this.jobRunCheckpointService, Mockito.times(expectedCount)).commitChunk(Matchers.eq(CHECKPOINT_ID),
+                chunks.capture(), Matchers.eq(0));
+        return (List) chunks.getAllValues();
+    }
+
+    private static List<Long> sorted(final List<Long> itemIds) {
+        final List<Long> sortedItemIds = new ArrayList<>(itemIds);
+        Collections.sort(sortedItemIds);
+        return sortedItemIds;
+    }
+
+    private static List<Long> itemIds(final long from, final long to) {
+        final List<Long> itemIds = new ArrayList<>();
+        for (long itemId = from; itemId <= to; itemId++) {
+            itemIds.add(itemId);
+        }
+        return itemIds;
+    }
+
+    /**
+     * Processes items by recording them with the thread and tenant they ran
+     * on, failing or interrupting the running thread at the configured items.
+     */
+    private static final class RecordingProcessor implements JobPartitionItemProcessor<Long> {
+
+        private final List<Long> processedItemIds = Collections.synchronizedList(new ArrayList<Long>());
+        private final List<String> threadNames = Collections.synchronizedList(new ArrayList<String>());
+        private final List<MifosPlatformTenant> tenants = Collections.synchronizedList(new ArrayList<MifosPlatformTenant>());
+        private Long failingItemId;
+        private Long interruptingItemId;
+
+        @Override
+        public Long identifierOf(final Long item) {
+            return item;
+        }
+
+        @Override
+        public Long partitionKeyOf(@SuppressWarnings("unused") final Long item) {
+            return null;
+        }
+
+        @Override
+        public void process(final Long item) {
+            if (item.equals(this.failingItemId)) { throw new IllegalStateException(); }
+            this.processedItemIds.add(item);
+            this.threadNames.add(Thread.currentThread().getName());
+            this.tenants.add(ThreadLocalContextUtil.getTenant());
+            if (item.equals(this.interruptingItemId)) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public String failureMessage(final Long item, @SuppressWarnings("unused") final Throwable realCause) {
+            return "failed " + item;
+        }
+    }
+}
@@ -6,17 +6,19 @@
 package org.mifosplatform.portfolio.loanaccount;
 
 import java.lang.reflect.Field;
-import java.math.RoundingMode;
+import java.math.BigDecimal;
 import java.util.List;
 
 import org.joda.time.LocalDate;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mifosplatform.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
 import org.mifosplatform.organisation.monetary.domain.MoneyHelper;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
 import org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.impl.HeavensFamilyLoanRepaymentScheduleTransactionProcessor;
+import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 
 @SuppressWarnings("unused")
@@ -34,9 +36,11 @@ public class HeavensFamilyLoanRepaymentScheduleTransactionProcessorTest {
     @Before
     public void setUpForEachTestCase() throws Exception {
 
-        Field field = MoneyHelper.class.getDeclaredField("roundingMode");
+        final ConfigurationDomainService configurationDomainService = Mockito.mock(ConfigurationDomainService.class);
+        Mockito.when(configurationDomainService.getRoundingMode()).thenReturn(BigDecimal.ROUND_HALF_EVEN);
+        Field field = MoneyHelper.class.getDeclaredField("staticConfigurationDomainService");
         field.setAccessible(true);
-        field.set(null, RoundingMode.HALF_EVEN);
+        field.set(null, configurationDomainService);
         this.installments = LoanScheduleTestDataHelper.createSimpleLoanSchedule(this.july2nd, this.usDollars);
 
         this.processor = new HeavensFamilyLoanRepaymentScheduleTransactionProcessor();
@@ -0,0 +1,212 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mifosplatform.accounting.journalentry.service.JournalEntryWritePlatformService;
+import org.mifosplatform.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.mifosplatform.infrastructure.core.data.ApiParameterError;
+import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.mifosplatform.organisation.holiday.domain.HolidayRepository;
+import org.mifosplatform.organisation.monetary.domain.ApplicationCurrencyRepositoryWrapper;
+import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
+import org.mifosplatform.organisation.monetary.domain.MoneyHelper;
+import org.mifosplatform.organisation.workingdays.domain.WorkingDaysRepositoryWrapper;
+import org.mifosplatform.portfolio.account.domain.AccountTransferRepository;
+import org.mifosplatform.portfolio.account.domain.StandingInstructionRepository;
+import org.mifosplatform.portfolio.collectionsheet.command.SingleRepaymentCommand;
+import org.mifosplatform.portfolio.common.BusinessEventNotificationConstants.BUSINESS_ENTITY;
+import org.mifosplatform.portfolio.common.BusinessEventNotificationConstants.BUSINESS_EVENTS;
+import org.mifosplatform.portfolio.common.service.BusinessEventNotifierService;
+import org.mifosplatform.portfolio.loanaccount.data.ScheduleGeneratorDTO;
+import org.mifosplatform.portfolio.loanaccount.exception.InvalidLoanStateTransitionException;
+import org.mifosplatform.portfolio.loanaccount.service.LoanAccrualPlatformService;
+import org.mifosplatform.portfolio.loanaccount.service.LoanAssembler;
+import org.mifosplatform.portfolio.loanaccount.service.LoanSuspendAccruedIncomeWritePlatformService;
+import org.mifosplatform.portfolio.loanaccount.service.LoanUtilService;
+import org.mifosplatform.portfolio.loanproduct.domain.LoanProductRelatedDetail;
+import org.mifosplatform.portfolio.note.domain.NoteRepository;
+import org.mifosplatform.useradministration.domain.AppUser;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * A collection sheet is posted as a whole: when a repayment of the sheet is
+ * rejected nothing of the sheet is written, and the rejections of all loans
+ * are reported together. A loan may be repaid only once per sheet.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LoanAccountDomainServiceJpaBulkRepaymentTest {
+
+    private static final LocalDate transactionDate = new LocalDate(2014, 2, 1);
+
+    @Mock
+    private LoanAssembler loanAssembler;
+    @Mock
+    private LoanRepository loanRepository;
+    @Mock
+    private LoanTransactionRepository loanTransactionRepository;
+    @Mock
+    private NoteRepository noteRepository;
+    @Mock
+    private ConfigurationDomainService configurationDomainService;
+    @Mock
+    private HolidayRepository holidayRepository;
+    @Mock
+    private WorkingDaysRepositoryWrapper workingDaysRepository;
+    @Mock
+    private ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository;
+    @Mock
+    private JournalEntryWritePlatformService journalEntryWritePlatformService;
+    @Mock
+    private AccountTransferRepository accountTransferRepository;
+    @Mock
+    private LoanRepaymentScheduleInstallmentRepository repaymentScheduleInstallmentRepository;
+    @Mock
+    private LoanAccrualPlatformService loanAccrualPlatformService;
+    @Mock
+    private PlatformSecurityContext context;
+    @Mock
+    private BusinessEventNotifierService businessEventNotifierService;
+    @Mock
+    private LoanUtilService loanUtilService;
+    @Mock
+    private StandingInstructionRepository standingInstructionRepository;
+    @Mock
+    private LoanSuspendAccruedIncomeWritePlatformService loanSuspendAccruedIncomeWritePlatformService;
+
+    private LoanAccountDomainServiceJpa loanAccountDomainService;
+
+    @Before
+    public void setUpForEachTestCase() throws Exception {
+        Mockito.when(this.configurationDomainService.getRoundingMode()).thenReturn(BigDecimal.ROUND_HALF_EVEN);
+        final Field field = MoneyHelper.class.getDeclaredField("staticConfigurationDomainService");
+        field.setAccessible(true);
+        field.set(null, this.configurationDomainService);
+
+        this.loanAccountDomainService = new LoanAccountDomainServiceJpa(this.loanAssembler, this.loanRepository,
+                this.loanTransactionRepository, this.noteRepository, this.configurationDomainService, this.holidayRepository,
+                this.workingDaysRepository, this.applicationCurrencyRepository, this.journalEntryWritePlatformService,
+                this.accountTransferRepository, this.applicationCurrencyRepository, this.repaymentScheduleInstallmentRepository,
+                this.loanAccrualPlatformService, this.context, this.businessEventNotifierService, this.loanUtilService,
+                this.standingInstructionRepository, this.loanSuspendAccruedIncomeWritePlatformService);
+    }
+
+    @Test
+    public void oneRejectedRepaymentRejectsTheWholeSheet() {
+        final Loan repayableLoan = loan(1L);
+        final Loan closedLoan = loan(2L);
+        rejectRepaymentsOf(closedLoan);
+        loansFound(repayableLoan, closedLoan);
+
+        final List<ApiParameterError> errors = makeBulkRepaymentRejected(1L, 2L);
+
+        assertEquals(1, errors.size());
+        assertEquals(Long.valueOf(2L), errors.get(0).getValue());
+        assertNothingWritten();
+    }
+
+    @Test
+    public void rejectionsOfAllLoansAreReported() {
+        final Loan repayableLoan = loan(1L);
+        final Loan closedLoan = loan(2L);
+        final Loan otherClosedLoan = loan(4L);
+        rejectRepaymentsOf(closedLoan);
+        rejectRepaymentsOf(otherClosedLoan);
+        // there is no loan 3
+        loansFound(repayableLoan, closedLoan, otherClosedLoan);
+
+        final List<ApiParameterError> errors = makeBulkRepaymentRejected(1L, 2L, 3L, 4L);
+
+        assertEquals(3, errors.size());
+        final List<Object> rejectedLoanIds = new ArrayList<>();
+        for (final ApiParameterError error : errors) {
+            assertEquals("bulkRepaymentTransactions", error.getParameterName());
+            rejectedLoanIds.add(error.getValue());
+        }
+        assertEquals(Arrays.<Object> asList(2L, 3L, 4L), rejectedLoanIds);
+        assertNothingWritten();
+    }
+
+    @Test
+    public void aLoanRepaidTwiceRejectsTheWholeSheet() {
+        final Loan repaidTwice = loan(1L);
+        final Loan repayableLoan = loan(2L);
+        loansFound(repaidTwice, repayableLoan);
+
+        final List<ApiParameterError> errors = makeBulkRepaymentRejected(1L, 2L, 1L);
+
+        assertEquals(1, errors.size());
+        assertEquals("bulkRepaymentTransactions", errors.get(0).getParameterName());
+        assertEquals("error.msg.collectionsheet.loan.repaid.more.than.once", errors.get(0).getUserMessageGlobalisationCode());
+        assertEquals(Long.valueOf(1L), errors.get(0).getValue());
+        Mockito.verify(repaidTwice, Mockito.times(1)).makeRepayment(Matchers.any(LoanTransaction.class),
+                Matchers.any(LoanLifecycleStateMachine.class), Matchers.anyListOf(Long.class), Matchers.anyListOf(Long.class),
+                Matchers.anyBoolean(), Matchers.any(ScheduleGeneratorDTO.class), Matchers.any(AppUser.class), Matchers.anyBoolean());
+        assertNothingWritten();
+    }
+
+    private List<ApiParameterError> makeBulkRepaymentRejected(final Long... loanIds) {
+        final List<SingleRepaymentCommand> repayments = new ArrayList<>();
+        for (final Long loanId : loanIds) {
+            repayments.add(new SingleRepaymentCommand(loanId, BigDecimal.valueOf(100), transactionDate, null));
+        }
+        try {
+            this.loanAccountDomainService.makeBulkRepayment(repayments, transactionDate, "collected", null, Boolean.TRUE);
+            fail("the sheet was accepted");
+            return null;
+        } catch (final PlatformApiDataValidationException e) {
+            return e.getErrors();
+        }
+    }
+
+    private void assertNothingWritten() {
+        Mockito.verify(this.loanRepository, Mockito.never()).save(Matchers.any(Loan.class));
+        Mockito.verify(this.loanRepository, Mockito.never()).saveAndFlush(Matchers.any(Loan.class));
+        Mockito.verify(this.loanRepository, Mockito.never()).flush();
+        Mockito.verifyZeroInteractions(this.loanTransactionRepository, this.repaymentScheduleInstallmentRepository, this.noteRepository,
+                this.journalEntryWritePlatformService, this.loanAccrualPlatformService, this.loanSuspendAccruedIncomeWritePlatformService);
+        Mockito.verify(this.businessEventNotifierService, Mockito.never()).notifyBusinessEventWasExecuted(
+                Matchers.any(BUSINESS_EVENTS.class), Matchers.anyMapOf(BUSINESS_ENTITY.class, Object.class));
+    }
+
+    private void loansFound(final Loan... loans) {
+        Mockito.when(this.loanRepository.findAllWithFetchPlan(Matchers.anyCollectionOf(Long.class), Matchers.eq(LoanFetchPlan.REPAYMENT)))
+                .thenReturn(Arrays.asList(loans));
+    }
+
+    private static Loan loan(final Long id) {
+        final Loan loan = Mockito.mock(Loan.class);
+        Mockito.when(loan.getId()).thenReturn(id);
+        Mockito.when(loan.getCurrency()).thenReturn(new MonetaryCurrency("USD", 2, null));
+        Mockito.when(loan.repaymentScheduleDetail()).thenReturn(Mockito.mock(LoanProductRelatedDetail.class));
+        return loan;
+    }
+
+    private static void rejectRepaymentsOf(final Loan loan) {
+        final InvalidLoanStateTransitionException rejection = new InvalidLoanStateTransitionException("repayment", "account.is.closed",
+                "Loan " + loan.getId() + " is closed");
+        Mockito.when(
+                loan.makeRepayment(Matchers.any(LoanTransaction.class), Matchers.any(LoanLifecycleStateMachine.class),
+                        Matchers.anyListOf(Long.class), Matchers.anyListOf(Long.class), Matchers.anyBoolean(),
+                        Matchers.any(ScheduleGeneratorDTO.class), Matchers.any(AppUser.class), Matchers.anyBoolean())).thenThrow(rejection);
+    }
+}
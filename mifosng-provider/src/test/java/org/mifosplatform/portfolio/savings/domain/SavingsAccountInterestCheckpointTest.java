@@ -0,0 +1,209 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.savings.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
+import org.mifosplatform.organisation.monetary.domain.Money;
+import org.mifosplatform.organisation.monetary.domain.MoneyHelper;
+import org.mifosplatform.organisation.office.domain.Office;
+import org.mifosplatform.portfolio.account.service.AccountTransfersReadPlatformService;
+import org.mifosplatform.portfolio.accountdetails.domain.AccountType;
+import org.mifosplatform.portfolio.client.domain.Client;
+import org.mifosplatform.portfolio.savings.DepositAccountType;
+import org.mifosplatform.portfolio.savings.SavingsCompoundingInterestPeriodType;
+import org.mifosplatform.portfolio.savings.SavingsInterestCalculationDaysInYearType;
+import org.mifosplatform.portfolio.savings.SavingsInterestCalculationType;
+import org.mifosplatform.portfolio.savings.SavingsPostingInterestPeriodType;
+import org.mifosplatform.portfolio.savings.domain.interest.PostingPeriod;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.springframework.beans.BeanUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Guards that interest calculated from the {@link SavingsAccountInterestCheckpoint}
+ * of a savings account is the interest a calculation over the entire history
+ * of the account comes to.
+ */
+public class SavingsAccountInterestCheckpointTest {
+
+    private static final LocalDate activationDate = new LocalDate(2014, 1, 1);
+    private static final LocalDate checkpointDate = new LocalDate(2014, 3, 31);
+    private static final LocalDate calculationDate = new LocalDate(2014, 6, 30);
+
+    private final MonetaryCurrency usDollars = new MonetaryCurrency("USD", 2, null);
+    private final Office office = Mockito.mock(Office.class);
+    private final MathContext mc = new MathContext(15, RoundingMode.HALF_EVEN);
+
+    private SavingsAccount account;
+    private SavingsAccountTransaction withdrawalBeforeCheckpoint;
+
+    @Before
+    public void setUpForEachTestCase() throws Exception {
+        final ConfigurationDomainService configurationDomainService = Mockito.mock(ConfigurationDomainService.class);
+        Mockito.when(configurationDomainService.getRoundingMode()).thenReturn(BigDecimal.ROUND_HALF_EVEN);
+        final Field field = MoneyHelper.class.getDeclaredField("staticConfigurationDomainService");
+        field.setAccessible(true);
+        field.set(null, configurationDomainService);
+
+        this.account = activeSavingsAccount();
+        deposit(activationDate, "1000");
+        deposit(new LocalDate(2014, 2, 10), "500");
+        this.withdrawalBeforeCheckpoint = withdraw(new LocalDate(2014, 3, 15), "200");
+
+        // posts January to March and takes the checkpoint at the end of March
+        this.account.postInterest(this.mc, checkpointDate.plusDays(1), false, false, 1, null);
+        assertNotNull(this.account.interestCheckpoint);
+        assertEquals(checkpointDate, this.account.interestCheckpoint.getCheckpointDate());
+    }
+
+    @Test
+    public void interestFromTheCheckpointEqualsAFullRecalculation() {
+        deposit(new LocalDate(2014, 4, 20), "300");
+        withdraw(new LocalDate(2014, 5, 5), "100");
+
+        final List<PostingPeriod> fromCheckpoint = calculateInterest();
+
+        assertEquals(checkpointDate.plusDays(1), fromCheckpoint.get(0).periodInterval().startDate());
+        assertSameAsFullRecalculation(fromCheckpoint);
+    }
+
+    @Test
+    public void reversalAfterTheCheckpointKeepsTheCheckpointAndEqualsAFullRecalculation() {
+        deposit(new LocalDate(2014, 4, 20), "300").reverse();
+        deposit(new LocalDate(2014, 5, 5), "50");
+
+        final List<PostingPeriod> fromCheckpoint = calculateInterest();
+
+        assertEquals(checkpointDate.plusDays(1), fromCheckpoint.get(0).periodInterval().startDate());
+        assertSameAsFullRecalculation(fromCheckpoint);
+    }
+
+    @Test
+    public void backDatedTransactionFallsBackToAFullRecalculation() {
+        deposit(new LocalDate(2014, 2, 20), "400");
+
+        final List<PostingPeriod> periods = calculateInterest();
+
+        assertEquals(activationDate, periods.get(0).periodInterval().startDate());
+        assertSameAsFullRecalculation(periods);
+    }
+
+    @Test
+    public void reversalBeforeTheCheckpointFallsBackToAFullRecalculation() {
+        this.withdrawalBeforeCheckpoint.reverse();
+
+        final List<PostingPeriod> periods = calculateInterest();
+
+        assertEquals(activationDate, periods.get(0).periodInterval().startDate());
+        assertSameAsFullRecalculation(periods);
+    }
+
+    @Test
+    public void postingFromTheCheckpointEarnsTheInterestOfAFullRecalculation() {
+        deposit(new LocalDate(2014, 4, 20), "300");
+
+        this.account.postInterest(this.mc, calculationDate.plusDays(1), false, false, 1, null);
+        assertEquals(calculationDate, this.account.interestCheckpoint.getCheckpointDate());
+        final Money interestEarned = this.account.getSummary().getTotalInterestEarned(this.usDollars);
+
+        this.account.interestCheckpoint = null;
+        calculateInterest();
+
+        assertSameAmount("total interest earned", interestEarned, this.account.getSummary().getTotalInterestEarned(this.usDollars));
+    }
+
+    /**
+     * Drops the checkpoint, recalculates the interest from activation and
+     * compares it with the posting periods calculated before.
+     */
+    private void assertSameAsFullRecalculation(final List<PostingPeriod> periods) {
+        final Money interestEarned = this.account.getSummary().getTotalInterestEarned(this.usDollars);
+
+        this.account.interestCheckpoint = null;
+        final List<PostingPeriod> fromActivation = calculateInterest();
+
+        assertSameAmount("total interest earned", interestEarned, this.account.getSummary().getTotalInterestEarned(this.usDollars));
+        assertTrue(fromActivation.size() >= periods.size());
+        final List<PostingPeriod> lastPeriods = fromActivation.subList(fromActivation.size() - periods.size(), fromActivation.size());
+        for (int i = 0; i < periods.size(); i++) {
+            final PostingPeriod expected = lastPeriods.get(i);
+            final PostingPeriod actual = periods.get(i);
+            final String period = expected.periodInterval().toString();
+            assertEquals(expected.periodInterval().startDate(), actual.periodInterval().startDate());
+            assertEquals(expected.periodInterval().endDate(), actual.periodInterval().endDate());
+            assertSameAmount(period + " opening balance", expected.openingBalance(), actual.openingBalance());
+            assertSameAmount(period + " closing balance", expected.closingBalance(), actual.closingBalance());
+            assertSameAmount(period + " interest", expected.interest(), actual.interest());
+        }
+    }
+
+    private static void assertSameAmount(final String message, final Money expected, final Money actual) {
+        assertTrue(message + " expected " + expected + " but was " + actual, expected.isEqualTo(actual));
+    }
+
+    private List<PostingPeriod> calculateInterest() {
+        return this.account.calculateInterestUsing(this.mc, calculationDate, false, false, 1, null);
+    }
+
+    private SavingsAccountTransaction deposit(final LocalDate date, final String amount) {
+        final SavingsAccountTransaction transaction = SavingsAccountTransaction.deposit(this.account, this.office, null, date,
+                Money.of(this.usDollars, new BigDecimal(amount)), new Date(), null, false);
+        this.account.transactions.add(transaction);
+        return transaction;
+    }
+
+    private SavingsAccountTransaction withdraw(final LocalDate date, final String amount) {
+        final SavingsAccountTransaction transaction = SavingsAccountTransaction.withdrawal(this.account, this.office, null, date,
+                Money.of(this.usDollars, new BigDecimal(amount)), new Date(), null);
+        this.account.transactions.add(transaction);
+        return transaction;
+    }
+
+    /**
+     * An active savings account of a client earning 5% a year, compounded
+     * daily on the daily balance and posted monthly.
+     */
+    private SavingsAccount activeSavingsAccount() {
+        final SavingsProduct product = Mockito.mock(SavingsProduct.class);
+        Mockito.when(product.currency()).thenReturn(this.usDollars);
+        Mockito.when(product.minBalanceForInterestCalculation()).thenReturn(BigDecimal.ZERO);
+
+        final Client client = BeanUtils.instantiateClass(Client.class);
+        ReflectionTestUtils.setField(client, "office", this.office);
+
+        final SavingsAccount savingsAccount = SavingsAccount.createNewApplicationForSubmittal(client, null, product, null, "000000001",
+                null, AccountType.INDIVIDUAL, activationDate, null, BigDecimal.valueOf(5), SavingsCompoundingInterestPeriodType.DAILY,
+                SavingsPostingInterestPeriodType.MONTHLY, SavingsInterestCalculationType.DAILY_BALANCE,
+                SavingsInterestCalculationDaysInYearType.DAYS_365, null, null, null, false, null, false, null, false, null, null, null);
+        savingsAccount.status = SavingsAccountStatusType.ACTIVE.getValue();
+        savingsAccount.activatedOnDate = activationDate.toDate();
+        ReflectionTestUtils.setField(savingsAccount, "depositType", DepositAccountType.SAVINGS_DEPOSIT.getValue());
+
+        final AccountTransfersReadPlatformService accountTransfersReadPlatformService = Mockito
+                .mock(AccountTransfersReadPlatformService.class);
+        Mockito.when(accountTransfersReadPlatformService.fetchPostInterestTransactionIds(Matchers.anyLong())).thenReturn(
+                Collections.<Long> emptyList());
+        savingsAccount.setHelpers(new SavingsAccountTransactionSummaryWrapper(), new SavingsHelper(accountTransfersReadPlatformService));
+        return savingsAccount;
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class SearchIndexAnalyzerTest {
+
+    @Test
+    public void wordsAreLowerCasedRunsOfLettersAndDigits() {
+        assertEquals(Arrays.asList("o", "brien", "mary", "ann", "0712", "345"), SearchIndexAnalyzer.words("O'Brien, Mary-Ann 0712/345"));
+        assertTrue(SearchIndexAnalyzer.words(null).isEmpty());
+    }
+
+    @Test
+    public void accountNumbersAreAlsoSearchedWithoutLeadingZeros() {
+        final Set<String> searchWords = SearchIndexAnalyzer.searchWords("000001234");
+        assertTrue(searchWords.contains("000001234"));
+        assertTrue(searchWords.contains("1234"));
+        // too short to be found in the full-text index
+        assertEquals(1, SearchIndexAnalyzer.searchWords("000012").size());
+    }
+
+    @Test
+    public void namesSpeltDifferentlySoundAlike() {
+        final Set<String> smith = SearchIndexAnalyzer.phoneticCodes("smith");
+        final Set<String> smyth = SearchIndexAnalyzer.phoneticCodes("smyth");
+        assertEquals(smith, smyth);
+        for (final String code : smith) {
+            assertTrue(code, code.startsWith("ph") && code.length() >= SearchIndexAnalyzer.MIN_WORD_LENGTH);
+        }
+        assertTrue(SearchIndexAnalyzer.phoneticCodes("1234").isEmpty());
+    }
+
+    @Test
+    public void trigramsArePrefixedToReachTheMinimumWordLength() {
+        assertEquals(Arrays.asList("tjoh", "toha", "tham", "tamm", "tmma"), Arrays.asList(SearchIndexAnalyzer.trigrams("johamma").toArray()));
+        assertTrue(SearchIndexAnalyzer.trigrams("jo").isEmpty());
+    }
+
+    @Test
+    public void nearMatchAllowsOneTypoInShortWordsAndTwoInLongerOnes() {
+        assertTrue(SearchIndexAnalyzer.isNearMatch(SearchIndexAnalyzer.words("smyth"), "John Smith"));
+        assertTrue(SearchIndexAnalyzer.isNearMatch(SearchIndexAnalyzer.words("jonh smiht"), "John Smith"));
+        assertTrue(SearchIndexAnalyzer.isNearMatch(SearchIndexAnalyzer.words("pettersun"), "Anna Petersen"));
+        assertFalse(SearchIndexAnalyzer.isNearMatch(SearchIndexAnalyzer.words("smoot"), "John Smith"));
+        assertFalse(SearchIndexAnalyzer.isNearMatch(SearchIndexAnalyzer.words("john xavier"), "John Smith"));
+    }
+
+    @Test
+    public void nearMatchIgnoresWordsTooShortForTheIndex() {
+        assertTrue(SearchIndexAnalyzer.isNearMatch(SearchIndexAnalyzer.words("j smith"), "John Smith"));
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+import org.junit.Test;
+import org.mifosplatform.infrastructure.security.service.TenantDetailsService;
+import org.mifosplatform.portfolio.search.data.SearchIndexDocument;
+import org.mifosplatform.portfolio.search.domain.SearchIndexEntityType;
+import org.mifosplatform.portfolio.search.service.SearchIndexQueue.QueuedEntity;
+
+public class SearchIndexUpdaterTest {
+
+    private final SearchIndexQueue searchIndexQueue = mock(SearchIndexQueue.class);
+    private final SearchIndexDocumentLoader searchIndexDocumentLoader = mock(SearchIndexDocumentLoader.class);
+    private final SearchIndex searchIndex = mock(SearchIndex.class);
+
+    private final SearchIndexUpdater searchIndexUpdater = new SearchIndexUpdater(this.searchIndexQueue, this.searchIndexDocumentLoader,
+            this.searchIndex, mock(TenantDetailsService.class));
+
+    @Test
+    public void batchSavesLoadedDocumentsAndRemovesDeletedEntities() {
+        when(this.searchIndexQueue.retrieveOldest(anyInt())).thenReturn(
+                Arrays.asList(new QueuedEntity(1L, SearchIndexEntityType.CLIENT, 10L), new QueuedEntity(2L, SearchIndexEntityType.CLIENT, 11L),
+                        new QueuedEntity(3L, SearchIndexEntityType.CLIENT, 10L)));
+        final SearchIndexDocument client = SearchIndexDocument.instance(SearchIndexEntityType.CLIENT, 10L, ".1.", "John Smith", "000000010");
+        when(this.searchIndexDocumentLoader.load(SearchIndexEntityType.CLIENT, new LinkedHashSet<>(Arrays.asList(10L, 11L)))).thenReturn(
+                Arrays.asList(client));
+
+        assertEquals(3, this.searchIndexUpdater.updateBatch());
+
+        verify(this.searchIndex).save(Arrays.asList(client));
+        verify(this.searchIndex).remove(SearchIndexEntityType.CLIENT, new LinkedHashSet<>(Arrays.asList(11L)));
+        verify(this.searchIndexQueue).delete(Arrays.asList(1L, 2L, 3L));
+    }
+
+    @Test
+    public void batchOnlyTouchesTheQueuedEntityTypes() {
+        when(this.searchIndexQueue.retrieveOldest(anyInt())).thenReturn(
+                Arrays.asList(new QueuedEntity(1L, SearchIndexEntityType.LOAN, 20L), new QueuedEntity(2L, null, 21L)));
+        when(this.searchIndexDocumentLoader.load(eq(SearchIndexEntityType.LOAN), anyCollectionOf(Long.class))).thenReturn(
+                new ArrayList<SearchIndexDocument>());
+
+        assertEquals(2, this.searchIndexUpdater.updateBatch());
+
+        verify(this.searchIndexDocumentLoader).load(SearchIndexEntityType.LOAN, new LinkedHashSet<>(Arrays.asList(20L)));
+        verify(this.searchIndex, never()).remove(eq(SearchIndexEntityType.CLIENT), anyCollectionOf(Long.class));
+        verify(this.searchIndex).remove(SearchIndexEntityType.LOAN, new LinkedHashSet<>(Arrays.asList(20L)));
+        // entries of entity types no longer indexed are dropped
+        verify(this.searchIndexQueue).delete(Arrays.asList(1L, 2L));
+    }
+
+    @Test
+    public void emptyQueueIsLeftAlone() {
+        when(this.searchIndexQueue.retrieveOldest(anyInt())).thenReturn(Collections.<QueuedEntity> emptyList());
+
+        assertEquals(0, this.searchIndexUpdater.updateBatch());
+
+        verifyZeroInteractions(this.searchIndexDocumentLoader, this.searchIndex);
+        verify(this.searchIndexQueue, never()).delete(anyCollectionOf(Long.class));
+    }
+}
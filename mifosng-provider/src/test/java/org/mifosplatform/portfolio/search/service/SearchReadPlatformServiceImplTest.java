@@ -0,0 +1,142 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.mifosplatform.organisation.office.domain.Office;
+import org.mifosplatform.organisation.office.service.OfficeReadPlatformService;
+import org.mifosplatform.portfolio.loanproduct.service.LoanProductReadPlatformService;
+import org.mifosplatform.portfolio.search.data.SearchConditions;
+import org.mifosplatform.portfolio.search.data.SearchData;
+import org.mifosplatform.portfolio.search.data.SearchIndexHit;
+import org.mifosplatform.portfolio.search.domain.SearchIndexEntityType;
+import org.mifosplatform.portfolio.search.service.SearchReadPlatformServiceImpl.SearchMapper;
+import org.mifosplatform.useradministration.domain.AppUser;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Guards that the queries reading the entities found in the search index only
+ * search the entity types with hits, so that every named parameter is bound.
+ */
+public class SearchReadPlatformServiceImplTest {
+
+    private final SearchIndex searchIndex = mock(SearchIndex.class);
+    private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+
+    private SearchReadPlatformServiceImpl searchReadPlatformService;
+
+    @Before
+    public void setUp() {
+        final Office office = mock(Office.class);
+        when(office.getHierarchy()).thenReturn(".1.");
+        final AppUser user = mock(AppUser.class);
+        when(user.getOffice()).thenReturn(office);
+        final PlatformSecurityContext context = mock(PlatformSecurityContext.class);
+        when(context.authenticatedUser()).thenReturn(user);
+        final ConfigurationDomainService configurationDomainService = mock(ConfigurationDomainService.class);
+        when(configurationDomainService.isSearchIndexEnabled()).thenReturn(true);
+
+        this.searchReadPlatformService = new SearchReadPlatformServiceImpl(context, mock(RoutingDataSource.class),
+                mock(LoanProductReadPlatformService.class), mock(OfficeReadPlatformService.class), configurationDomainService,
+                this.searchIndex, mock(SearchIndexQueue.class));
+        ReflectionTestUtils.setField(this.searchReadPlatformService, "namedParameterjdbcTemplate", this.jdbcTemplate);
+    }
+
+    @Test
+    public void searchedEntityTypesFollowTheSearchConditions() {
+        assertEquals(EnumSet.of(SearchIndexEntityType.CLIENT, SearchIndexEntityType.LOAN),
+                SearchReadPlatformServiceImpl.searchedEntityTypes(conditions("clients,loans")));
+        assertEquals(EnumSet.allOf(SearchIndexEntityType.class), SearchReadPlatformServiceImpl.searchedEntityTypes(conditions(null)));
+    }
+
+    @Test
+    public void indexedSchemaOnlySearchesTheEntityTypesWithHits() {
+        final String sql = new SearchMapper().searchSchema(conditions(null), EnumSet.of(SearchIndexEntityType.CLIENT));
+
+        assertTrue(sql.contains("c.id in (:CLIENT)"));
+        assertFalse(sql.contains(":LOAN"));
+        assertFalse(sql.contains(":SAVING"));
+        assertFalse(sql.contains(":CLIENTIDENTIFIER"));
+        assertFalse(sql.contains(":GROUP"));
+        assertFalse(sql.contains(":search"));
+        assertFalse(sql.trim().endsWith("union"));
+    }
+
+    @Test
+    public void likeSchemaSearchesEveryRequestedEntityType() {
+        final String sql = new SearchMapper().searchSchema(conditions("clients,groups"), null);
+
+        assertTrue(sql.contains("c.display_name like :search"));
+        assertTrue(sql.contains("g.display_name like :search"));
+        assertFalse(sql.contains("l.account_no like :search"));
+        assertFalse(sql.contains(" in (:"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void searchWithHitsForSomeEntityTypesBindsEveryParameter() {
+        when(this.searchIndex.search(eq("smith"), eq(".1."), any(Collection.class), anyInt())).thenReturn(
+                Arrays.asList(new SearchIndexHit(SearchIndexEntityType.CLIENT, 5L), new SearchIndexHit(SearchIndexEntityType.GROUP, 3L),
+                        new SearchIndexHit(SearchIndexEntityType.CLIENT, 7L)));
+        when(this.jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(SearchMapper.class))).thenReturn(
+                new ArrayList<SearchData>());
+
+        this.searchReadPlatformService.retriveMatchingData(conditions(null));
+
+        final ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        final ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(this.jdbcTemplate).query(sql.capture(), params.capture(), any(SearchMapper.class));
+
+        assertFalse(sql.getValue().contains(":LOAN"));
+        assertFalse(sql.getValue().contains(":SAVING"));
+        assertFalse(sql.getValue().contains(":CLIENTIDENTIFIER"));
+        assertEquals(Arrays.asList(5L, 7L), params.getValue().getValue("CLIENT"));
+        assertEquals(Arrays.asList(3L), params.getValue().getValue("GROUP"));
+        // throws for any named parameter of the query without a value
+        NamedParameterUtils.buildValueArray(NamedParameterUtils.parseSqlStatement(sql.getValue()), params.getValue(), null);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void searchWithoutHitsDoesNotQuery() {
+        when(this.searchIndex.search(anyString(), anyString(), any(Collection.class), anyInt())).thenReturn(
+                new ArrayList<SearchIndexHit>());
+
+        assertTrue(this.searchReadPlatformService.retriveMatchingData(conditions(null)).isEmpty());
+        verify(this.jdbcTemplate, never()).query(anyString(), any(SqlParameterSource.class), any(RowMapper.class));
+    }
+
+    private static SearchConditions conditions(final String resource) {
+        return new SearchConditions("smith", resource, Boolean.FALSE, null);
+    }
+}
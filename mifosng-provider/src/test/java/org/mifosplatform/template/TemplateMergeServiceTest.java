@@ -11,7 +11,7 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Type;
-import java.math.RoundingMode;
+import java.math.BigDecimal;
 import java.net.MalformedURLException;
 import java.text.ParseException;
 import java.util.ArrayList;
@@ -22,6 +22,7 @@ import java.util.Map;
 import org.joda.time.LocalDate;
 import org.junit.Before;
 import org.junit.Test;
+import org.mifosplatform.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
 import org.mifosplatform.organisation.monetary.domain.MoneyHelper;
 import org.mifosplatform.portfolio.loanaccount.LoanScheduleTestDataHelper;
@@ -30,6 +31,7 @@ import org.mifosplatform.portfolio.loanaccount.domain.LoanRepaymentScheduleInsta
 import org.mifosplatform.template.domain.Template;
 import org.mifosplatform.template.domain.TemplateMapper;
 import org.mifosplatform.template.service.TemplateMergeService;
+import org.mockito.Mockito;
 
 import com.google.common.base.Charsets;
 import com.google.common.io.Resources;
@@ -45,9 +47,11 @@ public class TemplateMergeServiceTest {
     @Before
     public void setUpForEachTestCase() throws Exception {
 
-        Field field = MoneyHelper.class.getDeclaredField("roundingMode");
+        final ConfigurationDomainService configurationDomainService = Mockito.mock(ConfigurationDomainService.class);
+        Mockito.when(configurationDomainService.getRoundingMode()).thenReturn(BigDecimal.ROUND_HALF_EVEN);
+        Field field = MoneyHelper.class.getDeclaredField("staticConfigurationDomainService");
         field.setAccessible(true);
-        field.set(null, RoundingMode.HALF_EVEN);
+        field.set(null, configurationDomainService);
     }
 
     